@@ -0,0 +1,256 @@
+package com.spaceproject.ai;
+
+import com.badlogic.gdx.math.Vector2;
+import com.spaceproject.components.AIComponent.State;
+import com.spaceproject.math.MyMath;
+import com.spaceproject.systems.Box2DPhysicsSystem;
+import com.spaceproject.utility.Steering;
+
+/**
+ * Default behavior tree for AI agents. AIComponent.State is the goal set from outside
+ * (spawner, being attacked...), each state has a branch that works towards it:
+ * <pre>
+ * selector
+ *   attack:        has target ? (on foot ? enter vehicle : attack target) : wander
+ *   wander:        wander
+ *   landOnPlanet:  landed ? idle : (on foot ? enter vehicle : arrive at planet)
+ *   follow:        on foot ? enter vehicle : follow player
+ *   takeOffPlanet: on foot ? enter vehicle : take off
+ *   idle
+ * </pre>
+ * Ships steer with blended seek/arrive, separation from nearby ships and avoidance of planets.
+ * Nodes only read the snapshot and write the command in AIContext (see AISystem), so the tree can be
+ * ticked for several agents at once from different threads.
+ */
+public class AIBehaviors {
+    
+    //steering
+    private final float maxAcceleration = 200f;
+    private final float separationRadius = 60f;
+    private final float separationWeight = 1.5f;
+    private final float avoidLookAhead = 1.5f;
+    private final float avoidMargin = 100f;
+    private final float avoidWeight = 2f;
+    
+    //arrive
+    private final float arrivalRadius = 50f; //radius for arriving at the target
+    private final float slowRadius = 500f; //slow down when within this radius of target
+    private final float timeToTarget = 0.1f; //time over which to achieve target speed
+    
+    private final float enterVehicleDistance = 5f;
+    
+    private final BehaviorNode root;
+    
+    public AIBehaviors() {
+        BehaviorNode enterVehicle = new Sequence(new OnFoot(), new EnterVehicle());
+        root = new Selector(
+                new Sequence(new InState(State.attack), new Selector(
+                        new Sequence(new HasAttackTarget(), new Selector(enterVehicle, new AttackTarget())),
+                        new SetState(State.wander, "attack target lost"))),
+                new Sequence(new InState(State.wander), new Wander()),
+                new Sequence(new InState(State.landOnPlanet), new Selector(
+                        new Landed(),
+                        enterVehicle,
+                        new ArrivePlanet())),
+                new Sequence(new InState(State.follow), new Selector(enterVehicle, new FollowPlayer())),
+                new Sequence(new InState(State.takeOffPlanet), new Selector(enterVehicle, new TakeOff())),
+                new Idle());
+    }
+    
+    public BehaviorNode getRoot() {
+        return root;
+    }
+    
+    /** neighbors within this radius are captured for separation */
+    public float getSeparationRadius() {
+        return separationRadius;
+    }
+    
+    public float getEnterVehicleDistance() {
+        return enterVehicleDistance;
+    }
+    
+    //region conditions
+    private static class InState extends BehaviorNode {
+        private final State state;
+        
+        InState(State state) {
+            this.state = state;
+        }
+        
+        @Override
+        public Status tick(AIContext context) {
+            return context.state == state ? Status.success : Status.failure;
+        }
+    }
+    
+    private static class OnFoot extends BehaviorNode {
+        @Override
+        public Status tick(AIContext context) {
+            return context.onFoot ? Status.success : Status.failure;
+        }
+    }
+    
+    private static class HasAttackTarget extends BehaviorNode {
+        @Override
+        public Status tick(AIContext context) {
+            //removed targets are cleared by AISystem's target listener
+            return context.hasAttackTarget ? Status.success : Status.failure;
+        }
+    }
+    //endregion
+    
+    //region actions
+    private static class SetState extends BehaviorNode {
+        private final State state;
+        private final String reason;
+        
+        SetState(State state, String reason) {
+            this.state = state;
+            this.reason = reason;
+        }
+        
+        @Override
+        public Status tick(AIContext context) {
+            context.nextState = state;
+            context.reason = reason;
+            return Status.success;
+        }
+    }
+    
+    private static class Idle extends BehaviorNode {
+        @Override
+        public Status tick(AIContext context) {
+            //do nothing
+            return Status.success;
+        }
+    }
+    
+    private static class Wander extends BehaviorNode {
+        @Override
+        public Status tick(AIContext context) {
+            context.attack = false;
+            
+            //dumb wander
+            context.angleTargetFace += 1 * context.delta;
+            context.moveForward = true;
+            context.movementMultiplier = 0.1f;
+            return Status.running;
+        }
+    }
+    
+    private static class EnterVehicle extends BehaviorNode {
+        @Override
+        public Status tick(AIContext context) {
+            if (!context.hasClosestVehicle) {
+                //nothing to enter, wait on foot
+                return Status.running;
+            }
+            
+            //seek
+            dumbSeek(context, context.closestVehiclePos, 1f);
+            
+            //character is near a vehicle that isn't occupied
+            if (context.nearFreeVehicle) {
+                context.changeVehicle = true;
+            }
+            return Status.running;
+        }
+    }
+    
+    private class AttackTarget extends BehaviorNode {
+        @Override
+        public Status tick(AIContext context) {
+            steer(context, context.attackTargetPos, 0.3f);//todo: distance based. threshold radius
+            //held until the next think, the cannon's fire rate limits the shots
+            context.attack = true;
+            return Status.running;
+        }
+    }
+    
+    private class FollowPlayer extends BehaviorNode {
+        @Override
+        public Status tick(AIContext context) {
+            if (!context.hasPlayer) {
+                return Status.failure;
+            }
+            steer(context, context.playerPos, 0.5f);
+            return Status.running;
+        }
+    }
+    
+    private static class Landed extends BehaviorNode {
+        @Override
+        public Status tick(AIContext context) {
+            if (!context.landing) {
+                return Status.failure;
+            }
+            
+            context.nextState = State.idle;
+            context.reason = "AI landing";
+            context.transition = false;
+            return Status.success;
+        }
+    }
+    
+    private class ArrivePlanet extends BehaviorNode {
+        @Override
+        public Status tick(AIContext context) {
+            if (context.planetTarget == null) {
+                //no landing target planet for AI, default to nearest planet
+                if (context.closestPlanet == null) {
+                    return Status.failure;
+                }
+                context.planetTarget = context.closestPlanet;
+                context.planetTargetPos.set(context.closestPlanetPos);
+            }
+            
+            //arrive blended with separation, applied as force every frame until the next think
+            Steering steering = context.steering;
+            boolean arrived = SteeringBehaviors.arrive(context.pos, context.velocity, context.planetTargetPos,
+                    arrivalRadius, slowRadius, timeToTarget, Box2DPhysicsSystem.getVelocityLimit(), maxAcceleration, 1, steering.linearVelocity);
+            if (arrived) {
+                //hold position over the planet until landing starts
+                steering.linearVelocity.setZero();
+            } else {
+                SteeringBehaviors.separation(context.pos, context.neighbors, separationRadius, maxAcceleration, separationWeight, steering.linearVelocity);
+                steering.linearVelocity.limit(maxAcceleration);
+            }
+            steering.applyForce = true;
+            return Status.running;
+        }
+    }
+    
+    private static class TakeOff extends BehaviorNode {
+        @Override
+        public Status tick(AIContext context) {
+            context.transition = true;
+            context.nextState = State.idle;
+            return Status.success;
+        }
+    }
+    //endregion
+    
+    /** blend seek with separation and planet avoidance, then steer the ship's controls towards the result */
+    private void steer(AIContext context, Vector2 targetPos, float multiplier) {
+        Vector2 desired = context.steering.linearVelocity;
+        SteeringBehaviors.seek(context.pos, targetPos, maxAcceleration, 1, desired);
+        SteeringBehaviors.separation(context.pos, context.neighbors, separationRadius, maxAcceleration, separationWeight, desired);
+        if (context.closestPlanet != null) {
+            SteeringBehaviors.avoid(context.pos, context.velocity, context.closestPlanetPos, context.closestPlanetRadius + avoidMargin,
+                    avoidLookAhead, maxAcceleration, avoidWeight, desired);
+        }
+        
+        if (desired.isZero()) return;
+        context.angleTargetFace = desired.angleRad();
+        context.moveForward = true;
+        context.movementMultiplier = multiplier;
+    }
+    
+    private static void dumbSeek(AIContext context, Vector2 targetPos, float multiplier) {
+        context.angleTargetFace = MyMath.angleTo(targetPos, context.pos);
+        context.moveForward = true;
+        context.movementMultiplier = multiplier;
+    }
+    
+}
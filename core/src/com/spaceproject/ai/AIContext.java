@@ -0,0 +1,86 @@
+package com.spaceproject.ai;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.FloatArray;
+import com.spaceproject.components.AIComponent;
+import com.spaceproject.components.AIComponent.State;
+import com.spaceproject.components.ControllableComponent;
+import com.spaceproject.utility.Steering;
+
+/**
+ * One agent's think step. The snapshot half is captured on the main thread before thinking, the command half is
+ * written by the behavior tree and applied on the main thread afterwards. The tree reads and writes nothing else,
+ * so agents can think in parallel and the result doesn't depend on which thread thought which agent.
+ */
+public class AIContext {
+    
+    //region snapshot
+    public Entity entity;
+    public State state;
+    public boolean onFoot;
+    public boolean landing;
+    public final Vector2 pos = new Vector2();
+    public final Vector2 velocity = new Vector2();
+    //time since this agent last thought
+    public float delta;
+    
+    public boolean hasAttackTarget;
+    public final Vector2 attackTargetPos = new Vector2();
+    public boolean hasPlayer;
+    public final Vector2 playerPos = new Vector2();
+    public Entity planetTarget;
+    public final Vector2 planetTargetPos = new Vector2();
+    
+    //proximity
+    public boolean hasClosestVehicle;
+    public final Vector2 closestVehiclePos = new Vector2();
+    public boolean nearFreeVehicle;
+    public Entity closestPlanet;
+    public final Vector2 closestPlanetPos = new Vector2();
+    public float closestPlanetRadius;
+    //nearby ships for separation, x y pairs
+    public final FloatArray neighbors = new FloatArray();
+    //endregion
+    
+    //region command
+    public State nextState;
+    public String reason;
+    public final Steering steering = new Steering();
+    public float angleTargetFace;
+    public boolean moveForward;
+    public float movementMultiplier;
+    public boolean attack;
+    public boolean changeVehicle;
+    public boolean transition;
+    //endregion
+    
+    /** start the command from the agent's current state, so anything the tree doesn't touch is kept */
+    public void beginCommand(AIComponent ai, ControllableComponent control) {
+        nextState = ai.state;
+        reason = null;
+        planetTarget = ai.planetTarget;
+        steering.clear();
+        angleTargetFace = control.angleTargetFace;
+        moveForward = control.moveForward;
+        movementMultiplier = control.movementMultiplier;
+        attack = control.attack;
+        changeVehicle = control.changeVehicle;
+        transition = control.transition;
+    }
+    
+    public void applyCommand(AIComponent ai, ControllableComponent control) {
+        ai.state = nextState;
+        ai.planetTarget = planetTarget;
+        ai.steering.linearVelocity.set(steering.linearVelocity);
+        ai.steering.angularVelocity = steering.angularVelocity;
+        ai.steering.applyForce = steering.applyForce;
+        control.angleTargetFace = angleTargetFace;
+        control.moveForward = moveForward;
+        control.movementMultiplier = movementMultiplier;
+        control.attack = attack;
+        control.changeVehicle = changeVehicle;
+        control.transition = transition;
+    }
+    
+}
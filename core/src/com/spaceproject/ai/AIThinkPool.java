@@ -0,0 +1,119 @@
+package com.spaceproject.ai;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Ticks the behavior tree for a batch of agents, split into contiguous chunks across worker threads.
+ * The main thread thinks the first chunk and waits for the rest, so the engine is not touched while workers run.
+ * Each context is only ticked by one thread and only writes its own command, so the results are the same
+ * for any number of threads.
+ */
+public class AIThinkPool implements Disposable {
+    
+    //below this many agents it isn't worth waking up workers
+    private final int minParallelAgents = 16;
+    
+    private final int threads;
+    private final ExecutorService executor;
+    private final Chunk[] chunks;
+    //one party per thread, reused every think: workers arrive when done, the main thread arrives and waits
+    private final Phaser phaser;
+    
+    private BehaviorNode root;
+    private AIContext[] contexts;
+    private volatile Throwable error;
+    
+    private class Chunk implements Runnable {
+        int from, to;
+        
+        @Override
+        public void run() {
+            try {
+                tick(from, to);
+            } catch (Throwable t) {
+                error = t;
+            } finally {
+                phaser.arrive();
+            }
+        }
+    }
+    
+    /** @param threads total threads including the calling thread. 1 thinks on the calling thread only */
+    public AIThinkPool(int threads) {
+        this.threads = Math.max(1, threads);
+        chunks = new Chunk[this.threads];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk();
+        }
+        phaser = new Phaser(this.threads);
+        
+        if (this.threads > 1) {
+            executor = Executors.newFixedThreadPool(this.threads - 1, new ThreadFactory() {
+                int count;
+                
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ai-think-" + count++);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        } else {
+            executor = null;
+        }
+        Gdx.app.log(getClass().getSimpleName(), "AI think threads: " + this.threads);
+    }
+    
+    public void think(BehaviorNode root, AIContext[] contexts, int count) {
+        this.root = root;
+        this.contexts = contexts;
+        
+        if (executor == null || count < minParallelAgents) {
+            tick(0, count);
+            return;
+        }
+        
+        error = null;
+        for (int i = 0; i < threads; i++) {
+            chunks[i].from = count * i / threads;
+            chunks[i].to = count * (i + 1) / threads;
+        }
+        for (int i = 1; i < threads; i++) {
+            executor.execute(chunks[i]);
+        }
+        try {
+            tick(chunks[0].from, chunks[0].to);
+        } finally {
+            //always arrive, or the next think would wait on this phase
+            phaser.arriveAndAwaitAdvance();
+        }
+        if (error != null) {
+            throw new GdxRuntimeException("AI think failed", error);
+        }
+    }
+    
+    private void tick(int from, int to) {
+        for (int i = from; i < to; i++) {
+            root.tick(contexts[i]);
+        }
+    }
+    
+    public int getThreads() {
+        return threads;
+    }
+    
+    @Override
+    public void dispose() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+    
+}
@@ -0,0 +1,15 @@
+package com.spaceproject.ai;
+
+/**
+ * Node of a behavior tree. Nodes hold no per agent state, so one tree is shared by every agent:
+ * anything that needs to persist between think steps lives in the AIComponent.
+ */
+public abstract class BehaviorNode {
+    
+    public enum Status {
+        success, failure, running;
+    }
+    
+    public abstract Status tick(AIContext context);
+    
+}
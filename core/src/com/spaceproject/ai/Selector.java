@@ -0,0 +1,23 @@
+package com.spaceproject.ai;
+
+/** ticks children in order until one doesn't fail */
+public class Selector extends BehaviorNode {
+    
+    private final BehaviorNode[] children;
+    
+    public Selector(BehaviorNode... children) {
+        this.children = children;
+    }
+    
+    @Override
+    public Status tick(AIContext context) {
+        for (BehaviorNode child : children) {
+            Status status = child.tick(context);
+            if (status != Status.failure) {
+                return status;
+            }
+        }
+        return Status.failure;
+    }
+    
+}
@@ -0,0 +1,23 @@
+package com.spaceproject.ai;
+
+/** ticks children in order until one doesn't succeed */
+public class Sequence extends BehaviorNode {
+    
+    private final BehaviorNode[] children;
+    
+    public Sequence(BehaviorNode... children) {
+        this.children = children;
+    }
+    
+    @Override
+    public Status tick(AIContext context) {
+        for (BehaviorNode child : children) {
+            Status status = child.tick(context);
+            if (status != Status.success) {
+                return status;
+            }
+        }
+        return Status.success;
+    }
+    
+}
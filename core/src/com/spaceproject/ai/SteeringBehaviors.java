@@ -0,0 +1,89 @@
+package com.spaceproject.ai;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * Steering behaviors for AI agents. Each behavior adds its weighted acceleration to the output,
+ * so several can be blended into one before it is limited and applied.
+ * Behaviors only write to the output vector and have no shared state, so they are safe to call from think threads.
+ */
+public class SteeringBehaviors {
+    
+    /** full acceleration towards target */
+    public static Vector2 seek(Vector2 pos, Vector2 target, float maxAcceleration, float weight, Vector2 out) {
+        float dx = target.x - pos.x;
+        float dy = target.y - pos.y;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        if (distance == 0) return out;
+        
+        float scale = maxAcceleration * weight / distance;
+        return out.add(dx * scale, dy * scale);
+    }
+    
+    /**
+     * Accelerate towards target, slowing down within slowRadius to stop at arrivalRadius.
+     * @return true if arrived
+     */
+    public static boolean arrive(Vector2 pos, Vector2 velocity, Vector2 target, float arrivalRadius, float slowRadius,
+                                 float timeToTarget, float maxSpeed, float maxAcceleration, float weight, Vector2 out) {
+        float dx = target.x - pos.x;
+        float dy = target.y - pos.y;
+        float distanceToTarget = (float) Math.sqrt(dx * dx + dy * dy);
+        if (distanceToTarget <= arrivalRadius) {
+            return true;
+        }
+        
+        float targetSpeed = maxSpeed;
+        if (distanceToTarget <= slowRadius) {
+            //scale velocity based on distance
+            targetSpeed *= distanceToTarget / slowRadius;
+        }
+        
+        //acceleration to reach target velocity within timeToTarget
+        float ax = (dx * targetSpeed / distanceToTarget - velocity.x) / timeToTarget;
+        float ay = (dy * targetSpeed / distanceToTarget - velocity.y) / timeToTarget;
+        float accel = (float) Math.sqrt(ax * ax + ay * ay);
+        if (accel > maxAcceleration) {
+            ax *= maxAcceleration / accel;
+            ay *= maxAcceleration / accel;
+        }
+        out.add(ax * weight, ay * weight);
+        return false;
+    }
+    
+    /** push away from neighbors (x y pairs) closer than radius, stronger the closer they are */
+    public static Vector2 separation(Vector2 pos, FloatArray neighbors, float radius, float maxAcceleration, float weight, Vector2 out) {
+        for (int i = 0; i < neighbors.size; i += 2) {
+            float dx = pos.x - neighbors.get(i);
+            float dy = pos.y - neighbors.get(i + 1);
+            float distance = (float) Math.sqrt(dx * dx + dy * dy);
+            if (distance >= radius || distance == 0) continue;
+            
+            float scale = maxAcceleration * weight * (1 - distance / radius) / distance;
+            out.add(dx * scale, dy * scale);
+        }
+        return out;
+    }
+    
+    /** steer away from an obstacle if the position predicted lookAhead seconds ahead is inside it */
+    public static Vector2 avoid(Vector2 pos, Vector2 velocity, Vector2 obstaclePos, float obstacleRadius, float lookAhead,
+                                float maxAcceleration, float weight, Vector2 out) {
+        float dx = pos.x + velocity.x * lookAhead - obstaclePos.x;
+        float dy = pos.y + velocity.y * lookAhead - obstaclePos.y;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        if (distance >= obstacleRadius) return out;
+        
+        float strength = 1 - distance / obstacleRadius;
+        if (distance == 0) {
+            //heading straight for the center, push sideways
+            dx = -velocity.y;
+            dy = velocity.x;
+            distance = (float) Math.sqrt(dx * dx + dy * dy);
+            if (distance == 0) return out;
+        }
+        float scale = maxAcceleration * weight * strength / distance;
+        return out.add(dx * scale, dy * scale);
+    }
+    
+}
@@ -2,9 +2,10 @@ package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.utility.Steering;
 
-public class AIComponent implements Component {
+public class AIComponent implements Component, Pool.Poolable {
     
     public enum State {
         idle,
@@ -17,7 +18,7 @@ public class AIComponent implements Component {
     
     public State state;
     
-    public Steering steering;
+    public final Steering steering = new Steering();
     
     public Entity attackTarget; //todo: should be in attack state data?
     
@@ -25,5 +26,17 @@ public class AIComponent implements Component {
     
     public Entity planetTarget; //todo: should be in land state data?
     
+    //time since last think step, see AISystem
+    public float sinceThink;
+    
+    @Override
+    public void reset() {
+        state = null;
+        steering.clear();
+        attackTarget = null;
+        followTarget = null;
+        planetTarget = null;
+        sinceThink = 0;
+    }
     
 }
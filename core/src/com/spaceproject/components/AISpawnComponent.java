@@ -2,9 +2,10 @@ package com.spaceproject.components;
 
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.utility.SimpleTimer;
 
-public class AISpawnComponent implements Component {
+public class AISpawnComponent implements Component, Pool.Poolable {
     
     public AIComponent.State state;
     
@@ -14,4 +15,12 @@ public class AISpawnComponent implements Component {
     
     public int spawnCount;
     
+    @Override
+    public void reset() {
+        state = null;
+        spawnTimer = null;
+        maxSpawn = 0;
+        spawnCount = 0;
+    }
+    
 }
@@ -1,8 +1,9 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 
-public class AsteroidBeltComponent implements Component {
+public class AsteroidBeltComponent implements Component, Pool.Poolable {
     
     //distance from parent body
     public float radius;
@@ -18,4 +19,14 @@ public class AsteroidBeltComponent implements Component {
     
     public int maxSpawn;
     
+    @Override
+    public void reset() {
+        radius = 0;
+        bandWidth = 0;
+        clockwise = false;
+        velocity = 0;
+        spawned = 0;
+        maxSpawn = 0;
+    }
+    
 }
@@ -5,8 +5,9 @@ import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Polygon;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
 
-public class AsteroidComponent implements Component {
+public class AsteroidComponent implements Component, Pool.Poolable {
     
     //public enum Composition { rock, ice } todo: different asteroid types?
     
@@ -18,8 +19,22 @@ public class AsteroidComponent implements Component {
     
     public float area;
     
+    //size the shape was generated from by seed, 0 if the shape came from vertices (eg: shards)
+    public float size;
+    
     public boolean doShatter = false;
     
     public Color color;
     
+    @Override
+    public void reset() {
+        parentOrbitBody = null;
+        polygon = null;
+        centerOfMass = null;
+        area = 0;
+        size = 0;
+        doShatter = false;
+        color = null;
+    }
+    
 }
@@ -2,9 +2,15 @@ package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Pool;
 
-public class AttachedToComponent implements Component {
+public class AttachedToComponent implements Component, Pool.Poolable {
     
     public Entity parentEntity;
     
+    @Override
+    public void reset() {
+        parentEntity = null;
+    }
+    
 }
@@ -1,9 +1,10 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.utility.SimpleTimer;
 
-public class BarrelRollComponent implements Component {
+public class BarrelRollComponent implements Component, Pool.Poolable {
     
     public enum FlipState {
         off, left, right
@@ -19,4 +20,13 @@ public class BarrelRollComponent implements Component {
     
     public float force;
     
+    @Override
+    public void reset() {
+        flipState = null;
+        cooldownTimer = null;
+        animationTimer = null;
+        revolutions = 0;
+        force = 0;
+    }
+    
 }
@@ -1,13 +1,14 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 
 /**
  * The barycenter is the center of mass of two or more bodies that orbit each other and is the point about which the bodies orbit.
  * in our use case, this will be the "celestial anchor" in where an entity holding this component will be
  * act as the anchor for other entities to orbit around
  */
-public class BarycenterComponent implements Component {
+public class BarycenterComponent implements Component, Pool.Poolable {
     
     public AstronomicalBodyType bodyType;
     
@@ -17,4 +18,10 @@ public class BarycenterComponent implements Component {
         roguePlanet,
         loneStar
     }
+    
+    @Override
+    public void reset() {
+        bodyType = null;
+    }
+    
 }
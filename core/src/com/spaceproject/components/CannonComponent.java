@@ -2,9 +2,10 @@ package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.utility.SimpleTimer;
 
-public class CannonComponent implements Component {
+public class CannonComponent implements Component, Pool.Poolable {
     
     public Vector2 anchorVec; //offset relative to ship
     
@@ -32,4 +33,21 @@ public class CannonComponent implements Component {
     
     public float multiplier;
     
+    @Override
+    public void reset() {
+        anchorVec = null;
+        aimAngle = 0;
+        damage = 0;
+        maxAmmo = 0;
+        curAmmo = 0;
+        baseRate = 0;
+        minRate = 0;
+        velocity = 0;
+        acceleration = 0;
+        size = 0;
+        timerFireRate = null;
+        timerRechargeRate = null;
+        multiplier = 0;
+    }
+    
 }
@@ -1,9 +1,15 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 
-public class CharacterComponent implements Component {
+public class CharacterComponent implements Component, Pool.Poolable {
     
     public float walkSpeed;
     
+    @Override
+    public void reset() {
+        walkSpeed = 0;
+    }
+    
 }
@@ -3,10 +3,11 @@ package com.spaceproject.components;
 import com.badlogic.ashley.core.Component;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.utility.SimpleTimer;
 
 
-public class ChargeCannonComponent implements Component {
+public class ChargeCannonComponent implements Component, Pool.Poolable {
     
     public Entity projectileEntity;
     
@@ -29,4 +30,19 @@ public class ChargeCannonComponent implements Component {
     //public SimpleTimer cooldownTimer;//between shots?
     
     public boolean isCharging;
+    
+    @Override
+    public void reset() {
+        projectileEntity = null;
+        anchorVec = null;
+        aimAngle = 0;
+        baseDamage = 0;
+        velocity = 0;
+        size = 0;
+        minSize = 0;
+        maxSize = 0;
+        growRateTimer = null;
+        isCharging = false;
+    }
+    
 }
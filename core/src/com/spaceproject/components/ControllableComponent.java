@@ -1,9 +1,10 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.utility.SimpleTimer;
 
-public class ControllableComponent implements Component {
+public class ControllableComponent implements Component, Pool.Poolable {
     
     //movement
     public boolean moveForward;
@@ -25,4 +26,22 @@ public class ControllableComponent implements Component {
     public SimpleTimer timerVehicle;
     
     public boolean swapWeapon;
-}
\ No newline at end of file
+    
+    @Override
+    public void reset() {
+        moveForward = false;
+        moveLeft = false;
+        moveRight = false;
+        moveBack = false;
+        movementMultiplier = 0;
+        angleTargetFace = 0;
+        attack = false;
+        changeVehicle = false;
+        transition = false;
+        canTransition = false;
+        boost = false;
+        timerVehicle = null;
+        swapWeapon = false;
+    }
+    
+}
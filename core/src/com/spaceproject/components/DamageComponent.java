@@ -2,10 +2,17 @@ package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Pool;
 
-public class DamageComponent implements Component {
+public class DamageComponent implements Component, Pool.Poolable {
     
     public Entity source;
     public float damage;
     
+    @Override
+    public void reset() {
+        source = null;
+        damage = 0;
+    }
+    
 }
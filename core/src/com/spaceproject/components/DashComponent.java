@@ -1,13 +1,21 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.utility.SimpleTimer;
 
 
-public class DashComponent implements Component {
+public class DashComponent implements Component, Pool.Poolable {
     
     public boolean activate;
     public float impulse;
     public SimpleTimer dashTimeout;
     
-}
\ No newline at end of file
+    @Override
+    public void reset() {
+        activate = false;
+        impulse = 0;
+        dashTimeout = null;
+    }
+    
+}
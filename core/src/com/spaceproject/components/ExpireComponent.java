@@ -1,10 +1,16 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.utility.SimpleTimer;
 
-public class ExpireComponent implements Component {
+public class ExpireComponent implements Component, Pool.Poolable {
     
     public SimpleTimer timer;
     
+    @Override
+    public void reset() {
+        timer = null;
+    }
+    
 }
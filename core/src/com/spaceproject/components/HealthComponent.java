@@ -1,8 +1,9 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 
-public class HealthComponent implements Component {
+public class HealthComponent implements Component, Pool.Poolable {
     //health for living things / combat, entity dies upon value reaching 0
     public float health;
     
@@ -12,4 +13,11 @@ public class HealthComponent implements Component {
     //timestamp for taking damage
     public long lastHit;
     
+    @Override
+    public void reset() {
+        health = 0;
+        maxHealth = 0;
+        lastHit = 0;
+    }
+    
 }
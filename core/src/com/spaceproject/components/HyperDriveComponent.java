@@ -2,9 +2,10 @@ package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.utility.SimpleTimer;
 
-public class HyperDriveComponent implements Component {
+public class HyperDriveComponent implements Component, Pool.Poolable {
     
     public enum State { off, on, charging, cooldown }
     
@@ -25,4 +26,15 @@ public class HyperDriveComponent implements Component {
     //time it takes to cooldown before can activate again
     public SimpleTimer coolDownTimer;
     
+    @Override
+    public void reset() {
+        state = State.off;
+        activate = false;
+        speed = 0;
+        velocity.setZero();
+        chargeTimer = null;
+        graceTimer = null;
+        coolDownTimer = null;
+    }
+    
 }
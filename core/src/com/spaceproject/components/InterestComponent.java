@@ -0,0 +1,17 @@
+package com.spaceproject.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/** Observer for area of interest: entities around it are simulated at full rate. See InterestSystem. */
+public class InterestComponent implements Component, Pool.Poolable {
+    
+    //0 for EngineConfig.interestRadius
+    public float radius;
+    
+    @Override
+    public void reset() {
+        radius = 0;
+    }
+    
+}
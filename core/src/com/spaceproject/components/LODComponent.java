@@ -0,0 +1,39 @@
+package com.spaceproject.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
+
+/** level of detail for celestial bodies, texture is swapped by size on screen (see CelestialLODSystem) */
+public class LODComponent implements Component, Pool.Poolable {
+    
+    public enum Tier {
+        dot, pixelated, detailed;
+    }
+    
+    public Tier tier;
+    
+    //region the tier was applied with. when the texture is replaced by something else, LOD starts over from it
+    public TextureRegion applied;
+    
+    //size of the body in world units, kept the same across tiers
+    public float worldSize;
+    
+    //size in pixels of the pixelated (default) tier
+    public int baseSize;
+    
+    //stars: radius and noise scale of the default tier
+    public int starRadius;
+    public double starNoiseScale;
+    
+    @Override
+    public void reset() {
+        tier = null;
+        applied = null;
+        worldSize = 0;
+        baseSize = 0;
+        starRadius = 0;
+        starNoiseScale = 0;
+    }
+    
+}
@@ -2,11 +2,19 @@ package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Pool;
 
-public class MapComponent implements Component {
+public class MapComponent implements Component, Pool.Poolable {
     /* color of marker */
     public Color color;
     
     /* distance entity must be from player to show up on map */
     public int distance;
+    
+    @Override
+    public void reset() {
+        color = null;
+        distance = 0;
+    }
+    
 }
@@ -3,8 +3,9 @@ package com.spaceproject.components;
 import com.badlogic.ashley.core.Component;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
 
-public class OrbitComponent implements Component {
+public class OrbitComponent implements Component, Pool.Poolable {
     //the entity to orbit
     public Entity parent;
     
@@ -23,6 +24,16 @@ public class OrbitComponent implements Component {
     //rotation direction
     public boolean rotateClockwise;
     
-    public boolean isProcessed;
+    @Override
+    public void reset() {
+        parent = null;
+        velocity.setZero();
+        angle = 0;
+        startAngle = 0;
+        radialDistance = 0;
+        tangentialSpeed = 0;
+        rotSpeed = 0;
+        rotateClockwise = false;
+    }
     
 }
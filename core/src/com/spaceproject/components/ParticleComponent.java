@@ -3,8 +3,9 @@ package com.spaceproject.components;
 import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
 
-public class ParticleComponent implements Component {
+public class ParticleComponent implements Component, Pool.Poolable {
     
     public enum EffectType {
         shipEngineMain,
@@ -23,5 +24,27 @@ public class ParticleComponent implements Component {
     public Vector2 offset;
     
     public float angle;
-
+    
+    //emitter values last written by the ParticleSystem, to skip rewriting emitters when nothing changed
+    public float appliedAngle = Float.NaN;
+    public float appliedThickness = Float.NaN;
+    public float[] appliedTint;
+    public float emissionScale = -1;
+    
+    //time not yet simulated while the effect was culled
+    public float skippedTime;
+    
+    @Override
+    public void reset() {
+        type = null;
+        pooledEffect = null;
+        offset = null;
+        angle = 0;
+        appliedAngle = Float.NaN;
+        appliedThickness = Float.NaN;
+        appliedTint = null;
+        emissionScale = -1;
+        skippedTime = 0;
+    }
+    
 }
@@ -2,9 +2,15 @@ package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.Pool;
 
-public class PhysicsComponent implements Component {
+public class PhysicsComponent implements Component, Pool.Poolable {
     
     public Body body;
     
+    @Override
+    public void reset() {
+        body = null;
+    }
+    
 }
@@ -1,12 +1,22 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 
-public class PlanetComponent implements Component {
+public class PlanetComponent implements Component, Pool.Poolable {
     public int mapSize;
     public float scale;
     public int octaves;
     public float persistence;
     public float lacunarity;
     
+    @Override
+    public void reset() {
+        mapSize = 0;
+        scale = 0;
+        octaves = 0;
+        persistence = 0;
+        lacunarity = 0;
+    }
+    
 }
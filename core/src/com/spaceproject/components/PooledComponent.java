@@ -0,0 +1,21 @@
+package com.spaceproject.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+public class PooledComponent implements Component, Pool.Poolable {
+    /* marks entity as owned by a pool: resources are recycled instead of disposed on removal */
+    
+    public enum PoolType {
+        missile,
+        hitEffect
+    }
+    
+    public PoolType type;
+    
+    @Override
+    public void reset() {
+        type = null;
+    }
+    
+}
@@ -1,9 +1,15 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 
-public class RingEffectComponent implements Component {
+public class RingEffectComponent implements Component, Pool.Poolable {
 
     public float radius;
     
+    @Override
+    public void reset() {
+        radius = 0;
+    }
+    
 }
@@ -3,9 +3,10 @@ package com.spaceproject.components;
 import com.badlogic.ashley.core.Component;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.math.Interpolation;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.utility.SimpleTimer;
 
-public class ScreenTransitionComponent implements Component {
+public class ScreenTransitionComponent implements Component, Pool.Poolable {
     
     public enum TakeOffAnimStage {
         screenEffectFadeIn,
@@ -54,4 +55,18 @@ public class ScreenTransitionComponent implements Component {
     public float rotation;
     
     public float initialScale;
+    
+    @Override
+    public void reset() {
+        landStage = null;
+        curLandStage = null;
+        takeOffStage = null;
+        curTakeOffStage = null;
+        planet = null;
+        timer = null;
+        animInterpolation = null;
+        rotation = 0;
+        initialScale = 0;
+    }
+    
 }
@@ -1,7 +1,14 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 
-public class SeedComponent implements Component {
+public class SeedComponent implements Component, Pool.Poolable {
     public long seed;
+    
+    @Override
+    public void reset() {
+        seed = 0;
+    }
+    
 }
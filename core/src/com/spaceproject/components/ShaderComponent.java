@@ -1,8 +1,9 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 
-public class ShaderComponent implements Component {
+public class ShaderComponent implements Component, Pool.Poolable {
     
     public enum ShaderType {
         star, grayscale;
@@ -10,4 +11,9 @@ public class ShaderComponent implements Component {
     
     public ShaderType shaderType;
     
+    @Override
+    public void reset() {
+        shaderType = null;
+    }
+    
 }
@@ -2,9 +2,10 @@ package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.utility.SimpleTimer;
 
-public class ShieldComponent implements Component {
+public class ShieldComponent implements Component, Pool.Poolable {
     
     public enum State { off, on, charge, discharge }
     
@@ -22,4 +23,15 @@ public class ShieldComponent implements Component {
     
     public Color color;
     
+    @Override
+    public void reset() {
+        state = State.off;
+        activate = false;
+        defence = 0;
+        radius = 0;
+        maxRadius = 0;
+        animTimer = null;
+        color = null;
+    }
+    
 }
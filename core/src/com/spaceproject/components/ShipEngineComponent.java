@@ -2,8 +2,9 @@ package com.spaceproject.components;
 
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 
-public class ShipEngineComponent implements Component {
+public class ShipEngineComponent implements Component, Pool.Poolable {
     
     public enum State {
         off, on, boost, hyper;
@@ -13,4 +14,10 @@ public class ShipEngineComponent implements Component {
     
     public float thrust;
     
+    @Override
+    public void reset() {
+        engineState = null;
+        thrust = 0;
+    }
+    
 }
@@ -2,20 +2,23 @@ package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Pool;
 
 
-public class SplineComponent implements Component {
+public class SplineComponent implements Component, Pool.Poolable {
     
-    //xy = position, z = velocity
-    public Vector3[] path;
+    //ring buffer of points packed as [x, y, velocity, x, y, velocity...]. see SplineRenderSystem.STRIDE
+    public float[] path;
     
     // states: damage, off, on, boost, hyper -> -1, 0, 1, 2, 3
     public byte[] state;
     
-    //the current head of the path
+    //the current head of the path: index of the next point to be written
     public int indexHead;
     
+    //number of valid points in the path
+    public int count;
+    
     public int stepCount;
     
     public int zOrder;
@@ -28,4 +31,15 @@ public class SplineComponent implements Component {
     
     public Color color;
     
+    @Override
+    public void reset() {
+        //keep path buffers to be reused. points past count are never read, so no need to clear them
+        indexHead = 0;
+        count = 0;
+        stepCount = 0;
+        zOrder = 0;
+        style = null;
+        color = null;
+    }
+    
 }
@@ -2,10 +2,16 @@ package com.spaceproject.components;
 
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.ui.Sprite3D;
 
-public class Sprite3DComponent implements Component {
+public class Sprite3DComponent implements Component, Pool.Poolable {
     
     public Sprite3D renderable;
     
+    @Override
+    public void reset() {
+        renderable = null;
+    }
+    
 }
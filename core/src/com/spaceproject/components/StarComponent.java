@@ -1,8 +1,9 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
 
-public class StarComponent implements Component {
+public class StarComponent implements Component, Pool.Poolable {
     
     //public double mass;
     
@@ -19,4 +20,11 @@ public class StarComponent implements Component {
     
     //public long age; //years
     
+    @Override
+    public void reset() {
+        temperature = 0;
+        peakWavelength = 0;
+        colorTemp = null;
+    }
+    
 }
@@ -1,11 +1,19 @@
 package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
 
-public class TextureComponent implements Component {
-    //texture/image
-    public Texture texture = null;
+public class TextureComponent implements Component, Pool.Poolable {
+    //image: usually a region of a shared RuntimeAtlas page
+    public TextureRegion region = null;
     //scale/size of image
     public float scale = 1.0f;
+    
+    @Override
+    public void reset() {
+        region = null;
+        scale = 1.0f;
+    }
+    
 }
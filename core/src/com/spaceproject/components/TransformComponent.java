@@ -2,8 +2,9 @@ package com.spaceproject.components;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
 
-public class TransformComponent implements Component {
+public class TransformComponent implements Component, Pool.Poolable {
     /* position in world x, y */
     public final Vector2 pos = new Vector2();
     
@@ -12,4 +13,12 @@ public class TransformComponent implements Component {
     
     /* render order */
     public byte zOrder;
+    
+    @Override
+    public void reset() {
+        pos.setZero();
+        rotation = 0.0f;
+        zOrder = 0;
+    }
+    
 }
@@ -3,9 +3,10 @@ package com.spaceproject.components;
 import com.badlogic.ashley.core.Component;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Pool;
 import com.spaceproject.utility.SimpleTimer;
 
-public class VehicleComponent implements Component {
+public class VehicleComponent implements Component, Pool.Poolable {
     
     public Entity driver;
     
@@ -17,4 +18,13 @@ public class VehicleComponent implements Component {
     
     public SimpleTimer weaponSwapTimer;
     
+    @Override
+    public void reset() {
+        driver = null;
+        thrust = 0;
+        dimensions = null;
+        weaponIndex = 0;
+        weaponSwapTimer = null;
+    }
+    
 }
@@ -12,6 +12,7 @@ public class ConfigManager {
         configs = new ArrayList<>();
         configs.add(new EngineConfig());
         configs.add(new SystemsConfig());
+        configs.add(new RenderPassConfig());
         configs.add(new EntityConfig());
         configs.add(new CelestialConfig());
         configs.add(new WorldConfig());
@@ -17,6 +17,8 @@ public class DebugConfig extends Config {
     public boolean drawOrbitPath;
     public boolean drawMousePos;
     public boolean drawEntityList;
+    //record player input from game start, for headless replay. see InputRecorderSystem
+    public boolean recordInput;
     
     
     @Override
@@ -36,6 +38,7 @@ public class DebugConfig extends Config {
         drawOrbitPath = false;
         drawMousePos = false;
         drawEntityList = false;
+        recordInput = false;
     }
     
 }
@@ -22,6 +22,18 @@ public class EngineConfig extends Config {
     public int physicsStepPerFrame;
     
     public int maxNoiseGenThreads;
+    public int maxAIThinkThreads;
+    
+    public float interestCellSize;
+    public float interestRadius;
+    public int interestDistantInterval;
+    public boolean interestDeactivateBodies;
+    
+    public boolean loadSave;
+    public int autosaveInterval;
+    public float saveSectorSize;
+    
+    public boolean pooledEngine;
     
     
     @Override
@@ -42,6 +54,22 @@ public class EngineConfig extends Config {
         physicsPositionIterations = 2;
         physicsStepPerFrame = 60;
         
+        //area of interest: cells within radius of an observer (player, network client) are simulated at full rate,
+        //logic in cells further away runs every distantInterval frames. see InterestSystem
+        interestCellSize = 2500;
+        interestRadius = 10000;
+        interestDistantInterval = 8;
+        //take dynamic bodies in distant cells out of the physics step until their cell is active again
+        interestDeactivateBodies = true;
+        
+        //resume the world in save/world/ on start instead of a new galaxy. saved every interval (ms, 0 only on exit) in sectors of this size
+        loadSave = false;
+        autosaveInterval = 60000;
+        saveSectorSize = 10000;
+        
+        //recycle entities and components instead of allocating per spawn, reduces GC pressure (especially android)
+        pooledEngine = true;
+        
         int availableCPU = Runtime.getRuntime().availableProcessors();
         if (SpaceProject.isMobile()) {
             // default 2 threads on mobile as phones have limited resources
@@ -55,5 +83,9 @@ public class EngineConfig extends Config {
             // but leave some threads for other applications (don't be greedy)
             maxNoiseGenThreads = MathUtils.clamp(availableCPU - 2, 4, 10);
         }
+        
+        // AI think phase runs in parallel, including the main thread. 1 = main thread only
+        // results are the same for any number of threads
+        maxAIThinkThreads = SpaceProject.isMobile() ? 2 : MathUtils.clamp(availableCPU / 2, 1, 4);
     }
 }
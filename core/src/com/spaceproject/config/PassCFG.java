@@ -0,0 +1,52 @@
+package com.spaceproject.config;
+
+
+import com.badlogic.ashley.core.EntitySystem;
+
+public class PassCFG {
+    
+    private String name;
+    private String[] systems;
+    private boolean offscreen;
+    private float resolutionScale;
+    private boolean blend;
+    private boolean overlay;
+    
+    
+    @SafeVarargs
+    PassCFG(String name, boolean offscreen, float resolutionScale, boolean blend, boolean overlay, Class<? extends EntitySystem>... systems) {
+        this.name = name;
+        this.offscreen = offscreen;
+        this.resolutionScale = resolutionScale;
+        this.blend = blend;
+        this.overlay = overlay;
+        this.systems = new String[systems.length];
+        for (int i = 0; i < systems.length; i++) {
+            this.systems[i] = systems[i].getName();
+        }
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String[] getSystems() {
+        return systems;
+    }
+    
+    public boolean isOffscreen() {
+        return offscreen;
+    }
+    
+    public float getResolutionScale() {
+        return resolutionScale;
+    }
+    
+    public boolean isBlend() {
+        return blend;
+    }
+    
+    public boolean isOverlay() {
+        return overlay;
+    }
+}
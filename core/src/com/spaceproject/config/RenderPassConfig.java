@@ -0,0 +1,44 @@
+package com.spaceproject.config;
+
+
+import com.spaceproject.systems.*;
+
+import java.util.ArrayList;
+
+public class RenderPassConfig extends Config {
+    
+    ArrayList<PassCFG> passes;
+    
+    @Override
+    public void loadDefault() {
+        //PassCFG(name, offscreen, resolutionScale, blend, overlay, systems...)
+        // render passes in the order they are drawn. replaces system priority for render order:
+        // render systems are updated by the @FrameGraph after the engine has updated all logic systems.
+        // a pass only contains the systems that are loaded (see @SystemsConfig loadInSpace / loadInWorld),
+        // passes with no loaded systems are skipped. so the same graph is assembled for both space and world.
+        // flags:
+        // - offscreen: draw to a frame buffer, then composite onto the screen.
+        // - resolutionScale: size of the offscreen buffer relative to the screen. eg: 0.5 for half resolution
+        //      cheaper fill for expensive full screen layers that don't need the detail.
+        // - blend: alpha blending enabled for the pass. systems should not toggle GL_BLEND themselves.
+        // - overlay: frame of reference / navigation layer, hidden when the HUD is toggled off.
+        
+        passes = new ArrayList<>();
+        passes.add(new PassCFG("background", false, 1, true, false, ClearScreenSystem.class, SpaceParallaxSystem.class));
+        //note: SpaceDustSystem is disabled in SystemsConfig, so this pass is skipped and the offscreen path is unused by default
+        passes.add(new PassCFG("dust", true, 0.5f, true, false, SpaceDustSystem.class));
+        passes.add(new PassCFG("terrain", false, 1, false, false, WorldRenderingSystem.class, TileGridSystem.class));
+        passes.add(new PassCFG("grid", false, 1, true, true, ParallaxRenderSystem.class));
+        passes.add(new PassCFG("sprites", false, 1, true, false, Sprite2DRenderSystem.class, Sprite2DShaderRenderSystem.class, ProjectileHitRenderSystem.class));
+        passes.add(new PassCFG("trails", false, 1, true, true, SplineRenderSystem.class));
+        passes.add(new PassCFG("entities", false, 1, true, false, AsteroidRenderSystem.class, Sprite3DRenderSystem.class, ShieldRenderSystem.class, ParticleSystem.class));
+        passes.add(new PassCFG("hud", false, 1, true, false, HUDSystem.class));
+        passes.add(new PassCFG("transition", false, 1, true, false, ScreenTransitionSystem.class));
+        passes.add(new PassCFG("debug", false, 1, true, false, DebugSystem.class));
+    }
+    
+    public ArrayList<PassCFG> getPasses() {
+        return passes;
+    }
+    
+}
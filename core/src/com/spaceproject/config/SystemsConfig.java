@@ -31,9 +31,14 @@ public class SystemsConfig extends Config {
         systems.add(new SysCFG(DesktopInputSystem.class, 10, true, true, true, true, false));
         systems.add(new SysCFG(ControllerInputSystem.class, 15, true, true, true, true, true));
         systems.add(new SysCFG(MobileInputSystem.class, 20, true, true, true, false, true));
+        //records player input for headless replay when debugCFG.recordInput. space only, as is the replay
+        systems.add(new SysCFG(InputRecorderSystem.class, 22, true, true, false, true, true));
+        systems.add(new SysCFG(SaveSystem.class, 23, true, true, false, true, true));
         
         
         //---logic---
+        systems.add(new SysCFG(SpatialHashSystem.class, 25, true, true, true, true, true));
+        systems.add(new SysCFG(InterestSystem.class, 26, true, true, true, true, true));
         systems.add(new SysCFG(AISystem.class, 30, true, true, true, true, true));
         
         systems.add(new SysCFG(CharacterControlSystem.class, 40, true, true, true, true, true));
@@ -42,6 +47,7 @@ public class SystemsConfig extends Config {
         systems.add(new SysCFG(ShipControlSystem.class, 50, true, true, true, true, true));
         systems.add(new SysCFG(BarrelRollSystem.class, 52, true, true, true, true, true));
         systems.add(new SysCFG(ShieldSystem.class, 53, true, true, true, true, true));
+        systems.add(new SysCFG(ProjectilePoolSystem.class, 54, true, true, true, true, true));
         systems.add(new SysCFG(CannonSystem.class, 55, true, true, true, true, true));
         systems.add(new SysCFG(HyperDriveSystem.class, 59, true, true, true, true, true));
         
@@ -51,6 +57,8 @@ public class SystemsConfig extends Config {
         systems.add(new SysCFG(Box2DPhysicsSystem.class, 70, true, true, true, true, true));
         //NOTE: chargecannon ghost charge rendering works better after physics system has updated the transforms. otherwise jitter while movement
         systems.add(new SysCFG(ChargeCannonSystem.class, 71, true, true, true, true, true));
+        //resolve contacts recorded during the physics step
+        systems.add(new SysCFG(PhysicsContactSystem.class, 72, true, true, true, true, true));
         
         //---loading---
         systems.add(new SysCFG(WorldLoadingSystem.class, 90, true, false, true, true, true));
@@ -62,7 +70,9 @@ public class SystemsConfig extends Config {
         
     
         //----render----
-        // Rendering Pipeline: render order (priority) is important for which layer draws on top of which layer.
+        // note: render order is defined by the passes in @RenderPassConfig, not by priority.
+        // render systems are updated by the frame graph after the engine has updated the systems below.
+        // Rendering Pipeline: render order is important for which layer draws on top of which layer.
         // - clear screen -> clear color and depth buffer, then repaint solid color. clears display between frames
         // - cam update -> move, zoom, and update camera
         // - parallax grid render -> "under-hud" / frame of reference / debug tool
@@ -81,6 +91,7 @@ public class SystemsConfig extends Config {
         //  [?] could have multilayer rendering if needed:
         //      eg: particle layer pre sprite (under sprites), particle layer post sprite (over sprites)
         systems.add(new SysCFG(CameraSystem.class, 100, true, true, true, true, true));
+        systems.add(new SysCFG(CelestialLODSystem.class, 102, false, true, false, true, true));
         systems.add(new SysCFG(ParallaxRenderSystem.class, 101, false, true, true, true, true));
         systems.add(new SysCFG(SpaceParallaxSystem.class, 105, false, true, false, true, true));
         
@@ -0,0 +1,112 @@
+package com.spaceproject.events;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pools;
+import com.badlogic.gdx.utils.SnapshotArray;
+
+/**
+ * Typed notifications between systems, instead of looking up another system to call it directly.
+ * Events are obtained from pools and queued in a ring buffer when posted, then delivered to listeners of their type
+ * when the bus is dispatched: once per frame by the GameScreen, after the engine update. So posting is cheap and safe
+ * from anywhere on the main thread, including Box2D callbacks, and listeners run at a defined point in the frame.
+ * Not thread safe: other threads hand over with Gdx.app.postRunnable.
+ */
+public class EventBus {
+    
+    private final ObjectMap<Class<? extends GameEvent>, SnapshotArray<EventListener<? extends GameEvent>>> listeners = new ObjectMap<>();
+    private GameEvent[] ring = new GameEvent[256];
+    private int head, size;
+    private int dispatched, peak;
+    private final StringBuilder info = new StringBuilder();
+    
+    public <T extends GameEvent> void subscribe(Class<T> type, EventListener<T> listener) {
+        SnapshotArray<EventListener<? extends GameEvent>> list = listeners.get(type);
+        if (list == null) {
+            list = new SnapshotArray<>(false, 4, EventListener.class);
+            listeners.put(type, list);
+        }
+        if (!list.contains(listener, true)) {
+            list.add(listener);
+        }
+    }
+    
+    public <T extends GameEvent> void unsubscribe(Class<T> type, EventListener<T> listener) {
+        SnapshotArray<EventListener<? extends GameEvent>> list = listeners.get(type);
+        if (list != null) {
+            list.removeValue(listener, true);
+        }
+    }
+    
+    public <T extends GameEvent> T obtain(Class<T> type) {
+        return Pools.obtain(type);
+    }
+    
+    /** queue event for the next dispatch. the bus owns it from here */
+    public void post(GameEvent event) {
+        if (size == ring.length) {
+            grow();
+        }
+        ring[(head + size) & (ring.length - 1)] = event;
+        size++;
+        peak = Math.max(peak, size);
+    }
+    
+    /**
+     * Deliver queued events in the order they were posted and free them.
+     * Events posted by listeners during dispatch are delivered on the next dispatch.
+     */
+    @SuppressWarnings("unchecked")
+    public void dispatch() {
+        int count = size;
+        dispatched = count;
+        for (int i = 0; i < count; i++) {
+            GameEvent event = ring[head];
+            ring[head] = null;
+            head = (head + 1) & (ring.length - 1);
+            size--;
+            
+            SnapshotArray<EventListener<? extends GameEvent>> list = listeners.get(event.getClass());
+            if (list != null) {
+                Object[] items = list.begin();
+                for (int l = 0, n = list.size; l < n; l++) {
+                    ((EventListener<GameEvent>) items[l]).onEvent(event);
+                }
+                list.end();
+            }
+            Pools.free(event);
+        }
+    }
+    
+    private void grow() {
+        GameEvent[] larger = new GameEvent[ring.length * 2];
+        for (int i = 0; i < size; i++) {
+            larger[i] = ring[(head + i) & (ring.length - 1)];
+        }
+        ring = larger;
+        head = 0;
+        Gdx.app.debug(getClass().getSimpleName(), "grew event ring to " + ring.length);
+    }
+    
+    /** drop queued events and listeners */
+    public void clear() {
+        while (size > 0) {
+            Pools.free(ring[head]);
+            ring[head] = null;
+            head = (head + 1) & (ring.length - 1);
+            size--;
+        }
+        head = 0;
+        listeners.clear();
+    }
+    
+    public CharSequence getInfo() {
+        info.setLength(0);
+        info.append("[Events] dispatched: ").append(dispatched);
+        info.append(" queued: ").append(size);
+        info.append(" peak: ").append(peak);
+        info.append(" capacity: ").append(ring.length);
+        return info;
+    }
+    
+}
@@ -0,0 +1,7 @@
+package com.spaceproject.events;
+
+public interface EventListener<T extends GameEvent> {
+    
+    void onEvent(T event);
+    
+}
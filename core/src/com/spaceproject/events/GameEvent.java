@@ -0,0 +1,11 @@
+package com.spaceproject.events;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Base of events sent through the EventBus. Events are pooled: obtain them from the bus, fill them in and post them.
+ * They are freed after dispatch, so listeners must not keep a reference.
+ */
+public abstract class GameEvent implements Pool.Poolable {
+    
+}
@@ -0,0 +1,23 @@
+package com.spaceproject.events;
+
+import com.badlogic.ashley.core.Entity;
+
+/** the controlled entity took a heavy hit */
+public class ImpactEvent extends GameEvent {
+    
+    public Entity entity;
+    public float impulse;
+    
+    public ImpactEvent set(Entity entity, float impulse) {
+        this.entity = entity;
+        this.impulse = impulse;
+        return this;
+    }
+    
+    @Override
+    public void reset() {
+        entity = null;
+        impulse = 0;
+    }
+    
+}
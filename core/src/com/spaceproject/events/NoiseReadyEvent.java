@@ -0,0 +1,20 @@
+package com.spaceproject.events;
+
+import com.spaceproject.noise.NoiseBuffer;
+
+/** noise for a planet was generated, or was already loaded when requested */
+public class NoiseReadyEvent extends GameEvent {
+    
+    public NoiseBuffer noise;
+    
+    public NoiseReadyEvent set(NoiseBuffer noise) {
+        this.noise = noise;
+        return this;
+    }
+    
+    @Override
+    public void reset() {
+        noise = null;
+    }
+    
+}
@@ -0,0 +1,26 @@
+package com.spaceproject.events;
+
+public class SoundEvent extends GameEvent {
+    
+    public enum Type {
+        shoot, asteroidShatter, hullImpactLight, hullImpactHeavy,
+        shieldImpact, shieldOn, shieldOff, shieldAmbientStart, shieldAmbientStop
+    }
+    
+    public Type type;
+    //pitch or volume, depending on type
+    public float value = 1;
+    
+    public SoundEvent set(Type type, float value) {
+        this.type = type;
+        this.value = value;
+        return this;
+    }
+    
+    @Override
+    public void reset() {
+        type = null;
+        value = 1;
+    }
+    
+}
@@ -1,7 +1,7 @@
 package com.spaceproject.generation;
 
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.CircleShape;
@@ -68,9 +68,9 @@ public class BodyFactory {
     }
     
     public static Body createPlayerBody(float x, float y, Entity entity) {
-        Texture texture = Mappers.texture.get(entity).texture;
+        TextureRegion region = Mappers.texture.get(entity).region;
         Body body = createRect(x, y,
-                texture.getWidth() * engineCFG.bodyScale, texture.getHeight() * engineCFG.bodyScale,
+                region.getRegionWidth() * engineCFG.bodyScale, region.getRegionHeight() * engineCFG.bodyScale,
                 BodyDef.BodyType.DynamicBody, entity);
         body.setLinearDamping(10f);
         return body;
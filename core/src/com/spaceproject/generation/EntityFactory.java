@@ -1,8 +1,10 @@
 package com.spaceproject.generation;
 
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.ConvexHull;
 import com.badlogic.gdx.math.GeometryUtils;
 import com.badlogic.gdx.math.MathUtils;
@@ -13,6 +15,9 @@ import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
 import com.spaceproject.SpaceProject;
 import com.spaceproject.components.AIComponent;
 import com.spaceproject.components.AsteroidComponent;
@@ -27,6 +32,8 @@ import com.spaceproject.components.ControllableComponent;
 import com.spaceproject.components.DashComponent;
 import com.spaceproject.components.HealthComponent;
 import com.spaceproject.components.HyperDriveComponent;
+import com.spaceproject.components.InterestComponent;
+import com.spaceproject.components.LODComponent;
 import com.spaceproject.components.MapComponent;
 import com.spaceproject.components.OrbitComponent;
 import com.spaceproject.components.ParticleComponent;
@@ -52,6 +59,7 @@ import com.spaceproject.math.PolygonUtil;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.ui.Sprite3D;
 import com.spaceproject.utility.ECSUtil;
+import com.spaceproject.utility.Mappers;
 import com.spaceproject.utility.SimpleTimer;
 
 
@@ -60,6 +68,8 @@ public class EntityFactory {
     private static final EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
     private static final EntityConfig entityCFG = SpaceProject.configManager.getConfig(EntityConfig.class);
     private static final CelestialConfig celestCFG = SpaceProject.configManager.getConfig(CelestialConfig.class);
+    //star surface noise, also used to warm star textures ahead of loading
+    public static final double starNoiseScale = 20;
     
     //region characters
     public static Entity createCharacter(float x, float y) {
@@ -71,7 +81,7 @@ public class EntityFactory {
         entity.add(transform);
         
         TextureComponent texture = new TextureComponent();
-        texture.texture = TextureFactory.generateCharacter();
+        texture.region = TextureFactory.acquireCharacter();
         texture.scale = engineCFG.sprite2DScale;
         entity.add(texture);
         
@@ -104,6 +114,7 @@ public class EntityFactory {
         Entity character = createCharacter(x, y);
         character.add(new CameraFocusComponent());
         character.add(new ControlFocusComponent());
+        character.add(new InterestComponent());
         return character;
     }
     
@@ -129,13 +140,17 @@ public class EntityFactory {
     }
     
     public static Array<Entity> createAIShip(float x, float y, boolean inSpace) {
+        return createAIShip(x, y, 0, inSpace);
+    }
+    
+    public static Array<Entity> createAIShip(float x, float y, long seed, boolean inSpace) {
         Entity ai = createCharacterAI(x, y);
         
         PhysicsComponent physicsComponent = ai.getComponent(PhysicsComponent.class);
         GameScreen.box2dWorld.destroyBody(physicsComponent.body);
         physicsComponent.body = null;
         
-        Array<Entity> aiShipCluster = createBasicShip(x, y, 0, ai, inSpace);
+        Array<Entity> aiShipCluster = createBasicShip(x, y, seed, ai, inSpace);
         Entity aiShip = aiShipCluster.first();
         ECSUtil.transferControl(ai, aiShip);
         
@@ -170,10 +185,17 @@ public class EntityFactory {
         // create star texture
         TextureComponent texture = new TextureComponent();
         int radius = MathUtils.random(celestCFG.minStarSize, celestCFG.maxStarSize);
-        texture.texture = TextureFactory.generateStar(seed, radius, 20);
+        double noiseScale = starNoiseScale;
+        texture.region = TextureFactory.acquireStar(seed, radius, noiseScale);
         texture.scale = 4;
         entity.add(texture);
         
+        //swap texture resolution by size on screen
+        LODComponent lod = new LODComponent();
+        lod.starRadius = radius;
+        lod.starNoiseScale = noiseScale;
+        entity.add(lod);
+        
         // shader
         ShaderComponent shader = new ShaderComponent();
         shader.shaderType = ShaderComponent.ShaderType.star;
@@ -213,10 +235,13 @@ public class EntityFactory {
         TextureComponent texture = new TextureComponent();
         int chunkSize = SpaceProject.configManager.getConfig(WorldConfig.class).chunkSize;
         int planetSize = (int) Math.pow(2, MathUtils.random(7, 10));
-        texture.texture = TextureFactory.generatePlanetPlaceholder(planetSize, chunkSize);
+        texture.region = TextureFactory.acquirePlanetPlaceholder(planetSize, chunkSize);
         texture.scale = 16;
         entity.add(texture);
         
+        //swap texture resolution by size on screen, once the tile map is generated
+        entity.add(new LODComponent());
+        
         //transform
         TransformComponent transform = new TransformComponent();
         transform.zOrder = RenderOrder.ASTRO.getHierarchy();
@@ -239,17 +264,22 @@ public class EntityFactory {
         entity.add(map);
         
         //planet
+        entity.add(createPlanetComponent(planetSize));
+        
+        
+        return entity;
+    }
+    
+    /** noise parameters of a planet, also used to generate noise ahead of loading the planet */
+    public static PlanetComponent createPlanetComponent(int mapSize) {
         PlanetComponent planet = new PlanetComponent();
-        planet.mapSize = planetSize;
+        planet.mapSize = mapSize;
         //TODO: randomize features/load from feature profile
         planet.scale = 100;
         planet.octaves = 4;
         planet.persistence = 0.68f;
         planet.lacunarity = 2.6f;
-        entity.add(planet);
-        
-        
-        return entity;
+        return planet;
     }
     
     public static Entity createMoon(long seed, Entity parent, float radialDistance, boolean rotationDir) {
@@ -264,7 +294,7 @@ public class EntityFactory {
         TextureComponent texture = new TextureComponent();
         int size = (int) Math.pow(2, MathUtils.random(5, 7));
         int chunkSize = SpaceProject.configManager.getConfig(WorldConfig.class).chunkSize;
-        texture.texture = TextureFactory.generatePlanetPlaceholder(size, chunkSize);
+        texture.region = TextureFactory.acquirePlanetPlaceholder(size, chunkSize);
         texture.scale = 16;
         entity.add(texture);
         
@@ -293,13 +323,13 @@ public class EntityFactory {
     
     public static Entity createAsteroid(long seed, float x, float y, float velX, float velY, float angle, float[] vertices) {
         MathUtils.random.setSeed(seed);
-        Entity entity = new Entity();
+        Entity entity = createPooledEntity();
     
-        SeedComponent seedComp = new SeedComponent();
+        SeedComponent seedComp = createComponent(SeedComponent.class);
         seedComp.seed = seed;
         entity.add(seedComp);
         
-        TransformComponent transform = new TransformComponent();
+        TransformComponent transform = createComponent(TransformComponent.class);
         transform.pos.set(x, y);
         entity.add(transform);
     
@@ -308,7 +338,7 @@ public class EntityFactory {
         We must be careful because the notion of CCW is with respect to a right-handed coordinate
         system with the z-axis pointing out of the plane.
         */
-        AsteroidComponent asteroid = new AsteroidComponent();
+        AsteroidComponent asteroid = createComponent(AsteroidComponent.class);
         Polygon polygon = new Polygon(vertices);
         float area = Math.abs(GeometryUtils.polygonArea(polygon.getVertices(), 0, polygon.getVertices().length));
         asteroid.polygon = polygon;
@@ -316,7 +346,7 @@ public class EntityFactory {
         asteroid.color = new Color(MathUtils.random(), MathUtils.random(), MathUtils.random(), 1);
         entity.add(asteroid);
     
-        PhysicsComponent physics = new PhysicsComponent();
+        PhysicsComponent physics = createComponent(PhysicsComponent.class);
         float density = 0.5f;
         physics.body = BodyFactory.createPoly(transform.pos.x, transform.pos.y,
                 polygon.getVertices(), angle, density, BodyDef.BodyType.DynamicBody,
@@ -325,7 +355,7 @@ public class EntityFactory {
         physics.body.setLinearVelocity(velX, velY);
         entity.add(physics);
         
-        HealthComponent health = new HealthComponent();
+        HealthComponent health = createComponent(HealthComponent.class);
         health.maxHealth = area * 0.1f;
         health.health = health.maxHealth;
         entity.add(health);
@@ -334,6 +364,8 @@ public class EntityFactory {
     }
     
     public static Entity createAsteroid(long seed, float x, float y, float velX, float velY, float size) {
+        //shape derived from seed and size only, so the asteroid can be recreated from them (eg: network, save)
+        MathUtils.random.setSeed(seed);
         //create random set of points
         int numPoints = 7;//Box2D poly vert limit is 8: Assertion `3 <= count && count <= 8' failed.
         FloatArray points = new FloatArray();
@@ -361,7 +393,9 @@ public class EntityFactory {
             hull[index + 1] -= center.y;
         }
         
-        return createAsteroid(seed, x, y, velX, velY, 0, hull);
+        Entity entity = createAsteroid(seed, x, y, velX, velY, 0, hull);
+        Mappers.asteroid.get(entity).size = size;
+        return entity;
     }
     //endregion
     
@@ -394,16 +428,15 @@ public class EntityFactory {
         
         //generate 3D sprite with random even size
         int shipSize = MathUtils.random(entityCFG.shipSizeMin, entityCFG.shipSizeMax) * 2;
-        Texture shipTop = TextureFactory.generateShip(seed, shipSize);
-        Texture shipBottom = TextureFactory.generateShipUnderSide(shipTop);
+        TextureRegion shipTex = TextureFactory.acquireShip(seed, shipSize);
         Sprite3DComponent sprite3DComp = new Sprite3DComponent();
-        sprite3DComp.renderable = new Sprite3D(shipTop, shipBottom, engineCFG.sprite3DScale);
+        sprite3DComp.renderable = new Sprite3D(shipTex, engineCFG.sprite3DScale);
         shipEntity.add(sprite3DComp);
         
         //collision detection
         PhysicsComponent physics = new PhysicsComponent();
-        float width = shipTop.getWidth() * engineCFG.bodyScale;
-        float height = shipTop.getHeight() * engineCFG.bodyScale;
+        float width = sprite3DComp.renderable.getFrameWidth() * engineCFG.bodyScale;
+        float height = sprite3DComp.renderable.getFrameHeight() * engineCFG.bodyScale;
         physics.body = BodyFactory.createShip(x, y, width, height, shipEntity, inSpace);
         shipEntity.add(physics);
         
@@ -554,21 +587,21 @@ public class EntityFactory {
     
     
     public static Entity createWall(float x, float y, int width, int height) {
-        Entity entity = new Entity();
+        Entity entity = createPooledEntity();
         
-        TextureComponent texture = new TextureComponent();
-        texture.texture = TextureFactory.generateWall(
+        TextureComponent texture = createComponent(TextureComponent.class);
+        texture.region = TextureFactory.acquireWall(
                 width * engineCFG.pixelPerUnit,
                 height * engineCFG.pixelPerUnit,
                 new Color(0.4f, 0.4f, 0.4f, 1));
         texture.scale = 0.05f;
         entity.add(texture);
     
-        PhysicsComponent physics = new PhysicsComponent();
+        PhysicsComponent physics = createComponent(PhysicsComponent.class);
         physics.body = BodyFactory.createWall(x, y, width, height, entity);
         entity.add(physics);
         
-        TransformComponent transform = new TransformComponent();
+        TransformComponent transform = createComponent(TransformComponent.class);
         transform.pos.set(x, y);
         transform.zOrder = RenderOrder.WORLD_OBJECTS.getHierarchy();
         entity.add(transform);
@@ -576,4 +609,29 @@ public class EntityFactory {
         return entity;
     }
     
+    //region pooling
+    /**
+     * Short lived entities are taken from the engine so they are recycled when running a PooledEngine.
+     * A pooled entity resets and frees its components when removed from the engine: it must not be kept
+     * across screen transitions or give its components to another entity (see ECSUtil.transferComponent).
+     */
+    private static Entity createPooledEntity() {
+        Engine engine = GameScreen.getEngine();
+        return engine != null ? engine.createEntity() : new Entity();
+    }
+    
+    private static <T extends Component> T createComponent(Class<T> componentType) {
+        Engine engine = GameScreen.getEngine();
+        if (engine != null) {
+            return engine.createComponent(componentType);
+        }
+        
+        try {
+            return ClassReflection.newInstance(componentType);
+        } catch (ReflectionException e) {
+            throw new GdxRuntimeException(e);
+        }
+    }
+    //endregion
+    
 }
@@ -0,0 +1,352 @@
+package com.spaceproject.generation;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.spaceproject.SpaceProject;
+import com.spaceproject.components.BarycenterComponent.AstronomicalBodyType;
+import com.spaceproject.config.CelestialConfig;
+import com.spaceproject.config.WorldConfig;
+import com.spaceproject.math.MyMath;
+import com.spaceproject.screens.GameScreen;
+
+/**
+ * Position and velocity of any star, planet or moon at any game time, without loading its system.
+ * A system's layout (which bodies, their seeds and orbits) is derived from the AstroBody location and CelestialConfig,
+ * and positions follow the same closed form orbit as OrbitSystem: angle is a function of game time.
+ * SpaceLoadingSystem creates entities from these descriptions, so loaded bodies are where the ephemeris says.
+ * Descriptions are cached by system seed.
+ */
+public class Ephemeris {
+    
+    public enum Kind {
+        barycenter, star, planet, moon
+    }
+    
+    public static class Body {
+        public long seed;
+        public Kind kind;
+        //index in system, parents come before their children
+        public int index;
+        public Body parent;
+        public StarSystem system;
+        //fixed position of bodies without a parent
+        public float x, y;
+        public float radialDistance, tangentialSpeed, startAngle;
+        public boolean rotateClockwise;
+        //planets and moons: size of tile map
+        public int mapSize;
+        //stars: texture radius
+        public int starRadius;
+    }
+    
+    public static class StarSystem {
+        public long seed;
+        public AstronomicalBodyType type;
+        public float x, y;
+        public final Array<Body> bodies = new Array<>();
+    }
+    
+    private static final CelestialConfig celestCFG = SpaceProject.configManager.getConfig(CelestialConfig.class);
+    //world size of planets is tile map size / chunk size * texture scale, see EntityFactory.createPlanet
+    private static final int planetTextureScale = 16;
+    
+    private static final LongMap<StarSystem> systems = new LongMap<>();
+    private static final LongMap<Body> bodies = new LongMap<>();
+    //layout and body draws use their own generators, so they don't depend on anything else using MathUtils.random
+    private static final RandomXS128 layoutRandom = new RandomXS128();
+    private static final RandomXS128 bodyRandom = new RandomXS128();
+    private static final Vector2 temp = new Vector2();
+    
+    //region layout
+    public static StarSystem getSystem(AstroBody astroBody) {
+        return getSystem(astroBody.x, astroBody.y);
+    }
+    
+    public static StarSystem getSystem(float x, float y) {
+        long seed = MyMath.getSeed(x, y);
+        StarSystem system = systems.get(seed);
+        if (system == null) {
+            system = describe(seed, x, y);
+            systems.put(seed, system);
+            for (Body body : system.bodies) {
+                bodies.put(body.seed, body);
+            }
+        }
+        return system;
+    }
+    
+    /** @return body with seed from any system in the galaxy, or null if there isn't one */
+    public static Body findBody(long seed) {
+        Body body = bodies.get(seed);
+        if (body != null || GameScreen.galaxy == null) {
+            return body;
+        }
+        
+        //describe systems until found, they stay cached
+        for (AstroBody astroBody : GameScreen.galaxy.objects) {
+            if (systems.containsKey(astroBody.seed)) continue;
+            
+            getSystem(astroBody);
+            body = bodies.get(seed);
+            if (body != null) {
+                return body;
+            }
+        }
+        return null;
+    }
+    
+    public static void clear() {
+        systems.clear();
+        bodies.clear();
+    }
+    
+    private static StarSystem describe(long seed, float x, float y) {
+        StarSystem system = new StarSystem();
+        system.seed = seed;
+        system.x = x;
+        system.y = y;
+        
+        layoutRandom.setSeed(seed);
+        int type = layoutRandom.nextInt(3);
+        if (GameScreen.isDebugMode) {
+            type = 0;
+        }
+        switch (type) {
+            case 0: describePlanetarySystem(system); break;
+            case 1: describeBinarySystem(system); break;
+            case 2: describeRoguePlanet(system); break;
+        }
+        return system;
+    }
+    
+    private static void describePlanetarySystem(StarSystem system) {
+        float x = system.x, y = system.y;
+        
+        //number of planets in a system
+        int numPlanets = range(layoutRandom, celestCFG.minPlanets, celestCFG.maxPlanets);
+        system.type = numPlanets == 0 ? AstronomicalBodyType.loneStar : AstronomicalBodyType.uniStellar;
+        
+        //distance between planets
+        float distance = celestCFG.minPlanetDist / 3; //add some initial distance between star and first planet
+        
+        //rotation of system (orbits and spins)
+        boolean clockwise = layoutRandom.nextBoolean();
+        
+        //star at center of planetary system
+        Body star = addBody(system, system.seed, Kind.star, null);
+        star.x = x;
+        star.y = y;
+        star.rotateClockwise = clockwise;
+        drawStarElements(star);
+        
+        for (int i = 0; i < numPlanets; ++i) {
+            //add some distance from previous body
+            distance += range(layoutRandom, celestCFG.minPlanetDist, celestCFG.maxPlanetDist);
+            
+            Body planet = addOrbitingBody(system, MyMath.getSeed(x, y + distance), Kind.planet, star, distance, clockwise);
+            
+            if (layoutRandom.nextBoolean()) {
+                float moonDist = getWorldSize(planet) * 2 * 0.7f;
+                distance += moonDist;
+                addOrbitingBody(system, MyMath.getSeed(x, y + distance), Kind.moon, planet, moonDist, clockwise);
+            }
+        }
+    }
+    
+    private static void describeBinarySystem(StarSystem system) {
+        float x = system.x, y = system.y;
+        system.type = AstronomicalBodyType.multiStellar;
+        
+        Body anchor = addBody(system, system.seed, Kind.barycenter, null);
+        anchor.x = x;
+        anchor.y = y;
+        
+        float distance = celestCFG.maxPlanetSize * 2 + celestCFG.maxPlanetDist * 2;
+        boolean clockwise = layoutRandom.nextBoolean();
+        float startAngle = layoutRandom.nextFloat() * MathUtils.PI2;
+        float tangentialSpeed = range(layoutRandom, celestCFG.minPlanetTangentialSpeed, celestCFG.maxPlanetTangentialSpeed);
+        
+        Body starA = addBody(system, MyMath.getSeed(x + distance, y), Kind.star, anchor);
+        starA.radialDistance = distance;
+        starA.tangentialSpeed = tangentialSpeed;
+        starA.startAngle = startAngle;
+        starA.rotateClockwise = clockwise;
+        drawStarElements(starA);
+        
+        Body starB = addBody(system, MyMath.getSeed(x - distance, y), Kind.star, anchor);
+        starB.radialDistance = distance;
+        starB.tangentialSpeed = tangentialSpeed;
+        starB.startAngle = startAngle + MathUtils.PI;
+        starB.rotateClockwise = clockwise;
+        drawStarElements(starB);
+    }
+    
+    private static void describeRoguePlanet(StarSystem system) {
+        float x = system.x, y = system.y;
+        system.type = AstronomicalBodyType.roguePlanet;
+        
+        Body planet = addBody(system, system.seed, Kind.planet, null);
+        planet.x = x;
+        planet.y = y;
+        planet.rotateClockwise = layoutRandom.nextBoolean();
+        drawBodyElements(planet);
+        //doesn't orbit
+        planet.tangentialSpeed = 0;
+        
+        if (layoutRandom.nextBoolean()) {
+            float moonDist = getWorldSize(planet) * 2;
+            boolean clockwise = layoutRandom.nextBoolean();
+            addOrbitingBody(system, MyMath.getSeed(x, y + moonDist), Kind.moon, planet, moonDist, clockwise);
+        }
+    }
+    
+    private static Body addBody(StarSystem system, long seed, Kind kind, Body parent) {
+        Body body = new Body();
+        body.seed = seed;
+        body.kind = kind;
+        body.parent = parent;
+        body.system = system;
+        body.index = system.bodies.size;
+        system.bodies.add(body);
+        return body;
+    }
+    
+    private static Body addOrbitingBody(StarSystem system, long seed, Kind kind, Body parent, float radialDistance, boolean clockwise) {
+        Body body = addBody(system, seed, kind, parent);
+        body.radialDistance = radialDistance;
+        body.rotateClockwise = clockwise;
+        drawBodyElements(body);
+        return body;
+    }
+    
+    /** per body draws, same order as EntityFactory.createPlanet / createMoon: size, orbit speed, start angle */
+    private static void drawBodyElements(Body body) {
+        bodyRandom.setSeed(body.seed);
+        body.mapSize = (int) Math.pow(2, body.kind == Kind.moon ? range(bodyRandom, 5, 7) : range(bodyRandom, 7, 10));
+        body.tangentialSpeed = range(bodyRandom, celestCFG.minPlanetTangentialSpeed, celestCFG.maxPlanetTangentialSpeed);
+        body.startAngle = bodyRandom.nextFloat() * MathUtils.PI2;
+    }
+    
+    /** per star draws, same order as EntityFactory.createStar: temperature, radius */
+    private static void drawStarElements(Body body) {
+        bodyRandom.setSeed(body.seed);
+        range(bodyRandom, 1000, 50000);
+        body.starRadius = range(bodyRandom, celestCFG.minStarSize, celestCFG.maxStarSize);
+    }
+    
+    private static int range(RandomXS128 random, int start, int end) {
+        return start + random.nextInt(end - start + 1);
+    }
+    
+    private static float range(RandomXS128 random, float start, float end) {
+        return start + random.nextFloat() * (end - start);
+    }
+    
+    /** diameter in world units of a planet or moon */
+    public static float getWorldSize(Body body) {
+        int chunkSize = SpaceProject.configManager.getConfig(WorldConfig.class).chunkSize;
+        return body.mapSize / chunkSize * planetTextureScale;
+    }
+    //endregion
+    
+    //region position
+    public static Vector2 getPosition(Body body, long time, Vector2 out) {
+        out.setZero();
+        while (body.parent != null) {
+            float angle = getOrbitAngle(body.tangentialSpeed, body.radialDistance, body.startAngle, body.rotateClockwise, time);
+            out.add(MathUtils.cos(angle) * body.radialDistance, MathUtils.sin(angle) * body.radialDistance);
+            body = body.parent;
+        }
+        return out.add(body.x, body.y);
+    }
+    
+    public static Vector2 getVelocity(Body body, long time, Vector2 out) {
+        out.setZero();
+        while (body.parent != null) {
+            float angle = getOrbitAngle(body.tangentialSpeed, body.radialDistance, body.startAngle, body.rotateClockwise, time);
+            addTangentialVelocity(body, angle, out);
+            body = body.parent;
+        }
+        return out;
+    }
+    
+    /**
+     * Batched: position and velocity of every body in the system in one pass, x y pairs in body index order.
+     * Each angle is computed once and parents are reused for their children.
+     */
+    public static void getState(StarSystem system, long time, FloatArray positions, FloatArray velocities) {
+        int count = system.bodies.size;
+        positions.setSize(count * 2);
+        velocities.setSize(count * 2);
+        float[] pos = positions.items;
+        float[] vel = velocities.items;
+        
+        for (int i = 0; i < count; i++) {
+            Body body = system.bodies.get(i);
+            int p = i * 2;
+            if (body.parent == null) {
+                pos[p] = body.x;
+                pos[p + 1] = body.y;
+                vel[p] = vel[p + 1] = 0;
+                continue;
+            }
+            
+            int parent = body.parent.index * 2;
+            float angle = getOrbitAngle(body.tangentialSpeed, body.radialDistance, body.startAngle, body.rotateClockwise, time);
+            float cos = MathUtils.cos(angle);
+            float sin = MathUtils.sin(angle);
+            pos[p] = pos[parent] + cos * body.radialDistance;
+            pos[p + 1] = pos[parent + 1] + sin * body.radialDistance;
+            
+            //tangential velocity, perpendicular to the radius
+            float side = body.rotateClockwise ? 1 : -1;
+            vel[p] = vel[parent] - sin * body.tangentialSpeed * side;
+            vel[p + 1] = vel[parent + 1] + cos * body.tangentialSpeed * side;
+        }
+    }
+    
+    /** Batched: positions of any bodies, x y pairs in the same order */
+    public static void getPositions(Array<Body> bodies, long time, FloatArray out) {
+        out.setSize(bodies.size * 2);
+        for (int i = 0; i < bodies.size; i++) {
+            getPosition(bodies.get(i), time, temp);
+            out.items[i * 2] = temp.x;
+            out.items[i * 2 + 1] = temp.y;
+        }
+    }
+    
+    private static void addTangentialVelocity(Body body, float angle, Vector2 out) {
+        float side = body.rotateClockwise ? 1 : -1;
+        out.add(-MathUtils.sin(angle) * body.tangentialSpeed * side, MathUtils.cos(angle) * body.tangentialSpeed * side);
+    }
+    
+    /** time-synced orbit angle: position along the orbit as a function of game time, based on tangential speed */
+    public static float getOrbitAngle(float tangentialSpeed, float radialDistance, float startAngle, boolean clockwise, long gameTime) {
+        float angularSpeed = tangentialSpeed / radialDistance;
+        long msPerRevolution = (long) (1000 * MathUtils.PI2 / angularSpeed);
+        float timeSyncAngle = 0;
+        if (msPerRevolution != 0) {
+            timeSyncAngle = MathUtils.PI2 * ((float) (gameTime % msPerRevolution) / (float) msPerRevolution);
+        }
+        
+        timeSyncAngle = clockwise ? timeSyncAngle : -timeSyncAngle;
+        
+        //keep angle relative to starting position
+        timeSyncAngle += startAngle;
+        
+        //keep angle within 0 to 2PI radians
+        if (timeSyncAngle > MathUtils.PI2) {
+            timeSyncAngle -= MathUtils.PI2;
+        } else if (timeSyncAngle < 0) {
+            timeSyncAngle += MathUtils.PI2;
+        }
+        
+        return timeSyncAngle;
+    }
+    //endregion
+    
+}
@@ -0,0 +1,266 @@
+package com.spaceproject.generation;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Runtime texture atlas for generated content (ships, planets, stars, projectiles...).
+ * Generated pixmaps are packed into a few shared pages instead of each getting its own GL texture,
+ * so sprites on the same page are drawn without a texture bind in between.
+ * Regions are reference counted and keyed like TextureCache. A region with no references stays resident
+ * so it can be acquired again, until its page is evicted (least recently used page with no live regions)
+ * to make room for new content.
+ */
+public class RuntimeAtlas {
+    
+    private static final int PAGE_SIZE = 1024;
+    private static final int MAX_PAGES = 8;
+    //transparent border around each region so linear filtering doesn't bleed neighbors in
+    private static final int PADDING = 1;
+    
+    private static class Page {
+        Texture texture;
+        TextureFilter filter;
+        int width, height;
+        final Array<Shelf> shelves = new Array<>();
+        final Array<Region> regions = new Array<>();
+        int shelfTop;
+        int liveRefs;
+        long lastUsed;
+        boolean dedicated;
+    }
+    
+    private static class Shelf {
+        int y, height, x;
+    }
+    
+    private static class Region extends TextureRegion {
+        String key;
+        Page page;
+        int refCount;
+        
+        Region(Page page, int x, int y, int width, int height) {
+            super(page.texture, x, y, width, height);
+            this.page = page;
+        }
+    }
+    
+    private static final ObjectMap<String, Region> byKey = new ObjectMap<>();
+    private static final Array<Page> pages = new Array<>();
+    
+    private static long useCounter;
+    private static int hits, misses, evicted;
+    private static final StringBuilder info = new StringBuilder();
+    
+    /** @return region for key with its reference count incremented, or null if not resident */
+    public static TextureRegion acquire(String key) {
+        Region region = byKey.get(key);
+        if (region == null) {
+            misses++;
+            return null;
+        }
+        
+        retain(region);
+        hits++;
+        return region;
+    }
+    
+    public static TextureRegion add(String key, Pixmap pixmap) {
+        return add(key, pixmap, TextureFilter.Nearest);
+    }
+    
+    /**
+     * Pack pixmap into a page with a single reference held by the caller.
+     * The pixmap is copied to the page and not disposed; the caller still owns it.
+     */
+    public static TextureRegion add(String key, Pixmap pixmap, TextureFilter filter) {
+        int paddedWidth = pixmap.getWidth() + PADDING * 2;
+        int paddedHeight = pixmap.getHeight() + PADDING * 2;
+        
+        Page page = null;
+        Shelf shelf = null;
+        if (paddedWidth > PAGE_SIZE || paddedHeight > PAGE_SIZE) {
+            //too big to share a page
+            page = createPage(paddedWidth, paddedHeight, filter);
+            page.dedicated = true;
+            shelf = openShelf(page, paddedHeight);
+        } else {
+            for (Page p : pages) {
+                if (p.dedicated || p.filter != filter) continue;
+                shelf = findShelf(p, paddedWidth, paddedHeight);
+                if (shelf != null) {
+                    page = p;
+                    break;
+                }
+            }
+            if (page == null) {
+                page = obtainPage(filter);
+                shelf = findShelf(page, paddedWidth, paddedHeight);
+            }
+        }
+        
+        //upload padded copy so the border is cleared of anything previously packed there
+        Pixmap padded = new Pixmap(paddedWidth, paddedHeight, Pixmap.Format.RGBA8888);
+        padded.setBlending(Pixmap.Blending.None);
+        padded.drawPixmap(pixmap, PADDING, PADDING);
+        page.texture.draw(padded, shelf.x, shelf.y);
+        padded.dispose();
+        
+        Region region = new Region(page, shelf.x + PADDING, shelf.y + PADDING, pixmap.getWidth(), pixmap.getHeight());
+        shelf.x += paddedWidth;
+        
+        region.key = key;
+        page.regions.add(region);
+        Region previous = byKey.put(key, region);
+        if (previous != null) {
+            //replaced content is no longer reachable by key, but stays packed until its page is evicted
+            previous.key = null;
+        }
+        retain(region);
+        return region;
+    }
+    
+    /**
+     * Release a reference to the region. Regions that don't belong to the atlas have their texture
+     * released through TextureCache, so this can be used for any region a TextureComponent holds.
+     * @return true if this was the last reference
+     */
+    public static boolean release(TextureRegion textureRegion) {
+        if (!(textureRegion instanceof Region)) {
+            return TextureCache.release(textureRegion.getTexture());
+        }
+        
+        Region region = (Region) textureRegion;
+        if (region.refCount <= 0) {
+            Gdx.app.error(RuntimeAtlas.class.getSimpleName(), "region released more than acquired: " + region.key);
+            return false;
+        }
+        
+        region.refCount--;
+        region.page.liveRefs--;
+        if (region.refCount > 0) {
+            return false;
+        }
+        
+        Page page = region.page;
+        if (page.liveRefs == 0 && (page.dedicated || pages.size > MAX_PAGES)) {
+            //over budget, don't keep unused pages around
+            disposePage(page);
+        }
+        return true;
+    }
+    
+    private static void retain(Region region) {
+        region.refCount++;
+        region.page.liveRefs++;
+        region.page.lastUsed = ++useCounter;
+    }
+    
+    /**
+     * Best fit: the shortest shelf the region fits on. A new shelf is opened instead when the best
+     * one is more than twice as tall, so small sprites don't fill up rows meant for stars.
+     */
+    private static Shelf findShelf(Page page, int width, int height) {
+        Shelf best = null;
+        for (Shelf shelf : page.shelves) {
+            if (shelf.height < height || page.width - shelf.x < width) continue;
+            if (best == null || shelf.height < best.height) {
+                best = shelf;
+            }
+        }
+        
+        boolean canOpen = page.height - page.shelfTop >= height && page.width >= width;
+        if (best != null && (best.height <= height * 2 || !canOpen)) {
+            return best;
+        }
+        return canOpen ? openShelf(page, height) : null;
+    }
+    
+    private static Shelf openShelf(Page page, int height) {
+        Shelf shelf = new Shelf();
+        shelf.y = page.shelfTop;
+        shelf.height = height;
+        page.shelfTop += height;
+        page.shelves.add(shelf);
+        return shelf;
+    }
+    
+    /** new page if under budget, otherwise reuse the least recently used page that has no live regions */
+    private static Page obtainPage(TextureFilter filter) {
+        if (pages.size < MAX_PAGES) {
+            return createPage(PAGE_SIZE, PAGE_SIZE, filter);
+        }
+        
+        Page lru = null;
+        for (Page page : pages) {
+            if (page.dedicated || page.liveRefs > 0) continue;
+            if (lru == null || page.lastUsed < lru.lastUsed) {
+                lru = page;
+            }
+        }
+        
+        if (lru == null) {
+            Gdx.app.debug(RuntimeAtlas.class.getSimpleName(), "all pages in use, exceeding budget: " + (pages.size + 1));
+            return createPage(PAGE_SIZE, PAGE_SIZE, filter);
+        }
+        
+        evict(lru);
+        if (lru.filter != filter) {
+            lru.filter = filter;
+            lru.texture.setFilter(filter, filter);
+        }
+        return lru;
+    }
+    
+    private static Page createPage(int width, int height, TextureFilter filter) {
+        Page page = new Page();
+        page.width = width;
+        page.height = height;
+        page.filter = filter;
+        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        page.texture = new Texture(pixmap);
+        page.texture.setFilter(filter, filter);
+        pixmap.dispose();
+        pages.add(page);
+        return page;
+    }
+    
+    /** forget every region on the page so its space can be packed again */
+    private static void evict(Page page) {
+        for (Region region : page.regions) {
+            if (region.key != null) {
+                byKey.remove(region.key);
+            }
+        }
+        page.regions.clear();
+        page.shelves.clear();
+        page.shelfTop = 0;
+        evicted++;
+    }
+    
+    private static void disposePage(Page page) {
+        evict(page);
+        pages.removeValue(page, true);
+        page.texture.dispose();
+    }
+    
+    public static CharSequence getInfo() {
+        int live = 0;
+        for (Region region : byKey.values()) {
+            if (region.refCount > 0) live++;
+        }
+        info.setLength(0);
+        info.append("[Runtime Atlas] pages: ").append(pages.size);
+        info.append(" regions: ").append(live).append("/").append(byKey.size);
+        info.append(" hits: ").append(hits);
+        info.append(" misses: ").append(misses);
+        info.append(" evicted: ").append(evicted);
+        return info;
+    }
+    
+}
@@ -0,0 +1,87 @@
+package com.spaceproject.generation;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Reference counted store for generated textures that many entities or systems can share.
+ * Textures are keyed by the generator and the parameters they were generated from, see TextureFactory.acquire*().
+ * A shared texture is only disposed once its last user releases it.
+ */
+public class TextureCache {
+    
+    private static class Entry {
+        String key;
+        Texture texture;
+        int refCount;
+    }
+    
+    private static final ObjectMap<String, Entry> byKey = new ObjectMap<>();
+    private static final IdentityMap<Texture, Entry> byTexture = new IdentityMap<>();
+    
+    private static int hits, misses, released;
+    private static final StringBuilder info = new StringBuilder();
+    
+    /** @return cached texture for key with its reference count incremented, or null if not cached */
+    public static Texture acquire(String key) {
+        Entry entry = byKey.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        
+        entry.refCount++;
+        hits++;
+        return entry.texture;
+    }
+    
+    /** Add newly generated texture to the cache with a single reference held by the caller. */
+    public static Texture add(String key, Texture texture) {
+        Entry entry = new Entry();
+        entry.key = key;
+        entry.texture = texture;
+        entry.refCount = 1;
+        byKey.put(key, entry);
+        byTexture.put(texture, entry);
+        return texture;
+    }
+    
+    public static boolean isCached(Texture texture) {
+        return byTexture.containsKey(texture);
+    }
+    
+    /**
+     * Release a reference to the texture. Textures that are not cached are disposed immediately,
+     * so this can be used in place of Texture.dispose() for any generated texture.
+     * @return true if the texture was disposed
+     */
+    public static boolean release(Texture texture) {
+        Entry entry = byTexture.get(texture);
+        if (entry == null) {
+            texture.dispose();
+            return true;
+        }
+        
+        entry.refCount--;
+        if (entry.refCount > 0) {
+            return false;
+        }
+        
+        byKey.remove(entry.key);
+        byTexture.remove(texture);
+        texture.dispose();
+        released++;
+        return true;
+    }
+    
+    public static CharSequence getInfo() {
+        info.setLength(0);
+        info.append("[Texture Cache] shared: ").append(byKey.size);
+        info.append(" hits: ").append(hits);
+        info.append(" misses: ").append(misses);
+        info.append(" released: ").append(released);
+        return info;
+    }
+    
+}
@@ -4,6 +4,7 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Pixmap.Format;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 import com.spaceproject.math.BlackBodyColorSpectrum;
@@ -18,6 +19,13 @@ import java.util.ArrayList;
 public class TextureFactory {
     
     public static Texture generateCharacter() {
+        Pixmap pixmap = createCharacterPixmap();
+        Texture t = new Texture(pixmap);
+        pixmap.dispose();
+        return t;
+    }
+    
+    private static Pixmap createCharacterPixmap() {
         Pixmap pixmap = new Pixmap(4, 4, Format.RGB565);
         
         //fill square
@@ -29,9 +37,18 @@ public class TextureFactory {
         pixmap.drawPixel(3, 2);
         pixmap.drawPixel(3, 1);
         
-        Texture t = new Texture(pixmap);
-        pixmap.dispose();
-        return t;
+        return pixmap;
+    }
+    
+    public static TextureRegion acquireCharacter() {
+        String key = "character";
+        TextureRegion region = RuntimeAtlas.acquire(key);
+        if (region == null) {
+            Pixmap pixmap = createCharacterPixmap();
+            region = RuntimeAtlas.add(key, pixmap);
+            pixmap.dispose();
+        }
+        return region;
     }
     
     //region space background dust n stars
@@ -158,30 +175,84 @@ public class TextureFactory {
     
     //region planet and star game objects
     public static Texture generatePlanet(int[][] tileMap, ArrayList<Tile> tiles) {
-        int size = tileMap.length;
+        Pixmap pixmap = createPlanetPixmap(tileMap, tiles);
+        Texture t = new Texture(pixmap);
+        pixmap.dispose();
+        return t;
+    }
+    
+    /** planet texture packed into the runtime atlas, keyed by seed so a revisited planet can skip drawing */
+    public static TextureRegion acquirePlanet(long seed, int[][] tileMap, ArrayList<Tile> tiles) {
+        return acquirePlanet(seed, tileMap, tiles, tileMap.length);
+    }
+    
+    /**
+     * planet texture of the given size, sampled from the tileMap. keyed by seed and size so each
+     * level of detail is generated once and stays in the atlas until evicted
+     */
+    public static TextureRegion acquirePlanet(long seed, int[][] tileMap, ArrayList<Tile> tiles, int size) {
+        String key = getPlanetKey(seed, size);
+        TextureRegion region = RuntimeAtlas.acquire(key);
+        if (region == null) {
+            Pixmap pixmap = createPlanetPixmap(tileMap, tiles, size);
+            region = RuntimeAtlas.add(key, pixmap);
+            pixmap.dispose();
+        }
+        return region;
+    }
+    
+    private static Pixmap createPlanetPixmap(int[][] tileMap, ArrayList<Tile> tiles) {
+        return createPlanetPixmap(tileMap, tiles, tileMap.length);
+    }
+    
+    /** atlas key of the planet texture, for generating it elsewhere (eg: in the background, see createPlanetPixmap) */
+    public static String getPlanetKey(long seed, int size) {
+        return "planet:" + seed + ":" + size;
+    }
+    
+    /** doesn't touch GL, so it can run on a worker thread. upload with RuntimeAtlas.add under getPlanetKey */
+    public static Pixmap createPlanetPixmap(int[][] tileMap, ArrayList<Tile> tiles, int size) {
         Pixmap pixmap = new Pixmap(size, size, Format.RGBA4444);
         
         // draw circle for planet
         pixmap.setColor(1, 1, 1, 1);
         pixmap.fillCircle(size / 2, size / 2, size / 2 - 1);
         
-        //draw noise
+        //draw noise, nearest sample when size doesn't match the map
+        int mapSize = tileMap.length;
         for (int y = 0; y < size; ++y) {
             for (int x = 0; x < size; ++x) {
                 //only draw on circle
                 if (pixmap.getPixel(x, y) != 0) {
-                    pixmap.setColor(tiles.get(tileMap[x][y]).getColor());
+                    pixmap.setColor(tiles.get(tileMap[x * mapSize / size][y * mapSize / size]).getColor());
                     pixmap.drawPixel(x, y);
                 }
             }
         }
         
+        return pixmap;
+    }
+    
+    public static Texture generatePlanetPlaceholder(int mapSize, int chunkSize) {
+        Pixmap pixmap = createPlanetPlaceholderPixmap(mapSize, chunkSize);
         Texture t = new Texture(pixmap);
         pixmap.dispose();
         return t;
     }
     
-    public static Texture generatePlanetPlaceholder(int mapSize, int chunkSize) {
+    /** placeholders are plain circles, so every planet of the same size shares one */
+    public static TextureRegion acquirePlanetPlaceholder(int mapSize, int chunkSize) {
+        String key = "planetPlaceholder:" + (mapSize / chunkSize);
+        TextureRegion region = RuntimeAtlas.acquire(key);
+        if (region == null) {
+            Pixmap pixmap = createPlanetPlaceholderPixmap(mapSize, chunkSize);
+            region = RuntimeAtlas.add(key, pixmap);
+            pixmap.dispose();
+        }
+        return region;
+    }
+    
+    private static Pixmap createPlanetPlaceholderPixmap(int mapSize, int chunkSize) {
         int size = mapSize / chunkSize;//SIZE = chunks = tileMap.length/chunkSize
         Pixmap pixmap = new Pixmap(size, size, Format.RGBA4444);
         
@@ -189,13 +260,35 @@ public class TextureFactory {
         pixmap.setColor(1, 1, 1, 1);
         pixmap.fillCircle(size / 2, size / 2, size / 2 - 1);
         
-        Texture t = new Texture(pixmap);
-        pixmap.dispose();
-        return t;
+        return pixmap;
     }
     
     /** generate circular grayscale heightmap to represent star and features */
     public static Texture generateStar(long seed, int radius, double scale) {
+        Pixmap pixmap = createStarPixmap(seed, radius, scale);
+        Texture texture = new Texture(pixmap);
+        texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        pixmap.dispose();
+        return texture;
+    }
+    
+    public static TextureRegion acquireStar(long seed, int radius, double scale) {
+        String key = getStarKey(seed, radius, scale);
+        TextureRegion region = RuntimeAtlas.acquire(key);
+        if (region == null) {
+            Pixmap pixmap = createStarPixmap(seed, radius, scale);
+            region = RuntimeAtlas.add(key, pixmap, Texture.TextureFilter.Linear);
+            pixmap.dispose();
+        }
+        return region;
+    }
+    
+    public static String getStarKey(long seed, int radius, double scale) {
+        return "star:" + seed + ":" + radius + ":" + scale;
+    }
+    
+    /** doesn't touch GL, so it can run on a worker thread. upload with RuntimeAtlas.add under getStarKey, linear filtered */
+    public static Pixmap createStarPixmap(long seed, int radius, double scale) {
         OpenSimplexNoise noise = new OpenSimplexNoise(seed);
         //Pixmap pixmap = new Pixmap(radius * 2, radius * 2, Format.RGBA4444);
         Pixmap pixmap = new Pixmap(radius * 2, radius * 2, Format.RGBA8888);
@@ -218,10 +311,7 @@ public class TextureFactory {
             }
         }
         
-        Texture texture = new Texture(pixmap);
-        texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-        pixmap.dispose();
-        return texture;
+        return pixmap;
     }
     
     /** old style hard coded color */
@@ -448,6 +538,35 @@ public class TextureFactory {
         
         return new Texture(pixmap);
     }
+    
+    /**
+     * Ship top and underside packed into a single region (top half front, bottom half back), shared by all ships of the same seed.
+     * Sprites loaded into a Sprite3D material must come from the same texture, ships packed on the same atlas page share it.
+     */
+    public static TextureRegion acquireShip(long seed, int size) {
+        String key = "ship:" + seed + ":" + size;
+        TextureRegion region = RuntimeAtlas.acquire(key);
+        if (region != null) {
+            return region;
+        }
+        
+        Texture shipTop = generateShip(seed, size);
+        Texture shipBottom = generateShipUnderSide(shipTop);
+        Pixmap topPixmap = shipTop.getTextureData().consumePixmap();
+        Pixmap bottomPixmap = shipBottom.getTextureData().consumePixmap();
+        
+        Pixmap pixmap = new Pixmap(shipTop.getWidth(), shipTop.getHeight() * 2, Format.RGBA8888);
+        pixmap.drawPixmap(topPixmap, 0, 0);
+        pixmap.drawPixmap(bottomPixmap, 0, shipTop.getHeight());
+        region = RuntimeAtlas.add(key, pixmap);
+        
+        pixmap.dispose();
+        topPixmap.dispose();
+        bottomPixmap.dispose();
+        shipTop.dispose();
+        shipBottom.dispose();
+        return region;
+    }
     //endregion
     
     //region projectile
@@ -456,18 +575,44 @@ public class TextureFactory {
     }
     
     public static Texture generateProjectile(int length, int width) {
-        Pixmap pixmap = new Pixmap(length, width, Format.RGB565);
-        pixmap.setColor(1, 1, 1, 1);
-        pixmap.fill();
-        
+        Pixmap pixmap = createProjectilePixmap(length, width);
         Texture t = new Texture(pixmap);
         pixmap.dispose();
         return t;
     }
+    
+    private static Pixmap createProjectilePixmap(int length, int width) {
+        Pixmap pixmap = new Pixmap(length, width, Format.RGB565);
+        pixmap.setColor(1, 1, 1, 1);
+        pixmap.fill();
+        return pixmap;
+    }
+    
+    public static TextureRegion acquireProjectile() {
+        return acquireProjectile(3, 2);
+    }
+    
+    public static TextureRegion acquireProjectile(int length, int width) {
+        String key = "projectile:" + length + "x" + width;
+        TextureRegion region = RuntimeAtlas.acquire(key);
+        if (region == null) {
+            Pixmap pixmap = createProjectilePixmap(length, width);
+            region = RuntimeAtlas.add(key, pixmap);
+            pixmap.dispose();
+        }
+        return region;
+    }
     //endregion
     
     //region planet game objects
     public static Texture generateWall(int width, int height, Color color) {
+        Pixmap pixmap = createWallPixmap(width, height, color);
+        Texture t = new Texture(pixmap);
+        pixmap.dispose();
+        return t;
+    }
+    
+    private static Pixmap createWallPixmap(int width, int height, Color color) {
         Pixmap pixmap = new Pixmap(width, height, Format.RGB565);
         
         //fill square
@@ -476,9 +621,18 @@ public class TextureFactory {
         pixmap.setColor(0, 0, 0, 1);
         pixmap.drawRectangle(0, 0, width, height);
         
-        Texture t = new Texture(pixmap);
-        pixmap.dispose();
-        return t;
+        return pixmap;
+    }
+    
+    public static TextureRegion acquireWall(int width, int height, Color color) {
+        String key = "wall:" + width + "x" + height + ":" + Color.rgba8888(color);
+        TextureRegion region = RuntimeAtlas.acquire(key);
+        if (region == null) {
+            Pixmap pixmap = createWallPixmap(width, height, color);
+            region = RuntimeAtlas.add(key, pixmap);
+            pixmap.dispose();
+        }
+        return region;
     }
     //endregion
     
@@ -494,6 +648,15 @@ public class TextureFactory {
         return tex;
     }
     
+    public static Texture acquireTile(Color c) {
+        String key = "tile:" + Color.rgba8888(c);
+        Texture tex = TextureCache.acquire(key);
+        if (tex == null) {
+            tex = TextureCache.add(key, createTile(c));
+        }
+        return tex;
+    }
+    
     public static Texture createTestTile() {
         Pixmap pixmap;
         pixmap = new Pixmap(4, 4, Format.RGB888);
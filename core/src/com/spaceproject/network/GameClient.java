@@ -0,0 +1,206 @@
+package com.spaceproject.network;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Receives snapshots from a GameServer over non-blocking UDP, decodes them against the baselines it keeps and acknowledges them.
+ * Keeps the replicated state only (no entities), enough to check the stream, eg: the loopback client of the ServerRunner.
+ */
+public class GameClient implements Disposable {
+    
+    //must match the server, so every baseline it can use is still here
+    private final int historySize = 32;
+    //resend hello until welcomed
+    private final long helloIntervalMillis = 1000;
+    
+    private final DatagramChannel channel;
+    private final ByteBuffer inBuffer = ByteBuffer.allocate(NetProtocol.MAX_PACKET);
+    private final ByteBuffer outBuffer = ByteBuffer.allocate(16);
+    
+    //sent with acks so the server only replicates what is around it
+    private boolean hasFocus;
+    private float focusX, focusY;
+    
+    private final Snapshot[] history = new Snapshot[historySize];
+    private final Snapshot header = new Snapshot();
+    private final IntMap<SpawnRecord> spawns = new IntMap<>();
+    private Snapshot latest;
+    
+    private boolean welcomed;
+    private long galaxySeed;
+    private long lastHello;
+    private long bytesReceived;
+    private int snapshotsReceived, snapshotsDropped;
+    private final StringBuilder info = new StringBuilder();
+    
+    public GameClient(String host, int port) throws IOException {
+        for (int i = 0; i < historySize; i++) {
+            history[i] = new Snapshot();
+        }
+        
+        channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.connect(new InetSocketAddress(host, port));
+    }
+    
+    public void update() {
+        try {
+            if (!welcomed && System.currentTimeMillis() - lastHello > helloIntervalMillis) {
+                lastHello = System.currentTimeMillis();
+                sendType(NetProtocol.HELLO);
+            }
+            receive();
+        } catch (IOException e) {
+            Gdx.app.error(getClass().getSimpleName(), "update failed", e);
+        }
+    }
+    
+    private void receive() throws IOException {
+        while (true) {
+            inBuffer.clear();
+            if (channel.receive(inBuffer) == null) break;
+            
+            inBuffer.flip();
+            bytesReceived += inBuffer.remaining();
+            if (!inBuffer.hasRemaining()) continue;
+            
+            try {
+                switch (inBuffer.get()) {
+                    case NetProtocol.WELCOME:
+                        galaxySeed = inBuffer.getLong();
+                        int ticksPerSnapshot = inBuffer.getInt();
+                        if (!welcomed) {
+                            Gdx.app.log(getClass().getSimpleName(), "Connected. galaxy seed: " + galaxySeed + " ticks per snapshot: " + ticksPerSnapshot);
+                        }
+                        welcomed = true;
+                        break;
+                    case NetProtocol.SNAPSHOT:
+                        readSnapshot();
+                        break;
+                }
+            } catch (BufferUnderflowException e) {
+                Gdx.app.error(getClass().getSimpleName(), "malformed packet");
+            }
+        }
+    }
+    
+    private void readSnapshot() throws IOException {
+        int baselineSequence = SnapshotCodec.readHeader(inBuffer, header);
+        if (latest != null && header.sequence <= latest.sequence) {
+            //late, already have newer
+            return;
+        }
+        
+        Snapshot baseline = null;
+        if (baselineSequence >= 0) {
+            baseline = history[baselineSequence % historySize];
+            if (baseline.sequence != baselineSequence) {
+                //baseline lost, wait for the server to fall back to a full snapshot
+                snapshotsDropped++;
+                return;
+            }
+        }
+        
+        Snapshot snapshot = history[header.sequence % historySize];
+        releaseSpawns(snapshot);
+        snapshot.sequence = header.sequence;
+        snapshot.gameTime = header.gameTime;
+        SnapshotCodec.decode(inBuffer, baseline, snapshot, spawns);
+        latest = snapshot;
+        snapshotsReceived++;
+        
+        outBuffer.clear();
+        outBuffer.put(NetProtocol.ACK);
+        outBuffer.putInt(snapshot.sequence);
+        if (hasFocus) {
+            outBuffer.putFloat(focusX);
+            outBuffer.putFloat(focusY);
+        }
+        outBuffer.flip();
+        channel.write(outBuffer);
+    }
+    
+    /** drop spawn records only the snapshot about to be overwritten references */
+    private void releaseSpawns(Snapshot expired) {
+        for (int i = 0; i < expired.size(); i++) {
+            int id = expired.getId(i);
+            if (!isInHistory(id, expired)) {
+                spawns.remove(id);
+            }
+        }
+    }
+    
+    private boolean isInHistory(int id, Snapshot ignore) {
+        for (Snapshot snapshot : history) {
+            if (snapshot != ignore && snapshot.indexOf(id) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void sendType(byte type) throws IOException {
+        outBuffer.clear();
+        outBuffer.put(type);
+        outBuffer.flip();
+        channel.write(outBuffer);
+    }
+    
+    /** area of interest: only receive entities around this position (eg: the camera), sent with the next ack */
+    public void setFocus(float x, float y) {
+        hasFocus = true;
+        focusX = x;
+        focusY = y;
+    }
+    
+    public int getLocalPort() throws IOException {
+        return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+    }
+    
+    /** @return most recent snapshot, null if none received */
+    public Snapshot getLatest() {
+        return latest;
+    }
+    
+    public SpawnRecord getSpawn(int id) {
+        return spawns.get(id);
+    }
+    
+    public boolean isConnected() {
+        return welcomed;
+    }
+    
+    public long getGalaxySeed() {
+        return galaxySeed;
+    }
+    
+    public CharSequence getInfo() {
+        info.setLength(0);
+        info.append("[Client] snapshots: ").append(snapshotsReceived);
+        info.append(" dropped: ").append(snapshotsDropped);
+        info.append(" entities: ").append(latest == null ? 0 : latest.size());
+        info.append(" received: ").append(bytesReceived / 1024).append(" KB");
+        return info;
+    }
+    
+    @Override
+    public void dispose() {
+        try {
+            if (welcomed) {
+                sendType(NetProtocol.BYE);
+            }
+            channel.close();
+        } catch (IOException e) {
+            Gdx.app.error(getClass().getSimpleName(), "close failed", e);
+        }
+    }
+    
+}
@@ -0,0 +1,540 @@
+package com.spaceproject.network;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.spaceproject.SpaceProject;
+import com.spaceproject.components.HealthComponent;
+import com.spaceproject.components.OrbitComponent;
+import com.spaceproject.components.PhysicsComponent;
+import com.spaceproject.components.ShieldComponent;
+import com.spaceproject.components.TransformComponent;
+import com.spaceproject.config.EngineConfig;
+import com.spaceproject.screens.GameScreen;
+import com.spaceproject.systems.InterestSystem;
+import com.spaceproject.utility.InterestGrid;
+import com.spaceproject.utility.Mappers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Authoritative server: broadcasts snapshots of the simulated entities to connected clients over non-blocking UDP.
+ * Replicates transform, velocity, health and shield of every entity with physics. Celestial bodies are not sent,
+ * clients place them from the galaxy seed and the game time in each snapshot (see Ephemeris).
+ * Each client gets the snapshot delta encoded against the last one it acknowledged, or in full if that is too old.
+ * Clients that send their focus with acks only receive entities in the cells around it (area of interest),
+ * entities leaving the area are sent as removed and spawned again when they come back.
+ * Snapshots are kept to one MTU sized datagram: when the changes don't fit, those nearest the client's focus and
+ * waiting the longest are sent, the rest wait for a later snapshot (new entities aren't spawned yet, known ones keep
+ * their last sent state).
+ * Client focuses are also observers of the engine's InterestSystem, so the simulation around remote players runs at full rate.
+ */
+public class GameServer implements EntityListener, InterestSystem.ObserverSource, Disposable {
+    
+    private static class Client {
+        final SocketAddress address;
+        //what was sent to this client: filtered by its interest, used as its baselines
+        final Snapshot[] history;
+        final InterestGrid interest;
+        //sequence each entity in interest was last up to date on the client, or started waiting to be spawned
+        final IntIntMap upToDate = new IntIntMap();
+        boolean hasFocus;
+        float focusX, focusY;
+        int ackedSequence = -1;
+        long lastHeard;
+        long bytesSent;
+        int fullSnapshots, deltaSnapshots, limitedSnapshots;
+        
+        Client(SocketAddress address, int historySize, float cellSize) {
+            this.address = address;
+            history = new Snapshot[historySize];
+            for (int i = 0; i < historySize; i++) {
+                history[i] = new Snapshot();
+            }
+            interest = new InterestGrid(cellSize);
+        }
+    }
+    
+    private static final EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
+    
+    //snapshots kept as baselines, older acks get a full snapshot
+    private final int historySize = 32;
+    //ticks between snapshots: 20 per second at 60 ticks per second
+    private final int ticksPerSnapshot = 3;
+    //drop clients not heard from (hello or ack) in this long
+    private final long clientTimeoutMillis = 5000;
+    
+    private final DatagramChannel channel;
+    private final ByteBuffer inBuffer = ByteBuffer.allocate(NetProtocol.MAX_PACKET);
+    private final ByteBuffer outBuffer = ByteBuffer.allocate(NetProtocol.MAX_PACKET);
+    private final ObjectMap<SocketAddress, Client> clients = new ObjectMap<>();
+    private final Array<SocketAddress> timedOut = new Array<>();
+    
+    private final Family family = Family.all(TransformComponent.class, PhysicsComponent.class).exclude(OrbitComponent.class).get();
+    private final Engine engine;
+    //tracked in the order they were added, which is ascending id
+    private final Array<Entity> tracked = new Array<>();
+    private final ObjectIntMap<Entity> netIds = new ObjectIntMap<>();
+    private final IntMap<SpawnRecord> spawns = new IntMap<>();
+    private int nextId = 1;
+    
+    private final Snapshot[] history = new Snapshot[historySize];
+    private int sequence;
+    private long tick;
+    private int lastSnapshotBytes, oversized;
+    //entities of the last filtered snapshot that are new or changed since the baseline, and their priority
+    private int fresh;
+    private final FloatArray freshPriorities = new FloatArray();
+    private final StringBuilder info = new StringBuilder();
+    
+    public GameServer(Engine engine, int port) throws IOException {
+        this.engine = engine;
+        for (int i = 0; i < historySize; i++) {
+            history[i] = new Snapshot();
+        }
+        
+        channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.bind(new InetSocketAddress(port));
+        
+        engine.addEntityListener(family, this);
+        InterestSystem interest = engine.getSystem(InterestSystem.class);
+        if (interest != null) {
+            interest.addSource(this);
+        }
+        for (Entity entity : engine.getEntitiesFor(family)) {
+            entityAdded(entity);
+        }
+        Gdx.app.log(getClass().getSimpleName(), "Listening on " + channel.getLocalAddress());
+    }
+    
+    @Override
+    public void entityAdded(Entity entity) {
+        int id = nextId++;
+        netIds.put(entity, id);
+        spawns.put(id, SpawnRecord.of(entity));
+        tracked.add(entity);
+    }
+    
+    @Override
+    public void entityRemoved(Entity entity) {
+        int id = netIds.remove(entity, -1);
+        if (id < 0) return;
+        
+        tracked.removeValue(entity, true);
+        //the spawn record stays while snapshots in history reference it, released when they are overwritten
+        if (!isInHistory(id, null)) {
+            spawns.remove(id);
+        }
+    }
+    
+    /** call once per tick, after the engine has updated */
+    public void update() {
+        try {
+            receive();
+        } catch (IOException e) {
+            Gdx.app.error(getClass().getSimpleName(), "receive failed", e);
+        }
+        dropTimedOut();
+        
+        if (tick++ % ticksPerSnapshot != 0) return;
+        
+        Snapshot snapshot = capture();
+        if (clients.size == 0) return;
+        
+        for (Client client : clients.values()) {
+            send(client, snapshot);
+        }
+    }
+    
+    private void receive() throws IOException {
+        SocketAddress address;
+        while (true) {
+            inBuffer.clear();
+            address = channel.receive(inBuffer);
+            if (address == null) break;
+            
+            inBuffer.flip();
+            if (!inBuffer.hasRemaining()) continue;
+            
+            byte type = inBuffer.get();
+            Client client = clients.get(address);
+            switch (type) {
+                case NetProtocol.HELLO:
+                    if (client == null) {
+                        client = new Client(address, historySize, engineCFG.interestCellSize);
+                        clients.put(address, client);
+                        Gdx.app.log(getClass().getSimpleName(), "Client connected: " + address);
+                    }
+                    client.lastHeard = System.currentTimeMillis();
+                    sendWelcome(client);
+                    break;
+                case NetProtocol.ACK:
+                    if (client == null || inBuffer.remaining() < 4) break;
+                
+                    int acked = inBuffer.getInt();
+                    //acks can arrive out of order, keep the newest
+                    if (acked > client.ackedSequence && acked <= sequence) {
+                        client.ackedSequence = acked;
+                        if (inBuffer.remaining() >= 8) {
+                            client.hasFocus = true;
+                            client.focusX = inBuffer.getFloat();
+                            client.focusY = inBuffer.getFloat();
+                        }
+                    }
+                    client.lastHeard = System.currentTimeMillis();
+                    break;
+                case NetProtocol.BYE:
+                    if (client != null) {
+                        clients.remove(address);
+                        Gdx.app.log(getClass().getSimpleName(), "Client disconnected: " + address);
+                    }
+                    break;
+            }
+        }
+    }
+    
+    private void dropTimedOut() {
+        long now = System.currentTimeMillis();
+        for (Client client : clients.values()) {
+            if (now - client.lastHeard > clientTimeoutMillis) {
+                timedOut.add(client.address);
+            }
+        }
+        for (SocketAddress address : timedOut) {
+            clients.remove(address);
+            Gdx.app.log(getClass().getSimpleName(), "Client timed out: " + address);
+        }
+        timedOut.clear();
+    }
+    
+    private Snapshot capture() {
+        sequence++;
+        Snapshot snapshot = history[sequence % historySize];
+        //spawn records of entities gone before the snapshot being overwritten are no longer referenced
+        releaseSpawns(snapshot);
+        snapshot.clear();
+        snapshot.sequence = sequence;
+        snapshot.gameTime = GameScreen.getGameTimeCurrent();
+        
+        for (Entity entity : tracked) {
+            int index = snapshot.add(netIds.get(entity, 0));
+            TransformComponent transform = Mappers.transform.get(entity);
+            snapshot.set(index, Snapshot.X, NetProtocol.quantize(transform.pos.x, NetProtocol.POSITION_SCALE));
+            snapshot.set(index, Snapshot.Y, NetProtocol.quantize(transform.pos.y, NetProtocol.POSITION_SCALE));
+            snapshot.set(index, Snapshot.ROTATION, NetProtocol.quantizeAngle(transform.rotation));
+            
+            PhysicsComponent physics = Mappers.physics.get(entity);
+            if (physics.body != null) {
+                Vector2 velocity = physics.body.getLinearVelocity();
+                snapshot.set(index, Snapshot.VEL_X, NetProtocol.quantize(velocity.x, NetProtocol.VELOCITY_SCALE));
+                snapshot.set(index, Snapshot.VEL_Y, NetProtocol.quantize(velocity.y, NetProtocol.VELOCITY_SCALE));
+            }
+            
+            HealthComponent health = Mappers.health.get(entity);
+            if (health != null) {
+                snapshot.set(index, Snapshot.HEALTH, NetProtocol.quantize(health.health, NetProtocol.HEALTH_SCALE));
+            }
+            
+            ShieldComponent shield = Mappers.shield.get(entity);
+            if (shield != null) {
+                snapshot.set(index, Snapshot.SHIELD_STATE, shield.state.ordinal());
+                snapshot.set(index, Snapshot.SHIELD_RADIUS, NetProtocol.quantize(shield.radius, NetProtocol.SHIELD_RADIUS_SCALE));
+            }
+        }
+        return snapshot;
+    }
+    
+    private void releaseSpawns(Snapshot expired) {
+        for (int i = 0; i < expired.size(); i++) {
+            int id = expired.getId(i);
+            if (!isTracked(id) && !isInHistory(id, expired)) {
+                spawns.remove(id);
+            }
+        }
+    }
+    
+    private boolean isTracked(int id) {
+        //ids are ascending in tracked
+        int low = 0, high = tracked.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = netIds.get(tracked.get(mid), 0);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean isInHistory(int id, Snapshot ignore) {
+        for (Snapshot snapshot : history) {
+            if (snapshot != ignore && snapshot.indexOf(id) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void send(Client client, Snapshot snapshot) {
+        Snapshot baseline = getSnapshot(client.history, client.ackedSequence);
+        
+        //halve the changes sent until they fit in one datagram
+        int maxFresh = Integer.MAX_VALUE;
+        Snapshot filtered;
+        while (true) {
+            filtered = filter(client, snapshot, baseline, maxFresh);
+            outBuffer.clear();
+            try {
+                SnapshotCodec.encode(filtered, baseline, spawns, outBuffer);
+                break;
+            } catch (BufferOverflowException e) {
+                if (maxFresh == 0) {
+                    //removals alone don't fit
+                    oversized++;
+                    return;
+                }
+                maxFresh = Math.min(maxFresh, fresh) / 2;
+            }
+        }
+        if (maxFresh != Integer.MAX_VALUE) {
+            client.limitedSnapshots++;
+        }
+        updateWaiting(client, snapshot, filtered);
+        outBuffer.flip();
+        lastSnapshotBytes = outBuffer.remaining();
+        
+        try {
+            channel.send(outBuffer, client.address);
+        } catch (IOException e) {
+            Gdx.app.error(getClass().getSimpleName(), "send failed: " + client.address, e);
+            return;
+        }
+        client.bytesSent += lastSnapshotBytes;
+        if (baseline == null) {
+            client.fullSnapshots++;
+        } else {
+            client.deltaSnapshots++;
+        }
+    }
+    
+    /**
+     * Copy the entities within the client's interest into its history, as they will be sent.
+     * At most maxFresh of them may be new or changed since the baseline, nearest to the focus first:
+     * the others are left out if new, or keep their state from the baseline so the delta doesn't include them.
+     */
+    private Snapshot filter(Client client, Snapshot snapshot, Snapshot baseline, int maxFresh) {
+        Snapshot filtered = client.history[snapshot.sequence % historySize];
+        filtered.clear();
+        filtered.sequence = snapshot.sequence;
+        filtered.gameTime = snapshot.gameTime;
+        if (client.hasFocus) {
+            client.interest.clear();
+            client.interest.addObserver(client.focusX, client.focusY, engineCFG.interestRadius);
+        }
+        
+        //priority a change must be within to be sent
+        float cutoff = Float.MAX_VALUE;
+        freshPriorities.clear();
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (isVisible(client, snapshot, i) && isFresh(snapshot, i, baseline)) {
+                freshPriorities.add(getPriority(client, snapshot, i));
+            }
+        }
+        fresh = freshPriorities.size;
+        if (fresh > maxFresh) {
+            freshPriorities.sort();
+            cutoff = maxFresh == 0 ? -1 : freshPriorities.get(maxFresh - 1);
+        }
+        
+        int sent = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (!isVisible(client, snapshot, i)) continue;
+            
+            if (!isFresh(snapshot, i, baseline)) {
+                filtered.copy(snapshot, i);
+            } else if (sent < maxFresh && getPriority(client, snapshot, i) <= cutoff) {
+                filtered.copy(snapshot, i);
+                sent++;
+            } else {
+                int b = baseline == null ? -1 : baseline.indexOf(snapshot.getId(i));
+                if (b >= 0) {
+                    filtered.copy(baseline, b);
+                }
+            }
+        }
+        return filtered;
+    }
+    
+    private static boolean isVisible(Client client, Snapshot snapshot, int index) {
+        if (!client.hasFocus) return true;
+        
+        float x = NetProtocol.dequantize(snapshot.get(index, Snapshot.X), NetProtocol.POSITION_SCALE);
+        float y = NetProtocol.dequantize(snapshot.get(index, Snapshot.Y), NetProtocol.POSITION_SCALE);
+        return client.interest.isActive(x, y);
+    }
+    
+    /** @return true if the entity is new or changed since the baseline */
+    private static boolean isFresh(Snapshot snapshot, int index, Snapshot baseline) {
+        if (baseline == null) return true;
+        
+        int b = baseline.indexOf(snapshot.getId(index));
+        return b < 0 || !snapshot.stateEquals(index, baseline, b);
+    }
+    
+    /** @return lower is sent first: squared distance to the client's focus, divided by the squared snapshots waited */
+    private static float getPriority(Client client, Snapshot snapshot, int index) {
+        float distance2 = 1;
+        if (client.hasFocus) {
+            float dx = NetProtocol.dequantize(snapshot.get(index, Snapshot.X), NetProtocol.POSITION_SCALE) - client.focusX;
+            float dy = NetProtocol.dequantize(snapshot.get(index, Snapshot.Y), NetProtocol.POSITION_SCALE) - client.focusY;
+            distance2 = dx * dx + dy * dy;
+        }
+        float waited = Math.max(1, snapshot.sequence - client.upToDate.get(snapshot.getId(index), snapshot.sequence));
+        return distance2 / (waited * waited);
+    }
+    
+    /** track how long entities held back by the datagram size have been waiting, after a snapshot is sent */
+    private void updateWaiting(Client client, Snapshot snapshot, Snapshot filtered) {
+        int f = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            int id = snapshot.getId(i);
+            if (!isVisible(client, snapshot, i)) {
+                client.upToDate.remove(id, 0);
+                continue;
+            }
+            
+            //both sorted by id: walk filtered alongside
+            while (f < filtered.size() && filtered.getId(f) < id) f++;
+            boolean sent = f < filtered.size() && filtered.getId(f) == id;
+            if (sent && snapshot.stateEquals(i, filtered, f)) {
+                client.upToDate.put(id, snapshot.sequence);
+            } else if (!client.upToDate.containsKey(id)) {
+                client.upToDate.put(id, snapshot.sequence);
+            }
+        }
+        
+        //entities removed from the engine are never visible again
+        if (client.upToDate.size > snapshot.size() * 2) {
+            IntIntMap.Keys keys = client.upToDate.keys();
+            while (keys.hasNext) {
+                if (snapshot.indexOf(keys.next()) < 0) {
+                    keys.remove();
+                }
+            }
+        }
+    }
+    
+    private void sendWelcome(Client client) {
+        outBuffer.clear();
+        outBuffer.put(NetProtocol.WELCOME);
+        outBuffer.putLong(GameScreen.getGalaxySeed());
+        outBuffer.putInt(ticksPerSnapshot);
+        outBuffer.flip();
+        try {
+            channel.send(outBuffer, client.address);
+        } catch (IOException e) {
+            Gdx.app.error(getClass().getSimpleName(), "send failed: " + client.address, e);
+        }
+    }
+    
+    @Override
+    public int addObservers(InterestGrid grid, float defaultRadius) {
+        int count = 0;
+        for (Client client : clients.values()) {
+            if (!client.hasFocus) continue;
+            
+            grid.addObserver(client.focusX, client.focusY, defaultRadius);
+            count++;
+        }
+        return count;
+    }
+    
+    /** @return snapshot with the sequence if still in history, otherwise null */
+    public Snapshot getSnapshot(int sequence) {
+        return getSnapshot(history, sequence);
+    }
+    
+    /** @return snapshot with the sequence as it was sent to the client on the port (after interest filtering), null if none */
+    public Snapshot getSentSnapshot(int clientPort, int sequence) {
+        for (Client client : clients.values()) {
+            if (((InetSocketAddress) client.address).getPort() == clientPort) {
+                return getSnapshot(client.history, sequence);
+            }
+        }
+        return null;
+    }
+    
+    private Snapshot getSnapshot(Snapshot[] history, int sequence) {
+        if (sequence < 0 || sequence > this.sequence || this.sequence - sequence >= historySize) {
+            return null;
+        }
+        Snapshot snapshot = history[sequence % historySize];
+        return snapshot.sequence == sequence ? snapshot : null;
+    }
+    
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+    }
+    
+    public int getClientCount() {
+        return clients.size;
+    }
+    
+    public CharSequence getInfo() {
+        info.setLength(0);
+        info.append("[Server] clients: ").append(clients.size);
+        info.append(" replicated: ").append(tracked.size);
+        info.append(" seq: ").append(sequence);
+        info.append(" last snapshot: ").append(lastSnapshotBytes).append(" B");
+        if (oversized > 0) {
+            info.append(" oversized: ").append(oversized);
+        }
+        for (Client client : clients.values()) {
+            info.append("\n  ").append(client.address);
+            info.append(" acked: ").append(client.ackedSequence);
+            info.append(" entities: ").append(client.history[sequence % historySize].size());
+            info.append(" full: ").append(client.fullSnapshots);
+            info.append(" delta: ").append(client.deltaSnapshots);
+            if (client.limitedSnapshots > 0) {
+                info.append(" limited: ").append(client.limitedSnapshots);
+            }
+            info.append(" sent: ").append(client.bytesSent / 1024).append(" KB");
+        }
+        return info;
+    }
+    
+    @Override
+    public void dispose() {
+        engine.removeEntityListener(this);
+        InterestSystem interest = engine.getSystem(InterestSystem.class);
+        if (interest != null) {
+            interest.removeSource(this);
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Gdx.app.error(getClass().getSimpleName(), "close failed", e);
+        }
+    }
+    
+}
@@ -0,0 +1,88 @@
+package com.spaceproject.network;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Message types, quantization and variable length integers shared by the GameServer and GameClient.
+ * <pre>
+ * client -> server
+ *   HELLO
+ *   ACK     int sequence, [float focusX, float focusY]
+ *   BYE
+ * server -> client
+ *   WELCOME long galaxySeed, int ticksPerSnapshot
+ *   SNAPSHOT see SnapshotCodec
+ * </pre>
+ */
+public abstract class NetProtocol {
+    
+    public static final byte HELLO = 1;
+    public static final byte ACK = 2;
+    public static final byte BYE = 3;
+    public static final byte WELCOME = 10;
+    public static final byte SNAPSHOT = 11;
+    
+    //largest datagram we send or expect. below common path MTUs (1280 minimum on IPv6) so IP never fragments it:
+    //losing one fragment loses the whole datagram, a large full snapshot would rarely arrive
+    public static final int MAX_PACKET = 1200;
+    
+    //quantization: world units and units/sec to 1/16, health to 1/10, shield radius to 1/4, rotation to 16 bits
+    public static final float POSITION_SCALE = 16;
+    public static final float VELOCITY_SCALE = 16;
+    public static final float HEALTH_SCALE = 10;
+    public static final float SHIELD_RADIUS_SCALE = 4;
+    
+    public static int quantize(float value, float scale) {
+        return MathUtils.round(value * scale);
+    }
+    
+    public static float dequantize(int value, float scale) {
+        return value / scale;
+    }
+    
+    public static int quantizeAngle(float radians) {
+        float normalized = radians % MathUtils.PI2;
+        if (normalized < 0) {
+            normalized += MathUtils.PI2;
+        }
+        return MathUtils.round(normalized / MathUtils.PI2 * 65536) & 0xFFFF;
+    }
+    
+    public static float dequantizeAngle(int value) {
+        return value / 65536f * MathUtils.PI2;
+    }
+    
+    /** unsigned LEB128: 7 bits per byte, high bit set while more bytes follow */
+    public static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    public static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+    
+    /** signed values as varint: zigzag so small negative deltas stay small */
+    public static void writeSignedVarInt(ByteBuffer buffer, int value) {
+        writeVarInt(buffer, (value << 1) ^ (value >> 31));
+    }
+    
+    public static int readSignedVarInt(ByteBuffer buffer) {
+        int value = readVarInt(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+}
@@ -0,0 +1,135 @@
+package com.spaceproject.network;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.spaceproject.SpaceProject;
+import com.spaceproject.config.ConfigManager;
+import com.spaceproject.config.EngineConfig;
+import com.spaceproject.utility.Mappers;
+import com.spaceproject.simulation.NoopGL;
+import com.spaceproject.simulation.Simulation;
+
+import java.io.IOException;
+
+/**
+ * Dedicated server: runs the headless Simulation in real time and broadcasts it with a GameServer.
+ * With loopback on, a GameClient in the same process connects over localhost and every snapshot it decodes
+ * is checked against what the server sent, to test the encoding end to end. The loopback client focuses on the player,
+ * so it receives the player's area of interest.
+ */
+public class ServerRunner extends ApplicationAdapter {
+    
+    private final long seed;
+    private final int port;
+    private final boolean loopback;
+    private final int aiShips, asteroids;
+    
+    //entities are spawned within this distance of the player
+    private final float spawnRadius = 5000;
+    
+    private Simulation simulation;
+    private GameServer server;
+    private GameClient client;
+    private float step;
+    private long ticksPerMinute;
+    private int checked, mismatched, lastChecked = -1;
+    private int clientPort;
+    
+    public ServerRunner(long seed, int port, boolean loopback, int aiShips, int asteroids) {
+        this.seed = seed;
+        this.port = port;
+        this.loopback = loopback;
+        this.aiShips = aiShips;
+        this.asteroids = asteroids;
+    }
+    
+    @Override
+    public void create() {
+        GL30 gl = NoopGL.create();
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+        Gdx.gl30 = gl;
+        
+        SpaceProject.configManager = new ConfigManager();
+        SpaceProject.configManager.init();
+        EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
+        step = 1f / engineCFG.physicsStepPerFrame;
+        ticksPerMinute = engineCFG.physicsStepPerFrame * 60L;
+        
+        simulation = new Simulation(seed);
+        simulation.spawnAIShips(aiShips, spawnRadius);
+        simulation.spawnAsteroids(asteroids, spawnRadius);
+        
+        try {
+            server = new GameServer(simulation.getEngine(), port);
+            if (loopback) {
+                client = new GameClient("127.0.0.1", server.getPort());
+                clientPort = client.getLocalPort();
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not start server on port " + port, e);
+        }
+    }
+    
+    @Override
+    public void render() {
+        //launcher runs the loop at the tick rate
+        simulation.step(step);
+        server.update();
+        
+        if (client != null) {
+            Vector2 focus = Mappers.transform.get(simulation.getPlayer()).pos;
+            client.setFocus(focus.x, focus.y);
+            client.update();
+            check();
+        }
+        
+        if (simulation.getTicks() % ticksPerMinute == 0) {
+            Gdx.app.log(getClass().getSimpleName(), server.getInfo().toString());
+            if (client != null) {
+                Gdx.app.log(getClass().getSimpleName(), client.getInfo() + " checked: " + checked + " mismatched: " + mismatched);
+            }
+        }
+    }
+    
+    private void check() {
+        Snapshot received = client.getLatest();
+        if (received == null || received.getSequence() == lastChecked) return;
+        
+        lastChecked = received.getSequence();
+        Snapshot sent = server.getSentSnapshot(clientPort, received.getSequence());
+        if (sent == null) return;
+        
+        checked++;
+        if (!sent.stateEquals(received)) {
+            mismatched++;
+            Gdx.app.error(getClass().getSimpleName(), "snapshot " + received.getSequence() + " decoded differently from sent");
+            return;
+        }
+        //every entity must be creatable
+        for (int i = 0; i < received.size(); i++) {
+            if (client.getSpawn(received.getId(i)) == null) {
+                mismatched++;
+                Gdx.app.error(getClass().getSimpleName(), "snapshot " + received.getSequence() + " missing spawn for " + received.getId(i));
+                return;
+            }
+        }
+    }
+    
+    @Override
+    public void dispose() {
+        if (client != null) {
+            client.dispose();
+        }
+        if (server != null) {
+            server.dispose();
+        }
+        if (simulation != null) {
+            simulation.dispose();
+        }
+    }
+    
+}
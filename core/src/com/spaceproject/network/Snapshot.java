@@ -0,0 +1,129 @@
+package com.spaceproject.network;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Quantized state of every replicated entity at one tick, sorted by network id.
+ * State is stored flat, STRIDE ints per entity, so snapshots can be kept as baselines and compared cheaply.
+ */
+public class Snapshot {
+    
+    public static final int X = 0;
+    public static final int Y = 1;
+    public static final int ROTATION = 2;
+    public static final int VEL_X = 3;
+    public static final int VEL_Y = 4;
+    public static final int HEALTH = 5;
+    public static final int SHIELD_STATE = 6;
+    public static final int SHIELD_RADIUS = 7;
+    public static final int STRIDE = 8;
+    
+    int sequence = -1;
+    long gameTime;
+    final IntArray ids = new IntArray();
+    final IntArray state = new IntArray();
+    
+    public void clear() {
+        sequence = -1;
+        gameTime = 0;
+        ids.clear();
+        state.clear();
+    }
+    
+    public void set(Snapshot other) {
+        sequence = other.sequence;
+        gameTime = other.gameTime;
+        ids.clear();
+        ids.addAll(other.ids);
+        state.clear();
+        state.addAll(other.state);
+    }
+    
+    /** append an entity, ids must be added in ascending order. @return index */
+    int add(int id) {
+        ids.add(id);
+        for (int i = 0; i < STRIDE; i++) {
+            state.add(0);
+        }
+        return ids.size - 1;
+    }
+    
+    /** insert an entity keeping ids sorted. @return index */
+    int insert(int id) {
+        int index = -(indexOf(id) + 1);
+        ids.insert(index, id);
+        state.insertRange(index * STRIDE, STRIDE);
+        for (int i = 0; i < STRIDE; i++) {
+            state.set(index * STRIDE + i, 0);
+        }
+        return index;
+    }
+    
+    void removeIndex(int index) {
+        ids.removeIndex(index);
+        state.removeRange(index * STRIDE, index * STRIDE + STRIDE - 1);
+    }
+    
+    /** @return index of id, or -(insertion point + 1) if not found */
+    public int indexOf(int id) {
+        int low = 0, high = ids.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = ids.get(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+    
+    /** append an entity with the state it has at index in other, ids must be added in ascending order */
+    void copy(Snapshot other, int index) {
+        ids.add(other.ids.get(index));
+        for (int i = 0; i < STRIDE; i++) {
+            state.add(other.state.get(index * STRIDE + i));
+        }
+    }
+    
+    /** @return true if the entity at index has the same state as the one at otherIndex in other */
+    boolean stateEquals(int index, Snapshot other, int otherIndex) {
+        for (int i = 0; i < STRIDE; i++) {
+            if (state.get(index * STRIDE + i) != other.state.get(otherIndex * STRIDE + i)) return false;
+        }
+        return true;
+    }
+    
+    public int get(int index, int field) {
+        return state.get(index * STRIDE + field);
+    }
+    
+    void set(int index, int field, int value) {
+        state.set(index * STRIDE + field, value);
+    }
+    
+    public int getId(int index) {
+        return ids.get(index);
+    }
+    
+    public int size() {
+        return ids.size;
+    }
+    
+    public int getSequence() {
+        return sequence;
+    }
+    
+    public long getGameTime() {
+        return gameTime;
+    }
+    
+    /** @return true if both hold the same entities with the same state */
+    public boolean stateEquals(Snapshot other) {
+        return ids.equals(other.ids) && state.equals(other.state);
+    }
+    
+}
@@ -0,0 +1,168 @@
+package com.spaceproject.network;
+
+import com.badlogic.gdx.utils.IntMap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Delta encodes a Snapshot against a baseline the client acknowledged.
+ * Only entities that changed are written, each with a mask of the field groups that changed and the
+ * difference to the baseline as zigzag varints. Entities missing from the baseline are written in full with
+ * their SpawnRecord, entities gone since the baseline are listed by id. Without a baseline the snapshot is sent in full.
+ * <pre>
+ * byte SNAPSHOT, int sequence, int baseline (-1: none), long gameTime
+ * int changed, per entity: varint id delta, byte mask, [spawn record], changed field deltas
+ * int removed, per entity: varint id delta
+ * </pre>
+ */
+public class SnapshotCodec {
+    
+    private static final int POSITION = 1;
+    private static final int ROTATION = 1 << 1;
+    private static final int VELOCITY = 1 << 2;
+    private static final int HEALTH = 1 << 3;
+    private static final int SHIELD = 1 << 4;
+    private static final int SPAWN = 1 << 5;
+    
+    //fields written for each bit of the mask, in order
+    private static final int[][] groups = {
+            { Snapshot.X, Snapshot.Y },
+            { Snapshot.ROTATION },
+            { Snapshot.VEL_X, Snapshot.VEL_Y },
+            { Snapshot.HEALTH },
+            { Snapshot.SHIELD_STATE, Snapshot.SHIELD_RADIUS }
+    };
+    
+    /**
+     * @param baseline null to send in full
+     * @param spawns spawn records of the entities in current
+     */
+    public static void encode(Snapshot current, Snapshot baseline, IntMap<SpawnRecord> spawns, ByteBuffer out) {
+        out.put(NetProtocol.SNAPSHOT);
+        out.putInt(current.sequence);
+        out.putInt(baseline == null ? -1 : baseline.sequence);
+        out.putLong(current.gameTime);
+        
+        //count is written once known
+        int countPosition = out.position();
+        out.putInt(0);
+        int changed = 0, lastId = 0;
+        int b = 0;
+        for (int i = 0; i < current.size(); i++) {
+            int id = current.getId(i);
+            //both sorted by id: walk the baseline alongside
+            while (baseline != null && b < baseline.size() && baseline.getId(b) < id) b++;
+            boolean inBaseline = baseline != null && b < baseline.size() && baseline.getId(b) == id;
+            
+            int mask = inBaseline ? changedMask(current, i, baseline, b) : SPAWN | POSITION | ROTATION | VELOCITY | HEALTH | SHIELD;
+            if (mask == 0) continue;
+            
+            NetProtocol.writeVarInt(out, id - lastId);
+            lastId = id;
+            out.put((byte) mask);
+            if ((mask & SPAWN) != 0) {
+                spawns.get(id).write(out);
+            }
+            for (int g = 0; g < groups.length; g++) {
+                if ((mask & (1 << g)) == 0) continue;
+                
+                for (int field : groups[g]) {
+                    int base = inBaseline ? baseline.get(b, field) : 0;
+                    NetProtocol.writeSignedVarInt(out, current.get(i, field) - base);
+                }
+            }
+            changed++;
+        }
+        out.putInt(countPosition, changed);
+        
+        //removed: in baseline, not in current
+        countPosition = out.position();
+        out.putInt(0);
+        int removed = 0;
+        lastId = 0;
+        if (baseline != null) {
+            for (int i = 0; i < baseline.size(); i++) {
+                int id = baseline.getId(i);
+                if (current.indexOf(id) >= 0) continue;
+                
+                NetProtocol.writeVarInt(out, id - lastId);
+                lastId = id;
+                removed++;
+            }
+        }
+        out.putInt(countPosition, removed);
+    }
+    
+    private static int changedMask(Snapshot current, int i, Snapshot baseline, int b) {
+        int mask = 0;
+        for (int g = 0; g < groups.length; g++) {
+            for (int field : groups[g]) {
+                if (current.get(i, field) != baseline.get(b, field)) {
+                    mask |= 1 << g;
+                    break;
+                }
+            }
+        }
+        return mask;
+    }
+    
+    /** @return baseline sequence the snapshot after the header was encoded against, -1 if none */
+    public static int readHeader(ByteBuffer in, Snapshot out) {
+        out.sequence = in.getInt();
+        int baseline = in.getInt();
+        out.gameTime = in.getLong();
+        return baseline;
+    }
+    
+    /**
+     * Decode the body of a snapshot after {@link #readHeader}.
+     * @param baseline the snapshot with the sequence from the header, null if none
+     * @param spawns receives spawn records of new entities. Records of removed entities are kept: a later snapshot
+     *               can be encoded against an older baseline that still has the entity, without resending its spawn.
+     *               Ids are never reused, release records once no kept snapshot references them.
+     */
+    public static void decode(ByteBuffer in, Snapshot baseline, Snapshot out, IntMap<SpawnRecord> spawns) {
+        int sequence = out.sequence;
+        long gameTime = out.gameTime;
+        if (baseline != null) {
+            out.set(baseline);
+        } else {
+            out.clear();
+        }
+        out.sequence = sequence;
+        out.gameTime = gameTime;
+        
+        int changed = in.getInt();
+        int id = 0;
+        for (int c = 0; c < changed; c++) {
+            id += NetProtocol.readVarInt(in);
+            int mask = in.get();
+            
+            int index = out.indexOf(id);
+            if (index < 0) {
+                index = out.insert(id);
+            }
+            if ((mask & SPAWN) != 0) {
+                spawns.put(id, SpawnRecord.read(in));
+            }
+            for (int g = 0; g < groups.length; g++) {
+                if ((mask & (1 << g)) == 0) continue;
+                
+                for (int field : groups[g]) {
+                    out.set(index, field, out.get(index, field) + NetProtocol.readSignedVarInt(in));
+                }
+            }
+        }
+        
+        int removed = in.getInt();
+        id = 0;
+        for (int r = 0; r < removed; r++) {
+            id += NetProtocol.readVarInt(in);
+            int index = out.indexOf(id);
+            if (index >= 0) {
+                out.removeIndex(index);
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,97 @@
+package com.spaceproject.network;
+
+import com.badlogic.ashley.core.Entity;
+import com.spaceproject.components.AsteroidComponent;
+import com.spaceproject.components.SeedComponent;
+import com.spaceproject.utility.Mappers;
+
+import java.nio.ByteBuffer;
+
+/**
+ * What a client needs to create a replicated entity. Procedural content is sent as its seed only and regenerated
+ * by the client with EntityFactory, except for shards whose shape comes from a shattered parent and is sent as vertices.
+ */
+public class SpawnRecord {
+    
+    public enum Kind { other, ship, character, asteroid, shard, projectile }
+    
+    public Kind kind;
+    public long seed;
+    //asteroid: size the shape is generated from
+    public float size;
+    //shard: polygon, quantized by POSITION_SCALE
+    public int[] vertices;
+    
+    public static SpawnRecord of(Entity entity) {
+        SpawnRecord record = new SpawnRecord();
+        SeedComponent seed = Mappers.seed.get(entity);
+        record.seed = seed == null ? 0 : seed.seed;
+        
+        AsteroidComponent asteroid = Mappers.asteroid.get(entity);
+        if (asteroid != null) {
+            if (asteroid.size > 0) {
+                record.kind = Kind.asteroid;
+                record.size = asteroid.size;
+            } else {
+                record.kind = Kind.shard;
+                float[] polygon = asteroid.polygon.getVertices();
+                record.vertices = new int[polygon.length];
+                for (int i = 0; i < polygon.length; i++) {
+                    record.vertices[i] = NetProtocol.quantize(polygon[i], NetProtocol.POSITION_SCALE);
+                }
+            }
+        } else if (Mappers.vehicle.get(entity) != null) {
+            record.kind = Kind.ship;
+        } else if (Mappers.character.get(entity) != null) {
+            record.kind = Kind.character;
+        } else if (Mappers.damage.get(entity) != null) {
+            record.kind = Kind.projectile;
+        } else {
+            record.kind = Kind.other;
+        }
+        return record;
+    }
+    
+    public void write(ByteBuffer buffer) {
+        buffer.put((byte) kind.ordinal());
+        switch (kind) {
+            case ship:
+                buffer.putLong(seed);
+                break;
+            case asteroid:
+                buffer.putLong(seed);
+                buffer.putFloat(size);
+                break;
+            case shard:
+                buffer.putLong(seed);
+                NetProtocol.writeVarInt(buffer, vertices.length);
+                for (int vertex : vertices) {
+                    NetProtocol.writeSignedVarInt(buffer, vertex);
+                }
+                break;
+        }
+    }
+    
+    public static SpawnRecord read(ByteBuffer buffer) {
+        SpawnRecord record = new SpawnRecord();
+        record.kind = Kind.values()[buffer.get()];
+        switch (record.kind) {
+            case ship:
+                record.seed = buffer.getLong();
+                break;
+            case asteroid:
+                record.seed = buffer.getLong();
+                record.size = buffer.getFloat();
+                break;
+            case shard:
+                record.seed = buffer.getLong();
+                record.vertices = new int[NetProtocol.readVarInt(buffer)];
+                for (int i = 0; i < record.vertices.length; i++) {
+                    record.vertices[i] = NetProtocol.readSignedVarInt(buffer);
+                }
+                break;
+        }
+        return record;
+    }
+    
+}
@@ -5,22 +5,25 @@ import com.badlogic.gdx.utils.Disposable;
 import com.spaceproject.SpaceProject;
 import com.spaceproject.components.PlanetComponent;
 import com.spaceproject.config.WorldConfig;
+import com.spaceproject.events.EventBus;
+import com.spaceproject.events.NoiseReadyEvent;
 import com.spaceproject.ui.Tile;
 
-import java.util.HashMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class NoiseManager implements INoiseGenListener, Disposable {
     
     private final NoiseThreadPoolExecutor noiseThreadPool;
-    private final LinkedBlockingQueue<NoiseBuffer> noiseBufferQueue;
-    private final HashMap<Long, NoiseBuffer> loadedNoise;
+    //written by the noise workers, read on the main thread
+    private final ConcurrentHashMap<Long, NoiseBuffer> loadedNoise;
+    private final EventBus events;
     
-    public NoiseManager(int maxThreads) {
+    /** @param events noise is announced with a NoiseReadyEvent when generated */
+    public NoiseManager(int maxThreads, EventBus events) {
         noiseThreadPool = new NoiseThreadPoolExecutor(maxThreads);
         noiseThreadPool.addListener(this);
-        noiseBufferQueue = new LinkedBlockingQueue<>();
-        loadedNoise = new HashMap<>();
+        loadedNoise = new ConcurrentHashMap<>();
+        this.events = events;
     }
     
     public void generate(long seed, PlanetComponent planet) {
@@ -45,54 +48,55 @@ public class NoiseManager implements INoiseGenListener, Disposable {
             Gdx.app.debug(this.getClass().getSimpleName(), "no noise found, generating: " + seed);
             generate(seed, planet);
         } else {
-            //push to queue for pickup by SpaceLoadingSystem
+            //announce for pickup by SpaceLoadingSystem
             Gdx.app.debug(this.getClass().getSimpleName(), "noise found, loading: " + seed);
-            noiseBufferQueue.add(noiseBuffer);
+            postNoiseReady(noiseBuffer);
         }
     }
     
+    /** stop generating noise for seed if it's queued or running, noise already generated is kept */
+    public void cancel(long seed) {
+        if (noiseThreadPool.cancel(seed)) {
+            Gdx.app.debug(this.getClass().getSimpleName(), "noise cancelled: " + seed);
+        }
+    }
+    
+    /** @return true if noise for seed is generated or being generated */
+    public boolean isLoadedOrPending(long seed) {
+        return loadedNoise.containsKey(seed) || noiseThreadPool.isPending(seed);
+    }
+    
     @Override
     public void threadFinished(NoiseThread noiseThread) {
-        //pass in noise buffer queue from executor?
-        //take() here?
-        //add to loadednoise
-        //let otheres poll loaded noise, or fire another event from here?
-        NoiseBuffer noise = noiseThread.getNoise();
+        //called on the worker thread: the event bus is not thread safe, hand over to the main thread
+        final NoiseBuffer noise = noiseThread.getNoise();
         if (noise != null) {
+            //stored before the pool drops the task from pending, so isLoadedOrPending() has no gap
             loadedNoise.put(noise.seed, noise);
-            noiseBufferQueue.add(noise);
+            Gdx.app.postRunnable(new Runnable() {
+                @Override
+                public void run() {
+                    postNoiseReady(noise);
+                }
+            });
         }
     }
     
+    private void postNoiseReady(NoiseBuffer noise) {
+        events.post(events.obtain(NoiseReadyEvent.class).set(noise));
+    }
+    
     
     public NoiseThreadPoolExecutor getNoiseThreadPool() {
         return noiseThreadPool;
     }
     
     
-    public LinkedBlockingQueue<NoiseBuffer> getNoiseBufferQueue() {
-        return noiseBufferQueue;
-    }
-    
     
-    public HashMap<Long, NoiseBuffer> getLoadedNoise() {
+    public ConcurrentHashMap<Long, NoiseBuffer> getLoadedNoise() {
         return loadedNoise;
     }
     
-    public boolean isNoiseAvailable() {
-        return !noiseBufferQueue.isEmpty();
-    }
-    
-    public NoiseBuffer getNoiseFromQueue() {
-        try {
-            return noiseBufferQueue.take();
-        } catch (InterruptedException e) {
-            Gdx.app.error(this.getClass().getSimpleName(), "error retrieving noise from queue", e);
-        }
-        
-        return null;
-    }
-    
     @Override
     public void dispose() {
         Gdx.app.log(this.getClass().getSimpleName(), "Dispose: " + noiseThreadPool.getActiveCount());
@@ -103,7 +107,6 @@ public class NoiseManager implements INoiseGenListener, Disposable {
         noiseThreadPool.shutdown();
         
         loadedNoise.clear();
-        noiseBufferQueue.clear();
         
         /*
         try {
@@ -48,16 +48,53 @@ public class NoiseThreadPoolExecutor extends ThreadPoolExecutor {
         super.execute(runnable);
     }
     
+    /**
+     * Drop a queued task, or ask a running one to stop. A stopped task finishes without noise.
+     * @return true if a task with seed was queued or running
+     */
+    public boolean cancel(long seed) {
+        NoiseThread found = null;
+        synchronized (activeTasks) {
+            for (Runnable task : activeTasks) {
+                NoiseThread noiseThread = (NoiseThread) task;
+                if (noiseThread.getSeed() == seed) {
+                    found = noiseThread;
+                    break;
+                }
+            }
+        }
+        if (found == null) return false;
+        
+        found.stop();
+        if (remove(found)) {
+            //never started, afterExecute won't be called
+            activeTasks.remove(found);
+        }
+        return true;
+    }
+    
+    public boolean isPending(long seed) {
+        synchronized (activeTasks) {
+            for (Runnable task : activeTasks) {
+                if (((NoiseThread) task).getSeed() == seed) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
     @Override
     protected void afterExecute(Runnable r, Throwable t) {
         super.afterExecute(r, t);
-        activeTasks.remove(r);
         
+        //listeners store the result before the task stops counting as pending
         if (t == null) {
             notifyListenersNoiseFinished((NoiseThread) r);
         } else {
             Gdx.app.error(this.getClass().getSimpleName(), "Task failed", t);
         }
+        activeTasks.remove(r);
     }
     
     
@@ -0,0 +1,228 @@
+package com.spaceproject.rendering;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.Viewport;
+import com.spaceproject.config.PassCFG;
+import com.spaceproject.config.RenderPassConfig;
+import com.spaceproject.config.SysCFG;
+import com.spaceproject.config.SystemsConfig;
+
+/**
+ * Draws the frame as an ordered list of passes declared in RenderPassConfig.
+ * Each pass owns its render target (the screen, or an offscreen frame buffer that may be lower resolution)
+ * and blend state, and updates its render systems in order. Render systems in a pass are not processed by the
+ * engine, the graph updates them after all logic has run.
+ * CPU and GPU time are measured per pass.
+ */
+public class FrameGraph implements Disposable {
+    
+    private static class Pass {
+        String name, compositeName;
+        boolean offscreen, blend, overlay;
+        float resolutionScale;
+        final Array<EntitySystem> systems = new Array<>();
+        final BooleanArray haltOnPause = new BooleanArray();
+        FrameBuffer fbo;
+        final GpuTimer gpuTimer = new GpuTimer();
+        float cpuMillis = -1;
+    }
+    
+    private final RenderPipeline pipeline;
+    private final Viewport viewport;
+    private final Array<Pass> passes = new Array<>();
+    private final Matrix4 screenMatrix = new Matrix4();
+    
+    private boolean overlaysVisible = true;
+    private boolean paused;
+    private final StringBuilder info = new StringBuilder();
+    
+    public FrameGraph(RenderPipeline pipeline, Viewport viewport) {
+        this.pipeline = pipeline;
+        this.viewport = viewport;
+    }
+    
+    /**
+     * Assemble passes from config with the systems currently loaded in the engine.
+     * Systems assigned to a pass stop being processed by the engine. Systems that aren't loaded are left out,
+     * so the same config builds the space or world graph depending on what SystemLoader loaded.
+     */
+    public void build(Engine engine, RenderPassConfig passesCFG, SystemsConfig systemsCFG) {
+        clear();
+        
+        for (PassCFG passCFG : passesCFG.getPasses()) {
+            Pass pass = null;
+            for (String className : passCFG.getSystems()) {
+                EntitySystem system = findSystem(engine, className);
+                if (system == null) continue;
+                
+                if (pass == null) {
+                    pass = new Pass();
+                    pass.name = passCFG.getName();
+                    pass.compositeName = pass.name + " composite";
+                    pass.offscreen = passCFG.isOffscreen();
+                    pass.resolutionScale = passCFG.getResolutionScale();
+                    pass.blend = passCFG.isBlend();
+                    pass.overlay = passCFG.isOverlay();
+                }
+                
+                system.setProcessing(false);
+                pass.systems.add(system);
+                SysCFG sysCFG = systemsCFG.getConfig(className);
+                pass.haltOnPause.add(sysCFG != null && sysCFG.isHaltOnGamePause());
+            }
+            
+            if (pass != null) {
+                passes.add(pass);
+                Gdx.app.log(this.getClass().getSimpleName(), "Pass: " + pass.name + " " + pass.systems.size + " systems"
+                        + (pass.offscreen ? " offscreen x" + pass.resolutionScale : ""));
+            }
+        }
+    }
+    
+    private static EntitySystem findSystem(Engine engine, String className) {
+        for (EntitySystem system : engine.getSystems()) {
+            if (system.getClass().getName().equals(className)) {
+                return system;
+            }
+        }
+        return null;
+    }
+    
+    /** @return true if the system is updated by a pass instead of the engine */
+    public boolean isManaged(EntitySystem system) {
+        for (Pass pass : passes) {
+            if (pass.systems.contains(system, true)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public void execute(float delta) {
+        pipeline.beginFrame();
+        screenMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        
+        for (Pass pass : passes) {
+            if (pass.overlay && !overlaysVisible) continue;
+            
+            long start = System.nanoTime();
+            pass.gpuTimer.begin();
+            
+            if (pass.offscreen) {
+                beginOffscreen(pass);
+            }
+            pipeline.setBlending(pass.blend, pass.offscreen);
+            
+            for (int i = 0; i < pass.systems.size; i++) {
+                if (paused && pass.haltOnPause.get(i)) continue;
+                pass.systems.get(i).update(delta);
+            }
+            //submit everything drawn in this pass before switching target and stopping the timers
+            pipeline.end();
+            
+            if (pass.offscreen) {
+                endOffscreen(pass);
+            }
+            
+            pass.gpuTimer.end();
+            float millis = (System.nanoTime() - start) / 1000000f;
+            pass.cpuMillis = pass.cpuMillis < 0 ? millis : MathUtils.lerp(pass.cpuMillis, millis, 0.1f);
+        }
+        
+        pipeline.setBlending(false, false);
+        pipeline.endFrame();
+    }
+    
+    private void beginOffscreen(Pass pass) {
+        int width = Math.max(1, (int) (Gdx.graphics.getBackBufferWidth() * pass.resolutionScale));
+        int height = Math.max(1, (int) (Gdx.graphics.getBackBufferHeight() * pass.resolutionScale));
+        if (pass.fbo == null || pass.fbo.getWidth() != width || pass.fbo.getHeight() != height) {
+            //created on first use and recreated on resize
+            if (pass.fbo != null) {
+                pass.fbo.dispose();
+            }
+            pass.fbo = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+            pass.fbo.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        }
+        
+        pass.fbo.begin();
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+    }
+    
+    private void endOffscreen(Pass pass) {
+        pass.fbo.end(viewport.getScreenX(), viewport.getScreenY(), viewport.getScreenWidth(), viewport.getScreenHeight());
+        
+        //composite onto the screen, stretched back to full size. pass content is premultiplied by the pipeline
+        pipeline.setBlending(true, false);
+        SpriteBatch batch = pipeline.batch(pass.compositeName, screenMatrix, null);
+        batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        batch.draw(pass.fbo.getColorBufferTexture(), 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight(), 0, 0, 1, 1);
+        pipeline.end();
+    }
+    
+    public void setOverlaysVisible(boolean visible) {
+        overlaysVisible = visible;
+    }
+    
+    public boolean isOverlaysVisible() {
+        return overlaysVisible;
+    }
+    
+    /** while paused, systems that halt on game pause are skipped */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+    
+    /** per pass: cpu and gpu time in ms */
+    public CharSequence getInfo() {
+        info.setLength(0);
+        info.append("[Frame graph] passes: ").append(passes.size);
+        for (Pass pass : passes) {
+            info.append("\n  ").append(pass.name).append(": cpu ").append(MathUtils.round(pass.cpuMillis * 100) / 100f);
+            if (pass.gpuTimer.getMillis() >= 0) {
+                info.append(" gpu ").append(MathUtils.round(pass.gpuTimer.getMillis() * 100) / 100f);
+            }
+            info.append(" ms");
+            if (pass.offscreen) {
+                info.append(" [offscreen x").append(pass.resolutionScale).append("]");
+            }
+            if (pass.overlay && !overlaysVisible) {
+                info.append(" [hidden]");
+            }
+        }
+        return info;
+    }
+    
+    /** release pass targets and hand systems back to the engine */
+    public void clear() {
+        for (Pass pass : passes) {
+            for (EntitySystem system : pass.systems) {
+                system.setProcessing(true);
+            }
+            if (pass.fbo != null) {
+                pass.fbo.dispose();
+            }
+            pass.gpuTimer.dispose();
+        }
+        passes.clear();
+    }
+    
+    @Override
+    public void dispose() {
+        clear();
+    }
+    
+}
@@ -0,0 +1,94 @@
+package com.spaceproject.rendering;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.glutils.GLVersion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.nio.IntBuffer;
+
+/**
+ * Measures GPU time of the GL calls between begin() and end() using timer queries.
+ * Needs GL 3.3 (desktop) or GL_EXT_disjoint_timer_query (GLES 3), otherwise nothing is measured.
+ * Queries are reused round robin and read back a few frames later, so the CPU never waits on the GPU.
+ * Timers can't be nested.
+ */
+public class GpuTimer implements Disposable {
+    
+    //GL_TIME_ELAPSED (GL 3.3) and GL_TIME_ELAPSED_EXT share the same value
+    private static final int GL_TIME_ELAPSED = 0x88BF;
+    private static final int QUERIES = 3;
+    private static Boolean supported;
+    
+    private IntBuffer queries;
+    private final boolean[] pending = new boolean[QUERIES];
+    private final IntBuffer result = BufferUtils.newIntBuffer(1);
+    private int current;
+    private float millis = -1;
+    
+    public static boolean isSupported() {
+        if (supported == null) {
+            GLVersion version = Gdx.graphics.getGLVersion();
+            boolean desktop = version.getType() == GLVersion.Type.OpenGL && version.isVersionEqualToOrHigher(3, 3);
+            supported = Gdx.gl30 != null
+                    && (desktop || Gdx.graphics.supportsExtension("GL_ARB_timer_query") || Gdx.graphics.supportsExtension("GL_EXT_disjoint_timer_query"));
+        }
+        return supported;
+    }
+    
+    public void begin() {
+        if (!isSupported()) return;
+        
+        if (queries == null) {
+            queries = BufferUtils.newIntBuffer(QUERIES);
+            Gdx.gl30.glGenQueries(QUERIES, queries);
+        }
+        
+        //read the result from a few frames ago before reusing its query
+        int query = queries.get(current);
+        if (pending[current]) {
+            collect(query);
+        }
+        Gdx.gl30.glBeginQuery(GL_TIME_ELAPSED, query);
+    }
+    
+    public void end() {
+        if (queries == null) return;
+        
+        Gdx.gl30.glEndQuery(GL_TIME_ELAPSED);
+        pending[current] = true;
+        current = (current + 1) % QUERIES;
+    }
+    
+    private void collect(int query) {
+        pending[current] = false;
+        
+        result.clear();
+        Gdx.gl30.glGetQueryObjectuiv(query, GL30.GL_QUERY_RESULT_AVAILABLE, result);
+        if (result.get(0) == 0) {
+            //still not ready, skip this sample instead of stalling
+            return;
+        }
+        
+        result.clear();
+        Gdx.gl30.glGetQueryObjectuiv(query, GL30.GL_QUERY_RESULT, result);
+        float sample = (result.get(0) & 0xFFFFFFFFL) / 1000000f;
+        millis = millis < 0 ? sample : MathUtils.lerp(millis, sample, 0.1f);
+    }
+    
+    /** @return smoothed GPU time in milliseconds, or -1 if not measured */
+    public float getMillis() {
+        return millis;
+    }
+    
+    @Override
+    public void dispose() {
+        if (queries == null) return;
+        
+        Gdx.gl30.glDeleteQueries(QUERIES, queries);
+        queries = null;
+    }
+    
+}
@@ -0,0 +1,267 @@
+package com.spaceproject.rendering;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.spaceproject.ui.CustomShapeRenderer;
+
+import java.util.Arrays;
+
+/**
+ * Owns the SpriteBatch and ShapeRenderer shared by the render systems.
+ * Systems ask for a batch or shape renderer with the state they need (projection, shader, shape type),
+ * instead of each creating their own and calling begin/end. Blending is set per pass by the FrameGraph. The pipeline keeps the active renderer open between
+ * systems and only flushes when the requested state is different, so consecutive compatible passes are merged.
+ * Systems that issue their own GL calls (meshes, model batch, scene2d) call {@link #custom(String)} first.
+ * <p>
+ * Flushes, and draw calls / texture binds / shader switches from the GLProfiler when enabled, are counted per pass.
+ */
+public class RenderPipeline {
+    
+    public static class PassStats {
+        String name;
+        int flushes, merged;
+        int drawCalls, textureBindings, shaderSwitches;
+        
+        void reset() {
+            flushes = merged = 0;
+            drawCalls = textureBindings = shaderSwitches = 0;
+        }
+    }
+    
+    private enum Mode {
+        none, batch, shape
+    }
+    
+    private final SpriteBatch batch;
+    private final CustomShapeRenderer shape;
+    private final GLProfiler profiler;
+    
+    private Mode mode = Mode.none;
+    private final Matrix4 activeProjection = new Matrix4();
+    private ShaderProgram activeShader;
+    private ShapeType activeShapeType;
+    private boolean blending, premultiply;
+    
+    private final Array<PassStats> passes = new Array<>();
+    private PassStats currentPass;
+    private int passStartRenderCalls;
+    private int passStartDrawCalls, passStartTextureBindings, passStartShaderSwitches;
+    private int frameFlushes;
+    private final StringBuilder info = new StringBuilder();
+    
+    /** @param profiler optional, used to count draw calls, texture bindings and shader switches per pass */
+    public RenderPipeline(SpriteBatch batch, CustomShapeRenderer shape, GLProfiler profiler) {
+        this.batch = batch;
+        this.shape = shape;
+        this.profiler = profiler;
+    }
+    
+    public void beginFrame() {
+        end();
+        for (PassStats pass : passes) {
+            pass.reset();
+        }
+        currentPass = null;
+        mode = Mode.none;
+    }
+    
+    public void endFrame() {
+        end();
+        closePass();
+        
+        frameFlushes = 0;
+        for (PassStats pass : passes) {
+            frameFlushes += pass.flushes;
+        }
+    }
+    
+    /**
+     * Get the shared batch, begun with the given state. Continues the current batch without flushing when the
+     * state matches. The batch color is reset to white; the returned batch must not be ended by the caller.
+     * @param shader null for default shader
+     */
+    public SpriteBatch batch(String pass, Matrix4 projection, ShaderProgram shader) {
+        boolean compatible = mode == Mode.batch && activeShader == shader && isActiveProjection(projection);
+        if (!compatible) {
+            end();
+        }
+        enterPass(pass, compatible);
+        
+        if (!compatible) {
+            batch.setShader(shader);
+            batch.setProjectionMatrix(projection);
+            if (blending) {
+                batch.enableBlending();
+            } else {
+                batch.disableBlending();
+            }
+            if (premultiply) {
+                batch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+            } else {
+                batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+            }
+            batch.begin();
+            mode = Mode.batch;
+            activeShader = shader;
+            activeProjection.set(projection);
+        }
+        batch.setColor(1, 1, 1, 1);
+        return batch;
+    }
+    
+    /**
+     * Get the shared shape renderer, begun with the given state. Continues the current shapes without flushing
+     * when projection and type match. The returned renderer must not be ended by the caller.
+     */
+    public CustomShapeRenderer shape(String pass, Matrix4 projection, ShapeType type) {
+        boolean compatible = mode == Mode.shape && activeShapeType == type && isActiveProjection(projection);
+        if (!compatible) {
+            end();
+        }
+        enterPass(pass, compatible);
+        
+        if (!compatible) {
+            //a custom pass before may have changed blending (eg: model batch disables it on end)
+            applyBlending();
+            shape.setProjectionMatrix(projection);
+            shape.begin(type);
+            mode = Mode.shape;
+            activeShapeType = type;
+            activeProjection.set(projection);
+        }
+        return shape;
+    }
+    
+    /** End any batched drawing so the caller can issue its own GL calls for this pass, with the pass blend state. */
+    public void custom(String pass) {
+        end();
+        applyBlending();
+        enterPass(pass, false);
+    }
+    
+    /** flush and end the active renderer, if any */
+    public void end() {
+        switch (mode) {
+            case batch:
+                batch.end();
+                //batch disables blending on end
+                applyBlending();
+                break;
+            case shape:
+                if (currentPass != null && shape.getRenderer().getNumVertices() > 0) {
+                    currentPass.flushes++;
+                }
+                shape.end();
+                break;
+        }
+        mode = Mode.none;
+    }
+    
+    /**
+     * Set blend state for the following draws, set by the FrameGraph for each pass.
+     * @param premultiply keep alpha correct when drawing into a transparent offscreen target:
+     *                    color is premultiplied, composite with GL_ONE, GL_ONE_MINUS_SRC_ALPHA.
+     */
+    public void setBlending(boolean blending, boolean premultiply) {
+        end();
+        this.blending = blending;
+        this.premultiply = premultiply;
+        applyBlending();
+    }
+    
+    private void applyBlending() {
+        if (!blending) {
+            Gdx.gl.glDisable(GL20.GL_BLEND);
+            return;
+        }
+        
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        if (premultiply) {
+            Gdx.gl.glBlendFuncSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        } else {
+            Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        }
+    }
+    
+    private void enterPass(String name, boolean merged) {
+        if (currentPass != null && currentPass.name.equals(name)) return;
+        
+        closePass();
+        currentPass = getPass(name);
+        if (merged) {
+            currentPass.merged++;
+        }
+        passStartRenderCalls = batch.totalRenderCalls;
+        if (profiler != null && profiler.isEnabled()) {
+            passStartDrawCalls = profiler.getDrawCalls();
+            passStartTextureBindings = profiler.getTextureBindings();
+            passStartShaderSwitches = profiler.getShaderSwitches();
+        }
+    }
+    
+    private void closePass() {
+        if (currentPass == null) return;
+        
+        //merged passes share a flush: it is counted for whichever pass was active when it happened
+        currentPass.flushes += batch.totalRenderCalls - passStartRenderCalls;
+        if (profiler != null && profiler.isEnabled()) {
+            currentPass.drawCalls += profiler.getDrawCalls() - passStartDrawCalls;
+            currentPass.textureBindings += profiler.getTextureBindings() - passStartTextureBindings;
+            currentPass.shaderSwitches += profiler.getShaderSwitches() - passStartShaderSwitches;
+        }
+        currentPass = null;
+    }
+    
+    private PassStats getPass(String name) {
+        for (PassStats pass : passes) {
+            if (pass.name.equals(name)) {
+                return pass;
+            }
+        }
+        PassStats pass = new PassStats();
+        pass.name = name;
+        passes.add(pass);
+        return pass;
+    }
+    
+    private boolean isActiveProjection(Matrix4 projection) {
+        return Arrays.equals(activeProjection.val, projection.val);
+    }
+    
+    public SpriteBatch getBatch() {
+        return batch;
+    }
+    
+    public CustomShapeRenderer getShape() {
+        return shape;
+    }
+    
+    public int getFrameFlushes() {
+        return frameFlushes;
+    }
+    
+    /** per pass: flushes (merged) draw calls, texture bindings, shader switches */
+    public CharSequence getInfo() {
+        info.setLength(0);
+        info.append("[Render passes] flushes: ").append(frameFlushes);
+        for (PassStats pass : passes) {
+            info.append("\n  ").append(pass.name).append(": ").append(pass.flushes);
+            if (pass.merged > 0) {
+                info.append(" (merged ").append(pass.merged).append(")");
+            }
+            if (profiler != null && profiler.isEnabled()) {
+                info.append("  draw: ").append(pass.drawCalls);
+                info.append(" bind: ").append(pass.textureBindings);
+                info.append(" shader: ").append(pass.shaderSwitches);
+            }
+        }
+        return info;
+    }
+    
+}
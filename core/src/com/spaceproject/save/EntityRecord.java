@@ -0,0 +1,235 @@
+package com.spaceproject.save;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.Array;
+import com.spaceproject.components.AIComponent;
+import com.spaceproject.components.AsteroidComponent;
+import com.spaceproject.components.HealthComponent;
+import com.spaceproject.components.PhysicsComponent;
+import com.spaceproject.components.SeedComponent;
+import com.spaceproject.components.TransformComponent;
+import com.spaceproject.components.VehicleComponent;
+import com.spaceproject.generation.EntityFactory;
+import com.spaceproject.utility.Mappers;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Saved state of one entity. Procedural content is stored as the seed (and size) it was generated from and regenerated
+ * by EntityFactory on load, only shards store their shape. State that matches a freshly generated entity
+ * (at rest, full health) is left out, see the flags.
+ * <pre>
+ * byte kind, byte flags, kind data, float x, float y, float rotation
+ * [MOVING] float velX, float velY, float angularVelocity
+ * [DAMAGED] float health
+ * </pre>
+ */
+public class EntityRecord {
+    
+    public enum Kind { ship, aiShip, asteroid, shard }
+    
+    private static final int MOVING = 1;
+    private static final int DAMAGED = 1 << 1;
+    
+    public Kind kind;
+    public long seed;
+    //asteroid: size the shape is generated from
+    public float size;
+    //shard: polygon
+    public float[] vertices;
+    //aiShip
+    public AIComponent.State state;
+    
+    public float x, y, rotation;
+    public float velX, velY, angularVelocity;
+    //negative when at full health
+    public float health = -1;
+    
+    /** @return record of the entity, null if it is not saved (eg: projectiles, drivers, belt asteroids the belt regenerates) */
+    public static EntityRecord of(Entity entity) {
+        PhysicsComponent physics = Mappers.physics.get(entity);
+        if (physics == null || physics.body == null) return null;
+        
+        EntityRecord record = new EntityRecord();
+        AsteroidComponent asteroid = Mappers.asteroid.get(entity);
+        VehicleComponent vehicle = Mappers.vehicle.get(entity);
+        if (asteroid != null) {
+            if (asteroid.parentOrbitBody != null) return null;
+            
+            if (asteroid.size > 0) {
+                record.kind = Kind.asteroid;
+                record.size = asteroid.size;
+            } else {
+                record.kind = Kind.shard;
+                record.vertices = asteroid.polygon.getVertices().clone();
+            }
+        } else if (vehicle != null) {
+            AIComponent ai = Mappers.AI.get(entity);
+            if (ai != null) {
+                record.kind = Kind.aiShip;
+                record.state = ai.state;
+            } else {
+                record.kind = Kind.ship;
+            }
+        } else {
+            return null;
+        }
+        
+        SeedComponent seed = Mappers.seed.get(entity);
+        record.seed = seed == null ? 0 : seed.seed;
+        record.capture(entity);
+        return record;
+    }
+    
+    /** copy transform, velocity and health */
+    public void capture(Entity entity) {
+        TransformComponent transform = Mappers.transform.get(entity);
+        x = transform.pos.x;
+        y = transform.pos.y;
+        rotation = transform.rotation;
+        
+        PhysicsComponent physics = Mappers.physics.get(entity);
+        if (physics != null && physics.body != null) {
+            Vector2 velocity = physics.body.getLinearVelocity();
+            velX = velocity.x;
+            velY = velocity.y;
+            angularVelocity = physics.body.getAngularVelocity();
+        }
+        
+        HealthComponent healthComp = Mappers.health.get(entity);
+        health = healthComp == null || healthComp.health >= healthComp.maxHealth ? -1 : healthComp.health;
+    }
+    
+    /** regenerate the entity from its seed. @return entities to add to the engine, first is the saved entity */
+    public Array<Entity> create() {
+        Array<Entity> cluster;
+        switch (kind) {
+            case ship:
+                cluster = EntityFactory.createBasicShip(x, y, seed, null, true);
+                break;
+            case aiShip:
+                cluster = EntityFactory.createAIShip(x, y, seed, true);
+                AIComponent ai = Mappers.AI.get(cluster.first());
+                //targets are entities that are not saved
+                ai.state = state == AIComponent.State.idle ? state : AIComponent.State.wander;
+                break;
+            case asteroid:
+                cluster = new Array<>();
+                cluster.add(EntityFactory.createAsteroid(seed, x, y, velX, velY, size));
+                break;
+            case shard:
+                cluster = new Array<>();
+                cluster.add(EntityFactory.createAsteroid(seed, x, y, velX, velY, rotation, vertices));
+                break;
+            default:
+                throw new IllegalStateException("unknown kind: " + kind);
+        }
+        apply(cluster.first());
+        return cluster;
+    }
+    
+    /** restore transform, velocity and health onto an existing entity */
+    public void apply(Entity entity) {
+        TransformComponent transform = Mappers.transform.get(entity);
+        transform.pos.set(x, y);
+        transform.rotation = rotation;
+        
+        PhysicsComponent physics = Mappers.physics.get(entity);
+        if (physics != null && physics.body != null) {
+            Body body = physics.body;
+            body.setTransform(x, y, rotation);
+            body.setLinearVelocity(velX, velY);
+            body.setAngularVelocity(angularVelocity);
+        }
+        
+        HealthComponent healthComp = Mappers.health.get(entity);
+        if (healthComp != null && health >= 0) {
+            healthComp.health = health;
+        }
+    }
+    
+    public void write(DataOutputStream out) throws IOException {
+        boolean moving = velX != 0 || velY != 0 || angularVelocity != 0;
+        out.writeByte(kind.ordinal());
+        out.writeByte((moving ? MOVING : 0) | (health >= 0 ? DAMAGED : 0));
+        switch (kind) {
+            case ship:
+                out.writeLong(seed);
+                break;
+            case aiShip:
+                out.writeLong(seed);
+                out.writeByte(state == null ? -1 : state.ordinal());
+                break;
+            case asteroid:
+                out.writeLong(seed);
+                out.writeFloat(size);
+                break;
+            case shard:
+                out.writeLong(seed);
+                out.writeShort(vertices.length);
+                for (float vertex : vertices) {
+                    out.writeFloat(vertex);
+                }
+                break;
+        }
+        out.writeFloat(x);
+        out.writeFloat(y);
+        out.writeFloat(rotation);
+        if (moving) {
+            out.writeFloat(velX);
+            out.writeFloat(velY);
+            out.writeFloat(angularVelocity);
+        }
+        if (health >= 0) {
+            out.writeFloat(health);
+        }
+    }
+    
+    public static EntityRecord read(DataInputStream in) throws IOException {
+        EntityRecord record = new EntityRecord();
+        int kind = in.readByte();
+        if (kind < 0 || kind >= Kind.values().length) {
+            throw new IOException("Unknown entity kind: " + kind);
+        }
+        record.kind = Kind.values()[kind];
+        int flags = in.readByte();
+        switch (record.kind) {
+            case ship:
+                record.seed = in.readLong();
+                break;
+            case aiShip:
+                record.seed = in.readLong();
+                int state = in.readByte();
+                record.state = state < 0 || state >= AIComponent.State.values().length ? null : AIComponent.State.values()[state];
+                break;
+            case asteroid:
+                record.seed = in.readLong();
+                record.size = in.readFloat();
+                break;
+            case shard:
+                record.seed = in.readLong();
+                record.vertices = new float[in.readShort()];
+                for (int i = 0; i < record.vertices.length; i++) {
+                    record.vertices[i] = in.readFloat();
+                }
+                break;
+        }
+        record.x = in.readFloat();
+        record.y = in.readFloat();
+        record.rotation = in.readFloat();
+        if ((flags & MOVING) != 0) {
+            record.velX = in.readFloat();
+            record.velY = in.readFloat();
+            record.angularVelocity = in.readFloat();
+        }
+        if ((flags & DAMAGED) != 0) {
+            record.health = in.readFloat();
+        }
+        return record;
+    }
+    
+}
@@ -0,0 +1,278 @@
+package com.spaceproject.save;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.LongMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * Writes a WorldState as one file per sector plus a header, on a background thread.
+ * Saves are incremental: a sector file is only rewritten when its content changed since the last save (by checksum),
+ * and files of sectors that are now empty are deleted. The header is written after the sectors and lists them,
+ * so a save interrupted part way still loads (sectors from both saves at worst).
+ * Binary format (big endian):
+ * <pre>
+ * world.sav: int magic, short version, long galaxySeed, long gameTime, boolean hasPlayer, [player EntityRecord],
+ *            int sectors, per sector: long key, long crc
+ * sector_x_y.sav: int magic, short version, long key, int entities, per entity: EntityRecord
+ * </pre>
+ */
+public class SaveManager implements Disposable {
+    
+    private static final int MAGIC = 0x53505356;//SPSV
+    private static final short VERSION = 1;
+    private static final String HEADER = "world.sav";
+    
+    private final FileHandle directory;
+    private final ExecutorService executor;
+    private final AtomicBoolean saving = new AtomicBoolean();
+    //checksum of each sector file on disk. only touched by the save thread once constructed
+    private final LongMap<Long> sectorCrcs = new LongMap<>();
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+    private final CRC32 crc = new CRC32();
+    
+    private volatile int lastWritten, lastUnchanged, lastEntities;
+    private volatile long lastSaveMillis;
+    private final StringBuilder info = new StringBuilder();
+    
+    public SaveManager(FileHandle directory) {
+        this.directory = directory;
+        
+        //continue incrementally from what is on disk
+        FileHandle header = directory.child(HEADER);
+        if (header.exists()) {
+            try {
+                readHeader(header, sectorCrcs);
+            } catch (IOException e) {
+                Gdx.app.error(getClass().getSimpleName(), "Could not read save header, next save is written in full", e);
+                sectorCrcs.clear();
+            }
+        }
+        
+        executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "save-writer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+    
+    public static FileHandle getDefaultDirectory() {
+        return Gdx.files.local("save/world/");
+    }
+    
+    /** write in the background. @return false if the previous save is still being written, the state is dropped */
+    public boolean saveAsync(final WorldState state) {
+        if (!saving.compareAndSet(false, true)) return false;
+        
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    save(state);
+                } catch (IOException e) {
+                    Gdx.app.error(SaveManager.class.getSimpleName(), "Could not save: " + directory.path(), e);
+                } finally {
+                    saving.set(false);
+                }
+            }
+        });
+        return true;
+    }
+    
+    /** write on the calling thread. must not overlap a background save, see {@link #dispose()} */
+    public void save(WorldState state) throws IOException {
+        long start = System.currentTimeMillis();
+        directory.mkdirs();
+        
+        int written = 0, unchanged = 0;
+        LongMap<Long> crcs = new LongMap<>(state.sectors.size);
+        for (LongMap.Entry<Array<EntityRecord>> sector : state.sectors) {
+            bytes.reset();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(sector.key);
+            out.writeInt(sector.value.size);
+            for (EntityRecord record : sector.value) {
+                record.write(out);
+            }
+            out.flush();
+            
+            byte[] data = bytes.toByteArray();
+            crc.reset();
+            crc.update(data, 0, data.length);
+            long checksum = crc.getValue();
+            crcs.put(sector.key, checksum);
+            
+            Long previous = sectorCrcs.get(sector.key);
+            FileHandle file = sectorFile(sector.key);
+            if (previous != null && previous == checksum && file.exists()) {
+                unchanged++;
+                continue;
+            }
+            writeReplace(file, data);
+            written++;
+        }
+        
+        bytes.reset();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(state.galaxySeed);
+        out.writeLong(state.gameTime);
+        out.writeBoolean(state.player != null);
+        if (state.player != null) {
+            state.player.write(out);
+        }
+        out.writeInt(crcs.size);
+        for (LongMap.Entry<Long> sector : crcs) {
+            out.writeLong(sector.key);
+            out.writeLong(sector.value);
+        }
+        out.flush();
+        writeReplace(directory.child(HEADER), bytes.toByteArray());
+        
+        //sectors emptied since the last save, after the header no longer lists them
+        for (LongMap.Entry<Long> sector : sectorCrcs) {
+            if (!crcs.containsKey(sector.key)) {
+                sectorFile(sector.key).delete();
+            }
+        }
+        sectorCrcs.clear();
+        sectorCrcs.putAll(crcs);
+        
+        lastWritten = written;
+        lastUnchanged = unchanged;
+        lastEntities = state.getEntityCount();
+        lastSaveMillis = System.currentTimeMillis() - start;
+    }
+    
+    /** @return the saved world, null if there is no save */
+    public static WorldState load(FileHandle directory) throws IOException {
+        FileHandle header = directory.child(HEADER);
+        if (!header.exists()) return null;
+        
+        LongMap<Long> crcs = new LongMap<>();
+        WorldState state = readHeader(header, crcs);
+        for (LongMap.Entry<Long> sector : crcs) {
+            FileHandle file = sectorFile(directory, sector.key);
+            if (!file.exists()) {
+                Gdx.app.error(SaveManager.class.getSimpleName(), "Missing sector: " + file.path());
+                continue;
+            }
+            state.sectors.put(sector.key, readSector(file));
+        }
+        return state;
+    }
+    
+    private static WorldState readHeader(FileHandle file, LongMap<Long> crcs) throws IOException {
+        DataInputStream in = new DataInputStream(file.read(1 << 16));
+        try {
+            checkHeader(in, file);
+            WorldState state = new WorldState();
+            state.galaxySeed = in.readLong();
+            state.gameTime = in.readLong();
+            if (in.readBoolean()) {
+                state.player = EntityRecord.read(in);
+            }
+            int sectors = in.readInt();
+            for (int i = 0; i < sectors; i++) {
+                long key = in.readLong();
+                crcs.put(key, in.readLong());
+            }
+            return state;
+        } finally {
+            in.close();
+        }
+    }
+    
+    private static Array<EntityRecord> readSector(FileHandle file) throws IOException {
+        DataInputStream in = new DataInputStream(file.read(1 << 16));
+        try {
+            checkHeader(in, file);
+            in.readLong();//key, also in the file name
+            int count = in.readInt();
+            Array<EntityRecord> records = new Array<>(count);
+            for (int i = 0; i < count; i++) {
+                records.add(EntityRecord.read(in));
+            }
+            return records;
+        } finally {
+            in.close();
+        }
+    }
+    
+    private static void checkHeader(DataInputStream in, FileHandle file) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a save file: " + file.path());
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported save version " + version + ": " + file.path());
+        }
+    }
+    
+    /** write to a temporary file first so a crash mid write doesn't leave a truncated file */
+    private void writeReplace(FileHandle file, byte[] data) throws IOException {
+        FileHandle temp = file.sibling(file.name() + ".tmp");
+        try {
+            temp.writeBytes(data, false);
+            temp.moveTo(file);
+        } catch (GdxRuntimeException e) {
+            //eg: disk full, no permission
+            throw new IOException("Could not write " + file.path(), e);
+        }
+    }
+    
+    private FileHandle sectorFile(long key) {
+        return sectorFile(directory, key);
+    }
+    
+    private static FileHandle sectorFile(FileHandle directory, long key) {
+        return directory.child("sector_" + WorldState.sectorX(key) + "_" + WorldState.sectorY(key) + ".sav");
+    }
+    
+    public boolean isSaving() {
+        return saving.get();
+    }
+    
+    /** call from the game thread */
+    public CharSequence getInfo() {
+        info.setLength(0);
+        info.append("[Save] sectors written: ").append(lastWritten);
+        info.append(" unchanged: ").append(lastUnchanged);
+        info.append(" entities: ").append(lastEntities);
+        info.append(" last save: ").append(lastSaveMillis).append(" ms");
+        return info;
+    }
+    
+    /** waits for a background save in progress to finish */
+    @Override
+    public void dispose() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                Gdx.app.error(getClass().getSimpleName(), "Save still running after 10 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+}
@@ -0,0 +1,91 @@
+package com.spaceproject.save;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Copy of the saved world at one moment, grouped into sectors. Captured on the game thread and never modified after,
+ * so it can be written on a background thread while the game keeps running. See SaveManager.
+ */
+public class WorldState {
+    
+    public long galaxySeed;
+    public long gameTime;
+    //the controlled entity, null if not saved
+    public EntityRecord player;
+    public final LongMap<Array<EntityRecord>> sectors = new LongMap<>();
+    
+    /**
+     * @param entities candidates, those EntityRecord doesn't save are skipped
+     * @param player controlled entity, saved apart from the sectors
+     */
+    public static WorldState capture(long galaxySeed, long gameTime, ImmutableArray<Entity> entities, Entity player, float sectorSize) {
+        WorldState state = new WorldState();
+        state.galaxySeed = galaxySeed;
+        state.gameTime = gameTime;
+        
+        if (player != null) {
+            //recorded as what it is (ship, or the kind it took over), null if it is not something that can be saved
+            state.player = EntityRecord.of(player);
+        }
+        
+        for (Entity entity : entities) {
+            if (entity == player) continue;
+            
+            EntityRecord record = EntityRecord.of(entity);
+            if (record == null) continue;
+            
+            long key = sectorKey(record.x, record.y, sectorSize);
+            Array<EntityRecord> sector = state.sectors.get(key);
+            if (sector == null) {
+                sector = new Array<>();
+                state.sectors.put(key, sector);
+            }
+            sector.add(record);
+        }
+        return state;
+    }
+    
+    /** regenerate the saved entities (not the player) and add them to the engine. @return number of entities restored */
+    public int restore(Engine engine) {
+        int restored = 0;
+        for (Array<EntityRecord> sector : sectors.values()) {
+            for (EntityRecord record : sector) {
+                for (Entity entity : record.create()) {
+                    engine.addEntity(entity);
+                }
+                restored++;
+            }
+        }
+        return restored;
+    }
+    
+    public int getEntityCount() {
+        int count = 0;
+        for (Array<EntityRecord> sector : sectors.values()) {
+            count += sector.size;
+        }
+        return count;
+    }
+    
+    public static long sectorKey(float x, float y, float sectorSize) {
+        //not MathUtils.floor, it is only correct above -16384
+        return sectorKey((int) Math.floor(x / sectorSize), (int) Math.floor(y / sectorSize));
+    }
+    
+    public static long sectorKey(int sectorX, int sectorY) {
+        return ((long) sectorX << 32) | (sectorY & 0xffffffffL);
+    }
+    
+    public static int sectorX(long key) {
+        return (int) (key >> 32);
+    }
+    
+    public static int sectorY(long key) {
+        return (int) key;
+    }
+    
+}
@@ -3,9 +3,11 @@ package com.spaceproject.screens;
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.PooledEngine;
 import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Cursor;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.math.Vector2;
@@ -24,12 +26,17 @@ import com.spaceproject.config.EngineConfig;
 import com.spaceproject.config.SysCFG;
 import com.spaceproject.config.SystemsConfig;
 import com.spaceproject.config.WorldConfig;
+import com.spaceproject.events.EventBus;
 import com.spaceproject.generation.EntityFactory;
+import com.spaceproject.generation.Ephemeris;
 import com.spaceproject.generation.FontFactory;
 import com.spaceproject.generation.Galaxy;
 import com.spaceproject.math.MyMath;
 import com.spaceproject.math.Physics;
 import com.spaceproject.noise.NoiseManager;
+import com.spaceproject.rendering.FrameGraph;
+import com.spaceproject.save.SaveManager;
+import com.spaceproject.save.WorldState;
 import com.spaceproject.systems.ScreenTransitionSystem;
 import com.spaceproject.utility.DebugUtil;
 import com.spaceproject.utility.ECSUtil;
@@ -38,6 +45,7 @@ import com.spaceproject.utility.Mappers;
 import com.spaceproject.utility.ResourceDisposer;
 import com.spaceproject.utility.SystemLoader;
 
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 public class GameScreen extends MyScreenAdapter {
@@ -46,8 +54,11 @@ public class GameScreen extends MyScreenAdapter {
     private static Engine engine;
     public static World box2dWorld;
     public static NoiseManager noiseManager;
+    private static EventBus events;
     
     private static long gameTimeCurrent, gameTimeStart, timePaused;
+    //seconds, accumulated in double so long runs don't drift
+    private static double headlessTime;
     private boolean isPaused = false;
     
     private static boolean inSpace;
@@ -58,6 +69,7 @@ public class GameScreen extends MyScreenAdapter {
     public static Galaxy galaxy;
     
     private static Stage stage;
+    private static FrameGraph frameGraph;
     
     public static boolean isDebugMode = true;
     static final StringBuilder profilerStringBuilder = new StringBuilder();
@@ -105,30 +117,48 @@ public class GameScreen extends MyScreenAdapter {
     }
     
     private void initCore() {
+        EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
+        
         //ECS
-        engine = new Engine();
+        engine = engineCFG.pooledEngine ? new PooledEngine() : new Engine();
+        
+        //render passes, assembled by SystemLoader
+        frameGraph = new FrameGraph(pipeline, viewport);
         
         //physics
         box2dWorld = new World(new Vector2(), true);
         
+        //cross system notifications
+        events = new EventBus();
+        
         //worker
         if (noiseManager == null) {
-            EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
-            noiseManager = new NoiseManager(engineCFG.maxNoiseGenThreads);
+            noiseManager = new NoiseManager(engineCFG.maxNoiseGenThreads, events);
         }
     }
     
     private void initGame(boolean space) {
         inSpace = space;
         
+        //resume the saved world if there is one
+        WorldState save = inSpace ? loadSave() : null;
+        
         //init content and entities
-        galaxySeed = MyMath.getNewGalaxySeed();
+        galaxySeed = save == null ? MyMath.getNewGalaxySeed() : save.galaxySeed;
         galaxy = new Galaxy();
+        Ephemeris.clear();
     
         Array<Entity> playerShipCluster = EntityFactory.createPlayerShip(0, 0, inSpace);
+        if (save != null && save.player != null) {
+            save.player.apply(playerShipCluster.first());
+        }
         //init systems
         if (inSpace) {
             initSpace(playerShipCluster);
+            if (save != null) {
+                int restored = save.restore(engine);
+                Gdx.app.log(this.getClass().getSimpleName(), "Loaded save. seed: " + galaxySeed + " entities: " + restored);
+            }
         } else {
             Entity planet = EntityFactory.createPlanet(0, new Entity(), 0, false);
             Gdx.app.log(this.getClass().getSimpleName(), "DEBUG PLANET LOADED");
@@ -136,7 +166,19 @@ public class GameScreen extends MyScreenAdapter {
             initWorld(playerShipCluster, planet);
         }
         
-        gameTimeStart = System.nanoTime();
+        gameTimeStart = System.nanoTime() - (save == null ? 0 : TimeUnit.MILLISECONDS.toNanos(save.gameTime));
+    }
+    
+    private WorldState loadSave() {
+        EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
+        if (!engineCFG.loadSave) return null;
+        
+        try {
+            return SaveManager.load(SaveManager.getDefaultDirectory());
+        } catch (IOException e) {
+            Gdx.app.error(this.getClass().getSimpleName(), "Could not load save, starting a new galaxy", e);
+            return null;
+        }
     }
     
     //region system loading
@@ -191,7 +233,7 @@ public class GameScreen extends MyScreenAdapter {
         if (Mappers.AI.get(transEntity) != null) {
             Gdx.app.log(this.getClass().getSimpleName(), "REMOVING AI: " + DebugUtil.objString(transEntity));
             for (Entity e : transEntityCluster) {
-                e.add(new RemoveComponent());
+                e.add(engine.createComponent(RemoveComponent.class));
             }
             return;
         }
@@ -244,6 +286,12 @@ public class GameScreen extends MyScreenAdapter {
         }
         engine.update(delta);
         
+        //deliver events posted during the update
+        events.dispatch();
+        
+        //render
+        frameGraph.execute(delta);
+        
         stage.act(Math.min(delta, 1 / 30f));
         stage.draw();
         
@@ -267,6 +315,11 @@ public class GameScreen extends MyScreenAdapter {
         profilerStringBuilder.append("\n[Vertices]:         ");
         profilerStringBuilder.append(glProfiler.getVertexCount().total);
     
+        profilerStringBuilder.append("\n");
+        profilerStringBuilder.append(frameGraph.getInfo());
+        profilerStringBuilder.append("\n");
+        profilerStringBuilder.append(pipeline.getInfo());
+        
         profilerStringBuilder.append("\n-----[DISPOSED]----");
         profilerStringBuilder.append(ResourceDisposer.getTotalDisposeCount());
         
@@ -311,6 +364,66 @@ public class GameScreen extends MyScreenAdapter {
     public static Stage getStage() {
         return stage;
     }
+    
+    /** Use createEntity() / createComponent() for short lived entities so they are pooled when running a PooledEngine. */
+    public static Engine getEngine() {
+        return engine;
+    }
+    
+    public static EventBus getEvents() {
+        return events;
+    }
+    
+    public static FrameGraph getFrameGraph() {
+        return frameGraph;
+    }
+    //endregion
+    
+    //region headless
+    /**
+     * Set up the shared game state without a screen: no window, UI or render passes. Used by the headless Simulation.
+     * Game time starts at 0 and only moves with {@link #advanceGameTime(float)}, so runs with the same seed and input are repeatable.
+     */
+    public static void initHeadless(Engine simEngine, EventBus simEvents, long seed) {
+        EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
+        engine = simEngine;
+        events = simEvents;
+        box2dWorld = new World(new Vector2(), true);
+        //noise results are posted to the bus, so a manager from a previous run can't be reused
+        if (noiseManager != null) {
+            noiseManager.dispose();
+        }
+        noiseManager = new NoiseManager(engineCFG.maxNoiseGenThreads, events);
+        
+        //no camera system: loading follows cam, moved by the simulation
+        cam = new OrthographicCamera();
+        
+        inSpace = true;
+        isHyper = false;
+        currentPlanet = null;
+        galaxySeed = seed;
+        galaxy = new Galaxy();
+        Ephemeris.clear();
+        headlessTime = 0;
+        gameTimeCurrent = 0;
+    }
+    
+    /** fixed step clock for headless runs */
+    public static void advanceGameTime(float delta) {
+        headlessTime += delta;
+        gameTimeCurrent = (long) (headlessTime * 1000);
+    }
+    
+    public static void disposeHeadless() {
+        engine.removeAllEntities();
+        engine = null;
+        box2dWorld.dispose();
+        box2dWorld = null;
+        galaxy = null;
+        noiseManager.dispose();
+        noiseManager = null;
+        events.clear();
+    }
     //endregion
     
     @Override
@@ -353,11 +466,12 @@ public class GameScreen extends MyScreenAdapter {
             gameTimeStart += delta;
         }
         
-        //enable/disable systems
+        //enable/disable systems. render systems are halted by their pass instead
+        frameGraph.setPaused(isPaused);
         SystemsConfig systemsCFG = SpaceProject.configManager.getConfig(SystemsConfig.class);
         for (EntitySystem system : engine.getSystems()) {
             SysCFG sysCFG = systemsCFG.getConfig(system);
-            if (sysCFG.isHaltOnGamePause()) {
+            if (sysCFG.isHaltOnGamePause() && !frameGraph.isManaged(system)) {
                 system.setProcessing(!isPaused);
                 Gdx.app.log(this.getClass().getSimpleName(), "processing " + (isPaused ? "disabled" : "enabled") + " for " + system.getClass().getSimpleName());
             }
@@ -376,6 +490,7 @@ public class GameScreen extends MyScreenAdapter {
         
         // clean up after self
         SystemLoader.unLoadAll(engine);
+        frameGraph.dispose();
         
         ResourceDisposer.disposeAll(engine.getEntities());
         
@@ -388,6 +503,7 @@ public class GameScreen extends MyScreenAdapter {
         galaxy = null;
         noiseManager.dispose();
         noiseManager = null;
+        events.clear();
         
         stage.dispose();
     }
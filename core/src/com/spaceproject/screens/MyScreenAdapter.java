@@ -11,6 +11,8 @@ import com.badlogic.gdx.utils.viewport.ExtendViewport;
 import com.spaceproject.SpaceProject;
 import com.spaceproject.config.EngineConfig;
 import com.spaceproject.config.KeyConfig;
+import com.spaceproject.rendering.RenderPipeline;
+import com.spaceproject.ui.CustomShapeRenderer;
 
 public abstract class MyScreenAdapter extends ScreenAdapter {
     
@@ -23,6 +25,8 @@ public abstract class MyScreenAdapter extends ScreenAdapter {
     public static ExtendViewport viewport;
     public static SpriteBatch batch;
     public static ShapeRenderer shape;
+    //owns batch and shape for the render systems, see RenderPipeline
+    public static RenderPipeline pipeline;
     //save window size for switching between fullscreen and windowed
     private int prevWindowWidth;
     private int prevWindowHeight;
@@ -46,7 +50,8 @@ public abstract class MyScreenAdapter extends ScreenAdapter {
         
         cam = new OrthographicCamera();
         batch = new SpriteBatch();
-        shape = new ShapeRenderer();
+        CustomShapeRenderer customShape = new CustomShapeRenderer();
+        shape = customShape;
         viewport = new ExtendViewport(viewportWidth, viewportHeight, cam);
         viewport.apply();
         
@@ -59,6 +64,8 @@ public abstract class MyScreenAdapter extends ScreenAdapter {
         glProfiler = new GLProfiler(Gdx.graphics);
         glProfiler.enable();
         
+        pipeline = new RenderPipeline(batch, customShape, glProfiler);
+        
         //debug
         toggleVsync();
     }
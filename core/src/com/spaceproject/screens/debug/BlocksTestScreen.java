@@ -48,7 +48,7 @@ public class BlocksTestScreen extends MyScreenAdapter {
         
         int pixelPerUnit = 2;
         TextureComponent texture = new TextureComponent();
-        texture.texture = TextureFactory.generateWall(
+        texture.region = TextureFactory.acquireWall(
                 width * pixelPerUnit,
                 height * pixelPerUnit,
                 new Color(0.4f, 0.4f, 0.4f, 1));
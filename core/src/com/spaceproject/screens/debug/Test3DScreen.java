@@ -100,6 +100,7 @@ public class Test3DScreen extends ScreenAdapter {
         
         ship3d.worldTransform.rotate(Vector3.X, rotX);
         ship3d.worldTransform.setTranslation(playerX, playerY, -50);//bring z closer to camera so it doesn't clip outside the camera's near & far (should be at least sprites width/height)
+        ship3d.worldTransform.scale(ship3d.getRenderWidth(), ship3d.getRenderHeight(), 1);
 
     }
     
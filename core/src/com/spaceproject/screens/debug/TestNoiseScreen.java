@@ -445,4 +445,20 @@ public class TestNoiseScreen extends MyScreenAdapter implements InputProcessor {
         return false;
     }
     
+    @Override
+    public void hide() {
+        dispose();
+    }
+    
+    @Override
+    public void dispose() {
+        //batch and shape are shared with the other screens, only release what this screen created
+        scale.dispose();
+        octave.dispose();
+        persistence.dispose();
+        lacunarity.dispose();
+        visitWorld.dispose();
+        colorProfile.dispose();
+    }
+    
 }
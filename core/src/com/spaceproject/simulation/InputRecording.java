@@ -0,0 +1,281 @@
+package com.spaceproject.simulation;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.spaceproject.components.ControllableComponent;
+import com.spaceproject.components.DashComponent;
+import com.spaceproject.components.HyperDriveComponent;
+import com.spaceproject.components.PhysicsComponent;
+import com.spaceproject.components.ShieldComponent;
+import com.spaceproject.components.TransformComponent;
+import com.spaceproject.config.Config;
+import com.spaceproject.config.ConfigManager;
+import com.spaceproject.screens.GameScreen;
+import com.spaceproject.utility.Mappers;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+
+/**
+ * Player input sampled once per fixed step, with everything needed to play it back: galaxy seed, step, a snapshot of the configs
+ * and the state at the first step (player ship transform and velocity, game time and the shared random state).
+ * Only the player is restored: everything else is regenerated from the seed around the start position,
+ * so entities that were already moved or destroyed when recording started (AI ships, asteroids) will differ.
+ * Binary format (big endian):
+ * <pre>
+ * int magic, short version, long seed, float step
+ * float x, float y, float rotation, float velX, float velY, float angularVel, long gameTime, long random0, long random1
+ * int configs, per config: utf className, int length, json bytes (utf-8)
+ * int samples, per sample: int flags, float movementMultiplier, float angleTargetFace
+ * </pre>
+ */
+public class InputRecording {
+    
+    private static final int MAGIC = 0x53505243;//SPRC
+    private static final short VERSION = 2;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    
+    private static final int MOVE_FORWARD   = 1;
+    private static final int MOVE_LEFT      = 1 << 1;
+    private static final int MOVE_RIGHT     = 1 << 2;
+    private static final int MOVE_BACK      = 1 << 3;
+    private static final int ATTACK         = 1 << 4;
+    private static final int CHANGE_VEHICLE = 1 << 5;
+    private static final int TRANSITION     = 1 << 6;
+    private static final int BOOST          = 1 << 7;
+    private static final int SWAP_WEAPON    = 1 << 8;
+    private static final int SHIELD         = 1 << 9;
+    private static final int HYPER_DRIVE    = 1 << 10;
+    private static final int DASH           = 1 << 11;
+    
+    private long seed;
+    private float step;
+    private final ObjectMap<String, String> configs = new ObjectMap<>();
+    
+    private boolean started;
+    private float startX, startY, startRotation;
+    private float startVelX, startVelY, startAngularVel;
+    private long startGameTime;
+    private long startRandom0, startRandom1;
+    
+    private final IntArray flags = new IntArray();
+    private final FloatArray movementMultiplier = new FloatArray();
+    private final FloatArray angleTargetFace = new FloatArray();
+    
+    private InputRecording() { }
+    
+    /** start an empty recording, snapshotting the current configs */
+    public InputRecording(long seed, float step, ConfigManager configManager) {
+        this.seed = seed;
+        this.step = step;
+        
+        Json json = new Json();
+        json.setUsePrototypes(false);
+        for (Config config : configManager.getConfigs()) {
+            configs.put(config.getClass().getName(), json.toJson(config));
+        }
+    }
+    
+    /** remember where the recording starts from, call before the first sample */
+    public void start(Entity player) {
+        TransformComponent transform = Mappers.transform.get(player);
+        startX = transform.pos.x;
+        startY = transform.pos.y;
+        startRotation = transform.rotation;
+        PhysicsComponent physics = Mappers.physics.get(player);
+        if (physics != null && physics.body != null) {
+            startVelX = physics.body.getLinearVelocity().x;
+            startVelY = physics.body.getLinearVelocity().y;
+            startAngularVel = physics.body.getAngularVelocity();
+        }
+        startGameTime = GameScreen.getGameTimeCurrent();
+        //factories draw from the shared random, so it has to continue from the same state
+        RandomXS128 random = (RandomXS128) MathUtils.random;
+        startRandom0 = random.getState(0);
+        startRandom1 = random.getState(1);
+        started = true;
+    }
+    
+    /** put the player, game time and random back to how they were at the first step */
+    public void applyStart(Entity player) {
+        TransformComponent transform = Mappers.transform.get(player);
+        transform.pos.set(startX, startY);
+        transform.rotation = startRotation;
+        PhysicsComponent physics = Mappers.physics.get(player);
+        if (physics != null && physics.body != null) {
+            Body body = physics.body;
+            body.setTransform(startX, startY, startRotation);
+            body.setLinearVelocity(startVelX, startVelY);
+            body.setAngularVelocity(startAngularVel);
+        }
+        GameScreen.advanceGameTime(startGameTime / 1000f - GameScreen.getGameTimeCurrent() / 1000f);
+        ((RandomXS128) MathUtils.random).setState(startRandom0, startRandom1);
+    }
+    
+    public boolean isStarted() {
+        return started;
+    }
+    
+    /** append the current state of the controls as the next step */
+    public void sample(ControllableComponent control, DashComponent dash, ShieldComponent shield, HyperDriveComponent hyperDrive) {
+        int bits = 0;
+        if (control.moveForward) bits |= MOVE_FORWARD;
+        if (control.moveLeft) bits |= MOVE_LEFT;
+        if (control.moveRight) bits |= MOVE_RIGHT;
+        if (control.moveBack) bits |= MOVE_BACK;
+        if (control.attack) bits |= ATTACK;
+        if (control.changeVehicle) bits |= CHANGE_VEHICLE;
+        if (control.transition) bits |= TRANSITION;
+        if (control.boost) bits |= BOOST;
+        if (control.swapWeapon) bits |= SWAP_WEAPON;
+        if (shield != null && shield.activate) bits |= SHIELD;
+        if (hyperDrive != null && hyperDrive.activate) bits |= HYPER_DRIVE;
+        if (dash != null && dash.activate) bits |= DASH;
+        
+        flags.add(bits);
+        movementMultiplier.add(control.movementMultiplier);
+        angleTargetFace.add(control.angleTargetFace);
+    }
+    
+    /** set the controls to the state recorded at the given step */
+    public void apply(int frame, ControllableComponent control, DashComponent dash, ShieldComponent shield, HyperDriveComponent hyperDrive) {
+        int bits = flags.get(frame);
+        control.moveForward = (bits & MOVE_FORWARD) != 0;
+        control.moveLeft = (bits & MOVE_LEFT) != 0;
+        control.moveRight = (bits & MOVE_RIGHT) != 0;
+        control.moveBack = (bits & MOVE_BACK) != 0;
+        control.attack = (bits & ATTACK) != 0;
+        control.changeVehicle = (bits & CHANGE_VEHICLE) != 0;
+        control.transition = (bits & TRANSITION) != 0;
+        control.boost = (bits & BOOST) != 0;
+        control.swapWeapon = (bits & SWAP_WEAPON) != 0;
+        control.movementMultiplier = movementMultiplier.get(frame);
+        control.angleTargetFace = angleTargetFace.get(frame);
+        if (shield != null) shield.activate = (bits & SHIELD) != 0;
+        if (hyperDrive != null) hyperDrive.activate = (bits & HYPER_DRIVE) != 0;
+        if (dash != null) dash.activate = (bits & DASH) != 0;
+    }
+    
+    /** replace the loaded configs with the ones the recording was made with */
+    public void applyConfigs(ConfigManager configManager) {
+        Json json = new Json();
+        json.setUsePrototypes(false);
+        ArrayList<Config> loaded = configManager.getConfigs();
+        for (int i = 0; i < loaded.size(); i++) {
+            String data = configs.get(loaded.get(i).getClass().getName());
+            if (data == null) continue;
+            
+            loaded.set(i, json.fromJson(loaded.get(i).getClass(), data));
+        }
+    }
+    
+    public void write(FileHandle file) throws IOException {
+        DataOutputStream out = new DataOutputStream(file.write(false, 1 << 16));
+        try {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(seed);
+            out.writeFloat(step);
+            
+            out.writeFloat(startX);
+            out.writeFloat(startY);
+            out.writeFloat(startRotation);
+            out.writeFloat(startVelX);
+            out.writeFloat(startVelY);
+            out.writeFloat(startAngularVel);
+            out.writeLong(startGameTime);
+            out.writeLong(startRandom0);
+            out.writeLong(startRandom1);
+            
+            out.writeInt(configs.size);
+            for (ObjectMap.Entry<String, String> config : configs) {
+                out.writeUTF(config.key);
+                //json can be longer than writeUTF allows
+                byte[] data = config.value.getBytes(UTF_8);
+                out.writeInt(data.length);
+                out.write(data);
+            }
+            
+            out.writeInt(flags.size);
+            for (int i = 0; i < flags.size; i++) {
+                out.writeInt(flags.get(i));
+                out.writeFloat(movementMultiplier.get(i));
+                out.writeFloat(angleTargetFace.get(i));
+            }
+        } finally {
+            out.close();
+        }
+    }
+    
+    public static InputRecording read(FileHandle file) throws IOException {
+        DataInputStream in = new DataInputStream(file.read(1 << 16));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an input recording: " + file.path());
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported recording version " + version + ": " + file.path());
+            }
+            
+            InputRecording recording = new InputRecording();
+            recording.seed = in.readLong();
+            recording.step = in.readFloat();
+            
+            recording.startX = in.readFloat();
+            recording.startY = in.readFloat();
+            recording.startRotation = in.readFloat();
+            recording.startVelX = in.readFloat();
+            recording.startVelY = in.readFloat();
+            recording.startAngularVel = in.readFloat();
+            recording.startGameTime = in.readLong();
+            recording.startRandom0 = in.readLong();
+            recording.startRandom1 = in.readLong();
+            recording.started = true;
+            
+            int configCount = in.readInt();
+            for (int i = 0; i < configCount; i++) {
+                String className = in.readUTF();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                recording.configs.put(className, new String(data, UTF_8));
+            }
+            
+            int samples = in.readInt();
+            recording.flags.ensureCapacity(samples);
+            recording.movementMultiplier.ensureCapacity(samples);
+            recording.angleTargetFace.ensureCapacity(samples);
+            for (int i = 0; i < samples; i++) {
+                recording.flags.add(in.readInt());
+                recording.movementMultiplier.add(in.readFloat());
+                recording.angleTargetFace.add(in.readFloat());
+            }
+            return recording;
+        } finally {
+            in.close();
+        }
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public float getStep() {
+        return step;
+    }
+    
+    public int size() {
+        return flags.size;
+    }
+    
+}
@@ -0,0 +1,41 @@
+package com.spaceproject.simulation;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * GL that does nothing, for running the game without a context (the headless backend leaves Gdx.gl null).
+ * Lets logic that creates resources on the side (eg: textures generated with entities) run unchanged.
+ * Every call returns a default value: 0, false, empty string. Nothing is ever drawn.
+ */
+public class NoopGL implements InvocationHandler {
+    
+    public static GL30 create() {
+        return (GL30) Proxy.newProxyInstance(NoopGL.class.getClassLoader(), new Class<?>[]{ GL20.class, GL30.class }, new NoopGL());
+    }
+    
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        Class<?> type = method.getReturnType();
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                default: return "NoopGL";
+            }
+        }
+        
+        if (type == Void.TYPE) return null;
+        if (type == Boolean.TYPE) return false;
+        if (type == Integer.TYPE) return 0;
+        if (type == Long.TYPE) return 0L;
+        if (type == Float.TYPE) return 0f;
+        if (type == String.class) return "";
+        return null;
+    }
+    
+}
@@ -0,0 +1,111 @@
+package com.spaceproject.simulation;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.spaceproject.SpaceProject;
+import com.spaceproject.config.ConfigManager;
+import com.spaceproject.systems.InputReplaySystem;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Plays an InputRecording back in a headless Simulation, one fixed step per frame, as fast as possible.
+ * Writes the time spent in each step to a csv (frame, ms, entities) and logs a summary, then exits.
+ * Runs the same input against the same seed and configs every time, so timings are comparable between builds.
+ */
+public class ReplayRunner extends ApplicationAdapter {
+    
+    private final String recordingPath, timingsPath;
+    
+    private InputRecording recording;
+    private Simulation simulation;
+    private InputReplaySystem replay;
+    private final FloatArray frameMillis = new FloatArray();
+    private final StringBuilder csv = new StringBuilder();
+    
+    public ReplayRunner(String recordingPath, String timingsPath) {
+        this.recordingPath = recordingPath;
+        this.timingsPath = timingsPath;
+    }
+    
+    @Override
+    public void create() {
+        GL30 gl = NoopGL.create();
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+        Gdx.gl30 = gl;
+        
+        SpaceProject.configManager = new ConfigManager();
+        SpaceProject.configManager.init();
+        try {
+            recording = InputRecording.read(Gdx.files.local(recordingPath));
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not read recording: " + recordingPath, e);
+        }
+        recording.applyConfigs(SpaceProject.configManager);
+        
+        simulation = new Simulation(recording.getSeed());
+        simulation.start(recording);
+        //before everything else, where the input systems would be
+        replay = new InputReplaySystem(recording);
+        replay.priority = 0;
+        simulation.getEngine().addSystem(replay);
+        
+        frameMillis.ensureCapacity(recording.size());
+        csv.append("frame,ms,entities\n");
+        Gdx.app.log(getClass().getSimpleName(), "Replaying " + recording.size() + " steps at " + recording.getStep() + "s");
+    }
+    
+    @Override
+    public void render() {
+        if (replay.isFinished()) {
+            finish();
+            return;
+        }
+        
+        //one step per frame so worker results posted to the main thread are picked up in between, like in game
+        long start = System.nanoTime();
+        simulation.step(recording.getStep());
+        float millis = (System.nanoTime() - start) / 1000000f;
+        
+        frameMillis.add(millis);
+        csv.append(replay.getFrame()).append(',').append(millis).append(',').append(simulation.getEngine().getEntities().size()).append('\n');
+    }
+    
+    private void finish() {
+        FileHandle file = Gdx.files.local(timingsPath);
+        file.writeString(csv.toString(), false);
+        
+        float[] sorted = frameMillis.toArray();
+        Arrays.sort(sorted);
+        float total = 0;
+        for (float millis : sorted) {
+            total += millis;
+        }
+        int frames = sorted.length;
+        if (frames > 0) {
+            Gdx.app.log(getClass().getSimpleName(), "Frames: " + frames
+                    + " total: " + Math.round(total) + " ms"
+                    + " mean: " + total / frames
+                    + " p50: " + sorted[frames / 2]
+                    + " p99: " + sorted[Math.min(frames - 1, (int) (frames * 0.99f))]
+                    + " max: " + sorted[frames - 1]);
+        }
+        Gdx.app.log(getClass().getSimpleName(), "Timings: " + file.path());
+        
+        Gdx.app.exit();
+    }
+    
+    @Override
+    public void dispose() {
+        if (simulation != null) {
+            simulation.dispose();
+        }
+    }
+    
+}
@@ -0,0 +1,20 @@
+package com.spaceproject.simulation;
+
+/**
+ * JVM counters for the SimulationHarness. Provided by the launcher, as they aren't available on every platform.
+ */
+public interface RuntimeMetrics {
+    
+    /** @return bytes allocated so far by the current thread, or -1 if not supported */
+    long getAllocatedBytes();
+    
+    /** @return number of garbage collections so far */
+    long getGcCount();
+    
+    /** @return total time spent in garbage collection so far, in ms. includes concurrent work, not only pauses */
+    long getGcMillis();
+    
+    /** @return longest single collection so far, in ms. a concurrent cycle counts as one collection, so it is not a pause length */
+    long getGcMaxMillis();
+    
+}
@@ -0,0 +1,186 @@
+package com.spaceproject.simulation;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.spaceproject.SpaceProject;
+import com.spaceproject.config.EngineConfig;
+import com.spaceproject.config.PassCFG;
+import com.spaceproject.config.RenderPassConfig;
+import com.spaceproject.config.SysCFG;
+import com.spaceproject.config.SystemsConfig;
+import com.spaceproject.events.EventBus;
+import com.spaceproject.generation.EntityFactory;
+import com.spaceproject.math.MyMath;
+import com.spaceproject.screens.GameScreen;
+import com.spaceproject.systems.CameraSystem;
+import com.spaceproject.systems.CelestialLODSystem;
+import com.spaceproject.systems.ControllerInputSystem;
+import com.spaceproject.systems.DesktopInputSystem;
+import com.spaceproject.systems.InputRecorderSystem;
+import com.spaceproject.systems.MobileInputSystem;
+import com.spaceproject.systems.SaveSystem;
+import com.spaceproject.systems.SoundSystem;
+import com.spaceproject.utility.IRequireGameContext;
+import com.spaceproject.utility.Mappers;
+
+/**
+ * Runs the game in space without a screen: only the logic systems are loaded (no render passes, input, camera, sound or UI),
+ * and time only moves with {@link #step(float)}. Requires SpaceProject.configManager and Gdx.gl (see NoopGL) to be set.
+ */
+public class Simulation implements Disposable {
+    
+    //logic systems that need a window, device or player
+    private static final Class<?>[] excluded = {
+            DesktopInputSystem.class, ControllerInputSystem.class, MobileInputSystem.class, InputRecorderSystem.class, SaveSystem.class,
+            CameraSystem.class, CelestialLODSystem.class, SoundSystem.class
+    };
+    
+    private final Engine engine;
+    private final EventBus events;
+    private final Entity player;
+    private long ticks;
+    private final Vector2 tempVec = new Vector2();
+    
+    public Simulation(long seed) {
+        //same engine as the game, so allocation measured here matches it
+        EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
+        engine = engineCFG.pooledEngine ? new PooledEngine() : new Engine();
+        events = new EventBus();
+        GameScreen.initHeadless(engine, events, seed);
+        loadSystems();
+        
+        MathUtils.random.setSeed(seed);
+        Array<Entity> playerShipCluster = EntityFactory.createPlayerShip(0, 0, true);
+        for (Entity entity : playerShipCluster) {
+            engine.addEntity(entity);
+        }
+        player = playerShipCluster.first();
+        followPlayer();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void loadSystems() {
+        SystemsConfig systemsCFG = SpaceProject.configManager.getConfig(SystemsConfig.class);
+        RenderPassConfig passCFG = SpaceProject.configManager.getConfig(RenderPassConfig.class);
+        for (SysCFG sysCFG : systemsCFG.getSystems()) {
+            if (!sysCFG.isLoadInSpace() || !sysCFG.isLoadOnDesktop()) continue;
+            if (isRenderSystem(passCFG, sysCFG.getClassName())) continue;
+            
+            try {
+                Class<? extends EntitySystem> systemClass = (Class<? extends EntitySystem>) Class.forName(sysCFG.getClassName());
+                if (isExcluded(systemClass)) continue;
+                
+                EntitySystem system = systemClass.getDeclaredConstructor().newInstance();
+                system.priority = sysCFG.getPriority();
+                engine.addSystem(system);
+            } catch (Exception e) {
+                Gdx.app.error(getClass().getSimpleName(), "Could not load system " + sysCFG.getClassName(), e);
+            }
+        }
+        Gdx.app.log(getClass().getSimpleName(), "Systems: [" + engine.getSystems().size() + "] seed: " + GameScreen.getGalaxySeed());
+    }
+    
+    private static boolean isRenderSystem(RenderPassConfig passCFG, String className) {
+        for (PassCFG pass : passCFG.getPasses()) {
+            for (String system : pass.getSystems()) {
+                if (system.equals(className)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    private static boolean isExcluded(Class<?> systemClass) {
+        //game context systems drive the screen (transitions, menus)
+        if (IRequireGameContext.class.isAssignableFrom(systemClass)) {
+            return true;
+        }
+        for (Class<?> exclude : excluded) {
+            if (exclude == systemClass) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /** put the player where the recording started, before its first step is replayed */
+    public void start(InputRecording recording) {
+        recording.applyStart(player);
+        followPlayer();
+    }
+    
+    /** add AI ships at random positions within radius of the origin */
+    public void spawnAIShips(int count, float radius) {
+        for (int i = 0; i < count; i++) {
+            Vector2 pos = randomPosition(radius);
+            for (Entity entity : EntityFactory.createAIShip(pos.x, pos.y, true)) {
+                engine.addEntity(entity);
+            }
+        }
+    }
+    
+    /** add drifting asteroids at random positions within radius of the origin */
+    public void spawnAsteroids(int count, float radius) {
+        for (int i = 0; i < count; i++) {
+            Vector2 pos = randomPosition(radius);
+            float velX = MathUtils.random(-20, 20);
+            float velY = MathUtils.random(-20, 20);
+            int size = MathUtils.random(14, 120);
+            engine.addEntity(EntityFactory.createAsteroid(MyMath.getSeed(pos.x, pos.y), pos.x, pos.y, velX, velY, size));
+        }
+    }
+    
+    private Vector2 randomPosition(float radius) {
+        //keep clear of the player at the origin
+        float distance = MathUtils.random(radius * 0.1f, radius);
+        return tempVec.set(distance, 0).rotateDeg(MathUtils.random(360f));
+    }
+    
+    /** advance the game by one fixed step */
+    public void step(float delta) {
+        GameScreen.advanceGameTime(delta);
+        engine.update(delta);
+        events.dispatch();
+        followPlayer();
+        ticks++;
+    }
+    
+    private void followPlayer() {
+        //loading is centered on the camera, no camera system to move it
+        Vector2 pos = Mappers.transform.get(player).pos;
+        GameScreen.cam.position.set(pos, 0);
+    }
+    
+    public Engine getEngine() {
+        return engine;
+    }
+    
+    public Entity getPlayer() {
+        return player;
+    }
+    
+    public long getTicks() {
+        return ticks;
+    }
+    
+    @Override
+    public void dispose() {
+        while (engine.getSystems().size() > 0) {
+            EntitySystem system = engine.getSystems().first();
+            engine.removeSystem(system);
+            if (system instanceof Disposable) {
+                ((Disposable) system).dispose();
+            }
+        }
+        GameScreen.disposeHeadless();
+    }
+    
+}
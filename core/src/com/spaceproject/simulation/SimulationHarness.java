@@ -0,0 +1,123 @@
+package com.spaceproject.simulation;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL30;
+import com.spaceproject.SpaceProject;
+import com.spaceproject.config.ConfigManager;
+import com.spaceproject.config.EngineConfig;
+
+/**
+ * Load test: runs the Simulation for a number of game minutes at max speed, with a given seed and number of AI ships and asteroids.
+ * Logs ticks/sec, allocation rate and GC time for every game minute and for the whole run, then exits.
+ */
+public class SimulationHarness extends ApplicationAdapter {
+    
+    private final long seed;
+    private final float minutes;
+    private final int aiShips, asteroids;
+    private final RuntimeMetrics metrics;
+    
+    //entities are spawned within this distance of the player
+    private final float spawnRadius = 5000;
+    
+    private Simulation simulation;
+    private float step;
+    private long totalTicks, ticksPerMinute;
+    
+    private Sample start, minuteStart;
+    private final Sample now = new Sample();
+    
+    private static class Sample {
+        long ticks, nanos, allocated, gcCount, gcMillis;
+        
+        Sample set(long ticks, RuntimeMetrics metrics) {
+            this.ticks = ticks;
+            nanos = System.nanoTime();
+            allocated = metrics == null ? -1 : metrics.getAllocatedBytes();
+            gcCount = metrics == null ? 0 : metrics.getGcCount();
+            gcMillis = metrics == null ? 0 : metrics.getGcMillis();
+            return this;
+        }
+    }
+    
+    /** @param metrics optional */
+    public SimulationHarness(long seed, float minutes, int aiShips, int asteroids, RuntimeMetrics metrics) {
+        this.seed = seed;
+        this.minutes = minutes;
+        this.aiShips = aiShips;
+        this.asteroids = asteroids;
+        this.metrics = metrics;
+    }
+    
+    @Override
+    public void create() {
+        GL30 gl = NoopGL.create();
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+        Gdx.gl30 = gl;
+        
+        SpaceProject.configManager = new ConfigManager();
+        SpaceProject.configManager.init();
+        EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
+        step = 1f / engineCFG.physicsStepPerFrame;
+        ticksPerMinute = engineCFG.physicsStepPerFrame * 60L;
+        totalTicks = (long) (minutes * ticksPerMinute);
+        
+        simulation = new Simulation(seed);
+        simulation.spawnAIShips(aiShips, spawnRadius);
+        simulation.spawnAsteroids(asteroids, spawnRadius);
+        
+        Gdx.app.log(getClass().getSimpleName(), "seed: " + seed + " minutes: " + minutes + " ticks: " + totalTicks
+                + " ai: " + aiShips + " asteroids: " + asteroids + " entities: " + simulation.getEngine().getEntities().size());
+        start = new Sample().set(0, metrics);
+        minuteStart = new Sample().set(0, metrics);
+    }
+    
+    @Override
+    public void render() {
+        //one tick per frame so worker results posted to the main thread are picked up in between, like in game
+        simulation.step(step);
+        
+        long ticks = simulation.getTicks();
+        if (ticks % ticksPerMinute == 0) {
+            report("minute " + ticks / ticksPerMinute, minuteStart, now.set(ticks, metrics));
+            minuteStart.set(ticks, metrics);
+        }
+        
+        if (ticks >= totalTicks) {
+            report("total", start, now.set(ticks, metrics));
+            Gdx.app.exit();
+        }
+    }
+    
+    private void report(String label, Sample from, Sample to) {
+        long ticks = to.ticks - from.ticks;
+        double seconds = (to.nanos - from.nanos) / 1000000000.0;
+        if (ticks <= 0 || seconds <= 0) return;
+        
+        StringBuilder info = new StringBuilder(label);
+        info.append(": ticks/sec: ").append(Math.round(ticks / seconds));
+        info.append(" (x").append(Math.round(ticks * step / seconds)).append(" realtime)");
+        info.append(" entities: ").append(simulation.getEngine().getEntities().size());
+        if (from.allocated >= 0 && to.allocated >= 0) {
+            long allocated = to.allocated - from.allocated;
+            info.append(" alloc: ").append(Math.round(allocated / seconds / 1048576)).append(" MB/s");
+            info.append(" (").append(allocated / ticks).append(" B/tick)");
+        }
+        if (metrics != null) {
+            info.append(" gc: ").append(to.gcCount - from.gcCount);
+            info.append(" time ").append(to.gcMillis - from.gcMillis).append(" ms");
+            info.append(" longest ").append(metrics.getGcMaxMillis()).append(" ms");
+        }
+        Gdx.app.log(getClass().getSimpleName(), info.toString());
+    }
+    
+    @Override
+    public void dispose() {
+        if (simulation != null) {
+            simulation.dispose();
+        }
+    }
+    
+}
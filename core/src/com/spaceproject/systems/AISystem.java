@@ -2,145 +2,258 @@ package com.spaceproject.systems;
 
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.systems.IteratingSystem;
 import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.Array;
+import com.spaceproject.SpaceProject;
+import com.spaceproject.ai.AIBehaviors;
+import com.spaceproject.ai.AIContext;
+import com.spaceproject.ai.AIThinkPool;
 import com.spaceproject.components.AIComponent;
 import com.spaceproject.components.CameraFocusComponent;
 import com.spaceproject.components.CharacterComponent;
 import com.spaceproject.components.ControllableComponent;
 import com.spaceproject.components.PhysicsComponent;
 import com.spaceproject.components.PlanetComponent;
+import com.spaceproject.components.TextureComponent;
+import com.spaceproject.components.TransformComponent;
 import com.spaceproject.components.VehicleComponent;
+import com.spaceproject.config.EngineConfig;
 import com.spaceproject.math.MyMath;
 import com.spaceproject.utility.DebugUtil;
 import com.spaceproject.utility.ECSUtil;
 import com.spaceproject.utility.Mappers;
 import com.spaceproject.utility.Steering;
 
-public class AISystem extends IteratingSystem {
+/**
+ * Runs the AI behavior tree (see AIBehaviors) for each agent.
+ * Thinking is time sliced: an agent thinks at most every thinkInterval, and at most maxThinksPerFrame agents
+ * think per frame, round robin, so the cost stays flat with hundreds of agents. Agents added together are
+ * staggered so they don't all think on the same frame. Between think steps the last decision holds:
+ * controls stay set, and steering forces are applied every frame.
+ * Each frame runs in phases:
+ * - snapshot: capture what the agents that are due need to know (positions, velocities, targets, neighbors)
+ * - think: tick the tree over the snapshots in parallel (see AIThinkPool), each agent writes only its own command
+ * - apply: write commands to components in agent order, on the main thread
+ * - act: apply steering forces
+ * So the outcome is the same for any number of think threads.
+ * Targets are cleared by an entity listener when they are removed from the engine.
+ */
+public class AISystem extends EntitySystem implements EntityListener {
     
+    private static final EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
+    
+    private final float thinkInterval = 0.1f;
+    private final int maxThinksPerFrame = 40;
+    private final int staggerSlots = 8;
+    
+    private ImmutableArray<Entity> agents;
     private ImmutableArray<Entity> vehicles;
     private ImmutableArray<Entity> planets;
+    private ImmutableArray<Entity> players;
+    
+    private final Family agentFamily = Family.all(AIComponent.class, ControllableComponent.class).get();
+    //anything an agent can target
+    private final Family targetFamily = Family.one(VehicleComponent.class, CharacterComponent.class, PlanetComponent.class).get();
+    
+    //proximity queries, see SpatialHashSystem
+    private final Family vehicleFamily = Family.all(VehicleComponent.class, TransformComponent.class).get();
+    private final Family planetFamily = Family.all(PlanetComponent.class, TransformComponent.class).get();
+    private final float vehicleCellSize = 50f;
+    private final float planetCellSize = 5000f;
+    private final Array<Entity> nearbyVehicles = new Array<>();
+    
+    private final AIBehaviors behaviors = new AIBehaviors();
+    private final AIContext[] contexts = new AIContext[maxThinksPerFrame];
+    private AIThinkPool thinkPool;
+    //null if not loaded, added before this system (see SystemsConfig priority)
+    private InterestSystem interest;
+    private int cursor;
+    private int added;
+    
+    private int thinks, waiting, distant;
+    private float thinkMillis = -1;
+    private final StringBuilder info = new StringBuilder();
+    
+    //keep stagger offsets for agents added after the system
+    private final EntityListener agentListener = new EntityListener() {
+        @Override
+        public void entityAdded(Entity entity) {
+            Mappers.AI.get(entity).sinceThink = (added++ % staggerSlots) * thinkInterval / staggerSlots;
+        }
+        
+        @Override
+        public void entityRemoved(Entity entity) {}
+    };
     
     public AISystem() {
-        super(Family.all(AIComponent.class, ControllableComponent.class).get());
+        for (int i = 0; i < contexts.length; i++) {
+            contexts[i] = new AIContext();
+        }
     }
     
     @Override
     public void addedToEngine(Engine engine) {
-        super.addedToEngine(engine);
-        vehicles = engine.getEntitiesFor(Family.all(VehicleComponent.class).get());
-        planets = engine.getEntitiesFor(Family.all(PlanetComponent.class).get());
+        agents = engine.getEntitiesFor(agentFamily);
+        vehicles = engine.getEntitiesFor(vehicleFamily);
+        planets = engine.getEntitiesFor(planetFamily);
+        players = engine.getEntitiesFor(Family.all(CameraFocusComponent.class, ControllableComponent.class).get());
+        engine.addEntityListener(agentFamily, agentListener);
+        for (Entity entity : agents) {
+            agentListener.entityAdded(entity);
+        }
+        engine.addEntityListener(targetFamily, this);
+        thinkPool = new AIThinkPool(engineCFG.maxAIThinkThreads);
+        interest = engine.getSystem(InterestSystem.class);
     }
     
     @Override
-    protected void processEntity(Entity entity, float delta) {
-        /* simple DUMB test "AI" for now just to create structure/skeleton and test some basic behaviors */
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(agentListener);
+        engine.removeEntityListener(this);
+        thinkPool.dispose();
+    }
+    
+    @Override
+    public void update(float delta) {
+        long start = System.nanoTime();
+        
+        for (int i = 0; i < agents.size(); i++) {
+            Mappers.AI.get(agents.get(i)).sinceThink += delta;
+        }
         
-        AIComponent ai = Mappers.AI.get(entity);
-        ControllableComponent control = Mappers.controllable.get(entity);
-        Vector2 aiPos = Mappers.transform.get(entity).pos;
+        //snapshot: round robin over agents that are due, within budget
+        //agents far from any observer think less often, see InterestSystem
+        float distantThinkInterval = thinkInterval * (interest == null ? 1 : interest.getDistantInterval());
+        thinks = waiting = distant = 0;
+        int count = agents.size();
+        int first = cursor;
+        for (int n = 0; n < count; n++) {
+            int index = (first + n) % count;
+            Entity entity = agents.get(index);
+            AIComponent ai = Mappers.AI.get(entity);
+            boolean active = interest == null || interest.isActive(Mappers.transform.get(entity).pos);
+            if (!active) {
+                distant++;
+            }
+            if (ai.sinceThink < (active ? thinkInterval : distantThinkInterval)) continue;
+            
+            if (thinks >= maxThinksPerFrame) {
+                //over budget, picked up next frame
+                waiting++;
+                continue;
+            }
+            snapshot(contexts[thinks++], entity, ai);
+            cursor = index + 1;
+        }
         
+        //think
+        thinkPool.think(behaviors.getRoot(), contexts, thinks);
+        
+        //apply, in the same order agents were snapshot
+        for (int i = 0; i < thinks; i++) {
+            apply(contexts[i]);
+        }
+        
+        //act: apply steering forces from the last think step
+        for (int i = 0; i < agents.size(); i++) {
+            Entity entity = agents.get(i);
+            Steering steering = Mappers.AI.get(entity).steering;
+            PhysicsComponent physics = Mappers.physics.get(entity);
+            if (steering.applyForce && physics != null) {
+                applySteering(physics.body, steering, delta);
+            }
+        }
+        
+        float millis = (System.nanoTime() - start) / 1000000f;
+        thinkMillis = thinkMillis < 0 ? millis : MathUtils.lerp(thinkMillis, millis, 0.1f);
+    }
+    
+    private void snapshot(AIContext context, Entity entity, AIComponent ai) {
         if (ai.state == null) {
             ai.state = AIComponent.State.wander;
             Gdx.app.debug(getClass().getSimpleName(), "WARNING: null state. adjusting to default state: " + ai.state.name());
         }
         
-        switch (ai.state) {
-            case attack:
-                if (ai.attackTarget != null || (getEngine().getEntities().contains(ai.attackTarget, false))) {
-                    VehicleComponent vehicle = Mappers.vehicle.get(entity);
-                    if (vehicle == null) {
-                        //find a vehicle if on foot
-                        seekAndEnterVehicle(entity, control, aiPos);
-                    } else {
-                        //seek and attack
-                        Vector2 targetPos = Mappers.transform.get(ai.attackTarget).pos;
-                        dumbSeek(control, aiPos, targetPos, 0.3f);//todo: distance based. threshold radius
-                        control.attack = !control.attack;
-                    }
-                } else {
-                    ai.state = AIComponent.State.wander;
-                    Gdx.app.debug(getClass().getSimpleName(), "attack target null or entity not found. setting state: " + ai.state.name());
-                }
-                break;
-            case wander:
-                control.attack = false;
-                
-                //dumb wander
-                control.angleTargetFace += 1 * delta;
-                control.moveForward = true;
-                control.movementMultiplier = 0.1f;
-                
-                break;
-            case landOnPlanet: {
-                if (Mappers.screenTrans.get(entity) != null) {
-                    ai.state = AIComponent.State.idle;
-                    control.transition = false;
-                    Gdx.app.debug(getClass().getSimpleName(), DebugUtil.objString(ai) + "AI landing. setting state: " + ai.state.name());
-                    return;
-                }
-                
-                VehicleComponent vehicle = Mappers.vehicle.get(entity);
-                if (vehicle == null) {
-                    //todo: debug test behavior. normally character would not be without a ship in space
-                    seekAndEnterVehicle(entity, control, aiPos);
-                } else {
-                    if (ai.planetTarget == null) {
-                        ai.planetTarget = ECSUtil.closestEntity(aiPos, planets);
-                        Gdx.app.debug(getClass().getSimpleName(),
-                                "WARNING: no landing target planet for AI, defaulting nearest planet: " + DebugUtil.objString(ai.planetTarget));
-                    }
-                    
-                    //arrive behavior
-                    Vector2 targetPos = Mappers.transform.get(ai.planetTarget).pos;
-                    Body body = Mappers.physics.get(entity).body;
-                    arrive(body, ai.steering, targetPos);
-                    applySteering(body, ai.steering, delta);
-                    //control.angleTargetFace = MyMath.angleTo(targetPos, aiPos);
-                }
-                break;
-            }
-            case idle:
-                //do nothing
-				/*
-				control.moveForward = false;
-				control.moveBack = false;
-				control.transition = false;
-				control.changeVehicle = false;
-				control.shoot = false;
-				*/
-                break;
-            case follow: {
-                VehicleComponent vehicle = Mappers.vehicle.get(entity);
-                if (vehicle != null) {
-                    // follow player
-                    Entity player = getEngine().getEntitiesFor(Family.all(CameraFocusComponent.class, ControllableComponent.class).get()).first();
-                    Vector2 pPos = Mappers.transform.get(player).pos;
-                    dumbSeek(control, aiPos, pPos, 0.5f);
-                }
-                
-                CharacterComponent character = Mappers.character.get(entity);
-                if (character != null) {
-                    seekAndEnterVehicle(entity, control, aiPos);
-                }
+        context.entity = entity;
+        context.beginCommand(ai, Mappers.controllable.get(entity));
+        context.state = ai.state;
+        context.onFoot = Mappers.vehicle.get(entity) == null;
+        context.landing = Mappers.screenTrans.get(entity) != null;
+        context.pos.set(Mappers.transform.get(entity).pos);
+        PhysicsComponent physics = Mappers.physics.get(entity);
+        if (physics != null && physics.body != null) {
+            context.velocity.set(physics.body.getLinearVelocity());
+        } else {
+            context.velocity.setZero();
+        }
+        context.delta = ai.sinceThink;
+        ai.sinceThink = 0;
+        
+        //targets
+        context.hasAttackTarget = setTargetPos(ai.attackTarget, context.attackTargetPos);
+        context.hasPlayer = setTargetPos(getPlayer(), context.playerPos);
+        if (!setTargetPos(ai.planetTarget, context.planetTargetPos)) {
+            context.planetTarget = null;
+        }
+        
+        //proximity
+        Entity closestVehicle = getClosestVehicle(context.pos);
+        context.hasClosestVehicle = setTargetPos(closestVehicle, context.closestVehiclePos);
+        context.nearFreeVehicle = false;
+        for (Entity v : getVehiclesNear(context.pos, behaviors.getEnterVehicleDistance())) {
+            if (Mappers.vehicle.get(v).driver == null) {
+                context.nearFreeVehicle = true;
                 break;
             }
-            case takeOffPlanet: {
-                VehicleComponent vehicle = Mappers.vehicle.get(entity);
-                if (vehicle == null) {
-                    seekAndEnterVehicle(entity, control, aiPos);
-                } else {
-                    control.transition = true;
-                    ai.state = AIComponent.State.idle;
-                }
-                break;
+        }
+        
+        context.closestPlanet = getClosestPlanet(context.pos);
+        context.closestPlanetRadius = 0;
+        if (setTargetPos(context.closestPlanet, context.closestPlanetPos)) {
+            TextureComponent planetTex = Mappers.texture.get(context.closestPlanet);
+            if (planetTex != null) {
+                context.closestPlanetRadius = planetTex.region.getRegionWidth() * planetTex.scale * 0.5f;
             }
+        } else {
+            context.closestPlanet = null;
         }
+        
+        context.neighbors.clear();
+        for (Entity v : getVehiclesNear(context.pos, behaviors.getSeparationRadius())) {
+            if (v == entity) continue;
+            Vector2 neighborPos = Mappers.transform.get(v).pos;
+            context.neighbors.add(neighborPos.x, neighborPos.y);
+        }
+    }
+    
+    private static boolean setTargetPos(Entity target, Vector2 out) {
+        if (target == null) return false;
+        TransformComponent transform = Mappers.transform.get(target);
+        if (transform == null) return false;
+        out.set(transform.pos);
+        return true;
+    }
+    
+    private void apply(AIContext context) {
+        AIComponent ai = Mappers.AI.get(context.entity);
+        if (ai == null) return;
+        
+        AIComponent.State previous = ai.state;
+        context.applyCommand(ai, Mappers.controllable.get(context.entity));
+        if (ai.state != previous) {
+            Gdx.app.debug(getClass().getSimpleName(), DebugUtil.objString(ai)
+                    + (context.reason != null ? " " + context.reason : "") + ". setting state: " + ai.state.name());
+        }
+        context.entity = null;
+        context.planetTarget = null;
+        context.closestPlanet = null;
     }
     
     protected void applySteering (Body body, Steering steering, float deltaTime) {
@@ -152,7 +265,7 @@ public class AISystem extends IteratingSystem {
             body.applyForceToCenter(steering.linearVelocity, true);
             anyAccelerations = true;
         }
-   
+        
         // If we haven't got any velocity, then we can do nothing.
         Vector2 linVel = body.getLinearVelocity();
         float zeroLinearSpeedThreshold = 0.001f;
@@ -181,74 +294,70 @@ public class AISystem extends IteratingSystem {
         }
     }
     
-    private void arrive(Body body, Steering steering, Vector2 targetPos) {
-        float arrivalRadius = 50f; //radius for arriving at the target
-        float slowRadius = 500f; //slow down when within this radius of target
-        float timeToTarget = 0.1f; //time over which to achieve target speed
-        float maxAcceleration = 200f;//aiVehicle.thrust?
-        
-        Vector2 aiPos = body.getPosition();
-        Vector2 direction = steering.linearVelocity.set(targetPos).sub(aiPos);
-        float distanceToTarget = direction.len();
-        float targetSpeed = Box2DPhysicsSystem.getVelocityLimit();
-        
-        if (distanceToTarget <= arrivalRadius) {
-            //we have arrived at target
-            steering.linearVelocity.setZero();
-            steering.angularVelocity = 0;
-            //control.moveForward = false;
-            //control.moveBack = false;
-            return;
+    //region target listener
+    @Override
+    public void entityAdded(Entity entity) {}
+    
+    @Override
+    public void entityRemoved(Entity entity) {
+        //drop references to the removed entity instead of every agent checking its target is still in the engine
+        for (int i = 0; i < agents.size(); i++) {
+            AIComponent ai = Mappers.AI.get(agents.get(i));
+            if (ai.attackTarget == entity) ai.attackTarget = null;
+            if (ai.followTarget == entity) ai.followTarget = null;
+            if (ai.planetTarget == entity) ai.planetTarget = null;
         }
-        
-        if (distanceToTarget <= slowRadius) {
-            //scale velocity based on distance
-            targetSpeed *= distanceToTarget / slowRadius;
+    }
+    //endregion
+    
+    //region queries
+    public Entity getClosestVehicle(Vector2 pos) {
+        SpatialHashSystem spatialHash = getEngine().getSystem(SpatialHashSystem.class);
+        if (spatialHash == null) {
+            return ECSUtil.closestEntity(pos, vehicles);
         }
-        
-        steering.linearVelocity = direction.scl(targetSpeed / distanceToTarget);
-        steering.linearVelocity.sub(body.getLinearVelocity()).scl(1f / timeToTarget).limit(maxAcceleration);
-        
-        steering.angularVelocity = 0;
-        
-        /*
-        if (currentVelocity > velocityTarget) {
-            control.moveForward = false;
-            control.moveBack = true;
-            control.boost = true;
-        } else {
-            //full speed ahead
-            control.movementMultiplier = 1f;
-            control.moveForward = true;
-            control.boost = true;
-        }*/
-        
+        return spatialHash.getIndex(vehicleFamily, vehicleCellSize).nearest(pos.x, pos.y, Float.MAX_VALUE);
     }
     
-    private void dumbSeek(ControllableComponent control, Vector2 aiPos, Vector2 targetPos, float multiplier) {
-        control.angleTargetFace = MyMath.angleTo(targetPos, aiPos);
-        control.moveForward = true;
-        control.movementMultiplier = multiplier;
+    public Entity getClosestPlanet(Vector2 pos) {
+        SpatialHashSystem spatialHash = getEngine().getSystem(SpatialHashSystem.class);
+        if (spatialHash == null) {
+            return ECSUtil.closestEntity(pos, planets);
+        }
+        return spatialHash.getIndex(planetFamily, planetCellSize).nearest(pos.x, pos.y, Float.MAX_VALUE);
     }
     
-    private void seekAndEnterVehicle(Entity entity,  ControllableComponent control, Vector2 aiPos) {
-        Entity closestVehicle = ECSUtil.closestEntity(aiPos, vehicles);
-        if (closestVehicle != null) {
-            //seek
-            dumbSeek(control, aiPos, Mappers.transform.get(closestVehicle).pos, 1f);
-            
-            PhysicsComponent aiPhysics = Mappers.physics.get(entity);
+    /** @return shared array, valid until the next query */
+    public Array<Entity> getVehiclesNear(Vector2 pos, float radius) {
+        nearbyVehicles.clear();
+        SpatialHashSystem spatialHash = getEngine().getSystem(SpatialHashSystem.class);
+        if (spatialHash == null) {
             for (Entity v : vehicles) {
-                //skip vehicle is occupied
-                if (Mappers.vehicle.get(v).driver != null) continue;
-                
-                //check if character is near a vehicle
-                PhysicsComponent vehiclePhysics = Mappers.physics.get(v);
-                if (aiPhysics.body.getPosition().dst(vehiclePhysics.body.getPosition()) < 5) {
-                    control.changeVehicle = true;
+                if (Mappers.transform.get(v).pos.dst2(pos) < radius * radius) {
+                    nearbyVehicles.add(v);
                 }
             }
+            return nearbyVehicles;
+        }
+        return spatialHash.getIndex(vehicleFamily, vehicleCellSize).within(pos.x, pos.y, radius, nearbyVehicles);
+    }
+    
+    public Entity getPlayer() {
+        return players.size() == 0 ? null : players.first();
+    }
+    //endregion
+    
+    public CharSequence getAIInfo() {
+        info.setLength(0);
+        info.append("[AI] agents: ").append(agents == null ? 0 : agents.size());
+        info.append(" thinks: ").append(thinks).append("/").append(maxThinksPerFrame);
+        info.append(" distant: ").append(distant);
+        info.append(" threads: ").append(thinkPool == null ? 0 : thinkPool.getThreads());
+        if (waiting > 0) {
+            info.append(" waiting: ").append(waiting);
         }
+        info.append(" ").append(MathUtils.round(thinkMillis * 100) / 100f).append(" ms");
+        return info;
     }
     
 }
@@ -24,6 +24,8 @@ public class AsteroidBeltSystem extends EntitySystem {
 
     private ImmutableArray<Entity> asteroids;
     private ImmutableArray<Entity> spawnBelt;
+    //null if not loaded, added before this system (see SystemsConfig priority)
+    private InterestSystem interest;
     
     private final SimpleTimer lastSpawnedTimer = new SimpleTimer(1000);
     
@@ -31,6 +33,7 @@ public class AsteroidBeltSystem extends EntitySystem {
     public void addedToEngine(Engine engine) {
         asteroids = engine.getEntitiesFor(Family.all(AsteroidComponent.class, TransformComponent.class).get());
         spawnBelt = engine.getEntitiesFor(Family.all(AsteroidBeltComponent.class).get());
+        interest = engine.getSystem(InterestSystem.class);
         lastSpawnedTimer.setCanDoEvent();
     }
     
@@ -50,7 +53,10 @@ public class AsteroidBeltSystem extends EntitySystem {
     
     private void updateBeltOrbit() {
         //keep asteroids orbit around parent body, don't fling everything out into universe...
+        //velocity holds between updates, so asteroids far from any observer are corrected less often
         for (Entity entity : asteroids) {
+            if (interest != null && !interest.isDue(Mappers.transform.get(entity).pos)) continue;
+            
             AsteroidComponent asteroid = Mappers.asteroid.get(entity);
             PhysicsComponent physics = Mappers.physics.get(entity);
             if (asteroid.parentOrbitBody != null) {
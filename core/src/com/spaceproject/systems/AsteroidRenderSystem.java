@@ -10,34 +10,32 @@ import com.badlogic.gdx.math.Polygon;
 import com.spaceproject.components.AsteroidComponent;
 import com.spaceproject.components.HealthComponent;
 import com.spaceproject.components.TransformComponent;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.ui.CustomShapeRenderer;
 import com.spaceproject.utility.Mappers;
 
 public class AsteroidRenderSystem extends IteratingSystem {
     
+    private final RenderPipeline pipeline;
     CustomShapeRenderer shapeRenderer;
     Color color = new Color();
     boolean debugFloatingBodies = false;
     
     public AsteroidRenderSystem() {
         super(Family.all(AsteroidComponent.class, TransformComponent.class).get());
-        shapeRenderer = new CustomShapeRenderer();
+        pipeline = GameScreen.pipeline;
     }
     
     @Override
     public void update(float deltaTime) {
-        shapeRenderer.setProjectionMatrix(GameScreen.cam.combined);
-        
         //render filled inner poly
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer = pipeline.shape("asteroids", GameScreen.cam.combined, ShapeRenderer.ShapeType.Filled);
         super.update(deltaTime);
-        shapeRenderer.end();
     
         //render outer polygon triangle mesh outline
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        shapeRenderer = pipeline.shape("asteroids", GameScreen.cam.combined, ShapeRenderer.ShapeType.Line);
         super.update(deltaTime);
-        shapeRenderer.end();
     }
     
     @Override
@@ -10,8 +10,12 @@ import com.badlogic.gdx.math.GeometryUtils;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.ShortArray;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.spaceproject.components.AsteroidComponent;
+import com.spaceproject.components.RemoveComponent;
 import com.spaceproject.generation.EntityFactory;
 import com.spaceproject.math.MyMath;
 import com.spaceproject.utility.Mappers;
@@ -23,6 +27,50 @@ public class AsteroidShatterSystem extends EntitySystem implements EntityListene
     private final float maxDriftVel = 2.0f; //drift when shatter
     private final float maxDriftAngle = 0.25f; //angular drift when shatter
     
+    //budget: shattering is deferred to update() and spread across frames so a chain reaction can't stall a frame
+    private final int maxShardsPerFrame = 12; //max child asteroids created per frame
+    private final long maxNanosPerFrame = 2000000; //2ms: stop spawning once this frame's shatter work exceeds this
+    private final int maxLiveShards = 200; //global cap, smallest shards are despawned to make room
+    
+    private final Array<ShatterTask> shatterQueue = new Array<>(false, 16);
+    private final Array<Entity> liveShards = new Array<>(false, maxLiveShards);
+    private final Pool<ShatterTask> taskPool = new Pool<ShatterTask>() {
+        @Override
+        protected ShatterTask newObject() {
+            return new ShatterTask();
+        }
+    };
+    
+    //debug counters
+    private int shardsThisFrame, despawnedThisFrame;
+    private long nanosThisFrame;
+    private int totalShards, totalDespawned, totalDropped;
+    private final StringBuilder infoBuilder = new StringBuilder();
+    
+    /** Snapshot of a removed asteroid waiting to be shattered.
+     *  The parent's body is destroyed by the time it's processed, so everything needed is copied out. */
+    private static class ShatterTask implements Pool.Poolable {
+        float[] vertices;
+        ShortArray triangles;
+        int nextTriangle;
+        float x, y, velX, velY, angle, angularVel;
+        
+        boolean isTriangulated() {
+            return triangles != null;
+        }
+        
+        boolean isDone() {
+            return isTriangulated() && nextTriangle >= triangles.size;
+        }
+        
+        @Override
+        public void reset() {
+            vertices = null;
+            triangles = null;
+            nextTriangle = 0;
+        }
+    }
+    
     @Override
     public void addedToEngine(Engine engine) {
         engine.addEntityListener(this);
@@ -31,10 +79,40 @@ public class AsteroidShatterSystem extends EntitySystem implements EntityListene
     @Override
     public void removedFromEngine(Engine engine) {
         engine.removeEntityListener(this);
+        taskPool.freeAll(shatterQueue);
+        shatterQueue.clear();
+        liveShards.clear();
     }
     
     @Override
-    public void update(float deltaTime) { }
+    public void update(float deltaTime) {
+        shardsThisFrame = 0;
+        despawnedThisFrame = 0;
+        long startTime = TimeUtils.nanoTime();
+        
+        while (shatterQueue.size > 0) {
+            if (shardsThisFrame >= maxShardsPerFrame || TimeUtils.timeSinceNanos(startTime) >= maxNanosPerFrame) {
+                break; //out of budget, continue next frame
+            }
+            
+            ShatterTask task = shatterQueue.first();
+            if (!task.isTriangulated()) {
+                //copy: delaunay reuses its output array between calls
+                task.triangles = new ShortArray(delaunay.computeTriangles(task.vertices, false));
+            }
+            
+            if (!task.isDone()) {
+                spawnNextShard(task);
+            }
+            
+            if (task.isDone()) {
+                shatterQueue.removeIndex(0);
+                taskPool.free(task);
+            }
+        }
+        
+        nanosThisFrame = TimeUtils.timeSinceNanos(startTime);
+    }
     
     @Override
     public void entityAdded(Entity entity) { }
@@ -44,6 +122,8 @@ public class AsteroidShatterSystem extends EntitySystem implements EntityListene
         AsteroidComponent asteroid = Mappers.asteroid.get(entity);
         if (asteroid == null) return;
         
+        liveShards.removeValue(entity, true);
+        
         if (asteroid.doShatter && asteroid.area >= minAsteroidSize) {
             shatterAsteroid(entity, asteroid);
         }
@@ -67,10 +147,22 @@ public class AsteroidShatterSystem extends EntitySystem implements EntityListene
         newPoly[length] = center.x;
         newPoly[length + 1] = center.y;
         
-        spawnChildAsteroid(parentAsteroid, newPoly);
+        //queue for processing in update() rather than creating bodies inside the engine's removal notification
+        Body parentBody = Mappers.physics.get(parentAsteroid).body;
+        Vector2 pos = parentBody.getPosition();
+        Vector2 vel = parentBody.getLinearVelocity();
+        ShatterTask task = taskPool.obtain();
+        task.vertices = newPoly;
+        task.x = pos.x;
+        task.y = pos.y;
+        task.velX = vel.x;
+        task.velY = vel.y;
+        task.angle = parentBody.getAngle();
+        task.angularVel = parentBody.getAngularVelocity();
+        shatterQueue.add(task);
     }
     
-    private void spawnChildAsteroid(Entity parentAsteroid, float[] vertices) {
+    private void spawnNextShard(ShatterTask task) {
         /* todo: re shatter issues; if we turn on b2d debug we can see the velocity is not the origin of child shards
         NOTE: Box2D expects Polygons vertices are stored with a counter clockwise winding (CCW).
         We must be careful because the notion of CCW is with respect to a right-handed
@@ -102,58 +194,106 @@ public class AsteroidShatterSystem extends EntitySystem implements EntityListene
         https://libgdx.com/news/2022/05/gdx-1-11
         */
         
-        ShortArray triangles = delaunay.computeTriangles(vertices, false);
-        //Gdx.app.debug(this.getClass().getSimpleName(), "shatter into " + triangles.size);
-        
-        //create cells for each triangle
-        for (int index = 0; index < triangles.size; index += 3) {
-            int p1 = triangles.get(index) * 2;
-            int p2 = triangles.get(index + 1) * 2;
-            int p3 = triangles.get(index + 2) * 2;
-            float[] hull = new float[] {
-                    vertices[p1], vertices[p1 + 1], // xy: 0, 1
-                    vertices[p2], vertices[p2 + 1], // xy: 2, 3
-                    vertices[p3], vertices[p3 + 1]  // xy: 4, 5
-            };
+        float[] vertices = task.vertices;
+        ShortArray triangles = task.triangles;
+        int index = task.nextTriangle;
+        task.nextTriangle += 3;
+        
+        //create cell for triangle
+        int p1 = triangles.get(index) * 2;
+        int p2 = triangles.get(index + 1) * 2;
+        int p3 = triangles.get(index + 2) * 2;
+        float[] hull = new float[] {
+                vertices[p1], vertices[p1 + 1], // xy: 0, 1
+                vertices[p2], vertices[p2 + 1], // xy: 2, 3
+                vertices[p3], vertices[p3 + 1]  // xy: 4, 5
+        };
+        
+        float triangleQuality = GeometryUtils.triangleQuality(hull[0], hull[1], hull[2], hull[3], hull[4], hull[5]);
+        //if (triangleQuality < 2.0f) {
+        //todo: add new vertices to break in half
+        // because the current shatter creates long ugly slivers
+        //}
+        /*
+        Gdx.app.debug(this.getClass().getSimpleName(),
+                MyMath.round(hull[0],1) + ", " + MyMath.round(hull[1],1) + " | " +
+                        MyMath.round(hull[2],1) + ", " + MyMath.round(hull[3],1) + " | " +
+                        MyMath.round(hull[4],1) + ", " + MyMath.round(hull[5],1) +
+                        " | clockwise: " + GeometryUtils.isClockwise(hull, 0, hull.length) + " | quality: " + triangleQuality);
+        */
+        
+        //discard duplicate points
+        if ((hull[0] == hull[2] && hull[1] == hull[3]) || // p1 == p2 or
+                (hull[0] == hull[4] && hull[1] == hull[5]) || // p1 == p3 or
+                (hull[2] == hull[4] && hull[3] == hull[5])) { // p2 == p3
             
-            float triangleQuality = GeometryUtils.triangleQuality(hull[0], hull[1], hull[2], hull[3], hull[4], hull[5]);
-            //if (triangleQuality < 2.0f) {
-            //todo: add new vertices to break in half
-            // because the current shatter creates long ugly slivers
-            //}
-            /*
-            Gdx.app.debug(this.getClass().getSimpleName(),
-                    MyMath.round(hull[0],1) + ", " + MyMath.round(hull[1],1) + " | " +
-                            MyMath.round(hull[2],1) + ", " + MyMath.round(hull[3],1) + " | " +
-                            MyMath.round(hull[4],1) + ", " + MyMath.round(hull[5],1) +
-                            " | clockwise: " + GeometryUtils.isClockwise(hull, 0, hull.length) + " | quality: " + triangleQuality);
-            */
+            Gdx.app.error(this.getClass().getSimpleName(), "Duplicate point! Discarding triangle");
             
-            //discard duplicate points
-            if ((hull[0] == hull[2] && hull[1] == hull[3]) || // p1 == p2 or
-                    (hull[0] == hull[4] && hull[1] == hull[5]) || // p1 == p3 or
-                    (hull[2] == hull[4] && hull[3] == hull[5])) { // p2 == p3
-                
-                Gdx.app.error(this.getClass().getSimpleName(), "Duplicate point! Discarding triangle");
-                
-                //duplicate points result in crash:
-                //java: ../b2PolygonShape.cpp:158: void b2PolygonShape::Set(const b2Vec2*, int32): Assertion `false' failed.
-                continue;
-            }
+            //duplicate points result in crash:
+            //java: ../b2PolygonShape.cpp:158: void b2PolygonShape::Set(const b2Vec2*, int32): Assertion `false' failed.
+            return;
+        }
+        
+        //respect global shard cap: make room by despawning the smallest shard, or drop this one if it is the smallest
+        float area = Math.abs(GeometryUtils.polygonArea(hull, 0, hull.length));
+        if (!makeRoomForShard(area)) {
+            totalDropped++;
+            return;
+        }
+        
+        //add some variation in velocity and angular so pieces drift apart
+        Vector2 driftVel = MyMath.vector(MathUtils.random(0, MathUtils.PI2), maxDriftVel);
+        float angularDrift = MathUtils.random(-maxDriftAngle, maxDriftAngle);
+        
+        Entity childAsteroid = EntityFactory.createAsteroid((long) (Math.random() * Long.MAX_VALUE),
+                task.x, task.y, task.velX + driftVel.x, task.velY + driftVel.y, task.angle, hull);
+        Mappers.physics.get(childAsteroid).body.setAngularVelocity(task.angularVel + angularDrift);
+        getEngine().addEntity(childAsteroid);
+        liveShards.add(childAsteroid);
+        
+        shardsThisFrame++;
+        totalShards++;
+    }
     
-            //add some variation in velocity and angular so pieces drift apart
-            Body parentBody = Mappers.physics.get(parentAsteroid).body;
-            Vector2 pos = parentBody.getPosition();
-            Vector2 vel = parentBody.getLinearVelocity();
-            Vector2 driftVel = MyMath.vector(MathUtils.random(0, MathUtils.PI2), maxDriftVel);
-            vel.add(driftVel);
-            float angularDrift = MathUtils.random(-maxDriftAngle, maxDriftAngle);
-            
-            Entity childAsteroid = EntityFactory.createAsteroid((long) (Math.random() * Long.MAX_VALUE),
-                    pos.x, pos.y, vel.x, vel.y, parentBody.getAngle(), hull);
-            Mappers.physics.get(childAsteroid).body.setAngularVelocity(parentBody.getAngularVelocity() + angularDrift);
-            getEngine().addEntity(childAsteroid);
+    private boolean makeRoomForShard(float area) {
+        if (liveShards.size < maxLiveShards) {
+            return true;
+        }
+        
+        Entity smallest = null;
+        float smallestArea = Float.MAX_VALUE;
+        for (Entity shard : liveShards) {
+            float shardArea = Mappers.asteroid.get(shard).area;
+            if (shardArea < smallestArea) {
+                smallestArea = shardArea;
+                smallest = shard;
+            }
         }
+        
+        if (smallest == null || area <= smallestArea) {
+            return false;
+        }
+        
+        //despawn without shattering
+        Mappers.asteroid.get(smallest).doShatter = false;
+        smallest.add(getEngine().createComponent(RemoveComponent.class));
+        liveShards.removeValue(smallest, true);
+        despawnedThisFrame++;
+        totalDespawned++;
+        return true;
+    }
+    
+    public CharSequence getShatterInfo() {
+        infoBuilder.setLength(0);
+        infoBuilder.append("[Shatter] queued: ").append(shatterQueue.size);
+        infoBuilder.append("  spawned: ").append(shardsThisFrame).append('/').append(maxShardsPerFrame);
+        infoBuilder.append("  time: ").append(MyMath.round(nanosThisFrame / 1000000f, 2)).append("ms");
+        infoBuilder.append("  live: ").append(liveShards.size).append('/').append(maxLiveShards);
+        infoBuilder.append("  despawned: ").append(despawnedThisFrame);
+        infoBuilder.append("  [total] spawned: ").append(totalShards);
+        infoBuilder.append(" despawned: ").append(totalDespawned);
+        infoBuilder.append(" dropped: ").append(totalDropped);
+        return infoBuilder;
     }
     
 }
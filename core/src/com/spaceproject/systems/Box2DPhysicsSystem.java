@@ -11,6 +11,7 @@ import com.spaceproject.components.PhysicsComponent;
 import com.spaceproject.components.TransformComponent;
 import com.spaceproject.config.EngineConfig;
 import com.spaceproject.screens.GameScreen;
+import com.spaceproject.utility.ContactBuffer;
 import com.spaceproject.utility.Mappers;
 import com.spaceproject.utility.PhysicsContactListener;
 
@@ -26,6 +27,8 @@ public class Box2DPhysicsSystem extends EntitySystem {
     private float accumulator = 0f;
     
     private World world;
+    //contacts recorded during the step, resolved after by the PhysicsContactSystem
+    private final ContactBuffer contacts = new ContactBuffer(1024);
     
     private ImmutableArray<Entity> entities;
     
@@ -35,7 +38,7 @@ public class Box2DPhysicsSystem extends EntitySystem {
         entities = engine.getEntitiesFor(family);
     
         world = GameScreen.box2dWorld;
-        world.setContactListener(new PhysicsContactListener(engine));
+        world.setContactListener(new PhysicsContactListener(contacts));
     }
     
     @Override
@@ -43,6 +46,7 @@ public class Box2DPhysicsSystem extends EntitySystem {
         accumulator += deltaTime;
         while (accumulator >= timeStep) {
             world.step(timeStep, velocityIterations, positionIterations);
+            contacts.endStep();
             accumulator -= timeStep;
             
             updateTransform();
@@ -56,7 +60,7 @@ public class Box2DPhysicsSystem extends EntitySystem {
             PhysicsComponent physics = Mappers.physics.get(entity);
             
             if (!physics.body.isActive()) {
-                return;
+                continue;
             }
             
             TransformComponent transform = Mappers.transform.get(entity);
@@ -74,6 +78,10 @@ public class Box2DPhysicsSystem extends EntitySystem {
         }*/
     }
     
+    public ContactBuffer getContacts() {
+        return contacts;
+    }
+    
     public static int getVelocityLimit() {
         //Box2D uses MKS (meters, kilograms, and seconds) units and radians for angles
         //movement limit = 2 * units per step
@@ -16,6 +16,8 @@ import com.badlogic.gdx.utils.Queue;
 import com.spaceproject.components.CamTargetComponent;
 import com.spaceproject.components.CameraFocusComponent;
 import com.spaceproject.components.TransformComponent;
+import com.spaceproject.events.EventListener;
+import com.spaceproject.events.ImpactEvent;
 import com.spaceproject.math.MyMath;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.screens.MyScreenAdapter;
@@ -45,6 +47,16 @@ public class CameraSystem extends IteratingSystem {
     
     private Mode mode = Mode.lockTarget;
     
+    //zoom back in when the player takes a heavy hit while zoomed out
+    private final EventListener<ImpactEvent> impactListener = new EventListener<ImpactEvent>() {
+        @Override
+        public void onEvent(ImpactEvent event) {
+            if (zoomLevel > 10) {
+                setZoomToDefault(event.entity);
+            }
+        }
+    };
+    
     enum Mode {
         free, lerpTarget, lockTarget, combat
     }
@@ -58,6 +70,13 @@ public class CameraSystem extends IteratingSystem {
     public void addedToEngine(Engine engine) {
         super.addedToEngine(engine);
         focalPoints = engine.getEntitiesFor(Family.all(CamTargetComponent.class, TransformComponent.class).get());
+        GameScreen.getEvents().subscribe(ImpactEvent.class, impactListener);
+    }
+    
+    @Override
+    public void removedFromEngine(Engine engine) {
+        super.removedFromEngine(engine);
+        GameScreen.getEvents().unsubscribe(ImpactEvent.class, impactListener);
     }
     
     @Override
@@ -20,6 +20,8 @@ import com.spaceproject.components.TextureComponent;
 import com.spaceproject.components.TransformComponent;
 import com.spaceproject.config.EngineConfig;
 import com.spaceproject.config.RenderOrder;
+import com.spaceproject.events.EventBus;
+import com.spaceproject.events.SoundEvent;
 import com.spaceproject.generation.BodyFactory;
 import com.spaceproject.generation.TextureFactory;
 import com.spaceproject.math.MyMath;
@@ -85,11 +87,13 @@ public class CannonSystem extends IteratingSystem {
         }
         
         //create missile
-        Entity missile = createMissile(cannon, parentEntity);
+        ProjectilePoolSystem projectilePool = getEngine().getSystem(ProjectilePoolSystem.class);
+        Entity missile = projectilePool != null ? projectilePool.obtainMissile(cannon, parentEntity) : createMissile(cannon, parentEntity);
         getEngine().addEntity(missile);
     
         //todo: state? beginFire (first shot), isFiring, endFire
-        getEngine().getSystem(SoundSystem.class).shoot();
+        EventBus events = GameScreen.getEvents();
+        events.post(events.obtain(SoundEvent.class).set(SoundEvent.Type.shoot, 1));
         
         //subtract ammo
         --cannon.curAmmo;
@@ -111,7 +115,7 @@ public class CannonSystem extends IteratingSystem {
         //create texture
         EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
         TextureComponent texture = new TextureComponent();
-        texture.texture = TextureFactory.generateProjectile();
+        texture.region = TextureFactory.acquireProjectile();
         texture.scale = engineCFG.bodyScale;
         
         //physics
@@ -120,8 +124,8 @@ public class CannonSystem extends IteratingSystem {
         float rot = parentTransform.rotation + cannon.aimAngle;
         Vector2 sourceVel = Mappers.physics.get(parentEntity).body.getLinearVelocity();
         Vector2 projectileVel = MyMath.vector(rot, cannon.velocity).add(sourceVel);
-        float bodyWidth = texture.texture.getWidth() * texture.scale;
-        float bodyHeight = texture.texture.getHeight() * texture.scale;
+        float bodyWidth = texture.region.getRegionWidth() * texture.scale;
+        float bodyHeight = texture.region.getRegionHeight() * texture.scale;
         
         PhysicsComponent physics = new PhysicsComponent();
         physics.body = BodyFactory.createRect(spawnPos.x, spawnPos.y, bodyWidth, bodyHeight, BodyDef.BodyType.DynamicBody, entity);
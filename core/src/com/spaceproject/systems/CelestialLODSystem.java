@@ -0,0 +1,301 @@
+package com.spaceproject.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.spaceproject.components.LODComponent;
+import com.spaceproject.components.LODComponent.Tier;
+import com.spaceproject.components.PlanetComponent;
+import com.spaceproject.components.TextureComponent;
+import com.spaceproject.components.TransformComponent;
+import com.spaceproject.generation.RuntimeAtlas;
+import com.spaceproject.generation.TextureFactory;
+import com.spaceproject.noise.NoiseBuffer;
+import com.spaceproject.screens.GameScreen;
+import com.spaceproject.ui.Tile;
+import com.spaceproject.utility.Mappers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Swaps planet and star textures by how big they are on screen:
+ * - dot: a few pixels, when the body is tiny
+ * - pixelated: the default texture (pixelated tile map for planets)
+ * - detailed: higher resolution when zoomed in close enough that the default texels would be magnified
+ * Bodies off screen keep their tier, so they don't pop when they come back into view.
+ * Tiers are generated on demand on a worker thread and uploaded into the RuntimeAtlas on the main thread,
+ * the current tier is drawn until the new one is ready. The previous tier is released, it stays resident
+ * so zooming back is free, until the atlas evicts its page (least recently used page with no live regions).
+ */
+public class CelestialLODSystem extends IteratingSystem {
+    
+    //below this many pixels on screen draw a dot
+    private final float dotPixels = 12;
+    private final int dotSize = 8;
+    //switch to detailed once the default texture is magnified more than this
+    private final float detailMagnification = 2;
+    private final int maxDetailedSize = 512;
+    //how far past a threshold before switching back, so bodies at the edge don't flip every frame
+    private final float hysteresis = 0.2f;
+    //time allowed for uploading generated tiers per frame, the rest wait for the next frame
+    private final float uploadBudgetMillis = 4;
+    
+    //tier pixmap generated on the worker, uploaded on the main thread
+    private static class Job {
+        Future<Pixmap> result;
+        TextureFilter filter;
+        long lastWanted;
+    }
+    
+    //by atlas key
+    private final ObjectMap<String, Job> jobs = new ObjectMap<>();
+    private ExecutorService generator;
+    
+    private long frame, frameDeadline;
+    private int swaps, deferred;
+    private int dots, pixelated, detailed;
+    private final StringBuilder info = new StringBuilder();
+    
+    public CelestialLODSystem() {
+        super(Family.all(LODComponent.class, TextureComponent.class, TransformComponent.class).get());
+    }
+    
+    @Override
+    public void addedToEngine(Engine engine) {
+        super.addedToEngine(engine);
+        generator = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "lod-generator");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+    
+    @Override
+    public void removedFromEngine(Engine engine) {
+        super.removedFromEngine(engine);
+        //let running jobs finish so their pixmaps can be disposed
+        generator.shutdown();
+        try {
+            generator.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Job job : jobs.values()) {
+            if (job.result.isDone()) {
+                Pixmap pixmap = getResult(job);
+                if (pixmap != null) pixmap.dispose();
+            }
+        }
+        jobs.clear();
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+        frame++;
+        frameDeadline = System.nanoTime() + (long) (uploadBudgetMillis * 1000000);
+        swaps = deferred = 0;
+        dots = pixelated = detailed = 0;
+        super.update(deltaTime);
+        dropUnwantedJobs();
+    }
+    
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        LODComponent lod = Mappers.lod.get(entity);
+        TextureComponent tex = Mappers.texture.get(entity);
+        
+        PlanetComponent planet = Mappers.planet.get(entity);
+        NoiseBuffer noise = null;
+        if (planet != null) {
+            noise = GameScreen.noiseManager.getNoiseForSeed(Mappers.seed.get(entity).seed);
+            //keep placeholder until the tile map is generated
+            if (noise == null || noise.pixelatedTileMap == null) return;
+        }
+        
+        if (tex.region != lod.applied) {
+            //new body, or texture replaced elsewhere (eg: placeholder swapped for planet texture)
+            lod.applied = tex.region;
+            lod.tier = Tier.pixelated;
+            lod.worldSize = tex.region.getRegionWidth() * tex.scale;
+            lod.baseSize = planet != null ? noise.pixelatedTileMap.length : tex.region.getRegionWidth();
+        }
+        
+        Tier target = getTargetTier(lod, Mappers.transform.get(entity));
+        if (target != lod.tier) {
+            TextureRegion region = acquireTier(lod, target, Mappers.seed.get(entity).seed, noise);
+            if (region != null) {
+                applyTier(lod, tex, target, region);
+                swaps++;
+            } else {
+                deferred++;
+            }
+        }
+        
+        switch (lod.tier) {
+            case dot: dots++; break;
+            case pixelated: pixelated++; break;
+            case detailed: detailed++; break;
+        }
+    }
+    
+    private Tier getTargetTier(LODComponent lod, TransformComponent transform) {
+        OrthographicCamera cam = GameScreen.cam;
+        float radius = lod.worldSize * 0.5f;
+        if (!cam.frustum.sphereInFrustum(transform.pos.x, transform.pos.y, 0, radius)) {
+            return lod.tier;
+        }
+        
+        float screenPixels = lod.worldSize * Gdx.graphics.getWidth() / (cam.viewportWidth * cam.zoom);
+        
+        float dotThreshold = dotPixels * (lod.tier == Tier.dot ? 1 + hysteresis : 1);
+        if (screenPixels < dotThreshold) {
+            return Tier.dot;
+        }
+        
+        float detailThreshold = lod.baseSize * detailMagnification * (lod.tier == Tier.detailed ? 1 - hysteresis : 1);
+        if (screenPixels > detailThreshold && getDetailedSize(lod) > lod.baseSize) {
+            return Tier.detailed;
+        }
+        
+        return Tier.pixelated;
+    }
+    
+    private int getDetailedSize(LODComponent lod) {
+        return Math.min(lod.baseSize * 4, maxDetailedSize);
+    }
+    
+    /** @return region of the tier with a reference held by the caller, or null while it is still being generated */
+    private TextureRegion acquireTier(LODComponent lod, Tier tier, long seed, NoiseBuffer noise) {
+        //planets sample the tile map, stars keep the same features at every size by scaling the noise with the radius
+        int[][] tileMap = null;
+        int size;
+        switch (tier) {
+            case dot:
+                size = dotSize;
+                break;
+            case detailed:
+                size = getDetailedSize(lod);
+                break;
+            default:
+                size = noise != null ? noise.pixelatedTileMap.length : lod.starRadius * 2;
+        }
+        int radius = size / 2;
+        double noiseScale = 0;
+        String key;
+        if (noise != null) {
+            tileMap = tier == Tier.detailed ? noise.tileMap : noise.pixelatedTileMap;
+            key = TextureFactory.getPlanetKey(seed, size);
+        } else {
+            noiseScale = lod.starNoiseScale * radius / lod.starRadius;
+            key = TextureFactory.getStarKey(seed, radius, noiseScale);
+        }
+        
+        Job job = jobs.get(key);
+        if (job == null) {
+            TextureRegion region = RuntimeAtlas.acquire(key);
+            if (region != null) return region;
+            
+            job = new Job();
+            if (noise != null) {
+                job.filter = TextureFilter.Nearest;
+                job.result = generator.submit(planetTask(tileMap, size));
+            } else {
+                job.filter = TextureFilter.Linear;
+                job.result = generator.submit(starTask(seed, radius, noiseScale));
+            }
+            jobs.put(key, job);
+        }
+        job.lastWanted = frame;
+        if (!job.result.isDone() || System.nanoTime() > frameDeadline) return null;
+        
+        jobs.remove(key);
+        Pixmap pixmap = getResult(job);
+        if (pixmap == null) return null;
+        
+        TextureRegion region = RuntimeAtlas.add(key, pixmap, job.filter);
+        pixmap.dispose();
+        return region;
+    }
+    
+    private static Callable<Pixmap> planetTask(final int[][] tileMap, final int size) {
+        return new Callable<Pixmap>() {
+            @Override
+            public Pixmap call() {
+                return TextureFactory.createPlanetPixmap(tileMap, Tile.defaultTiles, size);
+            }
+        };
+    }
+    
+    private static Callable<Pixmap> starTask(final long seed, final int radius, final double noiseScale) {
+        return new Callable<Pixmap>() {
+            @Override
+            public Pixmap call() {
+                return TextureFactory.createStarPixmap(seed, radius, noiseScale);
+            }
+        };
+    }
+    
+    /** results nobody asked for this frame (body removed, or target changed) are thrown away */
+    private void dropUnwantedJobs() {
+        ObjectMap.Entries<String, Job> entries = jobs.entries();
+        while (entries.hasNext()) {
+            Job job = entries.next().value;
+            if (job.lastWanted < frame && job.result.isDone()) {
+                Pixmap pixmap = getResult(job);
+                if (pixmap != null) pixmap.dispose();
+                entries.remove();
+            }
+        }
+    }
+    
+    private Pixmap getResult(Job job) {
+        try {
+            return job.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Gdx.app.error(getClass().getSimpleName(), "Could not generate tier", e.getCause());
+        }
+        return null;
+    }
+    
+    private void applyTier(LODComponent lod, TextureComponent tex, Tier tier, TextureRegion region) {
+        RuntimeAtlas.release(tex.region);
+        tex.region = region;
+        tex.scale = lod.worldSize / region.getRegionWidth();
+        lod.applied = region;
+        lod.tier = tier;
+    }
+    
+    public CharSequence getLODInfo() {
+        info.setLength(0);
+        info.append("[Celestial LOD] dot: ").append(dots);
+        info.append(" pixelated: ").append(pixelated);
+        info.append(" detailed: ").append(detailed);
+        info.append(" swaps: ").append(swaps);
+        if (jobs.size > 0) {
+            info.append(" generating: ").append(jobs.size);
+        }
+        if (deferred > 0) {
+            info.append(" deferred: ").append(deferred);
+        }
+        return info;
+    }
+    
+}
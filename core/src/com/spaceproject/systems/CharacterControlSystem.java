@@ -108,7 +108,9 @@ public class CharacterControlSystem extends IteratingSystem {
         //set cam zoom
         if (Mappers.camFocus.get(vehicleEntity) != null) {
             CameraSystem cameraSystem = getEngine().getSystem(CameraSystem.class);
-            cameraSystem.setZoomToDefault(vehicleEntity);
+            if (cameraSystem != null) {
+                cameraSystem.setZoomToDefault(vehicleEntity);
+            }
         }
         
         // remove character
@@ -21,9 +21,12 @@ import com.spaceproject.components.SplineComponent;
 import com.spaceproject.components.TextureComponent;
 import com.spaceproject.components.TransformComponent;
 import com.spaceproject.config.RenderOrder;
+import com.spaceproject.events.EventBus;
+import com.spaceproject.events.SoundEvent;
 import com.spaceproject.generation.BodyFactory;
 import com.spaceproject.generation.TextureFactory;
 import com.spaceproject.math.MyMath;
+import com.spaceproject.screens.GameScreen;
 import com.spaceproject.utility.Mappers;
 import com.spaceproject.utility.SimpleTimer;
 
@@ -104,7 +107,7 @@ public class ChargeCannonSystem extends IteratingSystem {
     
     private void deactivate(ChargeCannonComponent chargeCannon) {
         if (chargeCannon.projectileEntity != null) {
-            chargeCannon.projectileEntity.add(new RemoveComponent());
+            chargeCannon.projectileEntity.add(getEngine().createComponent(RemoveComponent.class));
             chargeCannon.projectileEntity = null;
         }
         chargeCannon.isCharging = false;
@@ -128,8 +131,8 @@ public class ChargeCannonSystem extends IteratingSystem {
     
         //physics
         TextureComponent textureComponent = Mappers.texture.get(chargeCannon.projectileEntity);
-        float bodyWidth = textureComponent.texture.getWidth() * textureComponent.scale;
-        float bodyHeight = textureComponent.texture.getHeight() * textureComponent.scale;
+        float bodyWidth = textureComponent.region.getRegionWidth() * textureComponent.scale;
+        float bodyHeight = textureComponent.region.getRegionHeight() * textureComponent.scale;
         TransformComponent transformComponent = Mappers.transform.get(chargeCannon.projectileEntity);
         PhysicsComponent physics = new PhysicsComponent();
         physics.body = BodyFactory.createRect(transformComponent.pos.x, transformComponent.pos.y,
@@ -182,7 +185,8 @@ public class ChargeCannonSystem extends IteratingSystem {
         //out = b1 + (b2 - b1) * ((in-a1)/(a2-a1))
         //map from/to
         float pitch = MathUtils.map(chargeCannon.minSize,chargeCannon.maxSize, 2.0f, 0.5f, chargeCannon.size);
-        getEngine().getSystem(SoundSystem.class).shoot(pitch);
+        EventBus events = GameScreen.getEvents();
+        events.post(events.obtain(SoundEvent.class).set(SoundEvent.Type.shoot, pitch));
     }
     
     private Entity createGrowMissileChargeEntity() {
@@ -190,7 +194,7 @@ public class ChargeCannonSystem extends IteratingSystem {
         
         //create texture
         TextureComponent texture = new TextureComponent();
-        texture.texture = TextureFactory.generateProjectile();
+        texture.region = TextureFactory.acquireProjectile();
         texture.scale = 0;//start at nothing
         entity.add(texture);
         
@@ -17,6 +17,8 @@ import com.spaceproject.components.ControllableComponent;
 import com.spaceproject.components.DashComponent;
 import com.spaceproject.components.HyperDriveComponent;
 import com.spaceproject.components.ShieldComponent;
+import com.spaceproject.events.EventListener;
+import com.spaceproject.events.ImpactEvent;
 import com.spaceproject.math.MyMath;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.ui.menu.GameMenu;
@@ -45,9 +47,17 @@ public class ControllerInputSystem extends EntitySystem implements ControllerLis
     
     private ImmutableArray<Entity> players;
     
+    private final EventListener<ImpactEvent> impactListener = new EventListener<ImpactEvent>() {
+        @Override
+        public void onEvent(ImpactEvent event) {
+            vibrate(100, 1f);
+        }
+    };
+    
     @Override
     public void addedToEngine(Engine engine) {
         Controllers.addListener(this);
+        GameScreen.getEvents().subscribe(ImpactEvent.class, impactListener);
         
         for (Controller controller : Controllers.getControllers()) {
             logControllerStatus(controller, "Detected", true);
@@ -59,6 +69,7 @@ public class ControllerInputSystem extends EntitySystem implements ControllerLis
     @Override
     public void removedFromEngine(Engine engine) {
         Controllers.removeListener(this);
+        GameScreen.getEvents().unsubscribe(ImpactEvent.class, impactListener);
     }
     
     @Override
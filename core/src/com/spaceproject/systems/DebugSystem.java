@@ -33,6 +33,8 @@ import com.spaceproject.components.TransformComponent;
 import com.spaceproject.config.DebugConfig;
 import com.spaceproject.config.KeyConfig;
 import com.spaceproject.generation.FontFactory;
+import com.spaceproject.generation.RuntimeAtlas;
+import com.spaceproject.generation.TextureCache;
 import com.spaceproject.generation.TextureFactory;
 import com.spaceproject.math.MyMath;
 import com.spaceproject.screens.GameScreen;
@@ -63,10 +65,11 @@ public class DebugSystem extends IteratingSystem implements Disposable {
     private final BitmapFont fontSmall, fontLarge;
     private final Box2DDebugRenderer debugRenderer;
     private final Vector3 tempProjVector = new Vector3(); //for (un)/projecting screen coords
+    private final Vector2 tempOrbitPos = new Vector2();
     
     //textures
-    private final Texture texCompBack = TextureFactory.createTile(Color.DARK_GRAY);
-    private final Texture texCompSeparator = TextureFactory.createTile(new Color(0.1f, 0.63f, 0.88f, 1f));
+    private final Texture texCompBack = TextureFactory.acquireTile(Color.DARK_GRAY);
+    private final Texture texCompSeparator = TextureFactory.acquireTile(new Color(0.1f, 0.63f, 0.88f, 1f));
     GlyphLayout versionLayout;
     
     //entity storage
@@ -136,6 +139,9 @@ public class DebugSystem extends IteratingSystem implements Disposable {
         if (!debugCFG.drawDebugUI) return;
         super.update(delta);
         
+        //draws with its own begin/end: end any shared batch first
+        GameScreen.pipeline.custom("debug");
+        
         //set projection matrix so things render using correct coordinates
         projectionMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         batch.setProjectionMatrix(projectionMatrix);
@@ -218,6 +224,47 @@ public class DebugSystem extends IteratingSystem implements Disposable {
         String threads = "  Threads: " + threadSet.size();
         fontLarge.draw(batch, memory + threads, x, y - (lineHeight * linePos++));
         
+        //asteroid shatter queue / shard budget
+        AsteroidShatterSystem shatterSystem = getEngine().getSystem(AsteroidShatterSystem.class);
+        if (shatterSystem != null) {
+            fontSmall.draw(batch, shatterSystem.getShatterInfo(), x, y - (lineHeight * linePos++));
+        }
+        ProjectilePoolSystem projectilePool = getEngine().getSystem(ProjectilePoolSystem.class);
+        if (projectilePool != null) {
+            fontSmall.draw(batch, projectilePool.getPoolInfo(), x, y - (lineHeight * linePos++));
+        }
+        ParticleSystem particleSystem = getEngine().getSystem(ParticleSystem.class);
+        if (particleSystem != null) {
+            fontSmall.draw(batch, particleSystem.getParticleInfo(), x, y - (lineHeight * linePos++));
+        }
+        AISystem aiSystem = getEngine().getSystem(AISystem.class);
+        if (aiSystem != null) {
+            fontSmall.draw(batch, aiSystem.getAIInfo(), x, y - (lineHeight * linePos++));
+        }
+        PhysicsContactSystem contactSystem = getEngine().getSystem(PhysicsContactSystem.class);
+        if (contactSystem != null) {
+            fontSmall.draw(batch, contactSystem.getContactInfo(), x, y - (lineHeight * linePos++));
+        }
+        CelestialLODSystem lodSystem = getEngine().getSystem(CelestialLODSystem.class);
+        if (lodSystem != null) {
+            fontSmall.draw(batch, lodSystem.getLODInfo(), x, y - (lineHeight * linePos++));
+        }
+        SaveSystem saveSystem = getEngine().getSystem(SaveSystem.class);
+        if (saveSystem != null) {
+            fontSmall.draw(batch, saveSystem.getInfo(), x, y - (lineHeight * linePos++));
+        }
+        InterestSystem interestSystem = getEngine().getSystem(InterestSystem.class);
+        if (interestSystem != null) {
+            fontSmall.draw(batch, interestSystem.getInfo(), x, y - (lineHeight * linePos++));
+        }
+        SpaceLoadingSystem spaceLoadingSystem = getEngine().getSystem(SpaceLoadingSystem.class);
+        if (spaceLoadingSystem != null) {
+            fontSmall.draw(batch, spaceLoadingSystem.getPrefetchInfo(), x, y - (lineHeight * linePos++));
+        }
+        fontSmall.draw(batch, GameScreen.getEvents().getInfo(), x, y - (lineHeight * linePos++));
+        fontSmall.draw(batch, TextureCache.getInfo(), x, y - (lineHeight * linePos++));
+        fontSmall.draw(batch, RuntimeAtlas.getInfo(), x, y - (lineHeight * linePos++));
+
         //OpenGL profiler
         fontSmall.draw(batch, GameScreen.getProfilerString(), x, y - (lineHeight * linePos++));
         
@@ -400,7 +447,7 @@ public class DebugSystem extends IteratingSystem implements Disposable {
                     
                     if (showSyncedPos) {
                         //synced orbit position (where the object should be)
-                        Vector2 orbitPos = OrbitSystem.getTimeSyncedPos(orbit, GameScreen.getGameTimeCurrent());
+                        Vector2 orbitPos = OrbitSystem.getTimeSyncedPos(orbit, GameScreen.getGameTimeCurrent(), tempOrbitPos);
                         shape.setColor(orbitSyncPosColor);
                         shape.line(parentPos.pos.x, parentPos.pos.y, orbitPos.x, orbitPos.y);
                     }
@@ -413,7 +460,7 @@ public class DebugSystem extends IteratingSystem implements Disposable {
                 
                 TextureComponent tex = Mappers.texture.get(entity);
                 if (tex != null) {
-                    float radius = tex.texture.getWidth() * 0.5f * tex.scale;
+                    float radius = tex.region.getRegionWidth() * 0.5f * tex.scale;
                     Vector2 orientation = MyMath.vector(entityPos.rotation, radius).add(entityPos.pos);
                     shape.setColor(orbitObjectColor);
                     shape.line(entityPos.pos.x, entityPos.pos.y, orientation.x, orientation.y);
@@ -562,8 +609,8 @@ public class DebugSystem extends IteratingSystem implements Disposable {
     
     @Override
     public void dispose() {
-        texCompBack.dispose();
-        texCompSeparator.dispose();
+        TextureCache.release(texCompBack);
+        TextureCache.release(texCompSeparator);
         fontSmall.dispose();
         fontLarge.dispose();
     }
@@ -17,7 +17,7 @@ public class ExpireSystem extends IteratingSystem {
     protected void processEntity(Entity entity, float deltaTime) {
         ExpireComponent expire = Mappers.expire.get(entity);
         if (expire.timer.canDoEvent()) {
-            entity.add(new RemoveComponent());
+            entity.add(getEngine().createComponent(RemoveComponent.class));
         }
     }
     
@@ -8,7 +8,6 @@ import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
@@ -44,6 +43,7 @@ import com.spaceproject.config.UIConfig;
 import com.spaceproject.generation.FontFactory;
 import com.spaceproject.math.MyMath;
 import com.spaceproject.screens.GameScreen;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.MyScreenAdapter;
 import com.spaceproject.ui.map.MapState;
 import com.spaceproject.ui.map.MiniMap;
@@ -62,6 +62,7 @@ public class HUDSystem extends EntitySystem implements IRequireGameContext, IScr
     
     //rendering
     private OrthographicCamera cam;
+    private RenderPipeline pipeline;
     private Matrix4 projectionMatrix;
     private ShapeRenderer shape;
     private SpriteBatch batch;
@@ -86,6 +87,7 @@ public class HUDSystem extends EntitySystem implements IRequireGameContext, IScr
     
     public HUDSystem() {
         cam = MyScreenAdapter.cam;
+        pipeline = MyScreenAdapter.pipeline;
         shape = MyScreenAdapter.shape;
         batch = MyScreenAdapter.batch;
         projectionMatrix = new Matrix4();
@@ -171,6 +173,7 @@ public class HUDSystem extends EntitySystem implements IRequireGameContext, IScr
         
             if (miniMap.getState() != MapState.off) {
                 Entity p = players.size() > 0 ? players.first() : null;
+                pipeline.custom("minimap");
                 miniMap.drawMiniMap(shape, batch, p, mapableEntities);
             }
         }
@@ -189,14 +192,9 @@ public class HUDSystem extends EntitySystem implements IRequireGameContext, IScr
     private void drawHUD() {
         //set projection matrix so things render using correct coordinates
         projectionMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        shape.setProjectionMatrix(projectionMatrix);
-        batch.setProjectionMatrix(projectionMatrix);
         
-        //enable transparency
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-        
-        shape.begin(ShapeType.Filled);
+        //shape and batch are the pipeline's shared renderers
+        pipeline.shape("hud", projectionMatrix, ShapeType.Filled);
     
         Entity player = null;
         if (players.size() > 0) {
@@ -217,9 +215,7 @@ public class HUDSystem extends EntitySystem implements IRequireGameContext, IScr
         //        centerX+layout.width+(padding*2), messageHeight-((layout.height-padding)*0.35f), layout.height + (padding*2));
         //shape.rectLine(0, messageHeight, , messageHeight, Gdx.graphics.getWidth(),layout.height);*/
         
-        shape.end();
-        
-        batch.begin();
+        pipeline.batch("hud", projectionMatrix, null);
         
         //draw special state: hyper or landing / launching
         drawSpecialStateMessage(player);
@@ -227,15 +223,14 @@ public class HUDSystem extends EntitySystem implements IRequireGameContext, IScr
         //drawHint("press [T] to land");
         //drawHint("stars are hot");
         //drawHint("an object in motion remains in motion");
-    
-        batch.end();
-        Gdx.gl.glDisable(GL20.GL_BLEND);
     }
     
     private void checkInput() {
         //todo: move to desktop input
         if (Gdx.input.isKeyJustPressed(keyCFG.toggleHUD)) {
             drawHud = !drawHud;
+            //overlay passes (grid, trails) are hidden along with the hud
+            GameScreen.getFrameGraph().setOverlaysVisible(drawHud);
             Gdx.app.log(this.getClass().getSimpleName(), "HUD: " + drawHud);
         }
         if (Gdx.input.isKeyJustPressed(keyCFG.toggleEdgeMap)) {
@@ -614,7 +609,7 @@ public class HUDSystem extends EntitySystem implements IRequireGameContext, IScr
             TextureComponent tex = Mappers.texture.get(mapable);
             float dist = MyMath.distance(pos.x, pos.y, cam.position.x, cam.position.y);
             if (tex != null) {
-                dist -= Math.max(tex.texture.getWidth(), tex.texture.getHeight()) / 2.0f * tex.scale;
+                dist -= Math.max(tex.region.getRegionWidth(), tex.region.getRegionHeight()) / 2.0f * tex.scale;
             }
             float distClamp = MathUtils.clamp((dist-distLarge)/(distSmall-distLarge), 0, 1);
             float sizeInterp = Interpolation.pow3In.apply(1-distClamp);
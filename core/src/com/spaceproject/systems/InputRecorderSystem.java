@@ -0,0 +1,75 @@
+package com.spaceproject.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.spaceproject.SpaceProject;
+import com.spaceproject.components.ControlFocusComponent;
+import com.spaceproject.components.ControllableComponent;
+import com.spaceproject.config.DebugConfig;
+import com.spaceproject.config.EngineConfig;
+import com.spaceproject.screens.GameScreen;
+import com.spaceproject.simulation.InputRecording;
+import com.spaceproject.utility.Mappers;
+
+import java.io.IOException;
+
+/**
+ * Records the player's controls once per physics step while debugCFG.recordInput is on.
+ * Written to replays/ when the system is unloaded (game closed or landed), played back headless by the ReplayRunner.
+ */
+public class InputRecorderSystem extends EntitySystem {
+    
+    private ImmutableArray<Entity> players;
+    private InputRecording recording;
+    private float step;
+    private float accumulator;
+    
+    @Override
+    public void addedToEngine(Engine engine) {
+        players = engine.getEntitiesFor(Family.all(ControlFocusComponent.class, ControllableComponent.class).get());
+        
+        DebugConfig debugCFG = SpaceProject.configManager.getConfig(DebugConfig.class);
+        if (!debugCFG.recordInput) return;
+        
+        EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
+        step = 1f / engineCFG.physicsStepPerFrame;
+        recording = new InputRecording(GameScreen.getGalaxySeed(), step, SpaceProject.configManager);
+        Gdx.app.log(getClass().getSimpleName(), "Recording input. seed: " + GameScreen.getGalaxySeed());
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+        if (recording == null || players.size() == 0) return;
+        
+        //sample on the same fixed step the replay runs at, input is held state so sampling between frames is fine
+        accumulator += deltaTime;
+        Entity player = players.first();
+        if (!recording.isStarted()) {
+            recording.start(player);
+        }
+        while (accumulator >= step) {
+            recording.sample(Mappers.controllable.get(player), Mappers.dash.get(player), Mappers.shield.get(player), Mappers.hyper.get(player));
+            accumulator -= step;
+        }
+    }
+    
+    @Override
+    public void removedFromEngine(Engine engine) {
+        if (recording == null || recording.size() == 0) return;
+        
+        FileHandle file = Gdx.files.local("replays/" + recording.getSeed() + "_" + System.currentTimeMillis() + ".rec");
+        try {
+            recording.write(file);
+            Gdx.app.log(getClass().getSimpleName(), "Saved " + recording.size() + " steps: " + file.path());
+        } catch (IOException e) {
+            Gdx.app.error(getClass().getSimpleName(), "Could not save recording: " + file.path(), e);
+        }
+        recording = null;
+    }
+    
+}
@@ -0,0 +1,51 @@
+package com.spaceproject.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.spaceproject.components.ControlFocusComponent;
+import com.spaceproject.components.ControllableComponent;
+import com.spaceproject.simulation.InputRecording;
+import com.spaceproject.utility.Mappers;
+
+/**
+ * Drives the player's controls from an InputRecording, one sample per update.
+ * Takes the place of the input systems in a headless Simulation, so must be updated at the recording's step.
+ */
+public class InputReplaySystem extends EntitySystem {
+    
+    private final InputRecording recording;
+    private ImmutableArray<Entity> players;
+    private int frame;
+    
+    public InputReplaySystem(InputRecording recording) {
+        this.recording = recording;
+    }
+    
+    @Override
+    public void addedToEngine(Engine engine) {
+        players = engine.getEntitiesFor(Family.all(ControlFocusComponent.class, ControllableComponent.class).get());
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+        if (isFinished()) return;
+        
+        if (players.size() > 0) {
+            Entity player = players.first();
+            recording.apply(frame, Mappers.controllable.get(player), Mappers.dash.get(player), Mappers.shield.get(player), Mappers.hyper.get(player));
+        }
+        frame++;
+    }
+    
+    public boolean isFinished() {
+        return frame >= recording.size();
+    }
+    
+    public int getFrame() {
+        return frame;
+    }
+    
+}
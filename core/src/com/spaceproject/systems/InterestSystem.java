@@ -0,0 +1,148 @@
+package com.spaceproject.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.spaceproject.SpaceProject;
+import com.spaceproject.components.InterestComponent;
+import com.spaceproject.components.PhysicsComponent;
+import com.spaceproject.components.TransformComponent;
+import com.spaceproject.config.EngineConfig;
+import com.spaceproject.utility.InterestGrid;
+import com.spaceproject.utility.Mappers;
+
+/**
+ * Area of interest: rebuilds the active cells around observers (entities with InterestComponent) at the start of each frame.
+ * Logic systems ask {@link #isDue(Vector2)} for per entity work that can run at a reduced rate far from any observer
+ * (eg: AI thinking, belt orbits), so that work scales with the regions being watched rather than every loaded entity.
+ * Dynamic bodies in distant cells are deactivated so Box2D doesn't step them, and reactivated when their cell is active again.
+ * Observers that are not entities (eg: remote players on a GameServer) are added through an {@link ObserverSource}.
+ * With no observers everything is active.
+ */
+public class InterestSystem extends EntitySystem {
+    
+    /** adds observers that are not entities to the grid each frame */
+    public interface ObserverSource {
+        /** @return number of observers added */
+        int addObservers(InterestGrid grid, float defaultRadius);
+    }
+    
+    private static final EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
+    
+    private final InterestGrid grid = new InterestGrid(engineCFG.interestCellSize);
+    private ImmutableArray<Entity> observers;
+    private ImmutableArray<Entity> bodies;
+    //only bodies deactivated here are reactivated here, others (hyperdrive, pool) are left alone
+    private final ObjectSet<Entity> deactivated = new ObjectSet<>();
+    private final EntityListener bodyListener = new EntityListener() {
+        @Override
+        public void entityAdded(Entity entity) { }
+        
+        @Override
+        public void entityRemoved(Entity entity) {
+            deactivated.remove(entity);
+        }
+    };
+    private final Array<ObserverSource> sources = new Array<>();
+    private int sourceObservers;
+    private long frame;
+    private final StringBuilder info = new StringBuilder();
+    
+    @Override
+    public void addedToEngine(Engine engine) {
+        observers = engine.getEntitiesFor(Family.all(InterestComponent.class, TransformComponent.class).get());
+        Family bodyFamily = Family.all(PhysicsComponent.class, TransformComponent.class).get();
+        bodies = engine.getEntitiesFor(bodyFamily);
+        engine.addEntityListener(bodyFamily, bodyListener);
+    }
+    
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(bodyListener);
+        //don't leave bodies frozen
+        for (Entity entity : deactivated) {
+            Body body = Mappers.physics.get(entity).body;
+            if (body != null) {
+                body.setActive(true);
+            }
+        }
+        deactivated.clear();
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+        frame++;
+        grid.clear();
+        for (Entity observer : observers) {
+            float radius = Mappers.interest.get(observer).radius;
+            Vector2 pos = Mappers.transform.get(observer).pos;
+            grid.addObserver(pos.x, pos.y, radius > 0 ? radius : engineCFG.interestRadius);
+        }
+        sourceObservers = 0;
+        for (ObserverSource source : sources) {
+            sourceObservers += source.addObservers(grid, engineCFG.interestRadius);
+        }
+        
+        updateBodies();
+    }
+    
+    private void updateBodies() {
+        if (!engineCFG.interestDeactivateBodies && deactivated.size == 0) return;
+        
+        for (Entity entity : bodies) {
+            Body body = Mappers.physics.get(entity).body;
+            if (body == null) continue;
+            
+            boolean active = !engineCFG.interestDeactivateBodies || isActive(Mappers.transform.get(entity).pos);
+            if (active) {
+                if (deactivated.remove(entity)) {
+                    body.setActive(true);
+                }
+            } else if (body.isActive() && body.getType() == BodyDef.BodyType.DynamicBody) {
+                body.setActive(false);
+                deactivated.add(entity);
+            }
+        }
+    }
+    
+    public void addSource(ObserverSource source) {
+        sources.add(source);
+    }
+    
+    public void removeSource(ObserverSource source) {
+        sources.removeValue(source, true);
+    }
+    
+    /** @return true if within an observer's interest: simulate at full rate */
+    public boolean isActive(Vector2 pos) {
+        return grid.isEmpty() || grid.isActive(pos.x, pos.y);
+    }
+    
+    /** @return true if active, or distant and its cell's turn this frame */
+    public boolean isDue(Vector2 pos) {
+        return grid.isEmpty() || grid.isDue(pos.x, pos.y, frame, engineCFG.interestDistantInterval);
+    }
+    
+    /** frames between updates of distant cells */
+    public int getDistantInterval() {
+        return grid.isEmpty() ? 1 : engineCFG.interestDistantInterval;
+    }
+    
+    public CharSequence getInfo() {
+        info.setLength(0);
+        info.append("[Interest] observers: ").append(observers.size() + sourceObservers);
+        info.append(" active cells: ").append(grid.getActiveCells());
+        info.append(" distant every ").append(engineCFG.interestDistantInterval).append(" frames");
+        info.append(" inactive bodies: ").append(deactivated.size);
+        return info;
+    }
+    
+}
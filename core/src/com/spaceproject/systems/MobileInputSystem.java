@@ -7,12 +7,12 @@ import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
 import com.badlogic.gdx.math.Matrix4;
 import com.spaceproject.components.ControlFocusComponent;
 import com.spaceproject.components.ControllableComponent;
+import com.spaceproject.screens.MyScreenAdapter;
 import com.spaceproject.ui.custom.TouchButtonRectangle;
 import com.spaceproject.ui.custom.TouchButtonRound;
 import com.spaceproject.ui.custom.TouchJoyStick;
@@ -108,14 +108,12 @@ public class MobileInputSystem extends EntitySystem {
      * Draw on-screen buttons.
      */
     public void drawControls() {
+        MyScreenAdapter.pipeline.custom("mobile controls");
+        
         //set projection matrix so things render using correct coordinates
         projectionMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         shape.setProjectionMatrix(projectionMatrix);
         
-        //enable transparency
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-        
         joyMovement.render(shape);
         
         shape.begin(ShapeType.Filled);
@@ -132,8 +130,6 @@ public class MobileInputSystem extends EntitySystem {
         btnMenu.render(shape);
         
         shape.end();
-        
-        Gdx.gl.glDisable(GL20.GL_BLEND);
     }
     
     
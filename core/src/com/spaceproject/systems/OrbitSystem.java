@@ -1,56 +1,131 @@
 package com.spaceproject.systems;
 
+import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import com.spaceproject.components.OrbitComponent;
 import com.spaceproject.components.TransformComponent;
+import com.spaceproject.generation.Ephemeris;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.utility.Mappers;
-import com.spaceproject.math.MyMath;
 
-public class OrbitSystem extends IteratingSystem {
+/**
+ * Moves bodies along their orbits. Bodies are updated from a cached array sorted by depth in the orbit
+ * hierarchy (stars -> planets -> moons -> ...), so a parent is always updated before its children without
+ * recursion. The array is only rebuilt when orbiting entities are added or removed.
+ */
+public class OrbitSystem extends EntitySystem implements EntityListener {
     
     private final int syncPosThreshold = 10;//todo, move to config
-    private static final Vector2 TEMP_VEC = new Vector2();
+    //deeper than this is treated as a cycle in the hierarchy
+    private final int maxDepth = 32;
     
-    public OrbitSystem() {
-        super(Family.all(OrbitComponent.class, TransformComponent.class).get());
+    private final Family family = Family.all(OrbitComponent.class, TransformComponent.class).get();
+    private ImmutableArray<Entity> entities;
+    private final Array<Entity> ordered = new Array<>();
+    private final IntArray depths = new IntArray();
+    private boolean dirty = true;
+    
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(family);
+        engine.addEntityListener(family, this);
+        dirty = true;
     }
     
     @Override
-    public void update(float deltaTime) {
-        super.update(deltaTime);
-        
-        resetProcessedFlag();
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+        ordered.clear();
     }
     
     @Override
-    protected void processEntity(Entity entity, float delta) {
-        updateBody(entity, delta);
+    public void entityAdded(Entity entity) {
+        dirty = true;
     }
     
-    private void updateBody(Entity entity, float delta) {
-        OrbitComponent orbit = Mappers.orbit.get(entity);
-        if (orbit == null || orbit.isProcessed) {
-            return;
+    @Override
+    public void entityRemoved(Entity entity) {
+        dirty = true;
+    }
+    
+    @Override
+    public void update(float delta) {
+        if (dirty) {
+            rebuild();
         }
         
+        long time = GameScreen.getGameTimeCurrent();
+        for (int i = 0; i < ordered.size; i++) {
+            updateBody(ordered.get(i), time, delta);
+        }
+    }
+    
+    /** sort by depth: insertion sort is stable and the array is nearly sorted already when a system loads */
+    private void rebuild() {
+        ordered.clear();
+        depths.clear();
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            int depth = getDepth(entity);
+            
+            int index = depths.size;
+            while (index > 0 && depths.get(index - 1) > depth) {
+                index--;
+            }
+            ordered.insert(index, entity);
+            depths.insert(index, depth);
+        }
+        dirty = false;
+    }
+    
+    private int getDepth(Entity entity) {
+        int depth = 0;
+        Entity parent = Mappers.orbit.get(entity).parent;
+        while (parent != null) {
+            OrbitComponent parentOrbit = Mappers.orbit.get(parent);
+            if (parentOrbit == null) break;
+            
+            if (++depth > maxDepth) {
+                Gdx.app.error(getClass().getSimpleName(), "orbit hierarchy too deep or cyclic");
+                break;
+            }
+            parent = parentOrbit.parent;
+        }
+        return depth;
+    }
+    
+    private void updateBody(Entity entity, long time, float delta) {
+        OrbitComponent orbit = Mappers.orbit.get(entity);
         TransformComponent position = Mappers.transform.get(entity);
         //TODO: time sync planet rotation/spin just like orbit
         position.rotation += orbit.rotateClockwise ? orbit.rotSpeed * delta : -orbit.rotSpeed * delta;
-    
+        
         //apply tangential velocity
-        orbit.angle = getTimeSyncedAngle(orbit, GameScreen.getGameTimeCurrent());
-        orbit.velocity.set(orbit.tangentialSpeed, 0).rotateRad(orbit.angle).rotate90(orbit.rotateClockwise ? 1 : -1);
+        orbit.angle = getTimeSyncedAngle(orbit, time);
+        float cos = MathUtils.cos(orbit.angle);
+        float sin = MathUtils.sin(orbit.angle);
+        orbit.velocity.set(orbit.tangentialSpeed * cos, orbit.tangentialSpeed * sin).rotate90(orbit.rotateClockwise ? 1 : -1);
         
         if (orbit.parent != null) {
-            updateBody(orbit.parent, delta);
+            //parent is earlier in the array, so it has already moved this frame
+            TransformComponent parentPosition = Mappers.transform.get(orbit.parent);
+            
+            //calculate exact orbit position, ensure object is not too far from synced location
+            float syncX = parentPosition.pos.x + cos * orbit.radialDistance;
+            float syncY = parentPosition.pos.y + sin * orbit.radialDistance;
+            if (!MathUtils.isEqual(position.pos.x, syncX, syncPosThreshold) || !MathUtils.isEqual(position.pos.y, syncY, syncPosThreshold)) {
+                position.pos.set(syncX, syncY);
+            }
             
-            syncOrbit(orbit, position);
-    
             OrbitComponent parentOrbit = Mappers.orbit.get(orbit.parent);
             if (parentOrbit != null) {
                 orbit.velocity.add(parentOrbit.velocity);
@@ -58,54 +133,17 @@ public class OrbitSystem extends IteratingSystem {
         }
         
         //add velocity to position
-        TEMP_VEC.set(orbit.velocity).scl(delta);
-        position.pos.add(TEMP_VEC.x, TEMP_VEC.y);
-    
-        orbit.isProcessed = true;
-    }
-    
-    private void syncOrbit(OrbitComponent orbitComp, TransformComponent position) {
-        //calculate exact orbit position, ensure object is not too far from synced location
-        Vector2 orbitPos = getTimeSyncedPos(orbitComp, GameScreen.getGameTimeCurrent());
-        if (!position.pos.epsilonEquals(orbitPos, syncPosThreshold)) {
-            position.pos.set(orbitPos);
-        }
+        position.pos.add(orbit.velocity.x * delta, orbit.velocity.y * delta);
     }
     
-    public static Vector2 getTimeSyncedPos(OrbitComponent orbitComp, long time) {
+    public static Vector2 getTimeSyncedPos(OrbitComponent orbitComp, long time, Vector2 out) {
         TransformComponent parentPosition = Mappers.transform.get(orbitComp.parent);
-        return MyMath.vector(getTimeSyncedAngle(orbitComp, time), orbitComp.radialDistance).add(parentPosition.pos);
+        float angle = getTimeSyncedAngle(orbitComp, time);
+        return out.set(MathUtils.cos(angle), MathUtils.sin(angle)).scl(orbitComp.radialDistance).add(parentPosition.pos);
     }
     
     public static float getTimeSyncedAngle(OrbitComponent orbit, long gameTime) {
-        //calculate time-synced angle, dictate position as a function of time based on tangential velocity
-        float angularSpeed = orbit.tangentialSpeed / orbit.radialDistance;
-        long msPerRevolution = (long) (1000 * MathUtils.PI2 / angularSpeed);
-        float timeSyncAngle = 0;
-        if (msPerRevolution != 0) {
-            timeSyncAngle = MathUtils.PI2 * ((float) (gameTime % msPerRevolution) / (float) msPerRevolution);
-        }
-        
-        timeSyncAngle = orbit.rotateClockwise ? timeSyncAngle : -timeSyncAngle;
-        
-        //keep angle relative to starting position
-        timeSyncAngle += orbit.startAngle;
-        
-        //keep angle within 0 to 2PI radians
-        if (timeSyncAngle > MathUtils.PI2) {
-            timeSyncAngle -= MathUtils.PI2;
-        } else if (timeSyncAngle < 0) {
-            timeSyncAngle += MathUtils.PI2;
-        }
-        
-        return timeSyncAngle;
-    }
-    
-    private void resetProcessedFlag() {
-        for (int i = 0; i < getEntities().size(); ++i) {
-            OrbitComponent orbit = Mappers.orbit.get(getEntities().get(i));
-            orbit.isProcessed = false;
-        }
+        return Ephemeris.getOrbitAngle(orbit.tangentialSpeed, orbit.radialDistance, orbit.startAngle, orbit.rotateClockwise, gameTime);
     }
     
 }
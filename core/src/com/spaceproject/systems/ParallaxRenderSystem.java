@@ -30,6 +30,7 @@ import com.spaceproject.components.TextureComponent;
 import com.spaceproject.components.TransformComponent;
 import com.spaceproject.generation.FontFactory;
 import com.spaceproject.math.MyMath;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.utility.Mappers;
 
@@ -48,7 +49,8 @@ public class ParallaxRenderSystem extends EntitySystem implements Disposable {
     public boolean drawTest = false;
     
     //rendering
-    private final ShapeRenderer shape;
+    private final RenderPipeline pipeline;
+    private ShapeRenderer shape;
     private final Matrix4 projectionMatrix;
     private final Vector3 origin = new Vector3();
     private final Vector3 camWorldPos = new Vector3();
@@ -71,8 +73,8 @@ public class ParallaxRenderSystem extends EntitySystem implements Disposable {
     private BitmapFont subFont;
     
     public ParallaxRenderSystem() {
-        shape = new ShapeRenderer();
-        batch = new SpriteBatch();
+        pipeline = GameScreen.pipeline;
+        batch = pipeline.getBatch();
         projectionMatrix = new Matrix4();
     
         FreeTypeFontGenerator.FreeTypeFontParameter parameter2 = new FreeTypeFontGenerator.FreeTypeFontParameter();
@@ -90,16 +92,10 @@ public class ParallaxRenderSystem extends EntitySystem implements Disposable {
     
     @Override
     public void update(float deltaTime) {
-        //warning: system coupling -> todo: use signals?
-        HUDSystem hudSystem = getEngine().getSystem(HUDSystem.class);
-        if (hudSystem != null && !hudSystem.isDraw()) {
-            return;
-        }
+        //note: drawn in an overlay pass, hidden by the frame graph when the HUD is off
         
         //update matrix and convert screen coords to world cords.
         projectionMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        shape.setProjectionMatrix(projectionMatrix);
-        batch.setProjectionMatrix(cam.combined);
         
         origin.set(0,0,0);
         GameScreen.viewport.project(origin);
@@ -107,12 +103,8 @@ public class ParallaxRenderSystem extends EntitySystem implements Disposable {
         GameScreen.viewport.project(camWorldPos);
         gridBounds.set(1, 1, Gdx.graphics.getWidth()-2, Gdx.graphics.getHeight()-2);
     
-        //enable transparency
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-        
         //render
-        shape.begin(ShapeRenderer.ShapeType.Line);
+        shape = pipeline.shape("parallax grid", projectionMatrix, ShapeRenderer.ShapeType.Line);
         
         //draw grid
         gridColor.a = 0.15f;
@@ -134,18 +126,12 @@ public class ParallaxRenderSystem extends EntitySystem implements Disposable {
             drawCompass(players.first());
         }
         
-        shape.setProjectionMatrix(cam.combined);
+        shape = pipeline.shape("orbits", cam.combined, ShapeRenderer.ShapeType.Line);
         //if (!GameScreen.isHyper())
         drawOrbitPath();
         
-        
-        shape.end();
-        
-        //batch.begin();
+        //batch = pipeline.batch("hint", projectionMatrix, null);
         //drawHint("an object in motion, remains in motion");
-        //batch.end();
-    
-        Gdx.gl.glDisable(GL20.GL_BLEND);
     }
     
     private int calculateGridDensity(int width) {
@@ -249,7 +235,7 @@ public class ParallaxRenderSystem extends EntitySystem implements Disposable {
             
             TextureComponent tex = Mappers.texture.get(entity);
             if (tex != null) {
-                float radius = tex.texture.getWidth() * 0.5f * tex.scale;
+                float radius = tex.region.getRegionWidth() * 0.5f * tex.scale;
                 shape.circle(entityPos.pos.x, entityPos.pos.y, radius);
             }
     
@@ -438,8 +424,7 @@ public class ParallaxRenderSystem extends EntitySystem implements Disposable {
     
     @Override
     public void dispose() {
-        shape.dispose();
-        batch.dispose();
+        subFont.dispose();
     }
     
 }
@@ -12,6 +12,7 @@ import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
 import com.badlogic.gdx.graphics.g2d.ParticleEmitter;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.spaceproject.components.AttachedToComponent;
@@ -22,11 +23,13 @@ import com.spaceproject.components.HyperDriveComponent;
 import com.spaceproject.components.ParticleComponent;
 import com.spaceproject.components.ShieldComponent;
 import com.spaceproject.components.TransformComponent;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.utility.Mappers;
 
 public class ParticleSystem extends IteratingSystem implements EntityListener, Disposable {
     
+    private final RenderPipeline pipeline;
     SpriteBatch spriteBatch;
     ParticleEffect fireEffect;
     ParticleEffectPool fireEffectPool;
@@ -45,10 +48,28 @@ public class ParticleSystem extends IteratingSystem implements EntityListener, D
     
     float particleScale = 0.02f;
     
+    //global budget: when more particles are alive than this, visible effects emit less
+    private final int particleBudget = 3000;
+    private final float minEmissionScale = 0.25f;
+    //culled effects are simulated in larger steps instead of every frame
+    private final float culledUpdateInterval = 0.25f;
+    //effects are small, cull by position with some margin for particles spreading out
+    private final float cullRadius = 10f;
+    //distance LOD: the camera is orthographic, so distance is zoom. zoomed out this far effects are a few pixels and emit less
+    private final float lodZoom = 5f;
+    private final float lodEmissionScale = 0.5f;
+    
+    private float emissionScale = 1;
+    private int activeParticles, visibleEffects, farEffects, culledEffects;
+    private long updateTimeNanos;
+    private final Vector2 effectPos = new Vector2();
+    private boolean effectPositioned;
+    private final StringBuilder infoBuilder = new StringBuilder();
+    
     public ParticleSystem() {
         super(Family.all(ParticleComponent.class).get());
         
-        spriteBatch = new SpriteBatch();
+        pipeline = GameScreen.pipeline;
     
         //engine fire
         fireEffect = new ParticleEffect();
@@ -91,16 +112,27 @@ public class ParticleSystem extends IteratingSystem implements EntityListener, D
     
     @Override
     public void update(float deltaTime) {
-        spriteBatch.setProjectionMatrix(GameScreen.cam.combined);
-        spriteBatch.begin();
+        long start = System.nanoTime();
+        
+        //scale down emission while over budget, in steps so emitters aren't rewritten every frame
+        float target = activeParticles > particleBudget ? (float) particleBudget / activeParticles : 1;
+        emissionScale = Math.max(minEmissionScale, MathUtils.floor(target * 4) / 4f);
+        activeParticles = 0;
+        visibleEffects = 0;
+        farEffects = 0;
+        culledEffects = 0;
+        
+        spriteBatch = pipeline.batch("particles", GameScreen.cam.combined, null);
         super.update(deltaTime);
-        spriteBatch.end();
+        
+        updateTimeNanos = System.nanoTime() - start;
     }
     
     @Override
     protected void processEntity(Entity entity, float deltaTime) {
         ParticleComponent particle = Mappers.particle.get(entity);
         
+        effectPositioned = false;
         switch (particle.type) {
             case shipEngineMain:
             case shipEngineLeft:
@@ -124,7 +156,60 @@ public class ParticleSystem extends IteratingSystem implements EntityListener, D
                 break;
         }
         
-        particle.pooledEffect.draw(spriteBatch, deltaTime);
+        ParticleEffectPool.PooledEffect effect = particle.pooledEffect;
+        //not positioned this frame (eg: engine without a parent): position unknown, don't cull
+        boolean visible = !effectPositioned || GameScreen.cam.frustum.sphereInFrustumWithoutNearFar(effectPos.x, effectPos.y, 0, cullRadius);
+        if (visible) {
+            if (GameScreen.cam.zoom >= lodZoom) {
+                setEmissionScale(particle, Math.min(emissionScale, lodEmissionScale));
+                farEffects++;
+            } else {
+                setEmissionScale(particle, emissionScale);
+            }
+            effect.update(deltaTime + particle.skippedTime);
+            particle.skippedTime = 0;
+            effect.draw(spriteBatch);
+            visibleEffects++;
+        } else {
+            //not drawn: keep simulating in coarse steps so effects still finish and are warm when back on screen
+            setEmissionScale(particle, minEmissionScale);
+            particle.skippedTime += deltaTime;
+            if (particle.skippedTime >= culledUpdateInterval) {
+                effect.update(particle.skippedTime);
+                particle.skippedTime = 0;
+            }
+            culledEffects++;
+        }
+        
+        Array<ParticleEmitter> emitters = effect.getEmitters();
+        for (int i = 0; i < emitters.size; i++) {
+            activeParticles += emitters.get(i).getActiveCount();
+        }
+    }
+    
+    /** scale emission relative to the effect's template. see ParticleComponent.emissionScale */
+    private void setEmissionScale(ParticleComponent particle, float scale) {
+        if (particle.emissionScale == scale) return;
+        
+        Array<ParticleEmitter> emitters = particle.pooledEffect.getEmitters();
+        Array<ParticleEmitter> base = getTemplate(particle.type).getEmitters();
+        for (int i = 0; i < emitters.size; i++) {
+            ParticleEmitter.ScaledNumericValue emission = emitters.get(i).getEmission();
+            ParticleEmitter.ScaledNumericValue baseEmission = base.get(i).getEmission();
+            emission.setHigh(baseEmission.getHighMin() * scale, baseEmission.getHighMax() * scale);
+            emission.setLow(baseEmission.getLowMin() * scale, baseEmission.getLowMax() * scale);
+        }
+        particle.emissionScale = scale;
+    }
+    
+    private ParticleEffect getTemplate(ParticleComponent.EffectType type) {
+        switch (type) {
+            case bulletCharge: return chargeEffect;
+            case bulletExplode: return explodeEffect;
+            case projectileTrail: return tailEffect;
+            case shieldCharge: return shieldEffect;
+            default: return fireEffect;
+        }
     }
     
     private void updateEngineParticle(Entity entity, ParticleComponent particle) {
@@ -165,43 +250,48 @@ public class ParticleSystem extends IteratingSystem implements EntityListener, D
             particle.pooledEffect.allowCompletion();
         }
         
-        //update emitters
-        Array<ParticleEmitter> emitters = particle.pooledEffect.getEmitters();
+        //set angle to always point out as engine exhaust
         float engineRotation = particle.angle + (transform.rotation * MathUtils.radDeg + 180);
-        for (int i = 0; i < emitters.size; i++) {
-            //set angle to always point out as engine exhaust
-            ParticleEmitter.ScaledNumericValue angle = emitters.get(i).getAngle();
-            float relativeAngle = engineRotation;
-            if (control != null && control.moveBack) {
-                ///point side engines forward
-                switch (particle.type) {
-                    case shipEngineLeft:  relativeAngle -= 45 * MathUtils.radDeg; break;
-                    case shipEngineRight: relativeAngle += 45 * MathUtils.radDeg; break;
-                }
+        float relativeAngle = engineRotation;
+        if (control != null && control.moveBack) {
+            ///point side engines forward
+            switch (particle.type) {
+                case shipEngineLeft:  relativeAngle -= 45 * MathUtils.radDeg; break;
+                case shipEngineRight: relativeAngle += 45 * MathUtils.radDeg; break;
             }
-            angle.setHigh(relativeAngle);
-            angle.setLow(relativeAngle);
+        }
         
-            //change color during boost
-            if (hyperdriveIsActive) {
-                ParticleEmitter.GradientColorValue tint = emitters.get(i).getTint();
-                tint.setColors(engineColorHyper);
-            } else {
-                if (roll != null) {
-                    ParticleEmitter.GradientColorValue tint = emitters.get(i).getTint();
-                    boolean boostActive = roll.flipState != BarrelRollComponent.FlipState.off ||
-                            (control != null && ((control.moveForward && control.boost) || (control.moveBack && control.boost) || control.boost));
-                    if (boostActive) {
-                        tint.setColors(engineColorBoost);
-                    } else {
-                        tint.setColors(engineColor);
-                    }
+        //change color during boost
+        float[] tintColors = particle.appliedTint;
+        if (hyperdriveIsActive) {
+            tintColors = engineColorHyper;
+        } else if (roll != null) {
+            boolean boostActive = roll.flipState != BarrelRollComponent.FlipState.off ||
+                    (control != null && ((control.moveForward && control.boost) || (control.moveBack && control.boost) || control.boost));
+            tintColors = boostActive ? engineColorBoost : engineColor;
+        }
+        
+        //update emitters only when changed
+        boolean angleChanged = relativeAngle != particle.appliedAngle;
+        boolean tintChanged = tintColors != particle.appliedTint;
+        if (angleChanged || tintChanged) {
+            Array<ParticleEmitter> emitters = particle.pooledEffect.getEmitters();
+            for (int i = 0; i < emitters.size; i++) {
+                if (angleChanged) {
+                    ParticleEmitter.ScaledNumericValue angle = emitters.get(i).getAngle();
+                    angle.setHigh(relativeAngle);
+                    angle.setLow(relativeAngle);
+                }
+                if (tintChanged) {
+                    emitters.get(i).getTint().setColors(tintColors);
                 }
             }
+            particle.appliedAngle = relativeAngle;
+            particle.appliedTint = tintColors;
         }
         
         particle.offset.setAngleDeg(engineRotation);
-        particle.pooledEffect.setPosition(transform.pos.x + particle.offset.x, transform.pos.y + particle.offset.y);
+        setEffectPosition(particle, transform.pos.x + particle.offset.x, transform.pos.y + particle.offset.y);
     }
     
     private void updateChargeParticle(Entity entity, ParticleComponent particle) {
@@ -215,12 +305,12 @@ public class ParticleSystem extends IteratingSystem implements EntityListener, D
         }
         
         TransformComponent transform = Mappers.transform.get(entity);
-        particle.pooledEffect.setPosition(transform.pos.x, transform.pos.y);
+        setEffectPosition(particle, transform.pos.x, transform.pos.y);
     }
     
     private void updateExplodeParticle(Entity entity, ParticleComponent particle) {
         TransformComponent transform = Mappers.transform.get(entity);
-        particle.pooledEffect.setPosition(transform.pos.x, transform.pos.y);
+        setEffectPosition(particle, transform.pos.x, transform.pos.y);
     }
     
     private void updateShieldChargeParticle(Entity entity, ParticleComponent particle) {
@@ -234,7 +324,7 @@ public class ParticleSystem extends IteratingSystem implements EntityListener, D
         }
         
         TransformComponent transform = Mappers.transform.get(entity);
-        particle.pooledEffect.setPosition(transform.pos.x, transform.pos.y);
+        setEffectPosition(particle, transform.pos.x, transform.pos.y);
     }
     
     private void updateTailParticle(Entity entity, ParticleComponent particle) {
@@ -242,26 +332,46 @@ public class ParticleSystem extends IteratingSystem implements EntityListener, D
         float rot = particle.angle + (transform.rotation * MathUtils.radDeg + 180);
         float thicc = Mappers.texture.get(entity).scale * 2f;
         
-        Array<ParticleEmitter> emitters = particle.pooledEffect.getEmitters();
-        for (int i = 0; i < emitters.size; i++) {
-            //set angle to always point out at tail of projectile
-            ParticleEmitter.ScaledNumericValue angle = emitters.get(i).getAngle();
-            angle.setHigh(rot);
-            angle.setLow(rot);
-            
-            //set rotation to always point out at tail of projectile
-            ParticleEmitter.ScaledNumericValue rotation = emitters.get(i).getRotation();
-            rotation.setHigh(rot);
-            rotation.setLow(rot);
-            
-            //set thickness to match texture
-            ParticleEmitter.ScaledNumericValue thickness = emitters.get(i).getYScale();
-            thickness.setHigh(thicc);
-            thickness.setLow(thicc);
+        //projectiles fly straight, so this rarely changes after the first frame
+        if (rot != particle.appliedAngle || thicc != particle.appliedThickness) {
+            Array<ParticleEmitter> emitters = particle.pooledEffect.getEmitters();
+            for (int i = 0; i < emitters.size; i++) {
+                //set angle to always point out at tail of projectile
+                ParticleEmitter.ScaledNumericValue angle = emitters.get(i).getAngle();
+                angle.setHigh(rot);
+                angle.setLow(rot);
+                
+                //set rotation to always point out at tail of projectile
+                ParticleEmitter.ScaledNumericValue rotation = emitters.get(i).getRotation();
+                rotation.setHigh(rot);
+                rotation.setLow(rot);
+                
+                //set thickness to match texture
+                ParticleEmitter.ScaledNumericValue thickness = emitters.get(i).getYScale();
+                thickness.setHigh(thicc);
+                thickness.setLow(thicc);
+            }
+            particle.appliedAngle = rot;
+            particle.appliedThickness = thicc;
         }
         
         particle.offset.setAngleDeg(rot);
-        particle.pooledEffect.setPosition(transform.pos.x + particle.offset.x, transform.pos.y + particle.offset.y);
+        setEffectPosition(particle, transform.pos.x + particle.offset.x, transform.pos.y + particle.offset.y);
+    }
+    
+    private void setEffectPosition(ParticleComponent particle, float x, float y) {
+        particle.pooledEffect.setPosition(x, y);
+        effectPos.set(x, y);
+        effectPositioned = true;
+    }
+    
+    public CharSequence getParticleInfo() {
+        infoBuilder.setLength(0);
+        infoBuilder.append("[Particles] active: ").append(activeParticles).append("/").append(particleBudget);
+        infoBuilder.append(" effects: ").append(visibleEffects).append(" (far: ").append(farEffects).append(" culled: ").append(culledEffects);
+        infoBuilder.append(")  emission: ").append(emissionScale);
+        infoBuilder.append(" time: ").append(MathUtils.round(updateTimeNanos / 1000f) / 1000f).append("ms");
+        return infoBuilder;
     }
     
     public void initializeParticleFromPool(ParticleComponent particle) {
@@ -352,7 +462,6 @@ public class ParticleSystem extends IteratingSystem implements EntityListener, D
         tailEffect.dispose();
         shieldEffect.dispose();
         explodeEffect.dispose();
-        spriteBatch.dispose();
     }
     
 }
@@ -0,0 +1,348 @@
+package com.spaceproject.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.spaceproject.components.AIComponent;
+import com.spaceproject.components.AsteroidBeltComponent;
+import com.spaceproject.components.AsteroidComponent;
+import com.spaceproject.components.CamTargetComponent;
+import com.spaceproject.components.ChargeCannonComponent;
+import com.spaceproject.components.ControlFocusComponent;
+import com.spaceproject.components.DamageComponent;
+import com.spaceproject.components.ExpireComponent;
+import com.spaceproject.components.HealthComponent;
+import com.spaceproject.components.RemoveComponent;
+import com.spaceproject.components.RingEffectComponent;
+import com.spaceproject.components.ShieldComponent;
+import com.spaceproject.components.SplineComponent;
+import com.spaceproject.components.Sprite3DComponent;
+import com.spaceproject.components.TransformComponent;
+import com.spaceproject.components.VehicleComponent;
+import com.spaceproject.events.EventBus;
+import com.spaceproject.events.ImpactEvent;
+import com.spaceproject.events.SoundEvent;
+import com.spaceproject.screens.GameScreen;
+import com.spaceproject.utility.ContactBuffer;
+import com.spaceproject.utility.ECSUtil;
+import com.spaceproject.utility.Mappers;
+import com.spaceproject.utility.SimpleTimer;
+
+/**
+ * Resolves the contacts recorded by the PhysicsContactListener during world.step: damage, shatter, hit effects and sounds.
+ * Runs after the Box2DPhysicsSystem, so bodies and entities can be changed freely.
+ */
+public class PhysicsContactSystem extends EntitySystem {
+    
+    private final int asteroidDamageThreshold = 15000; //impulse threshold to apply damage caused by impact
+    private final float asteroidBreakOrbitThreshold = 250;
+    private final int vehicleDamageThreshold = 15; //impulse threshold to apply damage to vehicles
+    private final float impactMultiplier = 0.1f; //how much damage relative to impulse
+    
+    private ContactBuffer contacts;
+    private ProjectilePoolSystem projectilePool;
+    private EventBus events;
+    private int resolved;
+    private final StringBuilder info = new StringBuilder();
+    
+    @Override
+    public void addedToEngine(Engine engine) {
+        Box2DPhysicsSystem physics = engine.getSystem(Box2DPhysicsSystem.class);
+        if (physics == null) {
+            Gdx.app.error(getClass().getSimpleName(), "requires " + Box2DPhysicsSystem.class.getSimpleName());
+            return;
+        }
+        contacts = physics.getContacts();
+        events = GameScreen.getEvents();
+    }
+    
+    @Override
+    public void removedFromEngine(Engine engine) {
+        if (contacts != null) {
+            contacts.clear();
+        }
+        contacts = null;
+        projectilePool = null;
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+        if (contacts == null) return;
+        
+        //may be loaded after this system
+        if (projectilePool == null) {
+            projectilePool = getEngine().getSystem(ProjectilePoolSystem.class);
+        }
+        
+        resolved = contacts.size();
+        for (int i = 0; i < contacts.size(); i++) {
+            Entity a = contacts.getEntityA(i);
+            Entity b = contacts.getEntityB(i);
+            if (contacts.getType(i) == ContactBuffer.BEGIN) {
+                onCollision(a, b, contacts.getX(i), contacts.getY(i));
+            } else {
+                onImpact(a, b, contacts.getImpulse(i));
+            }
+        }
+        contacts.clear();
+    }
+    
+    private void onImpact(Entity entityA, Entity entityB, float impulse) {
+        AsteroidComponent asteroidA = Mappers.asteroid.get(entityA);
+        if (asteroidA != null) {
+            asteroidImpact(entityA, asteroidA, impulse);
+        }
+        AsteroidComponent asteroidB = Mappers.asteroid.get(entityB);
+        if (asteroidB != null) {
+            asteroidImpact(entityB, asteroidB, impulse);
+        }
+        
+        VehicleComponent vehicleA = Mappers.vehicle.get(entityA);
+        if (vehicleA != null) {
+            doVehicleDamage(entityA, impulse);
+        }
+        VehicleComponent vehicleB = Mappers.vehicle.get(entityB);
+        if (vehicleB != null) {
+            doVehicleDamage(entityB, impulse);
+        }
+    }
+    
+    private void asteroidImpact(Entity entity, AsteroidComponent asteroid, float impulse) {
+        if (impulse > asteroidBreakOrbitThreshold) {
+            if (asteroid.parentOrbitBody != null) {
+                AsteroidBeltComponent circumstellar = Mappers.asteroidBelt.get(asteroid.parentOrbitBody);
+                //if (circumstellar.spawnTimer != null && circumstellar.spawnTimer.canDoEvent()) {
+                if (circumstellar.spawned == circumstellar.maxSpawn) {
+                    asteroid.parentOrbitBody = null;
+                    //Gdx.app.debug(this.getClass().getSimpleName(), "ASTEROID knocked out of orbit: " + impulse);
+                }
+            }
+        }
+        
+        if (impulse > asteroidDamageThreshold) {
+            //calc damage relative to size of bodies and how hard impact impulse was
+            float relativeDamage = (impulse * impactMultiplier) * asteroid.area;
+            
+            //damage (potential could be optimization to remove health, add merge it with asteroid, one less mapper)
+            HealthComponent health = Mappers.health.get(entity);
+            health.health -= relativeDamage;
+            health.lastHit = GameScreen.getGameTimeCurrent();
+            if (health.health <= 0 && !asteroid.doShatter) {
+                asteroid.doShatter = true;
+                entity.add(getEngine().createComponent(RemoveComponent.class));
+                playSound(SoundEvent.Type.asteroidShatter, 1);
+                //Gdx.app.debug(this.getClass().getSimpleName(), "ASTEROID shatter: " + impulse + " -> damage: " + relativeDamage);
+            }
+        }
+    }
+    
+    private void doVehicleDamage(Entity entity, float impulse) {
+        //calc damage relative to how hard impact impulse was
+        float damageMultiplier = 0.4f;
+        float relativeDamage = (impulse * damageMultiplier);
+        
+        //don't apply damage while shield active
+        ShieldComponent shield = Mappers.shield.get(entity);
+        if (shield != null && shield.state == ShieldComponent.State.on) {
+            //todo: break shield if impact is hard enough
+            //int shieldBreakThreshold = 500;
+            //if (impulse > shieldBreakThreshold) { }
+            
+            playSound(SoundEvent.Type.shieldImpact, 1);
+            
+            Gdx.app.debug(this.getClass().getSimpleName(),
+                    "impulse: " + impulse + " -> " + relativeDamage +
+                            ((impulse < vehicleDamageThreshold) ? " - <shield protect>" : "DAMAGED!")
+            );
+            return; //protected by shield
+        }
+        
+        
+        if (impulse < vehicleDamageThreshold) {
+            //contacts below 1 are not recorded
+            //todo: scrapping dragging hull across asteroid
+            playSound(SoundEvent.Type.hullImpactLight, impulse / vehicleDamageThreshold);
+            return;
+        }
+        
+        
+        
+        Gdx.app.debug(this.getClass().getSimpleName(), "high impact damage: " + impulse + " -> -" + relativeDamage);
+        
+        HealthComponent health = Mappers.health.get(entity);
+        if (health != null) {
+            health.health -= relativeDamage;
+            health.lastHit = GameScreen.getGameTimeCurrent();
+            if (health.health <= 0) {
+                entity.add(getEngine().createComponent(RemoveComponent.class));
+                Gdx.app.debug(this.getClass().getSimpleName(), "vehicle destroyed: " + impulse + " -> damage: " + relativeDamage);
+            }
+        }
+        
+        ControlFocusComponent controlled = Mappers.controlFocus.get(entity);
+        if (controlled != null) {
+            //controller vibration and camera reset
+            events.post(events.obtain(ImpactEvent.class).set(entity, impulse));
+            playSound(SoundEvent.Type.hullImpactHeavy, 1);
+        }
+    }
+    
+    private void onCollision(Entity a, Entity b, float x, float y) {
+        //todo: collision filtering: http://www.iforce2d.net/b2dtut/collision-filtering
+        DamageComponent damageA = Mappers.damage.get(a);
+        DamageComponent damageB = Mappers.damage.get(b);
+        HealthComponent healthA = Mappers.health.get(a);
+        HealthComponent healthB = Mappers.health.get(b);
+        
+        if (damageA != null && healthB != null) {
+            onAttacked(a, b, damageA, healthB, x, y);
+        }
+        if (damageB != null && healthA != null) {
+            onAttacked(b, a, damageB, healthA, x, y);
+        }
+    }
+    
+    private void onAttacked(Entity damageEntity, Entity attackedEntity, DamageComponent damageComponent, HealthComponent healthComponent, float x, float y) {
+        if (damageComponent.source == attackedEntity) {
+            return; //ignore self-inflicted damage
+        }
+        if (Mappers.remove.get(damageEntity) != null) {
+            return; //projectile already spent on something else this frame
+        }
+        /*
+        Gdx.app.debug(this.getClass().getSimpleName(),
+                "[" + DebugUtil.objString(attackedEntity) + "] attacked by: [" + DebugUtil.objString(damageComponent.source) + "]");
+        */
+        
+        //check if attacked entity was AI
+        AIComponent ai = Mappers.AI.get(attackedEntity);
+        if (ai != null) {
+            //focus camera on target
+            attackedEntity.add(getEngine().createComponent(CamTargetComponent.class));
+            
+            //focus ai on player
+            ai.attackTarget = damageComponent.source;
+            ai.state = AIComponent.State.attack;
+        } else if (Mappers.controlFocus.get(damageEntity) != null) {
+            //someone attacked player, focus on enemy
+            damageEntity.add(getEngine().createComponent(CamTargetComponent.class));
+        }
+        
+        //check for shield
+        ShieldComponent shieldComp = Mappers.shield.get(attackedEntity);
+        if ((shieldComp != null) && (shieldComp.state == ShieldComponent.State.on)) {
+            //todo: "break effect", sound effect, particle effect
+            //shieldComp.state == ShieldComponent.State.break;??
+            damageEntity.add(getEngine().createComponent(RemoveComponent.class));
+            return;
+        }
+        
+        //add roll to hit body
+        Sprite3DComponent sprite3D = Mappers.sprite3D.get(attackedEntity);
+        if (sprite3D != null) {
+            float roll = 50 * MathUtils.degRad;
+            sprite3D.renderable.angle += MathUtils.randomBoolean() ? roll : -roll;
+        }
+        
+        
+        //do damage
+        healthComponent.health -= damageComponent.damage;
+        healthComponent.lastHit = GameScreen.getGameTimeCurrent();
+        
+        //remove entity (kill)
+        if (healthComponent.health <= 0) {
+            //if entity was part of a cluster, remove all entities attached to cluster
+            Array<Entity> cluster = ECSUtil.getAttachedEntities(getEngine(), attackedEntity);
+            for (Entity e : cluster) {
+                e.add(getEngine().createComponent(RemoveComponent.class));
+            }
+            
+            //if entity was charging a projectile, make sure the projectile entity is also removed
+            ChargeCannonComponent chargeCannon = Mappers.chargeCannon.get(attackedEntity);
+            if (chargeCannon != null && chargeCannon.projectileEntity != null) {
+                //destroy or release
+                chargeCannon.projectileEntity.add(getEngine().createComponent(RemoveComponent.class));
+            }
+            
+            //if entity was asteroid, shatter
+            AsteroidComponent asteroid = Mappers.asteroid.get(attackedEntity);
+            if (asteroid != null && !asteroid.doShatter) {
+                asteroid.doShatter = true;
+                playSound(SoundEvent.Type.asteroidShatter, 1);
+            }
+            
+            /*
+            Gdx.app.log(this.getClass().getSimpleName(),
+                    "[" + DebugUtil.objString(attackedEntity) + "] killed by: [" + DebugUtil.objString(damageComponent.source) + "]");
+             */
+        }
+        
+        //add projectile ghost (fx)
+        explodeProjectile(damageEntity, attackedEntity, healthComponent, x, y, true);
+        
+        //remove projectile
+        damageEntity.add(getEngine().createComponent(RemoveComponent.class));
+    }
+    
+    private void explodeProjectile(Entity entityHit, Entity attackedEntity, HealthComponent health, float x, float y, boolean showGhost) {
+        //create entity at point of contact
+        Entity contactP = projectilePool != null ? projectilePool.obtainHitEffect(x, y) : createHitEffect(x, y);
+        //todo: transfer velocity from object hit
+        
+        //todo: better particle this one is ugly
+        //ParticleComponent particle = new ParticleComponent();
+        //particle.type = ParticleComponent.EffectType.bulletExplode;
+        //contactP.add(particle);
+        
+        if (showGhost) {
+            SplineComponent transferred = (SplineComponent) ECSUtil.transferComponent(entityHit, contactP, SplineComponent.class);
+            if (transferred != null) {
+                transferred.color = projectilePool != null ? projectilePool.obtainGhostColor() : new Color();
+                transferred.color.set(0, 0, 0, 0.15f);
+                AsteroidComponent asteroid = Mappers.asteroid.get(attackedEntity);
+                if (asteroid != null) {
+                    
+                    //only color when asteroid destroyed
+                    if (health.health <= 0) {
+                        transferred.color.set(asteroid.color).a = 0.75f;
+                    }
+                }
+                transferred.style = SplineComponent.Style.solid;
+            }
+        }
+        
+        getEngine().addEntity(contactP);
+    }
+    
+    private Entity createHitEffect(float x, float y) {
+        Entity contactP = new Entity();
+        
+        TransformComponent trans = new TransformComponent();
+        trans.pos.set(x, y);
+        contactP.add(trans);
+        
+        contactP.add(new RingEffectComponent());
+        
+        ExpireComponent expire = new ExpireComponent();
+        expire.timer = new SimpleTimer(2000, true);
+        contactP.add(expire);
+        
+        return contactP;
+    }
+    
+    private void playSound(SoundEvent.Type type, float value) {
+        events.post(events.obtain(SoundEvent.class).set(type, value));
+    }
+    
+    public CharSequence getContactInfo() {
+        info.setLength(0);
+        info.append("[Contacts] resolved: ").append(resolved);
+        info.append(" peak: ").append(contacts == null ? 0 : contacts.getPeak());
+        return info;
+    }
+    
+}
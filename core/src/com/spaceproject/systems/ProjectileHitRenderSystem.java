@@ -4,42 +4,29 @@ package com.spaceproject.systems;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.systems.IteratingSystem;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.utils.Disposable;
 import com.spaceproject.components.RingEffectComponent;
 import com.spaceproject.components.TransformComponent;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.utility.Mappers;
 
-public class ProjectileHitRenderSystem extends IteratingSystem implements Disposable {
+public class ProjectileHitRenderSystem extends IteratingSystem {
     
-    private final ShapeRenderer shape;
+    private final RenderPipeline pipeline;
+    private ShapeRenderer shape;
     private final float growthRate = 2.0f;
     
     public ProjectileHitRenderSystem() {
         super(Family.all(TransformComponent.class, RingEffectComponent.class).get());
-        shape = new ShapeRenderer();
+        pipeline = GameScreen.pipeline;
     }
     
     @Override
     public void update(float delta) {
-        //update matrix and convert screen coords to world cords.
-        //projectionMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        shape.setProjectionMatrix(GameScreen.cam.combined);
-        
-        //enable transparency
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-        
         //render
-        shape.begin(ShapeRenderer.ShapeType.Line);
+        shape = pipeline.shape("projectile hits", GameScreen.cam.combined, ShapeRenderer.ShapeType.Line);
         super.update(delta);
-        shape.end();
-        
-        //disable transparency
-        Gdx.gl.glDisable(GL20.GL_BLEND);
     }
     
     @Override
@@ -51,9 +38,4 @@ public class ProjectileHitRenderSystem extends IteratingSystem implements Dispos
         shape.circle(t.pos.x, t.pos.y, ring.radius);
     }
     
-    @Override
-    public void dispose() {
-        shape.dispose();
-    }
-    
 }
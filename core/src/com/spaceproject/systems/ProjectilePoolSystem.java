@@ -0,0 +1,306 @@
+package com.spaceproject.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Pools;
+import com.spaceproject.SpaceProject;
+import com.spaceproject.components.CannonComponent;
+import com.spaceproject.components.DamageComponent;
+import com.spaceproject.components.ExpireComponent;
+import com.spaceproject.components.ParticleComponent;
+import com.spaceproject.components.PhysicsComponent;
+import com.spaceproject.components.PooledComponent;
+import com.spaceproject.components.RemoveComponent;
+import com.spaceproject.components.RingEffectComponent;
+import com.spaceproject.components.SplineComponent;
+import com.spaceproject.components.TextureComponent;
+import com.spaceproject.components.TransformComponent;
+import com.spaceproject.config.EngineConfig;
+import com.spaceproject.config.RenderOrder;
+import com.spaceproject.generation.BodyFactory;
+import com.spaceproject.generation.RuntimeAtlas;
+import com.spaceproject.generation.TextureFactory;
+import com.spaceproject.utility.Mappers;
+import com.spaceproject.utility.SimpleTimer;
+
+/**
+ * Recycles cannon projectiles and their hit effects instead of creating and disposing them per shot.
+ * Pooled entities are marked with a {@link PooledComponent}: the ResourceDisposer deactivates their body
+ * instead of destroying it, and they are returned to their pool once removed from the engine.
+ * All pooled missiles share a single texture region.
+ */
+public class ProjectilePoolSystem extends EntitySystem implements EntityListener, Disposable {
+    
+    private static final EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
+    private final long missileLifetime = 20000;
+    private final long hitEffectLifetime = 2000;
+    
+    private final TextureRegion projectileRegion = TextureFactory.acquireProjectile();
+    
+    private final Pool<Entity> missilePool = new Pool<Entity>() {
+        @Override
+        protected Entity newObject() {
+            createdMissiles++;
+            return createPooledMissile();
+        }
+        
+        @Override
+        protected void discard(Entity entity) {
+            PhysicsComponent physics = Mappers.physics.get(entity);
+            physics.body.getWorld().destroyBody(physics.body);
+        }
+    };
+    
+    private final Pool<Entity> hitEffectPool = new Pool<Entity>() {
+        @Override
+        protected Entity newObject() {
+            createdHitEffects++;
+            return createPooledHitEffect();
+        }
+    };
+    
+    private final Pool<SplineComponent> splinePool = new Pool<SplineComponent>() {
+        @Override
+        protected SplineComponent newObject() {
+            return new SplineComponent();
+        }
+    };
+    
+    //removed from the engine this frame, recycled on next update (not during the engine's removal notification)
+    private final Array<Entity> pendingFree = new Array<>(false, 64);
+    private final Vector2 tmpPos = new Vector2();
+    private final Vector2 tmpVel = new Vector2();
+    
+    //obtained and not yet recycled, their bodies are destroyed on dispose along with the free ones
+    private final Array<Entity> activeMissiles = new Array<>(false, 64);
+    private int activeHitEffects;
+    private int createdMissiles, createdHitEffects;
+    private final StringBuilder infoBuilder = new StringBuilder();
+    
+    @Override
+    public void addedToEngine(Engine engine) {
+        engine.addEntityListener(Family.all(PooledComponent.class).get(), this);
+    }
+    
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+        for (Entity entity : pendingFree) {
+            recycle(entity);
+        }
+        pendingFree.clear();
+    }
+    
+    @Override
+    public void entityAdded(Entity entity) { }
+    
+    @Override
+    public void entityRemoved(Entity entity) {
+        pendingFree.add(entity);
+    }
+    
+    public Entity obtainMissile(CannonComponent cannon, Entity parentEntity) {
+        Entity entity = missilePool.obtain();
+        activeMissiles.add(entity);
+        
+        //physics
+        TransformComponent parentTransform = Mappers.transform.get(parentEntity);
+        Vector2 spawnPos = tmpPos.set(cannon.anchorVec).rotateRad(parentTransform.rotation).add(parentTransform.pos);
+        float rot = parentTransform.rotation + cannon.aimAngle;
+        Vector2 sourceVel = Mappers.physics.get(parentEntity).body.getLinearVelocity();
+        Vector2 projectileVel = tmpVel.set(cannon.velocity, 0).setAngleRad(rot).add(sourceVel);
+        
+        Body body = Mappers.physics.get(entity).body;
+        body.setTransform(spawnPos, rot);
+        body.setLinearVelocity(projectileVel);
+        body.setAngularVelocity(0);
+        body.setActive(true);
+        body.setAwake(true);
+        
+        TransformComponent transform = Mappers.transform.get(entity);
+        transform.pos.set(body.getPosition());
+        transform.rotation = body.getAngle();
+        
+        //missile damage
+        DamageComponent damage = Mappers.damage.get(entity);
+        damage.damage = cannon.damage;
+        damage.source = parentEntity;
+        
+        //expire time (self destruct)
+        Mappers.expire.get(entity).timer.reset();
+        
+        return entity;
+    }
+    
+    public Entity obtainHitEffect(float x, float y) {
+        Entity entity = hitEffectPool.obtain();
+        activeHitEffects++;
+        
+        Mappers.transform.get(entity).pos.set(x, y);
+        Mappers.ring.get(entity).radius = 0;
+        Mappers.expire.get(entity).timer.reset();
+        
+        return entity;
+    }
+    
+    /** Ghost color for a spline transferred to a hit effect. Returned to the pool when the hit effect is recycled. */
+    public Color obtainGhostColor() {
+        return Pools.obtain(Color.class);
+    }
+    
+    private void recycle(Entity entity) {
+        //flags and state from the previous life
+        entity.remove(RemoveComponent.class);
+        
+        PooledComponent pooled = Mappers.pooled.get(entity);
+        switch (pooled.type) {
+            case missile:
+                recycleMissile(entity);
+                missilePool.free(entity);
+                activeMissiles.removeValue(entity, true);
+                break;
+            case hitEffect:
+                recycleHitEffect(entity);
+                hitEffectPool.free(entity);
+                activeHitEffects--;
+                break;
+        }
+    }
+    
+    private void recycleMissile(Entity entity) {
+        //body should already be deactivated by ResourceDisposer, make sure it is out of the simulation
+        Mappers.physics.get(entity).body.setActive(false);
+        
+        Mappers.damage.get(entity).source = null;
+        
+        //effect was returned to its pool by the ParticleSystem on removal. the next effect starts from its pool's
+        //settings, so forget what was applied to the last one
+        ParticleComponent particle = Mappers.particle.get(entity);
+        particle.pooledEffect = null;
+        particle.appliedAngle = Float.NaN;
+        particle.appliedThickness = Float.NaN;
+        particle.appliedTint = null;
+        particle.emissionScale = -1;
+        particle.skippedTime = 0;
+        
+        //trail may have been given to a hit effect as a ghost
+        SplineComponent spline = Mappers.spline.get(entity);
+        if (spline == null) {
+            spline = splinePool.obtain();
+            entity.add(spline);
+        }
+        spline.reset();
+    }
+    
+    private void recycleHitEffect(Entity entity) {
+        SplineComponent ghost = entity.remove(SplineComponent.class);
+        if (ghost != null) {
+            if (ghost.color != null) {
+                Pools.free(ghost.color);
+            }
+            splinePool.free(ghost);//reset by pool
+        }
+    }
+    
+    private Entity createPooledMissile() {
+        Entity entity = new Entity();
+        
+        PooledComponent pooled = new PooledComponent();
+        pooled.type = PooledComponent.PoolType.missile;
+        entity.add(pooled);
+        
+        TextureComponent texture = new TextureComponent();
+        texture.region = projectileRegion;
+        texture.scale = engineCFG.bodyScale;
+        entity.add(texture);
+        
+        //body is created once and activated / deactivated as the missile is obtained / freed
+        float bodyWidth = texture.region.getRegionWidth() * texture.scale;
+        float bodyHeight = texture.region.getRegionHeight() * texture.scale;
+        PhysicsComponent physics = new PhysicsComponent();
+        physics.body = BodyFactory.createRect(0, 0, bodyWidth, bodyHeight, BodyDef.BodyType.DynamicBody, entity);
+        physics.body.setBullet(true);//turn on CCD
+        physics.body.setActive(false);
+        entity.add(physics);
+        
+        TransformComponent transform = new TransformComponent();
+        transform.zOrder = RenderOrder.PROJECTILES.getHierarchy();
+        entity.add(transform);
+        
+        ExpireComponent expire = new ExpireComponent();
+        expire.timer = new SimpleTimer(missileLifetime);
+        entity.add(expire);
+        
+        entity.add(new DamageComponent());
+        
+        //particle fx -> trailing effect
+        ParticleComponent particle = new ParticleComponent();
+        particle.type = ParticleComponent.EffectType.projectileTrail;
+        particle.offset = new Vector2();
+        entity.add(particle);
+        
+        entity.add(splinePool.obtain());
+        
+        return entity;
+    }
+    
+    private Entity createPooledHitEffect() {
+        Entity entity = new Entity();
+        
+        PooledComponent pooled = new PooledComponent();
+        pooled.type = PooledComponent.PoolType.hitEffect;
+        entity.add(pooled);
+        
+        entity.add(new TransformComponent());
+        entity.add(new RingEffectComponent());
+        
+        ExpireComponent expire = new ExpireComponent();
+        expire.timer = new SimpleTimer(hitEffectLifetime);
+        entity.add(expire);
+        
+        return entity;
+    }
+    
+    public CharSequence getPoolInfo() {
+        infoBuilder.setLength(0);
+        infoBuilder.append("[Projectile Pool] missiles: ").append(activeMissiles.size);
+        infoBuilder.append(" (free: ").append(missilePool.getFree());
+        infoBuilder.append(" created: ").append(createdMissiles);
+        infoBuilder.append(")  hits: ").append(activeHitEffects);
+        infoBuilder.append(" (free: ").append(hitEffectPool.getFree());
+        infoBuilder.append(" created: ").append(createdHitEffects).append(')');
+        return infoBuilder;
+    }
+    
+    @Override
+    public void dispose() {
+        //ResourceDisposer only deactivates pooled bodies, destroy those of missiles still in flight
+        for (Entity entity : activeMissiles) {
+            PhysicsComponent physics = Mappers.physics.get(entity);
+            physics.body.getWorld().destroyBody(physics.body);
+            physics.body = null;
+        }
+        activeMissiles.clear();
+        //destroys bodies of free missiles
+        missilePool.clear();
+        hitEffectPool.clear();
+        splinePool.clear();
+        RuntimeAtlas.release(projectileRegion);
+    }
+    
+}
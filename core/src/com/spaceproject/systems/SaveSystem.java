@@ -0,0 +1,89 @@
+package com.spaceproject.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.Gdx;
+import com.spaceproject.SpaceProject;
+import com.spaceproject.components.ControlFocusComponent;
+import com.spaceproject.components.OrbitComponent;
+import com.spaceproject.components.PhysicsComponent;
+import com.spaceproject.components.TransformComponent;
+import com.spaceproject.config.EngineConfig;
+import com.spaceproject.save.SaveManager;
+import com.spaceproject.save.WorldState;
+import com.spaceproject.screens.GameScreen;
+import com.spaceproject.utility.SimpleTimer;
+
+import java.io.IOException;
+
+/**
+ * Autosaves the world in space every engineCFG.autosaveInterval and when unloaded with the game.
+ * The world is copied on the game thread (WorldState) and written by the SaveManager in the background, so saving doesn't hitch the frame.
+ * Loaded by GameScreen on start, see engineCFG.loadSave.
+ */
+public class SaveSystem extends EntitySystem {
+    
+    private final EngineConfig engineCFG = SpaceProject.configManager.getConfig(EngineConfig.class);
+    private ImmutableArray<Entity> entities;
+    private ImmutableArray<Entity> players;
+    private SaveManager saveManager;
+    private SimpleTimer autosaveTimer;
+    private int skipped;
+    private final StringBuilder info = new StringBuilder();
+    
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(Family.all(TransformComponent.class, PhysicsComponent.class).exclude(OrbitComponent.class).get());
+        players = engine.getEntitiesFor(Family.all(ControlFocusComponent.class, TransformComponent.class).get());
+        saveManager = new SaveManager(SaveManager.getDefaultDirectory());
+        if (engineCFG.autosaveInterval > 0) {
+            autosaveTimer = new SimpleTimer(engineCFG.autosaveInterval, true);
+        }
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+        if (autosaveTimer == null || !autosaveTimer.tryEvent() || players.size() == 0) return;
+        
+        //previous save still writing: don't copy the world just to drop it, try again next interval
+        if (saveManager.isSaving()) {
+            skipped++;
+            return;
+        }
+        saveManager.saveAsync(capture());
+    }
+    
+    @Override
+    public void removedFromEngine(Engine engine) {
+        //wait for an autosave in progress, then write the final state on this thread
+        WorldState state = players.size() == 0 ? null : capture();
+        saveManager.dispose();
+        //entities already removed (eg: landing): keep the last save
+        if (state == null) return;
+        
+        try {
+            saveManager.save(state);
+            Gdx.app.log(getClass().getSimpleName(), saveManager.getInfo().toString());
+        } catch (IOException e) {
+            Gdx.app.error(getClass().getSimpleName(), "Could not save: " + SaveManager.getDefaultDirectory().path(), e);
+        }
+    }
+    
+    private WorldState capture() {
+        return WorldState.capture(GameScreen.getGalaxySeed(), GameScreen.getGameTimeCurrent(), entities, players.first(), engineCFG.saveSectorSize);
+    }
+    
+    public CharSequence getInfo() {
+        info.setLength(0);
+        info.append(saveManager.getInfo());
+        if (saveManager.isSaving()) {
+            info.append(" (saving)");
+        }
+        info.append(" skipped: ").append(skipped);
+        return info;
+    }
+    
+}
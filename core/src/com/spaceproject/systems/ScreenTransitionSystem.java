@@ -17,6 +17,7 @@ import com.spaceproject.components.ScreenTransitionComponent;
 import com.spaceproject.components.SeedComponent;
 import com.spaceproject.components.Sprite3DComponent;
 import com.spaceproject.components.TransformComponent;
+import com.spaceproject.generation.Ephemeris;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.screens.MyScreenAdapter;
 import com.spaceproject.ui.ScreenTransitionOverlay;
@@ -42,6 +43,7 @@ public class ScreenTransitionSystem extends IteratingSystem implements IRequireG
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
+        MyScreenAdapter.pipeline.custom("screen transition");
         screenOverlay.render();
     }
     
@@ -315,7 +317,22 @@ public class ScreenTransitionSystem extends IteratingSystem implements IRequireG
         MyScreenAdapter.cam.position.set(lastKnownPlanetPosition, MyScreenAdapter.cam.position.z);
         Gdx.app.debug(this.getClass().getSimpleName(), "Set entity to last known planet position: " + lastKnownPlanetPosition);
         
-        //wait for planet to load (astronomical bodies are loaded by another system)
+        //place at the planet's position now, from the ephemeris. no need to wait for its system to load
+        Ephemeris.Body body = Ephemeris.findBody(desiredSeed);
+        if (body != null) {
+            long time = GameScreen.getGameTimeCurrent();
+            Vector2 syncPos = Ephemeris.getPosition(body, time, new Vector2());
+            playerBody.setTransform(syncPos, playerBody.getAngle());
+            playerBody.setLinearVelocity(Ephemeris.getVelocity(body, time, new Vector2()));
+            playerTransform.pos.set(syncPos);
+            MyScreenAdapter.cam.position.set(syncPos, MyScreenAdapter.cam.position.z);
+            
+            Gdx.app.log(this.getClass().getSimpleName(), "Sync position from ephemeris " + syncPos);
+            nextStage(screenTrans);
+            return;
+        }
+        
+        //not a generated body (eg: debug), wait for planet to load (astronomical bodies are loaded by another system)
         Family astro = Family.all(PlanetComponent.class, SeedComponent.class).get();
         ImmutableArray<Entity> astroObjects = getEngine().getEntitiesFor(astro);
         for (Entity astroEnt : astroObjects) {
@@ -326,7 +343,7 @@ public class ScreenTransitionSystem extends IteratingSystem implements IRequireG
                 Vector2 syncPos = Mappers.transform.get(astroEnt).pos;
                 OrbitComponent orbitComp = Mappers.orbit.get(astroEnt);
                 if (orbitComp != null && orbitComp.parent != null) {
-                    syncPos = OrbitSystem.getTimeSyncedPos(orbitComp, GameScreen.getGameTimeCurrent());
+                    syncPos = OrbitSystem.getTimeSyncedPos(orbitComp, GameScreen.getGameTimeCurrent(), new Vector2());
                 }
                 
                 playerBody.setTransform(syncPos, playerBody.getAngle());
@@ -3,72 +3,60 @@ package com.spaceproject.systems;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.systems.IteratingSystem;
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.utils.Disposable;
 import com.spaceproject.components.ShieldComponent;
 import com.spaceproject.components.TransformComponent;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.utility.Mappers;
 
-public class ShieldRenderSystem extends IteratingSystem implements Disposable {
+public class ShieldRenderSystem extends IteratingSystem {
     
     private final OrthographicCamera cam;
-    private final ShapeRenderer shape;
+    private final RenderPipeline pipeline;
+    private ShapeRenderer shape;
     
     public ShieldRenderSystem() {
         super(Family.all(ShieldComponent.class, TransformComponent.class).get());
         cam = GameScreen.cam;
-        shape = new ShapeRenderer();
+        pipeline = GameScreen.pipeline;
     }
     
     @Override
     public void update(float delta) {
-        //enable transparency
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-    
-        shape.setProjectionMatrix(cam.combined);
-        
+        //draw all overlays then all outlines, so shields flush once per shape type instead of twice per entity
+        shape = pipeline.shape("shields", cam.combined, ShapeRenderer.ShapeType.Filled);
         super.update(delta);
         
-        Gdx.gl.glDisable(GL20.GL_BLEND);
+        shape = pipeline.shape("shields", cam.combined, ShapeRenderer.ShapeType.Line);
+        super.update(delta);
     }
     
     @Override
     protected void processEntity(Entity entity, float deltaTime) {
         TransformComponent transform = Mappers.transform.get(entity);
         ShieldComponent shield = Mappers.shield.get(entity);
-
-        Color c = shield.color;
         
-        //draw overlay
-        shape.begin(ShapeRenderer.ShapeType.Filled);
-        if (shield.state == ShieldComponent.State.on) {
-            shape.setColor(c.r, c.g, c.b, 0.25f);
-        } else {
-            shape.setColor(c.r, c.g, c.b, 0.15f);
-        }
-        shape.circle(transform.pos.x, transform.pos.y, shield.radius);
-        shape.end();//flush inside loop = bad! (allegedly)
+        Color c = shield.color;
         
-        //draw outline
-        shape.begin(ShapeRenderer.ShapeType.Line);
-        if (shield.state == ShieldComponent.State.on) {
-            shape.setColor(Color.WHITE);
+        if (shape.getCurrentType() == ShapeRenderer.ShapeType.Filled) {
+            //draw overlay
+            if (shield.state == ShieldComponent.State.on) {
+                shape.setColor(c.r, c.g, c.b, 0.25f);
+            } else {
+                shape.setColor(c.r, c.g, c.b, 0.15f);
+            }
         } else {
-            shape.setColor(c.r, c.g, c.b, 1f);
+            //draw outline
+            if (shield.state == ShieldComponent.State.on) {
+                shape.setColor(Color.WHITE);
+            } else {
+                shape.setColor(c.r, c.g, c.b, 1f);
+            }
         }
         shape.circle(transform.pos.x, transform.pos.y, shield.radius);
-        shape.end();//double flush inside same loop. im a horrible person ;p
-    }
-    
-    @Override
-    public void dispose() {
-        shape.dispose();
     }
     
 }
@@ -9,7 +9,10 @@ import com.spaceproject.components.ControlFocusComponent;
 import com.spaceproject.components.HyperDriveComponent;
 import com.spaceproject.components.PhysicsComponent;
 import com.spaceproject.components.ShieldComponent;
+import com.spaceproject.events.EventBus;
+import com.spaceproject.events.SoundEvent;
 import com.spaceproject.generation.BodyFactory;
+import com.spaceproject.screens.GameScreen;
 import com.spaceproject.utility.Mappers;
 
 public class ShieldSystem extends IteratingSystem {
@@ -32,7 +35,6 @@ public class ShieldSystem extends IteratingSystem {
             shield.state = ShieldComponent.State.off;
             shield.activate = false;
         }
-        SoundSystem sound = getEngine().getSystem(SoundSystem.class);
         ControlFocusComponent controlFocus = Mappers.controlFocus.get(entity);
         
         switch (shield.state) {
@@ -43,7 +45,7 @@ public class ShieldSystem extends IteratingSystem {
     
                 //stop loop if entity is controlled player
                 if (controlFocus != null) {
-                    sound.shieldAmbient(false);
+                    playSound(SoundEvent.Type.shieldAmbientStop);
                 }
                 break;
             case on:
@@ -53,7 +55,7 @@ public class ShieldSystem extends IteratingSystem {
     
                 //start loop if entity is controlled player
                 if (controlFocus != null) {
-                    long id = sound.shieldAmbient(true);//todo
+                    playSound(SoundEvent.Type.shieldAmbientStart);
                 }
                 break;
             case charge:
@@ -78,7 +80,7 @@ public class ShieldSystem extends IteratingSystem {
     
                     //if entity is controlled player
                     if (controlFocus != null) {
-                        sound.shieldOn();
+                        playSound(SoundEvent.Type.shieldOn);
                     }
                 }
                 break;
@@ -124,10 +126,14 @@ public class ShieldSystem extends IteratingSystem {
         //if entity is controlled player
         ControlFocusComponent controlFocus = Mappers.controlFocus.get(entity);
         if (controlFocus != null) {
-            SoundSystem sound = getEngine().getSystem(SoundSystem.class);
-            sound.shieldOff();
+            playSound(SoundEvent.Type.shieldOff);
         }
         
     }
     
+    private static void playSound(SoundEvent.Type type) {
+        EventBus events = GameScreen.getEvents();
+        events.post(events.obtain(SoundEvent.class).set(type, 1));
+    }
+    
 }
@@ -11,6 +11,7 @@ import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.Array;
 import com.spaceproject.SpaceProject;
 import com.spaceproject.components.CannonComponent;
 import com.spaceproject.components.ChargeCannonComponent;
@@ -42,6 +43,11 @@ public class ShipControlSystem extends IteratingSystem {
     
     private final EntityConfig entityCFG = SpaceProject.configManager.getConfig(EntityConfig.class);
     private ImmutableArray<Entity> planets;
+    private final Family planetFamily = Family.all(PlanetComponent.class, TransformComponent.class).get();
+    private final float planetCellSize = 5000f;
+    //radius of the largest planet this frame, bounds the planet query
+    private float maxPlanetRadius;
+    private final Array<Entity> nearPlanets = new Array<>();
     
     public ShipControlSystem() {
         super(Family.all(ControllableComponent.class, TransformComponent.class, VehicleComponent.class).exclude(ScreenTransitionComponent.class).get());
@@ -50,7 +56,16 @@ public class ShipControlSystem extends IteratingSystem {
     @Override
     public void addedToEngine(Engine engine) {
         super.addedToEngine(engine);
-        planets = engine.getEntitiesFor(Family.all(PlanetComponent.class).get());
+        planets = engine.getEntitiesFor(planetFamily);
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+        maxPlanetRadius = 0;
+        for (Entity planet : planets) {
+            maxPlanetRadius = Math.max(maxPlanetRadius, getPlanetRadius(planet));
+        }
+        super.update(deltaTime);
     }
     
     @Override
@@ -185,7 +200,9 @@ public class ShipControlSystem extends IteratingSystem {
         //set camera
         if (Mappers.camFocus.get(characterEntity) != null) {
             CameraSystem cameraSystem = getEngine().getSystem(CameraSystem.class);
-            cameraSystem.setZoomToDefault(characterEntity);
+            if (cameraSystem != null) {
+                cameraSystem.setZoomToDefault(characterEntity);
+            }
         }
         
         // remove driver reference from vehicle
@@ -307,16 +324,38 @@ public class ShipControlSystem extends IteratingSystem {
     }
     
     private Entity getPlanetNearPosition(Vector2 pos) {
+        SpatialHashSystem spatialHash = getEngine().getSystem(SpatialHashSystem.class);
+        if (spatialHash != null) {
+            //the nearest center can belong to a small planet while pos is over a larger neighbour, check each in reach
+            nearPlanets.clear();
+            spatialHash.getIndex(planetFamily, planetCellSize).within(pos.x, pos.y, maxPlanetRadius, nearPlanets);
+            for (Entity planet : nearPlanets) {
+                if (isOverPlanet(pos, planet)) {
+                    return planet;
+                }
+            }
+            return null;
+        }
+        
         for (Entity planet : planets) {
-            Vector2 planetPos = Mappers.transform.get(planet).pos;
-            TextureComponent planetTex = Mappers.texture.get(planet);
-            if (pos.dst(planetPos) <= planetTex.texture.getWidth() * 0.5 * planetTex.scale) {
+            if (isOverPlanet(pos, planet)) {
                 return planet;
             }
         }
         
         return null;
     }
+    
+    private static boolean isOverPlanet(Vector2 pos, Entity planet) {
+        Vector2 planetPos = Mappers.transform.get(planet).pos;
+        float radius = getPlanetRadius(planet);
+        return pos.dst2(planetPos) <= radius * radius;
+    }
+    
+    private static float getPlanetRadius(Entity planet) {
+        TextureComponent planetTex = Mappers.texture.get(planet);
+        return planetTex.region.getRegionWidth() * 0.5f * planetTex.scale;
+    }
     //endregion
     
 }
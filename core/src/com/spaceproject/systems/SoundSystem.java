@@ -6,6 +6,9 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Disposable;
+import com.spaceproject.events.EventListener;
+import com.spaceproject.events.SoundEvent;
+import com.spaceproject.screens.GameScreen;
 
 public class SoundSystem extends EntitySystem implements Disposable {
     
@@ -22,6 +25,13 @@ public class SoundSystem extends EntitySystem implements Disposable {
     long shieldImpactID;
     long shieldChargeID, shieldOnID, shieldOffID, shieldAmbientID;
     
+    private final EventListener<SoundEvent> soundListener = new EventListener<SoundEvent>() {
+        @Override
+        public void onEvent(SoundEvent event) {
+            play(event);
+        }
+    };
+    
     @Override
     public void addedToEngine(Engine engine) {
         //  Supported Formats: MP3, OGG and WAV
@@ -49,9 +59,6 @@ public class SoundSystem extends EntitySystem implements Disposable {
         // - wave should line up to prevent clipping
         //synthID = synth.loop();
     
-        //todo: should be event based, so any system can call
-        //see: https://github.com/libgdx/ashley/blob/master/ashley/tests/com/badlogic/ashley/signals/SignalTests.java
-        
         //load sounds (should use assetmanager?)
         kick = Gdx.audio.newSound(Gdx.files.internal("sound/laserShoot.wav"));
         synth = Gdx.audio.newSound(Gdx.files.internal("sound/synth.mp3"));
@@ -63,10 +70,32 @@ public class SoundSystem extends EntitySystem implements Disposable {
         shieldOn = Gdx.audio.newSound(Gdx.files.internal("sound/shieldOn.mp3"));
         shieldOff = Gdx.audio.newSound(Gdx.files.internal("sound/shieldOff.mp3"));
         shieldAmbient = Gdx.audio.newSound(Gdx.files.internal("sound/shieldAmbient.mp3"));
+        
+        //any system can play a sound by posting a SoundEvent
+        GameScreen.getEvents().subscribe(SoundEvent.class, soundListener);
+    }
+    
+    @Override
+    public void removedFromEngine(Engine engine) {
+        GameScreen.getEvents().unsubscribe(SoundEvent.class, soundListener);
     }
     
     @Override
     public void update(float deltaTime) {}
+    
+    private void play(SoundEvent event) {
+        switch (event.type) {
+            case shoot: shoot(event.value); break;
+            case asteroidShatter: asteroidShatter(); break;
+            case hullImpactLight: hullImpactLight(event.value); break;
+            case hullImpactHeavy: hullImpactHeavy(event.value); break;
+            case shieldImpact: shieldImpact(event.value); break;
+            case shieldOn: shieldOn(); break;
+            case shieldOff: shieldOff(); break;
+            case shieldAmbientStart: shieldAmbient(true); break;
+            case shieldAmbientStop: shieldAmbient(false); break;
+        }
+    }
 
     public long asteroidShatter() {
         // play new sound and keep handle for further manipulation
@@ -12,6 +12,7 @@ import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Disposable;
 import com.spaceproject.generation.TextureFactory;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.GameScreen;
 
 import java.util.ArrayList;
@@ -25,7 +26,7 @@ public class SpaceDustSystem extends EntitySystem implements Disposable {
     // this is CC / MIT so I could "steal" it
     
     private OrthographicCamera cam;
-    private SpriteBatch spriteBatch;
+    private RenderPipeline pipeline;
     private ShaderProgram shader;
     private Texture dustTexture;
     
@@ -42,12 +43,11 @@ public class SpaceDustSystem extends EntitySystem implements Disposable {
     @Override
     public void addedToEngine(Engine engine) {
         cam = GameScreen.cam;
-        spriteBatch = new SpriteBatch();
+        pipeline = GameScreen.pipeline;
         
         ShaderProgram.pedantic = false;
         shader = new ShaderProgram(Gdx.files.internal("shaders/heightShift.vert"), Gdx.files.internal("shaders/heightShift.frag"));
         if (shader.isCompiled()) {
-            spriteBatch.setShader(shader);
             Gdx.app.log(this.getClass().getSimpleName(), "shader compiled successfully!");
         } else {
             Gdx.app.error(this.getClass().getSimpleName(), "shader failed to compile:\n" + shader.getLog());
@@ -76,13 +76,12 @@ public class SpaceDustSystem extends EntitySystem implements Disposable {
     private void drawTiles(float alpha, float delta) {
         //shift shader
         shift += shiftSpeed * delta;
-        shader.bind();
-        shader.setUniformf("u_shift", shift);
         
         //render
+        SpriteBatch spriteBatch = pipeline.batch("space dust", cam.combined, shader);
+        //uniforms must be set after the batch has bound the shader
+        shader.setUniformf("u_shift", shift);
         spriteBatch.setColor(1, 1, 1, alpha);
-        spriteBatch.setProjectionMatrix(cam.combined);
-        spriteBatch.begin();
         
         for (Vector2 tile : tiles) {
             float drawX = (tile.x * tileSize);
@@ -96,7 +95,6 @@ public class SpaceDustSystem extends EntitySystem implements Disposable {
                     1, 1,
                     0, 0, 0, (int) width, (int) height, false, false);
         }
-        spriteBatch.end();
     }
     
     private Vector2 updateLayer(Vector2 previousTile) {
@@ -181,7 +179,6 @@ public class SpaceDustSystem extends EntitySystem implements Disposable {
     @Override
     public void dispose() {
         dustTexture.dispose();
-        spriteBatch.dispose();
     }
     
 }
@@ -7,15 +7,17 @@ import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
 import com.spaceproject.SpaceProject;
 import com.spaceproject.components.AIComponent;
 import com.spaceproject.components.AISpawnComponent;
 import com.spaceproject.components.BarycenterComponent;
 import com.spaceproject.components.AsteroidBeltComponent;
+import com.spaceproject.components.ControlFocusComponent;
+import com.spaceproject.components.HyperDriveComponent;
 import com.spaceproject.components.OrbitComponent;
 import com.spaceproject.components.PlanetComponent;
 import com.spaceproject.components.RemoveComponent;
@@ -23,24 +25,54 @@ import com.spaceproject.components.SeedComponent;
 import com.spaceproject.components.TextureComponent;
 import com.spaceproject.components.TransformComponent;
 import com.spaceproject.config.CelestialConfig;
+import com.spaceproject.events.EventListener;
+import com.spaceproject.events.NoiseReadyEvent;
 import com.spaceproject.generation.AstroBody;
 import com.spaceproject.generation.EntityFactory;
+import com.spaceproject.generation.Ephemeris;
+import com.spaceproject.generation.Ephemeris.Body;
+import com.spaceproject.generation.Ephemeris.StarSystem;
+import com.spaceproject.generation.RuntimeAtlas;
 import com.spaceproject.generation.TextureFactory;
 import com.spaceproject.noise.NoiseBuffer;
-import com.spaceproject.math.MyMath;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.ui.Tile;
 import com.spaceproject.utility.Mappers;
 import com.spaceproject.utility.SimpleTimer;
 
 
+/**
+ * Loads planetary systems near the camera and unloads those too far.
+ * While the player is in hyperdrive, systems are not loaded: instead the systems the ship will pass within load distance of
+ * in the next few seconds are prefetched from the Ephemeris, their planet noise generated and star and planet textures
+ * warmed into the RuntimeAtlas. Prefetch work for systems left behind is cancelled. On arrival loading runs immediately
+ * and finds noise and textures ready.
+ */
 public class SpaceLoadingSystem extends EntitySystem implements EntityListener {
     
     private final CelestialConfig celestCFG = SpaceProject.configManager.getConfig(CelestialConfig.class);
     private ImmutableArray<Entity> loadedAstronomicalBodies;
     private ImmutableArray<Entity> orbitingBodies;
+    private ImmutableArray<Entity> hyperDrives;
     private SimpleTimer loadTimer;
     
+    //hyperdrive prefetch
+    private final float lookAheadSeconds = 30;
+    private final SimpleTimer prefetchTimer = new SimpleTimer(500);
+    private final LongMap<StarSystem> prefetchedSystems = new LongMap<>();
+    private final LongMap<Body> prefetchedPlanets = new LongMap<>();
+    private final Array<Body> starWarmQueue = new Array<>();
+    private boolean wasHyper;
+    private int prefetchCount, cancelCount, warmCount;
+    private final StringBuilder info = new StringBuilder();
+    
+    private final EventListener<NoiseReadyEvent> noiseListener = new EventListener<NoiseReadyEvent>() {
+        @Override
+        public void onEvent(NoiseReadyEvent event) {
+            loadPlanetTexture(event.noise);
+        }
+    };
+    
     private boolean hasInit;
     
     @Override
@@ -48,6 +80,7 @@ public class SpaceLoadingSystem extends EntitySystem implements EntityListener {
         // currently loaded stars/planets
         loadedAstronomicalBodies = engine.getEntitiesFor(Family.all(BarycenterComponent.class, TransformComponent.class).get());
         orbitingBodies = engine.getEntitiesFor(Family.all(OrbitComponent.class).get());
+        hyperDrives = engine.getEntitiesFor(Family.all(ControlFocusComponent.class, HyperDriveComponent.class, TransformComponent.class).get());
         
         loadTimer = new SimpleTimer(4000);
         loadTimer.setCanDoEvent();
@@ -55,11 +88,14 @@ public class SpaceLoadingSystem extends EntitySystem implements EntityListener {
         hasInit = false;
         
         engine.addEntityListener(this);
+        GameScreen.getEvents().subscribe(NoiseReadyEvent.class, noiseListener);
     }
     
     @Override
     public void removedFromEngine(Engine engine) {
         engine.removeEntityListener(this);
+        GameScreen.getEvents().unsubscribe(NoiseReadyEvent.class, noiseListener);
+        clearPrefetch(true);
     }
     
     @Override
@@ -76,7 +112,7 @@ public class SpaceLoadingSystem extends EntitySystem implements EntityListener {
         for (Entity e : orbitingBodies) {
             OrbitComponent orbit = Mappers.orbit.get(e);
             if (orbit.parent != null && orbit.parent == entity) {
-                e.add(new RemoveComponent());
+                e.add(getEngine().createComponent(RemoveComponent.class));
             }
         }
     }
@@ -85,23 +121,34 @@ public class SpaceLoadingSystem extends EntitySystem implements EntityListener {
     public void update(float delta) {
         //if (!hasInit) { initTestDebugMobs(getEngine()); }
         
+        // look ahead along the hyperdrive path
+        boolean hyper = updatePrefetch();
+        if (wasHyper && !hyper) {
+            //arrived: load destination now instead of waiting for the next load event
+            loadTimer.setCanDoEvent();
+            clearPrefetch(false);
+        }
+        wasHyper = hyper;
+        
         // load and unload stars
-        updateLoadedBodies(celestCFG.loadSystemDistance);
+        updateLoadedBodies(celestCFG.loadSystemDistance, hyper);
         
-        // update/replace textures
-        updatePlanetTextures();
+        // warm textures ahead of hyperdrive
+        warmStarTexture();
     }
     
     //region load
-    private void updateLoadedBodies(float loadDistance) {
+    private void updateLoadedBodies(float loadDistance, boolean hyper) {
         if (loadTimer.tryEvent()) {
             loadDistance *= loadDistance;//square for dst2
             
             // remove stars from engine that are too far
             unloadFarEntities(loadDistance);
             
-            // add planetary systems to engine
-            loadCloseEntities(loadDistance);
+            // add planetary systems to engine. deferred in hyperdrive: systems passed are only prefetched
+            if (!hyper) {
+                loadCloseEntities(loadDistance);
+            }
         }
     }
     
@@ -134,21 +181,14 @@ public class SpaceLoadingSystem extends EntitySystem implements EntityListener {
         for (Entity entity : loadedAstronomicalBodies) {
             TransformComponent t = Mappers.transform.get(entity);
             if (Vector2.dst2(t.pos.x, t.pos.y, GameScreen.cam.position.x, GameScreen.cam.position.y) > loadDistance) {
-                entity.add(new RemoveComponent());
+                entity.add(getEngine().createComponent(RemoveComponent.class));
                 Gdx.app.log(getClass().getSimpleName(), "Removing Planetary System: " + entity.getComponent(TransformComponent.class).pos.toString());
             }
         }
     }
     
-    private void updatePlanetTextures() {
-        //todo: this should probably subscribe to a thread finished event instead of polling
-        //check queue for tilemaps / pixmaps to load into textures
-        if (!GameScreen.noiseManager.isNoiseAvailable()) {
-            return;
-        }
-        
-        //grab noise from queue
-        NoiseBuffer noise = GameScreen.noiseManager.getNoiseFromQueue();
+    /** noise is ready: swap the planet's placeholder for its texture */
+    private void loadPlanetTexture(NoiseBuffer noise) {
         if (noise.pixelatedTileMap == null) {
             Gdx.app.log(getClass().getSimpleName(), "ERROR, no map for: [" + noise.seed + "]");
             return;
@@ -157,206 +197,242 @@ public class SpaceLoadingSystem extends EntitySystem implements EntityListener {
         //find planet that noise belongs to (matching seed)
         for (Entity p : getEngine().getEntitiesFor(Family.all(PlanetComponent.class).get())) {
             if (p.getComponent(SeedComponent.class).seed == noise.seed) {
-                // create planet texture from tileMap, replace texture
-                Texture newTex = TextureFactory.generatePlanet(noise.pixelatedTileMap, Tile.defaultTiles);
-                p.getComponent(TextureComponent.class).texture = newTex;
+                // create planet texture from tileMap, replace placeholder
+                TextureComponent texture = p.getComponent(TextureComponent.class);
+                RuntimeAtlas.release(texture.region);
+                texture.region = TextureFactory.acquirePlanet(noise.seed, noise.pixelatedTileMap, Tile.defaultTiles);
                 Gdx.app.log(getClass().getSimpleName(), "Texture loaded: [" + noise.seed + "]");
                 return;
             }
         }
+        
+        //not loaded yet: prefetched ahead of hyperdrive, warm texture so it's resident when the planet loads
+        if (prefetchedPlanets.containsKey(noise.seed)) {
+            RuntimeAtlas.release(TextureFactory.acquirePlanet(noise.seed, noise.pixelatedTileMap, Tile.defaultTiles));
+            warmCount++;
+        }
     }
     //endregion
     
-    //region create bodies
-    public Array<Entity> createAstronomicalObjects(float x, float y) {
-        if (!GameScreen.isDebugMode) {
-            long seed = MyMath.getSeed(x, y);
-            MathUtils.random.setSeed(seed);
+    //region hyperdrive prefetch
+    /** @return true if the player is in hyperdrive */
+    private boolean updatePrefetch() {
+        if (!GameScreen.isHyper() || GameScreen.galaxy == null) return false;
+        
+        HyperDriveComponent hyperDrive = null;
+        TransformComponent transform = null;
+        for (Entity entity : hyperDrives) {
+            HyperDriveComponent hyper = Mappers.hyper.get(entity);
+            if (hyper.state == HyperDriveComponent.State.on) {
+                hyperDrive = hyper;
+                transform = Mappers.transform.get(entity);
+                break;
+            }
+        }
+        if (hyperDrive == null) return false;
+        
+        float speed2 = hyperDrive.velocity.len2();
+        if (speed2 == 0 || !prefetchTimer.tryEvent()) return true;
+        
+        float loadDistance2 = celestCFG.loadSystemDistance * celestCFG.loadSystemDistance;
+        float velX = hyperDrive.velocity.x, velY = hyperDrive.velocity.y;
+        for (AstroBody astroBody : GameScreen.galaxy.objects) {
+            float dx = astroBody.x - transform.pos.x;
+            float dy = astroBody.y - transform.pos.y;
+            //time until closest approach along the current heading
+            float t = (dx * velX + dy * velY) / speed2;
+            
+            if (t < 0) {
+                //moving away: drop work for systems left behind
+                if (dx * dx + dy * dy > loadDistance2 && prefetchedSystems.containsKey(astroBody.seed)) {
+                    cancelPrefetch(prefetchedSystems.remove(astroBody.seed));
+                }
+                continue;
+            }
+            if (t > lookAheadSeconds || prefetchedSystems.containsKey(astroBody.seed)) continue;
             
-            switch (MathUtils.random(2)) {
-                case 0:
-                    return createPlanetarySystem(x, y);
-                case 1:
-                    return createBinarySystem(x, y);
-                case 2:
-                    return createRoguePlanet(x, y);
+            //only systems the path passes within load distance of
+            float closestX = dx - velX * t;
+            float closestY = dy - velY * t;
+            if (closestX * closestX + closestY * closestY < loadDistance2) {
+                prefetch(Ephemeris.getSystem(astroBody));
             }
         }
-        
-        return createPlanetarySystem(x, y);
+        return true;
     }
     
-    public Array<Entity> createPlanetarySystem(float x, float y) {
-        long seed = MyMath.getSeed(x, y);
-        return createPlanetarySystem(x, y, seed);
+    private void prefetch(StarSystem system) {
+        prefetchedSystems.put(system.seed, system);
+        prefetchCount++;
+        for (Body body : system.bodies) {
+            switch (body.kind) {
+                case star:
+                    starWarmQueue.add(body);
+                    break;
+                case planet:
+                    prefetchedPlanets.put(body.seed, body);
+                    if (!GameScreen.noiseManager.isLoadedOrPending(body.seed)) {
+                        GameScreen.noiseManager.generate(body.seed, EntityFactory.createPlanetComponent(body.mapSize));
+                    }
+                    break;
+            }
+        }
+        Gdx.app.debug(getClass().getSimpleName(), "Prefetch: " + system.type + " [" + system.seed + "]");
     }
     
-    public Array<Entity> createPlanetarySystem(float x, float y, long seed) {
-        MathUtils.random.setSeed(seed);
-        
-        //number of planets in a system
-        int numPlanets = MathUtils.random(celestCFG.minPlanets, celestCFG.maxPlanets);
-        
-        //distance between planets
-        float distance = celestCFG.minPlanetDist / 3; //add some initial distance between star and first planet
-        
-        //rotation of system (orbits and spins)
-        boolean isRotateClockwise = MathUtils.randomBoolean();
-        
-        //collection of planets/stars
-        Array<Entity> entities = new Array<Entity>();
-        
-        //add star to center of planetary system
-        Entity star = EntityFactory.createStar(seed, x, y, isRotateClockwise);
-        BarycenterComponent barycenter = new BarycenterComponent();
-        barycenter.bodyType = numPlanets == 0 ? BarycenterComponent.AstronomicalBodyType.loneStar : BarycenterComponent.AstronomicalBodyType.uniStellar;
-        star.add(barycenter);
-    
-        //todo, allow multiple disks at different radius: make sure layer is distinct (not overlap planet orbits)
-        AsteroidBeltComponent circumstellarDisc = new AsteroidBeltComponent();
-        circumstellarDisc.radius = 1500;
-        circumstellarDisc.bandWidth = 220; //how wide of band centered on radius, concentrated at radius
-        circumstellarDisc.maxSpawn = 180; //todo: calculate density: ratio of asteroids to space in disk
-        circumstellarDisc.velocity = 20;
-        circumstellarDisc.clockwise = isRotateClockwise;
-        star.add(circumstellarDisc);
-        entities.add(star);
-        
-        
-        //create planets around star
-        for (int i = 0; i < numPlanets; ++i) {
-            //add some distance from previous entity
-            distance += MathUtils.random(celestCFG.minPlanetDist, celestCFG.maxPlanetDist);
-            
-            //create planet
-            long planetSeed = MyMath.getSeed(x, y + distance);
-            Entity planet = EntityFactory.createPlanet(planetSeed, star, distance, isRotateClockwise);
-            
-            //add moon
-            boolean hasMoon = MathUtils.randomBoolean();
-            if (hasMoon) {
-                float moonDist = planet.getComponent(TextureComponent.class).texture.getWidth() * planet.getComponent(TextureComponent.class).scale * 2;
-                moonDist *= 0.7f;
-                distance += moonDist;
-                Entity moon = EntityFactory.createMoon(MyMath.getSeed(x, y + distance), planet, moonDist, isRotateClockwise);
-                entities.add(moon);
-                
-                /*// nested test
-                distance += moonDist;
-                Entity moonsMoon = EntityFactory.createMoon(MyMath.getSeed(x, y + distance), moon, moonDist, rotDir);
-                entities.add(moonsMoon);
+    private void cancelPrefetch(StarSystem system) {
+        cancelCount++;
+        for (Body body : system.bodies) {
+            switch (body.kind) {
+                case star:
+                    starWarmQueue.removeValue(body, true);
+                    break;
+                case planet:
+                    prefetchedPlanets.remove(body.seed);
+                    GameScreen.noiseManager.cancel(body.seed);
+                    break;
+            }
+        }
+        Gdx.app.debug(getClass().getSimpleName(), "Cancel prefetch: [" + system.seed + "]");
+    }
     
-                distance += moonDist;
-                Entity moonsMoonsMoon = EntityFactory.createMoon(MyMath.getSeed(x, y + distance), moonsMoon, moonDist, rotDir);
-                entities.add(moonsMoonsMoon);*/
+    /**
+     * @param cancel also stop noise still being generated. On arrival noise is kept, the destination is about to load.
+     */
+    private void clearPrefetch(boolean cancel) {
+        if (cancel) {
+            for (StarSystem system : prefetchedSystems.values()) {
+                cancelPrefetch(system);
             }
-            
-            addLifeToPlanet(planet);
-            
-            entities.add(planet);
         }
-        
-        Gdx.app.log(getClass().getSimpleName(), "Planetary System: [" + seed + "](" + x + ", " + y + ") Bodies: " + (numPlanets));
-        
-        return entities;
-        
+        prefetchedSystems.clear();
+        prefetchedPlanets.clear();
+        starWarmQueue.clear();
     }
     
-    private static void addLifeToPlanet(Entity planet) {
-        //add entity spawner if planet has life
-        //dumb coin flip for now, can have rules later like no life when super close to star = lava, or super far = ice
-        //simply base it on distance from star. habital zone
-        //  eg chance of life = distance from habit zone
-        //more complex rules can be applied like considering the planets type. ocean might have life but if entire planet is ocean = no ships = no spawner
-        //desert might have different life, so different spawner rules
-        
-        //boolean hasLife = MathUtils.randomBoolean();
-        
-        AISpawnComponent spawnComponent = new AISpawnComponent();
-        spawnComponent.maxSpawn = 10;
-        planet.add(spawnComponent);
+    /** one star texture per frame, released right away so it stays resident until the star loads or the page is evicted */
+    private void warmStarTexture() {
+        if (starWarmQueue.isEmpty()) return;
+        
+        Body star = starWarmQueue.pop();
+        TextureRegion region = TextureFactory.acquireStar(star.seed, star.starRadius, EntityFactory.starNoiseScale);
+        RuntimeAtlas.release(region);
+        warmCount++;
     }
     
-    public Array<Entity> createRoguePlanet(float x, float y) {
-        long seed = MyMath.getSeed(x, y);
-        return createRoguePlanet(x, y, seed);
+    public CharSequence getPrefetchInfo() {
+        info.setLength(0);
+        info.append("[Prefetch] systems: ").append(prefetchedSystems.size);
+        info.append(" planets: ").append(prefetchedPlanets.size);
+        info.append(" stars queued: ").append(starWarmQueue.size);
+        info.append(" | total: ").append(prefetchCount);
+        info.append(" cancelled: ").append(cancelCount);
+        info.append(" warmed: ").append(warmCount);
+        return info;
     }
+    //endregion
     
-    public Array<Entity> createRoguePlanet(float x, float y, long seed) {
-        MathUtils.random.setSeed(seed);
+    //region create bodies
+    public Array<Entity> createAstronomicalObjects(float x, float y) {
+        return createAstronomicalObjects(Ephemeris.getSystem(x, y));
+    }
+    
+    /**
+     * Create entities for the bodies in a system description, placed where the ephemeris says they are now.
+     * Orbits are taken from the description so loaded bodies follow the ephemeris.
+     */
+    public Array<Entity> createAstronomicalObjects(StarSystem system) {
+        long time = GameScreen.getGameTimeCurrent();
         Array<Entity> entities = new Array<>();
+        Entity[] created = new Entity[system.bodies.size];
         
-        Entity planet = EntityFactory.createPlanet(seed, null, 0, MathUtils.randomBoolean());
-        planet.getComponent(OrbitComponent.class).tangentialSpeed = 0;
-        
-        BarycenterComponent barycenter = new BarycenterComponent();
-        barycenter.bodyType = BarycenterComponent.AstronomicalBodyType.roguePlanet;
-        planet.add(barycenter);
-        planet.getComponent(TransformComponent.class).pos.set(x, y);
-        
-        //add moon
-        boolean hasMoon = MathUtils.randomBoolean();
-        if (hasMoon) {
-            float moonDist = planet.getComponent(TextureComponent.class).texture.getWidth() * planet.getComponent(TextureComponent.class).scale * 2;
-            boolean rotDir = MathUtils.randomBoolean();
-            Entity moon = EntityFactory.createMoon(MyMath.getSeed(x, y + moonDist), planet, moonDist, rotDir);
-            entities.add(moon);
+        for (Body body : system.bodies) {
+            Vector2 pos = Ephemeris.getPosition(body, time, new Vector2());
+            Entity parent = body.parent == null ? null : created[body.parent.index];
+            
+            Entity entity;
+            switch (body.kind) {
+                case barycenter:
+                    entity = createAnchor(body.seed, pos);
+                    break;
+                case star:
+                    entity = EntityFactory.createStar(body.seed, pos.x, pos.y, body.rotateClockwise);
+                    break;
+                case planet:
+                    entity = EntityFactory.createPlanet(body.seed, parent, body.radialDistance, body.rotateClockwise);
+                    break;
+                default:
+                    entity = EntityFactory.createMoon(body.seed, parent, body.radialDistance, body.rotateClockwise);
+                    break;
+            }
+            Mappers.transform.get(entity).pos.set(pos);
+            
+            OrbitComponent orbit = Mappers.orbit.get(entity);
+            if (orbit != null) {
+                orbit.parent = parent;
+                orbit.radialDistance = body.radialDistance;
+                orbit.tangentialSpeed = body.tangentialSpeed;
+                orbit.startAngle = body.startAngle;
+                orbit.rotateClockwise = body.rotateClockwise;
+            }
+            
+            if (body.parent == null) {
+                BarycenterComponent barycenter = new BarycenterComponent();
+                barycenter.bodyType = system.type;
+                entity.add(barycenter);
+                
+                if (body.kind == Ephemeris.Kind.star) {
+                    addCircumstellarDisc(entity, body.rotateClockwise);
+                }
+            } else if (body.kind == Ephemeris.Kind.planet) {
+                addLifeToPlanet(entity);
+            }
+            
+            created[body.index] = entity;
+            entities.add(entity);
         }
         
-        entities.add(planet);
-        Gdx.app.log(this.getClass().getSimpleName(), "Rogue Planet: [" + seed + "](" + x + ", " + y + ")");
+        Gdx.app.log(getClass().getSimpleName(), system.type + ": [" + system.seed + "](" + system.x + ", " + system.y + ") Bodies: " + system.bodies.size);
         return entities;
     }
     
-    public Array<Entity> createBinarySystem(float x, float y) {
-        long seed = MyMath.getSeed(x, y);
-        return createBinarySystem(x, y, seed);
-    }
-    
-    public Array<Entity> createBinarySystem(float x, float y, long seed) {
+    private static Entity createAnchor(long seed, Vector2 pos) {
         Entity anchorEntity = new Entity();
         
         SeedComponent seedComp = new SeedComponent();
         seedComp.seed = seed;
         anchorEntity.add(seedComp);
         
-        BarycenterComponent barycenter = new BarycenterComponent();
-        barycenter.bodyType = BarycenterComponent.AstronomicalBodyType.multiStellar;
-        anchorEntity.add(barycenter);
-        
         TransformComponent transform = new TransformComponent();
-        transform.pos.set(x, y);
+        transform.pos.set(pos);
         anchorEntity.add(transform);
+        return anchorEntity;
+    }
     
+    private static void addCircumstellarDisc(Entity star, boolean clockwise) {
+        //todo, allow multiple disks at different radius: make sure layer is distinct (not overlap planet orbits)
+        AsteroidBeltComponent circumstellarDisc = new AsteroidBeltComponent();
+        circumstellarDisc.radius = 1500;
+        circumstellarDisc.bandWidth = 220; //how wide of band centered on radius, concentrated at radius
+        circumstellarDisc.maxSpawn = 180; //todo: calculate density: ratio of asteroids to space in disk
+        circumstellarDisc.velocity = 20;
+        circumstellarDisc.clockwise = clockwise;
+        star.add(circumstellarDisc);
+    }
+    
+    private static void addLifeToPlanet(Entity planet) {
+        //add entity spawner if planet has life
+        //dumb coin flip for now, can have rules later like no life when super close to star = lava, or super far = ice
+        //simply base it on distance from star. habital zone
+        //  eg chance of life = distance from habit zone
+        //more complex rules can be applied like considering the planets type. ocean might have life but if entire planet is ocean = no ships = no spawner
+        //desert might have different life, so different spawner rules
         
-        //add stars
-        float distance = celestCFG.maxPlanetSize * 2 + celestCFG.maxPlanetDist * 2;
-        boolean rotDir = MathUtils.randomBoolean();
-        float startAngle = MathUtils.random(MathUtils.PI2);
-        float tangentialSpeed = MathUtils.random(celestCFG.minPlanetTangentialSpeed, celestCFG.maxPlanetTangentialSpeed);
-        
-        Entity starA = EntityFactory.createStar(MyMath.getSeed(x + distance, y), x + distance, y, rotDir);
-        OrbitComponent orbitA = starA.getComponent(OrbitComponent.class);
-        orbitA.parent = anchorEntity;
-        orbitA.radialDistance = distance;
-        orbitA.startAngle = startAngle;
-        orbitA.tangentialSpeed = tangentialSpeed;
-        
-        Entity starB = EntityFactory.createStar(MyMath.getSeed(x - distance, y), x - distance, y, rotDir);
-        OrbitComponent orbitB = starB.getComponent(OrbitComponent.class);
-        orbitB.parent = anchorEntity;
-        orbitB.radialDistance = distance;
-        orbitB.startAngle = startAngle + MathUtils.PI;
-        orbitB.tangentialSpeed = tangentialSpeed;
-        
-        
-        Array<Entity> entities = new Array<Entity>();
-        entities.add(anchorEntity);
-        entities.add(starA);
-        entities.add(starB);
+        //boolean hasLife = MathUtils.randomBoolean();
         
-        Gdx.app.log(this.getClass().getSimpleName(), "Binary System: [" + seed + "](" + x + ", " + y + ")");
-        return entities;
+        AISpawnComponent spawnComponent = new AISpawnComponent();
+        spawnComponent.maxSpawn = 10;
+        planet.add(spawnComponent);
     }
     //endregion
     
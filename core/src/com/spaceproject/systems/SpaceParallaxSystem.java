@@ -7,6 +7,7 @@ import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Disposable;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.ui.SpaceBackgroundTile;
 import com.spaceproject.ui.SpaceBackgroundTile.TileType;
@@ -15,7 +16,8 @@ import java.util.ArrayList;
 
 public class SpaceParallaxSystem extends EntitySystem implements Disposable {
     
-    private final SpriteBatch spriteBatch;
+    private final RenderPipeline pipeline;
+    private SpriteBatch spriteBatch;
     private final Matrix4 projectionMatrix = new Matrix4();
     
     // background layer of tiles
@@ -45,11 +47,10 @@ public class SpaceParallaxSystem extends EntitySystem implements Disposable {
     
     
     public SpaceParallaxSystem() {
-        spriteBatch = new SpriteBatch();
+        pipeline = GameScreen.pipeline;
         
         spaceShader = new ShaderProgram(Gdx.files.internal("shaders/spaceParallax.vert"), Gdx.files.internal("shaders/spaceParallax.frag"));
         if (spaceShader.isCompiled()) {
-            spriteBatch.setShader(spaceShader);
             Gdx.app.log(this.getClass().getSimpleName(), "shader compiled successfully!");
         } else {
             Gdx.app.error(this.getClass().getSimpleName(), "shader failed to compile:\n" + spaceShader.getLog());
@@ -65,15 +66,13 @@ public class SpaceParallaxSystem extends EntitySystem implements Disposable {
         float blend = 0f;
         CameraSystem cam = getEngine().getSystem(CameraSystem.class);
         blend = cam.getZoomLevel() / cam.getMaxZoomLevel();
-        spaceShader.bind();
-        spaceShader.setUniformf("u_blend", blend);
-        spaceShader.setUniformf("u_invert", invert);
         
         projectionMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        spriteBatch.setProjectionMatrix(projectionMatrix);
-        spriteBatch.begin();
+        spriteBatch = pipeline.batch("space parallax", projectionMatrix, spaceShader);
+        //uniforms must be set after the batch has bound the shader
+        spaceShader.setUniformf("u_blend", blend);
+        spaceShader.setUniformf("u_invert", invert);
         drawParallaxTiles();
-        spriteBatch.end();
     }
     
     private void drawParallaxTiles() {
@@ -230,7 +229,6 @@ public class SpaceParallaxSystem extends EntitySystem implements Disposable {
         }
         tiles.clear();
         
-        spriteBatch.dispose();
         spaceShader.dispose();
     }
     
@@ -0,0 +1,58 @@
+package com.spaceproject.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.spaceproject.utility.SpatialHash;
+
+/**
+ * Shared broad-phase index for proximity queries (closest vehicle, nearby planet, etc).
+ * Systems request an index for a family once, then every index is rebuilt from TransformComponent at the start of each frame.
+ * Queries then only visit nearby cells instead of scanning every entity in the family.
+ */
+public class SpatialHashSystem extends EntitySystem {
+    
+    private static class Index {
+        Family family;
+        ImmutableArray<Entity> entities;
+        SpatialHash hash;
+    }
+    
+    private final Array<Index> indexes = new Array<>();
+    
+    @Override
+    public void removedFromEngine(Engine engine) {
+        indexes.clear();
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+        for (Index index : indexes) {
+            index.hash.rebuild(index.entities);
+        }
+    }
+    
+    /**
+     * Get the shared index for entities of family, creating it on first request.
+     * Family must include TransformComponent. cellSize is only used when the index is created.
+     */
+    public SpatialHash getIndex(Family family, float cellSize) {
+        for (Index index : indexes) {
+            if (index.family == family) {
+                return index.hash;
+            }
+        }
+        
+        Index index = new Index();
+        index.family = family;
+        index.entities = getEngine().getEntitiesFor(family);
+        index.hash = new SpatialHash(cellSize);
+        index.hash.rebuild(index.entities);
+        indexes.add(index);
+        return index.hash;
+    }
+    
+}
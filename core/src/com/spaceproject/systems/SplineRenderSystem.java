@@ -7,10 +7,14 @@ import com.badlogic.ashley.systems.SortedIteratingSystem;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ImmediateModeRenderer20;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Disposable;
 import com.spaceproject.components.ControllableComponent;
 import com.spaceproject.components.HealthComponent;
@@ -33,42 +37,58 @@ public class SplineRenderSystem extends SortedIteratingSystem implements Disposa
         }
     }
     
-    private final ShapeRenderer shape;
+    //floats per point in SplineComponent.path: x, y, velocity
+    public static final int STRIDE = 3;
+    //floats per vertex: x, y, packed color
+    private static final int VERTEX_SIZE = 3;
+    private static final int MAX_VERTICES = 16384;
+    
+    private final Mesh mesh;
+    private final ShaderProgram shader;
+    private final float[] vertices = new float[MAX_VERTICES * VERTEX_SIZE];
+    private int vertexCount;
+    private int flushCount;
+    
     private final Color tmpColor = new Color();
     private int maxPathSize = 1000;
+    //don't record points closer than this to the previous point, the head point follows the entity instead
+    private float minPointDistance = 0.5f;
+    private float lineWidthPixels = 1.5f;
+    private float halfWidth;
     private float alpha = 1;
     private float animation;
     private float animSpeed = 2f;
     
     public SplineRenderSystem() {
         super(Family.all(SplineComponent.class, TransformComponent.class).get(), new ZComparator());
-        shape = new ShapeRenderer();
+        
+        //all trails are appended to a single triangle strip, stitched together with degenerate triangles
+        mesh = new Mesh(false, MAX_VERTICES, 0,
+                new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                VertexAttribute.ColorPacked());
+        shader = ImmediateModeRenderer20.createDefaultShader(false, true, 0);
     }
     
     @Override
     public void update(float delta) {
-        //warning: system coupling -> todo: use signals?
-        HUDSystem hudSystem = getEngine().getSystem(HUDSystem.class);
-        if (hudSystem != null && !hudSystem.isDraw()) {
-            return;
-        }
-    
+        //note: drawn in an overlay pass, hidden by the frame graph when the HUD is off
+        
         alpha = MathUtils.clamp((GameScreen.cam.zoom / 100), 0, 1);
         if (MathUtils.isEqual(alpha, 0)) return;
         
         animation += animSpeed * delta;
+        //keep constant thickness on screen regardless of zoom
+        halfWidth = lineWidthPixels * 0.5f * GameScreen.cam.zoom * GameScreen.cam.viewportWidth / Gdx.graphics.getWidth();
         
-        //enable transparency
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-        
-        shape.setProjectionMatrix(GameScreen.cam.combined);
+        //draws its own mesh: end any shared batch first
+        GameScreen.pipeline.custom("splines");
         
-        shape.begin(ShapeRenderer.ShapeType.Line);
-        super.update(delta);
-        shape.end();
+        shader.bind();
+        shader.setUniformMatrix("u_projModelView", GameScreen.cam.combined);
         
-        Gdx.gl.glDisable(GL20.GL_BLEND);
+        flushCount = 0;
+        super.update(delta); //appends trails in z order
+        flush();
     }
     
     @Override
@@ -76,17 +96,17 @@ public class SplineRenderSystem extends SortedIteratingSystem implements Disposa
         SplineComponent spline = Mappers.spline.get(entity);
         
         updateTail(spline, entity);
-        //todo: z-index to render player trail above bullet trail
         //todo: fade nicely
         if (spline.style == null) {
             spline.style = SplineComponent.Style.velocity;
         }
-        switch (spline.style) {
-            case velocity: renderVelocityPath(spline); break;
-            case state: renderStatePath(spline); break;
-            default:
-                renderDefaultPath(spline);
+        
+        //default color
+        if (spline.color == null && spline.style == SplineComponent.Style.velocity) {
+            spline.color = Color.MAGENTA;
         }
+        
+        appendStrip(spline);
     }
     
     // these are more like paths than splines, but see also:
@@ -97,21 +117,10 @@ public class SplineRenderSystem extends SortedIteratingSystem implements Disposa
         
         //initialize
         if (spline.path == null) {
-            //todo: cache. use pooled vectors
-            spline.path = new Vector3[maxPathSize];
-            for (int v = 0; v < maxPathSize; v++) {
-                spline.path[v] = new Vector3();
-            }
+            spline.path = new float[maxPathSize * STRIDE];
             spline.state = new byte[maxPathSize];
         }
         
-        //
-        //todo: don't record useless points (duplicate). consider resolution
-        //if (spline.path[spline.index-1].epsilonEquals(transform.pos.x, transform.pos.y, 10)) {
-            //delta too small skip update
-        //    return;
-        //}
-        
         //off, on, boost, hyper -> 0, 1, 2, 3
         float velocity = 0;
         byte state = 0;
@@ -139,7 +148,7 @@ public class SplineRenderSystem extends SortedIteratingSystem implements Disposa
                 
                 if (!physics.body.isActive()) {
                     state = 3;
-    
+                    
                     HyperDriveComponent hyper = Mappers.hyper.get(entity);
                     velocity = hyper.speed * hyper.speed;
                 }
@@ -158,131 +167,141 @@ public class SplineRenderSystem extends SortedIteratingSystem implements Disposa
             }
         }
         
-        spline.path[spline.indexHead].set(transform.pos.x, transform.pos.y, velocity);
-        if (spline.style == SplineComponent.Style.state) {
-            spline.state[spline.indexHead] = state;
+        int capacity = spline.state.length;
+        int index = spline.indexHead;
+        if (spline.count >= 2) {
+            //decimate: while within min distance of the last committed point, move the head point instead of adding one.
+            //a change of state always starts a new point so colors stay where they happened
+            int last = wrap(spline.indexHead - 1, capacity);
+            int committed = wrap(spline.indexHead - 2, capacity);
+            float dst2 = Vector2.dst2(transform.pos.x, transform.pos.y, spline.path[committed * STRIDE], spline.path[committed * STRIDE + 1]);
+            if (dst2 < minPointDistance * minPointDistance && spline.state[last] == state) {
+                index = last;
+            }
         }
         
-        //roll index
-        spline.stepCount++;
-        spline.indexHead++;
-        if (spline.indexHead >= spline.path.length) {
-            spline.indexHead = 0;
+        int offset = index * STRIDE;
+        spline.path[offset] = transform.pos.x;
+        spline.path[offset + 1] = transform.pos.y;
+        spline.path[offset + 2] = velocity;
+        spline.state[index] = state;
+        
+        if (index == spline.indexHead) {
+            //roll index
+            spline.stepCount++;
+            spline.indexHead = wrap(spline.indexHead + 1, capacity);
+            spline.count = Math.min(spline.count + 1, capacity);
         }
     }
     
-    public void renderVelocityPath(SplineComponent spline) {
-        //todo: bug with tail index not properly rendered
-        boolean debugDrawHeadTail = false;
-    
-        //set default color
-        if (spline.color == null) {
-            spline.color = Color.MAGENTA;
+    /** append trail from tail to head as a ribbon: two vertices per point, offset along the path normal */
+    private void appendStrip(SplineComponent spline) {
+        if (spline.count < 2) return;
+        
+        int capacity = spline.state.length;
+        int needed = spline.count * 2 + 2;
+        if (vertexCount + needed > MAX_VERTICES) {
+            flush();
         }
         
-        for (int i = 0; i < spline.path.length-1; i++) {
-            Vector3 p = spline.path[i];
+        int tail = wrap(spline.indexHead - spline.count, capacity);
+        float normalX = 0, normalY = 1;
+        for (int i = 0; i < spline.count; i++) {
+            int index = wrap(tail + i, capacity);
+            int prev = i == 0 ? index : wrap(index - 1, capacity);
+            int next = i == spline.count - 1 ? index : wrap(index + 1, capacity);
             
-            int indexWrap = i + 1 % spline.path.length;
-            if (indexWrap <= 0) indexWrap += spline.path.length;
-            Vector3 p2 = spline.path[indexWrap];
+            float x = spline.path[index * STRIDE];
+            float y = spline.path[index * STRIDE + 1];
+            float dx = spline.path[next * STRIDE] - spline.path[prev * STRIDE];
+            float dy = spline.path[next * STRIDE + 1] - spline.path[prev * STRIDE + 1];
+            float len = (float) Math.sqrt(dx * dx + dy * dy);
+            if (len > 0.0001f) {
+                //keep previous normal for overlapping points
+                normalX = -dy / len;
+                normalY = dx / len;
+            }
             
-            // don't draw head to tail
-            if (indexWrap != spline.indexHead) {
-                //z = linearVelocity [0 - max box2d] then hyperdrive velocity
-                float velocity = p.z / Box2DPhysicsSystem.getVelocityLimit2();
-                tmpColor.set(Color.BLACK.cpy().lerp(spline.color, velocity));
-                tmpColor.a = alpha;
-                if (velocity > 1.01f) {
-                    //hyperdrive travel
-                    tmpColor.set(1, 1, 1, 1);
-                }
-                shape.line(p.x, p.y, p2.x, p2.y, tmpColor, tmpColor);
-            } else {
-                //debug draw head to tail
-                if (debugDrawHeadTail) {
-                    shape.line(p.x, p.y, p2.x, p2.y, Color.RED, Color.WHITE);
-                }
+            float width = halfWidth;
+            float color = pointColor(spline, index);
+            if (spline.style == SplineComponent.Style.state && spline.state[index] == 3) {
+                //hyper: pulse
+                width += Math.abs(MathUtils.sin(animation * MathUtils.PI * 0.5f + i * 0.1f)) * 0.5f;
             }
+            
+            float leftX = x + normalX * width, leftY = y + normalY * width;
+            if (i == 0 && vertexCount > 0) {
+                //degenerate triangles to jump from the previous trail without connecting them
+                addVertex(vertices[(vertexCount - 1) * VERTEX_SIZE], vertices[(vertexCount - 1) * VERTEX_SIZE + 1], 0);
+                addVertex(leftX, leftY, 0);
+            }
+            addVertex(leftX, leftY, color);
+            addVertex(x - normalX * width, y - normalY * width, color);
         }
     }
     
-    
-    public void renderStatePath(SplineComponent spline) {
-        //todo: bug with tail index not properly rendered
-        boolean debugDrawHeadTail = false;
-        
-        for (int i = 0; i < spline.path.length-1; i++) {
-            Vector3 p = spline.path[i];
-            
-            int indexWrap = i + 1 % spline.path.length;
-            if (indexWrap <= 0) {
-                indexWrap += spline.path.length;
-            }
-            Vector3 p2 = spline.path[indexWrap];
-            
-            // don't draw head to tail
-            if (indexWrap != spline.indexHead) {
-                Color color;
-                switch (spline.state[indexWrap]) {
-                    case -2: color = Color.BLUE; break;
-                    case -1: color = Color.RED; break;
-                    case 1: color = Color.GOLD; break;
-                    case 2: color = Color.CYAN; break;
-                    case 3: color = Color.WHITE; break;
-                    default: color = Color.BLACK;
+    private float pointColor(SplineComponent spline, int index) {
+        switch (spline.style) {
+            case velocity:
+                //z = linearVelocity [0 - max box2d] then hyperdrive velocity
+                float velocity = spline.path[index * STRIDE + 2] / Box2DPhysicsSystem.getVelocityLimit2();
+                if (velocity > 1.01f) {
+                    //hyperdrive travel
+                    return Color.WHITE.toFloatBits();
                 }
-                shape.line(p.x, p.y, p2.x, p2.y, color, color);
-                if (spline.state[indexWrap] == 3) {
-                    shape.rectLine(p.x, p.y, p2.x, p2.y, (float) (0.5f * Math.sin(animation * 3.14 * 0.5)), Color.RED, Color.RED);
-                    shape.rectLine(p.x, p.y, p2.x, p2.y, (float) (0.5f * Math.sin(animation)), Color.MAGENTA, Color.CYAN);
-                    shape.rectLine(p.x, p.y, p2.x, p2.y, (float) (0.5f * Math.sin(animation * 3.14)), Color.GOLD, Color.GREEN);
+                tmpColor.set(Color.BLACK).lerp(spline.color, velocity);
+                tmpColor.a = alpha;
+                return tmpColor.toFloatBits();
+            case state:
+                switch (spline.state[index]) {
+                    case -2: return Color.BLUE.toFloatBits();
+                    case -1: return Color.RED.toFloatBits();
+                    case 1: return Color.GOLD.toFloatBits();
+                    case 2: return Color.CYAN.toFloatBits();
+                    case 3:
+                        //hyper: cycle colors
+                        tmpColor.set(Color.MAGENTA).lerp(Color.CYAN, MathUtils.sin(animation) * 0.5f + 0.5f);
+                        return tmpColor.toFloatBits();
+                    default: return Color.BLACK.toFloatBits();
                 }
-            } else {
-                //debug draw head to tail
-                if (debugDrawHeadTail) {
-                    shape.line(p.x, p.y, p2.x, p2.y, Color.RED, Color.WHITE);
+            case rainbow:
+                //todo: rainbow render
+                //xy mode
+                //change of angle: same color when going straight, 360 otherwise, doesnt care speed
+                //change of speed: 0-max, doesn't care angle
+            default:
+                if (spline.color == null) {
+                    return Color.GREEN.toFloatBits();
                 }
-            }
+                return spline.color.toFloatBits();
         }
     }
     
-    public void renderDefaultPath(SplineComponent spline) {
-        //todo: bug with tail index not properly rendered
-        boolean debugDrawHeadTail = false;
+    private void addVertex(float x, float y, float color) {
+        int offset = vertexCount * VERTEX_SIZE;
+        vertices[offset] = x;
+        vertices[offset + 1] = y;
+        vertices[offset + 2] = color;
+        vertexCount++;
+    }
+    
+    private void flush() {
+        if (vertexCount == 0) return;
         
-        for (int i = 0; i < spline.path.length-1; i++) {
-            Vector3 p = spline.path[i];
-            
-            int indexWrap = i + 1 % spline.path.length;
-            if (indexWrap <= 0) indexWrap += spline.path.length;
-            Vector3 p2 = spline.path[indexWrap];
-            
-            // don't draw head to tail
-            if (indexWrap != spline.indexHead) {
-                if (spline.color == null) {
-                    shape.line(p.x, p.y, p2.x, p2.y, Color.GREEN, Color.BLUE);
-                } else {
-                    shape.line(p.x, p.y, p2.x, p2.y, spline.color, spline.color);
-                }
-            } else {
-                //debug draw head to tail
-                if (debugDrawHeadTail) {
-                    shape.line(p.x, p.y, p2.x, p2.y, Color.RED, Color.WHITE);
-                }
-            }
+        mesh.setVertices(vertices, 0, vertexCount * VERTEX_SIZE);
+        mesh.render(shader, GL20.GL_TRIANGLE_STRIP, 0, vertexCount);
+        vertexCount = 0;
+        flushCount++;
+    }
     
-            if (spline.indexHead == 0) {
-                shape.line(p.x, p.y, p2.x, p2.y, Color.PINK, Color.PURPLE);
-            }
-        }
+    private static int wrap(int index, int capacity) {
+        index %= capacity;
+        return index < 0 ? index + capacity : index;
     }
     
-    public void renderRainbowPath(SplineComponent spline) {
-        //todo: rainbow render
-        //xy mode
-        //change of angle: same color when going straight, 360 otherwise, doesnt care speed
-        //change of speed: 0-max, doesn't care angle
+    /** @return number of draw calls used for trails last frame */
+    public int getFlushCount() {
+        return flushCount;
     }
     
     private Color backgroundColor(OrthographicCamera cam) {
@@ -313,7 +332,8 @@ public class SplineRenderSystem extends SortedIteratingSystem implements Disposa
     
     @Override
     public void dispose() {
-        shape.dispose();
+        mesh.dispose();
+        shader.dispose();
     }
     
 }
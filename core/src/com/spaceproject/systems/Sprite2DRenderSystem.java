@@ -7,75 +7,82 @@ import com.badlogic.ashley.systems.IteratingSystem;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.utils.Array;
 import com.spaceproject.components.ShaderComponent;
 import com.spaceproject.components.TextureComponent;
 import com.spaceproject.components.TransformComponent;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.utility.Mappers;
+import com.spaceproject.utility.ZOrderQueue;
 
 import java.util.Comparator;
 
 public class Sprite2DRenderSystem extends IteratingSystem {
     
     private final OrthographicCamera cam;
-    private final SpriteBatch spriteBatch;
+    private final RenderPipeline pipeline;
+    private SpriteBatch spriteBatch;
     
-    private final Array<Entity> renderQueue = new Array<>();
-    private final Comparator<Entity> comparator = new Comparator<Entity>() {
+    private final ZOrderQueue renderQueue = new ZOrderQueue();
+    
+    //within the same zOrder, group by texture (atlas page) so the batch doesn't flush between pages
+    private final Comparator<Entity> textureComparator = new Comparator<Entity>() {
         @Override
         public int compare(Entity entityA, Entity entityB) {
-            return (int) Math.signum(Mappers.transform.get(entityB).zOrder
-                    - Mappers.transform.get(entityA).zOrder);
+            return Integer.compare(Mappers.texture.get(entityA).region.getTexture().getTextureObjectHandle(),
+                    Mappers.texture.get(entityB).region.getTexture().getTextureObjectHandle());
         }
     };
     
-    
     public Sprite2DRenderSystem() {
         super(Family.all(TextureComponent.class, TransformComponent.class).exclude(ShaderComponent.class).get());
     
         cam = GameScreen.cam;
-        spriteBatch = new SpriteBatch();
+        pipeline = GameScreen.pipeline;
     }
 
     @Override
     protected void processEntity(Entity entity, float deltaTime) {
-        renderQueue.add(entity);
+        if (isVisible(entity)) {
+            renderQueue.add(entity);
+        }
     }
     
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime); //adds entities to render queue
-        
-        //sort render order
-        renderQueue.sort(comparator);
+        super.update(deltaTime); //adds visible entities to render queue, bucketed by render order
         
-        spriteBatch.setProjectionMatrix(cam.combined);
-        spriteBatch.begin();
-        for (Entity entity : renderQueue) {
+        spriteBatch = pipeline.batch("sprites", cam.combined, null);
+        for (Entity entity : renderQueue.getOrdered(textureComparator)) {
             render(entity);
         }
-        spriteBatch.end();
         
         renderQueue.clear();
     }
     
+    private boolean isVisible(Entity entity) {
+        TextureComponent tex = Mappers.texture.get(entity);
+        TransformComponent t = Mappers.transform.get(entity);
+        //half the sum of the sides is never smaller than half the diagonal: covers any rotation
+        float radius = (tex.region.getRegionWidth() + tex.region.getRegionHeight()) * 0.5f * tex.scale;
+        return cam.frustum.sphereInFrustumWithoutNearFar(t.pos.x, t.pos.y, 0, radius);
+    }
+    
     private void render(Entity entity) {
         TextureComponent tex = Mappers.texture.get(entity);
         TransformComponent t = Mappers.transform.get(entity);
         
-        float width = tex.texture.getWidth();
-        float height = tex.texture.getHeight();
+        float width = tex.region.getRegionWidth();
+        float height = tex.region.getRegionHeight();
         float originX = width * 0.5f; //center
         float originY = height * 0.5f; //center
         
         //draw texture
-        spriteBatch.draw(tex.texture, (t.pos.x - originX), (t.pos.y - originY),
+        spriteBatch.draw(tex.region, (t.pos.x - originX), (t.pos.y - originY),
                 originX, originY,
                 width, height,
                 tex.scale, tex.scale,
-                MathUtils.radiansToDegrees * t.rotation,
-                0, 0, (int) width, (int) height, false, false);
+                MathUtils.radiansToDegrees * t.rotation);
     }
     
 }
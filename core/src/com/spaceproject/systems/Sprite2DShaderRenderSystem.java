@@ -15,6 +15,7 @@ import com.spaceproject.components.ShaderComponent;
 import com.spaceproject.components.StarComponent;
 import com.spaceproject.components.TextureComponent;
 import com.spaceproject.components.TransformComponent;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.utility.Mappers;
 
@@ -23,7 +24,8 @@ import java.util.Comparator;
 public class Sprite2DShaderRenderSystem extends IteratingSystem implements Disposable {
     
     private final OrthographicCamera cam;
-    private final SpriteBatch spriteBatch;
+    private final RenderPipeline pipeline;
+    private SpriteBatch spriteBatch;
     private final ShaderProgram starShader;
     private final ShaderProgram grayscaleShader;
     
@@ -46,14 +48,12 @@ public class Sprite2DShaderRenderSystem extends IteratingSystem implements Dispo
         super(Family.all(TextureComponent.class, TransformComponent.class, ShaderComponent.class).get());
     
         cam = GameScreen.cam;
-        spriteBatch = new SpriteBatch();
+        pipeline = GameScreen.pipeline;
     
         //load shaders
         ShaderProgram.pedantic = false;
         starShader = new ShaderProgram(Gdx.files.internal("shaders/starAnimate.vert"), Gdx.files.internal("shaders/starAnimate.frag"));
         if (starShader.isCompiled()) {
-            //load by default for now
-            spriteBatch.setShader(starShader);
             Gdx.app.log(this.getClass().getSimpleName(), "shader compiled successfully!");
         } else {
             Gdx.app.error(this.getClass().getSimpleName(), "shader failed to compile:\n" + starShader.getLog());
@@ -82,30 +82,26 @@ public class Sprite2DShaderRenderSystem extends IteratingSystem implements Dispo
     
         //shift shader
         shift += shiftSpeed * deltaTime;
-        starShader.bind();
-        starShader.setUniformf("u_shift", (float) Math.sin(shift));
         //DebugSystem.addDebugText(MyMath.round(shift, 2) + " shifted -> " + MyMath.round(Math.sin(shift), 2), 500, 500);
         
         //render
-        spriteBatch.setProjectionMatrix(cam.combined);
-        spriteBatch.begin();
+        currentActiveShader = null;
         for (Entity entity : renderQueue) {
             ShaderComponent shaderComponent = Mappers.shader.get(entity);
             if (currentActiveShader != shaderComponent.shaderType) {
                 currentActiveShader = shaderComponent.shaderType;
-                // dynamically set appropriate shader
-                // warning: setting shader will flush the batch between batch.begin() and batch.end()
-                // this is fine for now, but something to potentially consider in the future
-                // todo: profile. (don't prematurely optimise)
+                // dynamically set appropriate shader through the pipeline, which flushes only when the shader changes.
+                // queue is grouped by shader so this happens at most once per shader type
                 switch (shaderComponent.shaderType) {
                     case star:
-                        spriteBatch.setShader(starShader);
+                        spriteBatch = pipeline.batch("sprites shader", cam.combined, starShader);
+                        //uniforms must be set after the batch has bound the shader
+                        starShader.setUniformf("u_shift", (float) Math.sin(shift));
                         break;
                     case grayscale:
-                        spriteBatch.setShader(grayscaleShader);
+                        spriteBatch = pipeline.batch("sprites shader", cam.combined, grayscaleShader);
                         break;
                 }
-                Gdx.app.debug(this.getClass().getSimpleName(), "shader set to: " + currentActiveShader);
             }
     
             StarComponent star = Mappers.star.get(entity);
@@ -119,7 +115,6 @@ public class Sprite2DShaderRenderSystem extends IteratingSystem implements Dispo
             
             render(entity);
         }
-        spriteBatch.end();
         
         renderQueue.clear();
     }
@@ -128,23 +123,21 @@ public class Sprite2DShaderRenderSystem extends IteratingSystem implements Dispo
         TextureComponent tex = Mappers.texture.get(entity);
         TransformComponent transform = Mappers.transform.get(entity);
         
-        float width = tex.texture.getWidth();
-        float height = tex.texture.getHeight();
+        float width = tex.region.getRegionWidth();
+        float height = tex.region.getRegionHeight();
         float originX = width * 0.5f; //center
         float originY = height * 0.5f; //center
         
         //draw texture
-        spriteBatch.draw(tex.texture, (transform.pos.x - originX), (transform.pos.y - originY),
+        spriteBatch.draw(tex.region, (transform.pos.x - originX), (transform.pos.y - originY),
                 originX, originY,
                 width, height,
                 tex.scale, tex.scale,
-                MathUtils.radiansToDegrees * transform.rotation,
-                0, 0, (int) width, (int) height, false, false);
+                MathUtils.radiansToDegrees * transform.rotation);
     }
     
     @Override
     public void dispose() {
-        spriteBatch.dispose();
         starShader.dispose();
         grayscaleShader.dispose();
     }
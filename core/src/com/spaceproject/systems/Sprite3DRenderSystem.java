@@ -4,73 +4,190 @@ package com.spaceproject.systems;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
 import com.spaceproject.components.Sprite3DComponent;
 import com.spaceproject.components.TransformComponent;
 import com.spaceproject.screens.GameScreen;
+import com.spaceproject.ui.Sprite3D;
 import com.spaceproject.utility.Mappers;
+import com.spaceproject.utility.ZOrderQueue;
 
 import java.util.Comparator;
 
-public class Sprite3DRenderSystem extends IteratingSystem {
+/**
+ * Draws ships in z-order. Every visible sprite is transformed on the cpu into one dynamic mesh,
+ * and each run of consecutive sprites on the same atlas page is a single draw call.
+ */
+public class Sprite3DRenderSystem extends IteratingSystem implements Disposable {
+    
+    //16 bit indices: 8191 sprites of 8 vertices
+    private static final int maxSprites = 65535 / Sprite3D.VERTICES;
     
     private final OrthographicCamera cam;
     private final ModelBatch modelBatch;
     
-    private final Array<Entity> renderQueue = new Array<>();
-    private final Comparator<Entity> comparator = new Comparator<Entity>() {
+    private final ZOrderQueue renderQueue = new ZOrderQueue();
+    
+    //within the same zOrder, group by texture (atlas page) so consecutive sprites share a draw call
+    private final Comparator<Entity> textureComparator = new Comparator<Entity>() {
         @Override
         public int compare(Entity entityA, Entity entityB) {
-            return (int) Math.signum(Mappers.transform.get(entityB).zOrder
-                    - Mappers.transform.get(entityA).zOrder);
+            return Integer.compare(Mappers.sprite3D.get(entityA).renderable.getTexture().getTextureObjectHandle(),
+                    Mappers.sprite3D.get(entityB).renderable.getTexture().getTextureObjectHandle());
         }
     };
     
+    private Mesh mesh;
+    private float[] vertices;
+    private int capacity;
+    private int sprites;
+    //one renderable per draw call, reused between frames
+    private final Array<Renderable> batches = new Array<>();
+    private int batchCount;
+    private Renderable batch;
+    private Texture batchTexture;
+    
     
     public Sprite3DRenderSystem() {
         super(Family.all(Sprite3DComponent.class, TransformComponent.class).get());
         
         cam = GameScreen.cam;
-        modelBatch = new ModelBatch();
+        //keep the order of the render queue: the default sorter would reorder by material and distance
+        modelBatch = new ModelBatch(new RenderableSorter() {
+            @Override
+            public void sort(Camera camera, Array<Renderable> renderables) { }
+        });
+        ensureCapacity(64);
     }
     
     @Override
     protected void processEntity(Entity entity, float deltaTime) {
-        renderQueue.add(entity);
+        if (isVisible(entity)) {
+            renderQueue.add(entity);
+        }
     }
     
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime); //adds entities to render queue
+        super.update(deltaTime); //adds visible entities to render queue, bucketed by render order
         
-        //sort render order
-        renderQueue.sort(comparator);
+        Array<Entity> ordered = renderQueue.getOrdered(textureComparator);
+        if (ordered.size > 0) {
+            GameScreen.pipeline.custom("sprites 3d");
+            ensureCapacity(Math.min(ordered.size, maxSprites));
+            for (Entity entity : ordered) {
+                add(entity);
+            }
+            flush();
+        }
+        
+        renderQueue.clear();
+    }
+    
+    private void add(Entity entity) {
+        if (sprites == capacity) {
+            flush();
+        }
+        
+        Sprite3D sprite3D = Mappers.sprite3D.get(entity).renderable;
+        updateTransform(entity);
+        sprite3D.writeVertices(vertices, sprites * Sprite3D.VERTICES * Sprite3D.VERTEX_SIZE);
+        
+        //new draw call only when the page changes, so the z-order is kept
+        if (batch == null || batchTexture != sprite3D.getTexture()) {
+            batch = obtainBatch(sprites * Sprite3D.INDICES);
+            batch.material = sprite3D.material;
+            batchTexture = sprite3D.getTexture();
+        }
+        batch.meshPart.size += Sprite3D.INDICES;
+        sprites++;
+    }
+    
+    private Renderable obtainBatch(int offset) {
+        if (batchCount == batches.size) {
+            Renderable renderable = new Renderable();
+            renderable.meshPart.primitiveType = GL20.GL_TRIANGLES;
+            batches.add(renderable);
+        }
+        Renderable renderable = batches.get(batchCount++);
+        //vertices are already in world space
+        renderable.worldTransform.idt();
+        renderable.meshPart.mesh = mesh;
+        renderable.meshPart.offset = offset;
+        renderable.meshPart.size = 0;
+        return renderable;
+    }
     
+    private void ensureCapacity(int count) {
+        if (count <= capacity) return;
+        
+        capacity = Math.min(MathUtils.nextPowerOfTwo(count), maxSprites);
+        if (mesh != null) {
+            mesh.dispose();
+        }
+        mesh = new Mesh(false, capacity * Sprite3D.VERTICES, capacity * Sprite3D.INDICES,
+                VertexAttribute.Position(), VertexAttribute.Normal(), VertexAttribute.TexCoords(0));
+        vertices = new float[capacity * Sprite3D.VERTICES * Sprite3D.VERTEX_SIZE];
+        short[] indices = new short[capacity * Sprite3D.INDICES];
+        for (int i = 0; i < capacity; i++) {
+            Sprite3D.writeIndices(indices, i * Sprite3D.INDICES, i * Sprite3D.VERTICES);
+        }
+        mesh.setIndices(indices);
+    }
+    
+    private void flush() {
+        if (sprites == 0) return;
+        
+        mesh.setVertices(vertices, 0, sprites * Sprite3D.VERTICES * Sprite3D.VERTEX_SIZE);
         modelBatch.begin(cam);
-        for (Entity entity : renderQueue) {
-            render(entity);
+        for (int i = 0; i < batchCount; i++) {
+            modelBatch.render(batches.get(i));
         }
         modelBatch.end();
         
-        renderQueue.clear();
+        sprites = 0;
+        batchCount = 0;
+        batch = null;
+        batchTexture = null;
+    }
+    
+    private boolean isVisible(Entity entity) {
+        Sprite3D sprite3D = Mappers.sprite3D.get(entity).renderable;
+        TransformComponent t = Mappers.transform.get(entity);
+        float radius = (sprite3D.getRenderWidth() + sprite3D.getRenderHeight()) * 0.5f * Math.max(sprite3D.scale.x, sprite3D.scale.y);
+        return cam.frustum.sphereInFrustumWithoutNearFar(t.pos.x, t.pos.y, 0, radius);
     }
     
-    private void render(Entity entity) {
+    private void updateTransform(Entity entity) {
         Sprite3DComponent sprite3D = Mappers.sprite3D.get(entity);
         TransformComponent t = Mappers.transform.get(entity);
-
-        //TODO: the switch to renderables from textures seems to have a performance impact. currently it's a mesh and texture per entity.
-        //see https://xoppa.github.io/blog/a-simple-card-game/#reduce-the-number-of-render-calls
+        
         sprite3D.renderable.worldTransform.setToRotation(Vector3.Z, MathUtils.radDeg * t.rotation);
         sprite3D.renderable.worldTransform.rotate(Vector3.X, MathUtils.radDeg * sprite3D.renderable.angle);
         sprite3D.renderable.worldTransform.setTranslation(t.pos.x, t.pos.y, -50);
-        sprite3D.renderable.worldTransform.scale(sprite3D.renderable.scale.x, sprite3D.renderable.scale.y, sprite3D.renderable.scale.z);
-        
-        modelBatch.render(sprite3D.renderable);
+        //shared unit quad: scale to sprite size
+        sprite3D.renderable.worldTransform.scale(
+                sprite3D.renderable.scale.x * sprite3D.renderable.getRenderWidth(),
+                sprite3D.renderable.scale.y * sprite3D.renderable.getRenderHeight(),
+                sprite3D.renderable.scale.z);
+    }
+    
+    @Override
+    public void dispose() {
+        modelBatch.dispose();
+        mesh.dispose();
     }
     
     /* Debug manual control
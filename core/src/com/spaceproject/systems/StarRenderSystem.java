@@ -15,13 +15,15 @@ import com.spaceproject.components.StarComponent;
 import com.spaceproject.components.TextureComponent;
 import com.spaceproject.components.TransformComponent;
 import com.spaceproject.math.MyMath;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.utility.Mappers;
 
 public class StarRenderSystem extends IteratingSystem implements Disposable {
     
     private final OrthographicCamera cam;
-    private final SpriteBatch spriteBatch;
+    private final RenderPipeline pipeline;
+    private SpriteBatch spriteBatch;
     private final ShaderProgram starShader;
     
     private float shift = 0;
@@ -33,13 +35,12 @@ public class StarRenderSystem extends IteratingSystem implements Disposable {
         super(Family.all(TextureComponent.class, TransformComponent.class, StarComponent.class).get());
         
         cam = GameScreen.cam;
-        spriteBatch = new SpriteBatch();
+        pipeline = GameScreen.pipeline;
       
         //load shaders
         ShaderProgram.pedantic = false;
         starShader = new ShaderProgram(Gdx.files.internal("shaders/starAnimate.vert"), Gdx.files.internal("shaders/starAnimate.frag"));
         if (starShader.isCompiled()) {
-            spriteBatch.setShader(starShader);
             Gdx.app.log(this.getClass().getSimpleName(), "shader compiled successfully!");
         } else {
             Gdx.app.error(this.getClass().getSimpleName(), "shader failed to compile:\n" + starShader.getLog());
@@ -48,21 +49,22 @@ public class StarRenderSystem extends IteratingSystem implements Disposable {
     
     @Override
     protected void processEntity(Entity entity, float deltaTime) {
-        renderQueue.add(entity);
+        if (isVisible(entity)) {
+            renderQueue.add(entity);
+        }
     }
     
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime); //adds entities to render queue
+        super.update(deltaTime); //adds visible entities to render queue
         
         //shift shader
         shift += shiftSpeed * deltaTime;
-        starShader.bind();
-        starShader.setUniformf("u_shift", (float) Math.sin(shift));
         DebugSystem.addDebugText(MyMath.round(shift, 2) + " shifted -> " + MyMath.round(Math.sin(shift), 2), 500, 500);
     
-        spriteBatch.setProjectionMatrix(cam.combined);
-        spriteBatch.begin();
+        spriteBatch = pipeline.batch("stars", cam.combined, starShader);
+        //uniforms must be set after the batch has bound the shader
+        starShader.setUniformf("u_shift", (float) Math.sin(shift));
         
         for (Entity entity : renderQueue) {
             /*
@@ -76,31 +78,37 @@ public class StarRenderSystem extends IteratingSystem implements Disposable {
             */
             render(entity);
         }
-
-        spriteBatch.end();
+        
+        renderQueue.clear();
+    }
+    
+    private boolean isVisible(Entity entity) {
+        TextureComponent tex = Mappers.texture.get(entity);
+        TransformComponent transform = Mappers.transform.get(entity);
+        //half the sum of the sides is never smaller than half the diagonal: covers any rotation
+        float radius = (tex.region.getRegionWidth() + tex.region.getRegionHeight()) * 0.5f * tex.scale;
+        return cam.frustum.sphereInFrustumWithoutNearFar(transform.pos.x, transform.pos.y, 0, radius);
     }
     
     private void render(Entity entity) {
         TextureComponent tex = Mappers.texture.get(entity);
         TransformComponent transform = Mappers.transform.get(entity);
         
-        float width = tex.texture.getWidth();
-        float height = tex.texture.getHeight();
+        float width = tex.region.getRegionWidth();
+        float height = tex.region.getRegionHeight();
         float originX = width * 0.5f; //center
         float originY = height * 0.5f; //center
         
         //draw texture
-        spriteBatch.draw(tex.texture, (transform.pos.x - originX), (transform.pos.y - originY),
+        spriteBatch.draw(tex.region, (transform.pos.x - originX), (transform.pos.y - originY),
                 originX, originY,
                 width, height,
                 tex.scale, tex.scale,
-                MathUtils.radiansToDegrees * transform.rotation,
-                0, 0, (int) width, (int) height, false, false);
+                MathUtils.radiansToDegrees * transform.rotation);
     }
     
     @Override
     public void dispose() {
-        spriteBatch.dispose();
         starShader.dispose();
     }
     
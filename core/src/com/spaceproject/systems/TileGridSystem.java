@@ -8,14 +8,15 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.utils.Disposable;
 import com.spaceproject.SpaceProject;
 import com.spaceproject.config.WorldConfig;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.GameScreen;
 
-public class TileGridSystem extends EntitySystem implements Disposable {
+public class TileGridSystem extends EntitySystem {
     
-    private final ShapeRenderer shape;
+    private final RenderPipeline pipeline;
+    private ShapeRenderer shape;
     private final Matrix4 projectionMatrix;
     private final Vector3 screenCoords = new Vector3();
     private final Vector3 camWorldPos = new Vector3();
@@ -23,7 +24,7 @@ public class TileGridSystem extends EntitySystem implements Disposable {
     private final WorldConfig worldCFG = SpaceProject.configManager.getConfig(WorldConfig.class);
     
     public TileGridSystem() {
-        shape = new ShapeRenderer();
+        pipeline = GameScreen.pipeline;
         projectionMatrix = new Matrix4();
     }
     
@@ -32,7 +33,6 @@ public class TileGridSystem extends EntitySystem implements Disposable {
     public void update(float deltaTime) {
         //update matrix and convert screen coords to world cords.
         projectionMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
-        shape.setProjectionMatrix(projectionMatrix);
         screenCoords.set(0,0,0);
         GameScreen.viewport.project(screenCoords);
         camWorldPos.set(GameScreen.cam.position.cpy());
@@ -43,7 +43,7 @@ public class TileGridSystem extends EntitySystem implements Disposable {
         //debugClearScreen();
         
         //render
-        shape.begin(ShapeRenderer.ShapeType.Line);
+        shape = pipeline.shape("tile grid", projectionMatrix, ShapeRenderer.ShapeType.Line);
         
         //todo: apply shader to grid
         drawGrid(Color.GOLD, worldCFG.tileSize, 1.0f);
@@ -53,7 +53,6 @@ public class TileGridSystem extends EntitySystem implements Disposable {
         drawCameraPos(Color.RED);
         
         animate += deltaTime;
-        shape.end();
     }
     
     private void drawCameraPos(Color color) {
@@ -106,9 +105,4 @@ public class TileGridSystem extends EntitySystem implements Disposable {
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
     }
     
-    @Override
-    public void dispose() {
-        shape.dispose();
-    }
-    
 }
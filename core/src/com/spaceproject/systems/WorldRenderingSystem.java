@@ -6,26 +6,30 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Disposable;
 import com.spaceproject.SpaceProject;
 import com.spaceproject.components.SeedComponent;
 import com.spaceproject.config.WorldConfig;
+import com.spaceproject.generation.TextureCache;
 import com.spaceproject.generation.TextureFactory;
 import com.spaceproject.noise.NoiseBuffer;
+import com.spaceproject.rendering.RenderPipeline;
 import com.spaceproject.screens.GameScreen;
 import com.spaceproject.ui.Tile;
 
 import java.util.ArrayList;
 
-public class WorldRenderingSystem extends EntitySystem {
+public class WorldRenderingSystem extends EntitySystem implements Disposable {
     
     private final OrthographicCamera cam;
-    private final SpriteBatch spriteBatch;
+    private final RenderPipeline pipeline;
+    private SpriteBatch spriteBatch;
 
     private final ArrayList<Tile> tiles = Tile.defaultTiles;
     
     private NoiseBuffer noiseMap = null;
     
-    private final Texture tileTex = TextureFactory.createTile(new Color(1f, 1f, 1f, 1f));
+    private final Texture tileTex = TextureFactory.acquireTile(new Color(1f, 1f, 1f, 1f));
     private final WorldConfig worldCFG = SpaceProject.configManager.getConfig(WorldConfig.class);
     
     private boolean debugShowEdgeTile = false;
@@ -33,7 +37,7 @@ public class WorldRenderingSystem extends EntitySystem {
     
     public WorldRenderingSystem() {
         this.cam = GameScreen.cam;
-        this.spriteBatch = new SpriteBatch();
+        this.pipeline = GameScreen.pipeline;
     }
     
     private void loadMap() {
@@ -77,13 +81,10 @@ public class WorldRenderingSystem extends EntitySystem {
             return;
         }
         
-        spriteBatch.setProjectionMatrix(cam.combined);
-        spriteBatch.begin();
+        spriteBatch = pipeline.batch("world tiles", cam.combined, null);
         
         //render background tiles
         drawTiles(worldCFG.tileSize);
-        
-        spriteBatch.end();
     }
 
     private void drawTiles(int tileSize) {
@@ -129,4 +130,9 @@ public class WorldRenderingSystem extends EntitySystem {
         }
     }
     
+    @Override
+    public void dispose() {
+        TextureCache.release(tileTex);
+    }
+    
 }
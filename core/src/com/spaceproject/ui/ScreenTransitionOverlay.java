@@ -2,7 +2,6 @@ package com.spaceproject.ui;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.spaceproject.utility.SimpleTimer;
 
@@ -46,10 +45,6 @@ public class ScreenTransitionOverlay {
     public void render() {
         if (fadeState == FadeState.off) return;
     
-        //enable transparency
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-        
         shape.begin(ShapeRenderer.ShapeType.Filled);
         shape.setColor(fadeColor);
         switch (fadeState) {
@@ -67,8 +62,6 @@ public class ScreenTransitionOverlay {
         shape.rect(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         shape.end();
         
-        Gdx.gl.glDisable(GL20.GL_BLEND);
-        
         if (fadeTimer.tryEvent()) {
             switch (fadeState) {
                 case fadeIn: fadeState = FadeState.on; break;
@@ -6,61 +6,74 @@ import com.badlogic.gdx.graphics.Mesh;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.VertexAttribute;
-import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g3d.Material;
 import com.badlogic.gdx.graphics.g3d.Renderable;
 import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.spaceproject.generation.RuntimeAtlas;
 
 
 //based on: xoppa.github.io/blog/a-simple-card-game/
 public class Sprite3D extends Renderable implements Disposable {
     
+    /** quad layout, see {@link #writeVertices(float[], int)}: position, normal, uv per vertex */
+    public static final int VERTEX_SIZE = 8;
+    public static final int VERTICES = 8;
+    public static final int INDICES = 12;
+    private static final short[] indices = new short[]{0, 1, 2, 2, 3, 0, 4, 5, 6, 6, 7, 4};
+    
     public final Vector3 position = new Vector3();
     public final Quaternion rotation = new Quaternion();
     public final Vector3 scale = new Vector3(1, 1, 1);
     public float angle;
     
+    private final TextureRegion region;
+    private final int frameWidth, frameHeight;
+    //size in world units. the mesh is a unit quad shared between sprites, so size is applied in the world transform
+    private final float renderWidth, renderHeight;
+    private final SharedQuad quad;
+    
     public Sprite3D(Texture frontTex, Texture backTex, float renderScale) {
         //combine textures: Sprites loaded into material texture must come from same texture
-        int width = frontTex.getWidth(), height = frontTex.getHeight();
-        Texture combinedTex = combineTextures(frontTex, backTex);
-        
-        //create 3D ship with front and back texture
-        Sprite front = new Sprite(combinedTex, 0, 0, width, height);
-        Sprite back = new Sprite(combinedTex, 0, height, width, height);
+        this(combineTextures(frontTex, backTex), renderScale);
+    }
+    
+    public Sprite3D(Texture combinedTex, float renderScale) {
+        this(new TextureRegion(combinedTex), renderScale);
+    }
+    
+    /**
+     * @param combined front in top half, back in bottom half. see TextureFactory.acquireShip()
+     */
+    public Sprite3D(TextureRegion combined, float renderScale) {
+        this.region = combined;
+        frameWidth = combined.getRegionWidth();
+        frameHeight = combined.getRegionHeight() / 2;
+        renderWidth = frameWidth * renderScale;
+        renderHeight = frameHeight * renderScale;
         
+        //front and back share the same texture, so all sprites on the same atlas page can be drawn together
         material = new Material(
-                TextureAttribute.createDiffuse(front.getTexture()),
+                TextureAttribute.createDiffuse(combined.getTexture()),
                 new BlendingAttribute(false, 1f)
                 //,FloatAttribute.createAlphaTest(0.5f)
         );
         
-        float scaledWidth = front.getWidth() * renderScale;
-        float scaledHeight = front.getHeight() * renderScale;
-        front.setSize(scaledWidth, scaledHeight);
-        back.setSize(scaledWidth, scaledHeight);
-        
-        front.setPosition(-front.getWidth() * 0.5f, -front.getHeight() * 0.5f);
-        back.setPosition(-back.getWidth() * 0.5f, -back.getHeight() * 0.5f);
-        
-        float[] vertices = convert(front.getVertices(), back.getVertices());
-        short[] indices = new short[]{0, 1, 2, 2, 3, 0, 4, 5, 6, 6, 7, 4};
-        
-        meshPart.mesh = new Mesh(true, 8, 12, VertexAttribute.Position(), VertexAttribute.Normal(), VertexAttribute.TexCoords(0));
-        meshPart.mesh.setVertices(vertices);
-        meshPart.mesh.setIndices(indices);
+        quad = SharedQuad.obtain(combined.getU(), combined.getV(), combined.getU2(), combined.getV2());
+        meshPart.mesh = quad.mesh;
         meshPart.offset = 0;
-        meshPart.size = meshPart.mesh.getNumIndices();
+        meshPart.size = quad.mesh.getNumIndices();
         meshPart.primitiveType = GL20.GL_TRIANGLES;
         meshPart.update();
     }
     
-    private Texture combineTextures(Texture textureA, Texture textureB) {
+    private static Texture combineTextures(Texture textureA, Texture textureB) {
         Pixmap pixmap = new Pixmap(textureA.getWidth(), textureA.getHeight() * 2, Pixmap.Format.RGBA8888);
         pixmap.drawPixmap(textureA.getTextureData().consumePixmap(), 0, 0);
         pixmap.drawPixmap(textureB.getTextureData().consumePixmap(), 0, textureA.getHeight());
@@ -69,26 +82,120 @@ public class Sprite3D extends Renderable implements Disposable {
         return texture;
     }
     
-    private static float[] convert(float[] front, float[] back) {
-        return new float[]{
-                front[Batch.X2], front[Batch.Y2], 0, 0, 0, 1, front[Batch.U2], front[Batch.V2],
-                front[Batch.X1], front[Batch.Y1], 0, 0, 0, 1, front[Batch.U1], front[Batch.V1],
-                front[Batch.X4], front[Batch.Y4], 0, 0, 0, 1, front[Batch.U4], front[Batch.V4],
-                front[Batch.X3], front[Batch.Y3], 0, 0, 0, 1, front[Batch.U3], front[Batch.V3],
-                
-                back[Batch.X1], back[Batch.Y1], 0, 0, 0, -1, back[Batch.U1], back[Batch.V1],
-                back[Batch.X2], back[Batch.Y2], 0, 0, 0, -1, back[Batch.U2], back[Batch.V2],
-                back[Batch.X3], back[Batch.Y3], 0, 0, 0, -1, back[Batch.U3], back[Batch.V3],
-                back[Batch.X4], back[Batch.Y4], 0, 0, 0, -1, back[Batch.U4], back[Batch.V4]
-        };
+    public int getFrameWidth() {
+        return frameWidth;
+    }
+    
+    public int getFrameHeight() {
+        return frameHeight;
+    }
+    
+    public float getRenderWidth() {
+        return renderWidth;
+    }
+    
+    public float getRenderHeight() {
+        return renderHeight;
+    }
+    
+    public Texture getTexture() {
+        return region.getTexture();
     }
     
     public void update() {
-        this.worldTransform.set(position, rotation, scale);
+        this.worldTransform.set(position, rotation, scale).scale(renderWidth, renderHeight, 1);
+    }
+    
+    /** write the quad's triangles for a sprite whose vertices start at firstVertex */
+    public static void writeIndices(short[] out, int offset, int firstVertex) {
+        for (short index : indices) {
+            out[offset++] = (short) (firstVertex + index);
+        }
+    }
+    
+    /**
+     * Write the quad transformed by the world transform, so sprites on the same atlas page can share one mesh and draw call.
+     * @param offset in floats, writes VERTICES * VERTEX_SIZE floats
+     */
+    public void writeVertices(float[] vertices, int offset) {
+        float[] m = worldTransform.val;
+        float[] local = quad.vertices;
+        for (int i = 0; i < local.length; i += VERTEX_SIZE) {
+            float x = local[i], y = local[i + 1];
+            vertices[offset++] = m[Matrix4.M00] * x + m[Matrix4.M01] * y + m[Matrix4.M03];
+            vertices[offset++] = m[Matrix4.M10] * x + m[Matrix4.M11] * y + m[Matrix4.M13];
+            vertices[offset++] = m[Matrix4.M20] * x + m[Matrix4.M21] * y + m[Matrix4.M23];
+            //normal is +-z: the transformed z axis
+            float nz = local[i + 5];
+            float nx = m[Matrix4.M02] * nz, ny = m[Matrix4.M12] * nz, nz2 = m[Matrix4.M22] * nz;
+            float len = (float) Math.sqrt(nx * nx + ny * ny + nz2 * nz2);
+            float invLen = len == 0 ? 0 : 1 / len;
+            vertices[offset++] = nx * invLen;
+            vertices[offset++] = ny * invLen;
+            vertices[offset++] = nz2 * invLen;
+            vertices[offset++] = local[i + 6];
+            vertices[offset++] = local[i + 7];
+        }
     }
     
     @Override
     public void dispose() {
-        meshPart.mesh.dispose();
+        quad.release();
+        RuntimeAtlas.release(region);
     }
+    
+    /**
+     * Unit quad mesh with front and back faces, shared by every sprite using the same texture region.
+     * Front is the top half of the region, back is the bottom half.
+     */
+    private static class SharedQuad {
+        
+        private static final ObjectMap<String, SharedQuad> quads = new ObjectMap<>();
+        
+        final String key;
+        final float[] vertices;
+        final Mesh mesh;
+        int refCount;
+        
+        private SharedQuad(String key, float u, float v, float u2, float v2) {
+            this.key = key;
+            float vMid = (v + v2) * 0.5f;
+            vertices = new float[]{
+                    //front: top-left, bottom-left, bottom-right, top-right. normal +z
+                    -0.5f, 0.5f, 0, 0, 0, 1, u, v,
+                    -0.5f, -0.5f, 0, 0, 0, 1, u, vMid,
+                    0.5f, -0.5f, 0, 0, 0, 1, u2, vMid,
+                    0.5f, 0.5f, 0, 0, 0, 1, u2, v,
+                    //back: bottom-left, top-left, top-right, bottom-right. normal -z
+                    -0.5f, -0.5f, 0, 0, 0, -1, u, v2,
+                    -0.5f, 0.5f, 0, 0, 0, -1, u, vMid,
+                    0.5f, 0.5f, 0, 0, 0, -1, u2, vMid,
+                    0.5f, -0.5f, 0, 0, 0, -1, u2, v2
+            };
+            mesh = new Mesh(true, VERTICES, INDICES, VertexAttribute.Position(), VertexAttribute.Normal(), VertexAttribute.TexCoords(0));
+            mesh.setVertices(vertices);
+            mesh.setIndices(indices);
+        }
+        
+        static SharedQuad obtain(float u, float v, float u2, float v2) {
+            String key = u + ":" + v + ":" + u2 + ":" + v2;
+            SharedQuad quad = quads.get(key);
+            if (quad == null) {
+                quad = new SharedQuad(key, u, v, u2, v2);
+                quads.put(key, quad);
+            }
+            quad.refCount++;
+            return quad;
+        }
+        
+        void release() {
+            refCount--;
+            if (refCount <= 0) {
+                quads.remove(key);
+                mesh.dispose();
+            }
+        }
+
+    }
+    
 }
@@ -5,10 +5,12 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Disposable;
+import com.spaceproject.generation.TextureCache;
 import com.spaceproject.generation.TextureFactory;
 
-public class Button {
-    static Texture buttonTex = TextureFactory.createTile(new Color(1f, 1f, 1f, 1f));
+public class Button implements Disposable {
+    private final Texture buttonTex = TextureFactory.acquireTile(new Color(1f, 1f, 1f, 1f));
     
     private String text;
     private float x, y;
@@ -50,4 +52,9 @@ public class Button {
         return text;
     }
     
+    @Override
+    public void dispose() {
+        TextureCache.release(buttonTex);
+    }
+    
 }
\ No newline at end of file
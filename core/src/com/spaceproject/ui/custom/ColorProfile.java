@@ -5,12 +5,13 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.Disposable;
 import com.spaceproject.ui.Tile;
 
 import java.util.ArrayList;
 import java.util.Collections;
 
-public class ColorProfile {
+public class ColorProfile implements Disposable {
     //column dimensions
     int columnX;
     int columnY;
@@ -230,4 +231,13 @@ public class ColorProfile {
         }
     }
     
+    @Override
+    public void dispose() {
+        red.dispose();
+        green.dispose();
+        blue.dispose();
+        add.dispose();
+        remove.dispose();
+    }
+    
 }
\ No newline at end of file
@@ -6,11 +6,13 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.spaceproject.generation.TextureCache;
 import com.spaceproject.generation.TextureFactory;
 import com.spaceproject.math.MyMath;
 
-public class Slider {
-    static Texture tex = TextureFactory.createTile(new Color(1f, 1f, 1f, 1f));
+public class Slider implements Disposable {
+    private final Texture tex = TextureFactory.acquireTile(new Color(1f, 1f, 1f, 1f));
     
     private int btnWidth;
     private int sldWidth;
@@ -98,4 +100,9 @@ public class Slider {
         return false;
     }
     
+    @Override
+    public void dispose() {
+        TextureCache.release(tex);
+    }
+    
 }
\ No newline at end of file
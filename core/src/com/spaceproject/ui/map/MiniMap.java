@@ -4,7 +4,6 @@ import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
@@ -67,11 +66,6 @@ public class MiniMap {
         float centerMapY = mapContainer.y + mapContainer.height / 2;
         
         
-        //enable transparency
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-        
-        
         shape.begin(ShapeRenderer.ShapeType.Filled);
         {
             //draw backing
@@ -135,8 +129,6 @@ public class MiniMap {
         }
         shape.end();
         
-        Gdx.gl.glDisable(GL20.GL_BLEND);
-        
         
         if (!miniMapCFG.debugDisableClipping) {
             ScissorStack.popScissors();
@@ -222,7 +214,7 @@ public class MiniMap {
             float size = 2;
             TextureComponent tex = Mappers.texture.get(mapEntity);
             if (tex != null) {
-                size = Math.max((tex.texture.getWidth() * 0.5f * tex.scale) / mapScale, 1f);
+                size = Math.max((tex.region.getRegionWidth() * 0.5f * tex.scale) / mapScale, 1f);
             }
             
             tmpCircle.set(x, y, -size);// negative because want to include edges
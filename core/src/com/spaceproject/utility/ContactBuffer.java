@@ -0,0 +1,144 @@
+package com.spaceproject.utility;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.IntIntMap;
+
+/**
+ * Contacts recorded during world.step, resolved after the step by the PhysicsContactSystem.
+ * Records are kept in parallel preallocated arrays, so recording from inside Box2D callbacks doesn't allocate.
+ * Each pair of entities is recorded once per step and type: begin keeps the first contact point, impact keeps the strongest impulse.
+ */
+public class ContactBuffer {
+    
+    public static final int BEGIN = 0;
+    public static final int IMPACT = 1;
+    
+    private int capacity;
+    private int[] type;
+    private Entity[] entityA, entityB;
+    private float[] x, y, impulse;
+    private int size, peak;
+    //pair key -> record index for this step
+    private final IntIntMap pairs;
+    
+    public ContactBuffer(int capacity) {
+        this.capacity = capacity;
+        type = new int[capacity];
+        entityA = new Entity[capacity];
+        entityB = new Entity[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        impulse = new float[capacity];
+        pairs = new IntIntMap(capacity);
+    }
+    
+    public void record(int contactType, Entity a, Entity b, float pointX, float pointY, float contactImpulse) {
+        int hashA = System.identityHashCode(a);
+        int hashB = System.identityHashCode(b);
+        int key = ((Math.min(hashA, hashB) * 31 + Math.max(hashA, hashB)) << 1) | contactType;
+        
+        int index = pairs.get(key, -1);
+        if (index != -1 && type[index] == contactType
+                && ((entityA[index] == a && entityB[index] == b) || (entityA[index] == b && entityB[index] == a))) {
+            if (contactType == IMPACT) {
+                impulse[index] = Math.max(impulse[index], contactImpulse);
+            }
+            return;
+        }
+        
+        if (size == capacity) {
+            grow();
+        }
+        type[size] = contactType;
+        entityA[size] = a;
+        entityB[size] = b;
+        x[size] = pointX;
+        y[size] = pointY;
+        impulse[size] = contactImpulse;
+        if (index == -1) {
+            //on a hash collision the record is just not deduplicated
+            pairs.put(key, size);
+        }
+        size++;
+        peak = Math.max(peak, size);
+    }
+    
+    /** called after each world.step: the same pair may be recorded again in the next step */
+    public void endStep() {
+        pairs.clear();
+    }
+    
+    /** release references after the records are resolved */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            entityA[i] = null;
+            entityB[i] = null;
+        }
+        size = 0;
+        pairs.clear();
+    }
+    
+    private void grow() {
+        int newCapacity = capacity * 2;
+        type = resize(type, newCapacity);
+        entityA = resize(entityA, newCapacity);
+        entityB = resize(entityB, newCapacity);
+        x = resize(x, newCapacity);
+        y = resize(y, newCapacity);
+        impulse = resize(impulse, newCapacity);
+        capacity = newCapacity;
+        Gdx.app.debug(getClass().getSimpleName(), "grew contact buffer to " + capacity);
+    }
+    
+    private static int[] resize(int[] array, int length) {
+        int[] resized = new int[length];
+        System.arraycopy(array, 0, resized, 0, array.length);
+        return resized;
+    }
+    
+    private static float[] resize(float[] array, int length) {
+        float[] resized = new float[length];
+        System.arraycopy(array, 0, resized, 0, array.length);
+        return resized;
+    }
+    
+    private static Entity[] resize(Entity[] array, int length) {
+        Entity[] resized = new Entity[length];
+        System.arraycopy(array, 0, resized, 0, array.length);
+        return resized;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int getPeak() {
+        return peak;
+    }
+    
+    public int getType(int index) {
+        return type[index];
+    }
+    
+    public Entity getEntityA(int index) {
+        return entityA[index];
+    }
+    
+    public Entity getEntityB(int index) {
+        return entityB[index];
+    }
+    
+    public float getX(int index) {
+        return x[index];
+    }
+    
+    public float getY(int index) {
+        return y[index];
+    }
+    
+    public float getImpulse(int index) {
+        return impulse[index];
+    }
+    
+}
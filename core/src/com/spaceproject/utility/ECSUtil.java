@@ -16,6 +16,7 @@ import com.spaceproject.components.CameraFocusComponent;
 import com.spaceproject.components.CamTargetComponent;
 import com.spaceproject.components.ControlFocusComponent;
 import com.spaceproject.components.ControllableComponent;
+import com.spaceproject.components.InterestComponent;
 
 import java.lang.reflect.Field;
 
@@ -43,6 +44,7 @@ public class ECSUtil {
         transferComponent(fromEntity, toEntity, AIComponent.class);
         transferComponent(fromEntity, toEntity, ControllableComponent.class);
         transferComponent(fromEntity, toEntity, CamTargetComponent.class);
+        transferComponent(fromEntity, toEntity, InterestComponent.class);
     }
     
     public static Entity copyEntity(Entity entity) {
@@ -57,10 +59,11 @@ public class ECSUtil {
         if (entities == null || entities.size() == 0)
             return null;
         
+        //linear scan, prefer SpatialHashSystem indexes for frequent queries
         Entity targetEntity = entities.first();
-        float targetDist = position.dst(Mappers.transform.get(targetEntity).pos);
+        float targetDist = position.dst2(Mappers.transform.get(targetEntity).pos);
         for (Entity searchEnt : entities) {
-            float dist = position.dst(Mappers.transform.get(searchEnt).pos);
+            float dist = position.dst2(Mappers.transform.get(searchEnt).pos);
             if (dist < targetDist) {
                 targetDist = dist;
                 targetEntity = searchEnt;
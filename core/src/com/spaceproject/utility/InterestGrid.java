@@ -0,0 +1,82 @@
+package com.spaceproject.utility;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Coarse grid of the cells around a set of observers: a cell is active if any part of it is within an observer's radius.
+ * Active cells are simulated at full rate, everything else is distant and is due once every few frames,
+ * with cells spread over the frames so the distant work doesn't land on one frame. See InterestSystem.
+ */
+public class InterestGrid {
+    
+    private final float cellSize;
+    private final float invCellSize;
+    //keys of active cells, no allocation per frame
+    private final LongMap<Boolean> active = new LongMap<>();
+    
+    public InterestGrid(float cellSize) {
+        this.cellSize = cellSize;
+        this.invCellSize = 1 / cellSize;
+    }
+    
+    public void clear() {
+        active.clear();
+    }
+    
+    /** mark the cells that intersect the circle */
+    public void addObserver(float x, float y, float radius) {
+        int minX = cellCoord(x - radius), maxX = cellCoord(x + radius);
+        int minY = cellCoord(y - radius), maxY = cellCoord(y + radius);
+        float radius2 = radius * radius;
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                //closest point of the cell to the observer
+                float nearX = MathUtils.clamp(x, cx * cellSize, (cx + 1) * cellSize);
+                float nearY = MathUtils.clamp(y, cy * cellSize, (cy + 1) * cellSize);
+                float dx = nearX - x, dy = nearY - y;
+                if (dx * dx + dy * dy > radius2) continue;
+                
+                active.put(cellKey(cx, cy), Boolean.TRUE);
+            }
+        }
+    }
+    
+    public boolean isActive(float x, float y) {
+        return active.containsKey(cellKey(cellCoord(x), cellCoord(y)));
+    }
+    
+    /** @return true if the position is in an active cell, or in a distant cell whose turn it is this frame */
+    public boolean isDue(float x, float y, long frame, int interval) {
+        long key = cellKey(cellCoord(x), cellCoord(y));
+        if (active.containsKey(key)) return true;
+        if (interval <= 1) return true;
+        
+        //stagger distant cells over the interval
+        long mix = key * 0x9E3779B97F4A7C15L;
+        int phase = (int) ((mix >>> 40) % interval);
+        return phase == frame % interval;
+    }
+    
+    public boolean isEmpty() {
+        return active.size == 0;
+    }
+    
+    public int getActiveCells() {
+        return active.size;
+    }
+    
+    public float getCellSize() {
+        return cellSize;
+    }
+    
+    private int cellCoord(float value) {
+        //not MathUtils.floor, it is only correct above -16384
+        return (int) Math.floor(value * invCellSize);
+    }
+    
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xffffffffL);
+    }
+    
+}
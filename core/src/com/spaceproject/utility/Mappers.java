@@ -23,11 +23,15 @@ public class Mappers {
     public static final ComponentMapper<ExpireComponent> expire = ComponentMapper.getFor(ExpireComponent.class);
     public static final ComponentMapper<HealthComponent> health = ComponentMapper.getFor(HealthComponent.class);
     public static final ComponentMapper<HyperDriveComponent> hyper = ComponentMapper.getFor(HyperDriveComponent.class);
+    public static final ComponentMapper<InterestComponent> interest = ComponentMapper.getFor(InterestComponent.class);
+    public static final ComponentMapper<LODComponent> lod = ComponentMapper.getFor(LODComponent.class);
     public static final ComponentMapper<MapComponent> map = ComponentMapper.getFor(MapComponent.class);
     public static final ComponentMapper<OrbitComponent> orbit = ComponentMapper.getFor(OrbitComponent.class);
     public static final ComponentMapper<ParticleComponent> particle = ComponentMapper.getFor(ParticleComponent.class);
     public static final ComponentMapper<PhysicsComponent> physics = ComponentMapper.getFor(PhysicsComponent.class);
     public static final ComponentMapper<PlanetComponent> planet = ComponentMapper.getFor(PlanetComponent.class);
+    public static final ComponentMapper<PooledComponent> pooled = ComponentMapper.getFor(PooledComponent.class);
+    public static final ComponentMapper<RemoveComponent> remove = ComponentMapper.getFor(RemoveComponent.class);
     public static final ComponentMapper<RingEffectComponent> ring = ComponentMapper.getFor(RingEffectComponent.class);
     public static final ComponentMapper<ScreenTransitionComponent> screenTrans = ComponentMapper.getFor(ScreenTransitionComponent.class);
     public static final ComponentMapper<SeedComponent> seed = ComponentMapper.getFor(SeedComponent.class);
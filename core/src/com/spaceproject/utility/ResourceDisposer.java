@@ -8,19 +8,33 @@ import com.spaceproject.components.ParticleComponent;
 import com.spaceproject.components.PhysicsComponent;
 import com.spaceproject.components.Sprite3DComponent;
 import com.spaceproject.components.TextureComponent;
+import com.spaceproject.generation.RuntimeAtlas;
 
 public class ResourceDisposer {
     
-    private static int disposedTextures, disposedS3D, destroyedBody, disposedParticle;
-    private static int totalTextures, totalS3D, totalBody, totalParticle;
+    private static int disposedTextures, disposedS3D, destroyedBody, disposedParticle, deactivatedBody;
+    private static int totalTextures, totalS3D, totalBody, totalParticle, totalDeactivated;
     private static int totalTotal;
     private static StringBuilder info = new StringBuilder();
     
     public static void dispose(Entity entity) {
+        if (Mappers.pooled.get(entity) != null) {
+            //pooled entities keep their resources to be recycled, see ProjectilePoolSystem
+            PhysicsComponent physics = Mappers.physics.get(entity);
+            //null once destroyed by ProjectilePoolSystem.dispose
+            if (physics != null && physics.body != null) {
+                physics.body.setActive(false);
+                deactivatedBody++;
+            }
+            return;
+        }
+        
         TextureComponent tex = Mappers.texture.get(entity);
         if (tex != null) {
-            tex.texture.dispose();
-            disposedTextures++;
+            //shared regions are only freed once their last user is gone
+            if (RuntimeAtlas.release(tex.region)) {
+                disposedTextures++;
+            }
         }
         
         Sprite3DComponent s3d = Mappers.sprite3D.get(entity);
@@ -63,6 +77,7 @@ public class ResourceDisposer {
         totalS3D += disposedS3D;
         totalParticle += disposedParticle;
         totalBody += destroyedBody;
+        totalDeactivated += deactivatedBody;
         totalTotal = totalTextures + totalS3D + totalParticle + totalBody;
         
         //reset per frame data: should be called at very end of frame
@@ -70,6 +85,7 @@ public class ResourceDisposer {
         disposedS3D = 0;
         disposedParticle = 0;
         destroyedBody = 0;
+        deactivatedBody = 0;
     }
     
     public static String getTotalDisposeCount() {
@@ -79,6 +95,7 @@ public class ResourceDisposer {
         info.append("\n     [Particle]: " + totalParticle);
         info.append("\n     [B2D Body]: " + totalBody);
         info.append("\n     [Total]:    " + totalTotal); // total ;)
+        info.append("\n     [Pooled]:   " + totalDeactivated);
         reset();
         return info.toString();
     }
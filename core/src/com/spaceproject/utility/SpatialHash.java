@@ -0,0 +1,243 @@
+package com.spaceproject.utility;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Uniform grid over entity positions for proximity queries.
+ * Entities are bucketed by their TransformComponent position into square cells, so a query only visits
+ * the cells around the query point instead of every entity. See SpatialHashSystem for the shared indexes.
+ */
+public class SpatialHash {
+    
+    private final float cellSize;
+    private final float invCellSize;
+    
+    private final LongMap<Array<Entity>> cells = new LongMap<>();
+    private final Pool<Array<Entity>> cellPool = new Pool<Array<Entity>>() {
+        @Override
+        protected Array<Entity> newObject() {
+            return new Array<>(false, 8);
+        }
+    };
+    private int minCellX, minCellY, maxCellX, maxCellY;
+    private int size;
+    
+    //nearest-k working set, sorted by distance
+    private final FloatArray nearestDist2 = new FloatArray();
+    private final Array<Entity> nearest = new Array<>();
+    private final Array<Entity> single = new Array<>(1);
+    
+    public SpatialHash(float cellSize) {
+        this.cellSize = cellSize;
+        this.invCellSize = 1 / cellSize;
+    }
+    
+    public void rebuild(ImmutableArray<Entity> entities) {
+        clear();
+        for (Entity entity : entities) {
+            insert(entity);
+        }
+        
+        //drop cells left empty by entities that moved on
+        LongMap.Values<Array<Entity>> values = cells.values();
+        while (values.hasNext()) {
+            Array<Entity> cell = values.next();
+            if (cell.isEmpty()) {
+                values.remove();
+                cellPool.free(cell);
+            }
+        }
+    }
+    
+    private void clear() {
+        for (Array<Entity> cell : cells.values()) {
+            cell.clear();
+        }
+        minCellX = minCellY = Integer.MAX_VALUE;
+        maxCellX = maxCellY = Integer.MIN_VALUE;
+        size = 0;
+    }
+    
+    private void insert(Entity entity) {
+        Vector2 pos = Mappers.transform.get(entity).pos;
+        int cellX = cellCoord(pos.x);
+        int cellY = cellCoord(pos.y);
+        
+        long key = cellKey(cellX, cellY);
+        Array<Entity> cell = cells.get(key);
+        if (cell == null) {
+            cell = cellPool.obtain();
+            cells.put(key, cell);
+        }
+        cell.add(entity);
+        size++;
+        
+        minCellX = Math.min(minCellX, cellX);
+        minCellY = Math.min(minCellY, cellY);
+        maxCellX = Math.max(maxCellX, cellX);
+        maxCellY = Math.max(maxCellY, cellY);
+    }
+    
+    /** @return closest entity within maxRadius, or null if none */
+    public Entity nearest(float x, float y, float maxRadius) {
+        single.clear();
+        nearest(x, y, 1, maxRadius, single);
+        return single.isEmpty() ? null : single.first();
+    }
+    
+    /**
+     * Find the k closest entities within maxRadius.
+     * @param out filled with up to k entities, closest first. cleared before use.
+     * @return number of entities found
+     */
+    public int nearest(float x, float y, int k, float maxRadius, Array<Entity> out) {
+        out.clear();
+        nearestDist2.clear();
+        nearest.clear();
+        if (size == 0 || k <= 0) return 0;
+        
+        float maxRadius2 = maxRadius * maxRadius;
+        int cellX = cellCoord(x);
+        int cellY = cellCoord(y);
+        int maxRing = ringLimit(cellX, cellY, maxRadius);
+        
+        int lookups = 0;
+        boolean done = false;
+        for (int ring = 0; ring <= maxRing && !done; ring++) {
+            //sparse grids (few occupied cells spread far apart) are faster to scan directly than ring by ring
+            lookups += ring == 0 ? 1 : ring * 8;
+            if (lookups > cells.size) {
+                nearestDist2.clear();
+                nearest.clear();
+                for (Array<Entity> cell : cells.values()) {
+                    collectNearest(cell, x, y, k, maxRadius2);
+                }
+                break;
+            }
+            
+            //visit only the cells on the border of this ring
+            for (int i = -ring; i <= ring; i++) {
+                collectNearest(cells.get(cellKey(cellX + i, cellY - ring)), x, y, k, maxRadius2);
+                if (ring > 0) {
+                    collectNearest(cells.get(cellKey(cellX + i, cellY + ring)), x, y, k, maxRadius2);
+                }
+            }
+            for (int j = -ring + 1; j <= ring - 1; j++) {
+                collectNearest(cells.get(cellKey(cellX - ring, cellY + j)), x, y, k, maxRadius2);
+                collectNearest(cells.get(cellKey(cellX + ring, cellY + j)), x, y, k, maxRadius2);
+            }
+            
+            //anything in the next ring is at least ring * cellSize away
+            float ringDist = ring * cellSize;
+            done = nearest.size == k && nearestDist2.peek() <= ringDist * ringDist;
+        }
+        
+        out.addAll(nearest);
+        return out.size;
+    }
+    
+    private void collectNearest(Array<Entity> cell, float x, float y, int k, float maxRadius2) {
+        if (cell == null) return;
+        
+        for (Entity entity : cell) {
+            Vector2 pos = Mappers.transform.get(entity).pos;
+            float dist2 = Vector2.dst2(x, y, pos.x, pos.y);
+            if (dist2 > maxRadius2) continue;
+            if (nearest.size == k && dist2 >= nearestDist2.peek()) continue;
+            
+            //insertion into sorted working set
+            int index = nearest.size;
+            while (index > 0 && nearestDist2.get(index - 1) > dist2) {
+                index--;
+            }
+            nearestDist2.insert(index, dist2);
+            nearest.insert(index, entity);
+            if (nearest.size > k) {
+                nearestDist2.pop();
+                nearest.pop();
+            }
+        }
+    }
+    
+    /**
+     * Find all entities within radius.
+     * @param out entities are appended, not sorted by distance
+     */
+    public Array<Entity> within(float x, float y, float radius, Array<Entity> out) {
+        if (size == 0) return out;
+        
+        float radius2 = radius * radius;
+        int cellX = cellCoord(x);
+        int cellY = cellCoord(y);
+        int maxRing = ringLimit(cellX, cellY, radius);
+        
+        if (isCheaperToScanAll(maxRing)) {
+            for (Array<Entity> cell : cells.values()) {
+                collectWithin(cell, x, y, radius2, out);
+            }
+        } else {
+            for (int cy = cellY - maxRing; cy <= cellY + maxRing; cy++) {
+                for (int cx = cellX - maxRing; cx <= cellX + maxRing; cx++) {
+                    collectWithin(cells.get(cellKey(cx, cy)), x, y, radius2, out);
+                }
+            }
+        }
+        return out;
+    }
+    
+    private void collectWithin(Array<Entity> cell, float x, float y, float radius2, Array<Entity> out) {
+        if (cell == null) return;
+        
+        for (Entity entity : cell) {
+            Vector2 pos = Mappers.transform.get(entity).pos;
+            if (Vector2.dst2(x, y, pos.x, pos.y) <= radius2) {
+                out.add(entity);
+            }
+        }
+    }
+    
+    /** rings needed to cover radius, clamped to the rings that contain occupied cells */
+    private int ringLimit(int cellX, int cellY, float radius) {
+        int occupied = Math.max(
+                Math.max(Math.abs(cellX - minCellX), Math.abs(maxCellX - cellX)),
+                Math.max(Math.abs(cellY - minCellY), Math.abs(maxCellY - cellY)));
+        if (radius >= occupied * cellSize) {
+            return occupied;
+        }
+        return Math.min(occupied, (int) Math.ceil(radius * invCellSize));
+    }
+    
+    /** sparse grids (few occupied cells spread far apart) are faster to scan directly than cell by cell */
+    private boolean isCheaperToScanAll(int maxRing) {
+        long side = 2L * maxRing + 1;
+        return side * side > cells.size;
+    }
+    
+    private int cellCoord(float value) {
+        //not MathUtils.floor, it is only correct above -16384
+        return (int) Math.floor(value * invCellSize);
+    }
+    
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xffffffffL);
+    }
+    
+    public float getCellSize() {
+        return cellSize;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int cellCount() {
+        return cells.size;
+    }
+    
+}
@@ -4,8 +4,18 @@ import com.badlogic.gdx.math.Vector2;
 
 public class Steering {
    
-   public Vector2 linearVelocity;
+   //blended acceleration from steering behaviors
+   public final Vector2 linearVelocity = new Vector2();
    
    public float angularVelocity;
    
+   //apply as force directly to the body every frame, instead of steering through ship controls
+   public boolean applyForce;
+   
+   public void clear() {
+      linearVelocity.setZero();
+      angularVelocity = 0;
+      applyForce = false;
+   }
+   
 }
@@ -9,6 +9,7 @@ import com.badlogic.gdx.controllers.ControllerListener;
 import com.badlogic.gdx.controllers.Controllers;
 import com.badlogic.gdx.utils.Disposable;
 import com.spaceproject.SpaceProject;
+import com.spaceproject.config.RenderPassConfig;
 import com.spaceproject.config.SysCFG;
 import com.spaceproject.config.SystemsConfig;
 import com.spaceproject.screens.GameScreen;
@@ -29,6 +30,10 @@ public abstract class SystemLoader {
             loadUnloadSystems(game, engine, inSpace, sysCFG);
         }
         
+        //assemble render passes from the loaded render systems
+        RenderPassConfig passCFG = SpaceProject.configManager.getConfig(RenderPassConfig.class);
+        GameScreen.getFrameGraph().build(engine, passCFG, cfg);
+        
         long now = System.currentTimeMillis();
         Gdx.app.log(logSource,  "Systems: [" + engine.getSystems().size() + "] load time: " + (now - time) + " ms");
     }
@@ -109,6 +114,7 @@ public abstract class SystemLoader {
     }
     
     public static void unLoadAll(Engine engine) {
+        GameScreen.getFrameGraph().clear();
         for (EntitySystem system : engine.getSystems()) {
             unLoad(engine, system);
         }
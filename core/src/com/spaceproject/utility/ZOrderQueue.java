@@ -0,0 +1,74 @@
+package com.spaceproject.utility;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Comparator;
+
+/**
+ * Render queue bucketed by TransformComponent.zOrder.
+ * zOrder is a byte, so entities are placed into one of 256 buckets instead of comparator sorting the whole queue.
+ * Stable: entities with equal zOrder keep the order they were added in. Higher zOrder is drawn first (further back).
+ */
+public class ZOrderQueue {
+    
+    private static final int BUCKETS = 256;
+    
+    private final Array<Array<Entity>> buckets = new Array<>(BUCKETS);
+    private final Array<Entity> ordered = new Array<>();
+    private int minBucket = BUCKETS, maxBucket = -1;
+    
+    public ZOrderQueue() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.add(null);
+        }
+    }
+    
+    public void add(Entity entity) {
+        int bucketIndex = Mappers.transform.get(entity).zOrder + 128;
+        Array<Entity> bucket = buckets.get(bucketIndex);
+        if (bucket == null) {
+            bucket = new Array<>(16);
+            buckets.set(bucketIndex, bucket);
+        }
+        bucket.add(entity);
+        minBucket = Math.min(minBucket, bucketIndex);
+        maxBucket = Math.max(maxBucket, bucketIndex);
+    }
+    
+    /** @return entities in draw order. valid until next clear() */
+    public Array<Entity> getOrdered() {
+        return getOrdered(null);
+    }
+    
+    /**
+     * @param comparator optional, sorts entities within the same zOrder (eg: by texture to reduce batch flushes)
+     * @return entities in draw order. valid until next clear()
+     */
+    public Array<Entity> getOrdered(Comparator<Entity> comparator) {
+        ordered.clear();
+        for (int i = maxBucket; i >= minBucket; i--) {
+            Array<Entity> bucket = buckets.get(i);
+            if (bucket != null) {
+                if (comparator != null) {
+                    bucket.sort(comparator);
+                }
+                ordered.addAll(bucket);
+            }
+        }
+        return ordered;
+    }
+    
+    public void clear() {
+        for (int i = minBucket; i <= maxBucket; i++) {
+            Array<Entity> bucket = buckets.get(i);
+            if (bucket != null) {
+                bucket.clear();
+            }
+        }
+        ordered.clear();
+        minBucket = BUCKETS;
+        maxBucket = -1;
+    }
+    
+}
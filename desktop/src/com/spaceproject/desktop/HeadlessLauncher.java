@@ -0,0 +1,22 @@
+package com.spaceproject.desktop;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.spaceproject.simulation.ReplayRunner;
+
+public class HeadlessLauncher {
+    
+    public static void main(String[] arg) {
+        if (arg.length < 1) {
+            System.out.println("usage: HeadlessLauncher <recording.rec> [timings.csv]");
+            return;
+        }
+        String timings = arg.length > 1 ? arg[1] : arg[0] + ".csv";
+        
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = 0;//no frame limit, replay steps as fast as possible
+        
+        new HeadlessApplication(new ReplayRunner(arg[0], timings), config);
+    }
+    
+}
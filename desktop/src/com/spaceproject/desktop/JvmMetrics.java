@@ -0,0 +1,77 @@
+package com.spaceproject.desktop;
+
+import com.spaceproject.simulation.RuntimeMetrics;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * RuntimeMetrics from the HotSpot management beans.
+ * Allocation is per thread (the game loop), the longest collection is taken from GC notifications.
+ * Durations cover whole collections, including concurrent cycles (G1, ZGC, Shenandoah), so they are GC time, not pauses.
+ */
+public class JvmMetrics implements RuntimeMetrics, NotificationListener {
+    
+    private final com.sun.management.ThreadMXBean threads;
+    private final List<GarbageCollectorMXBean> collectors;
+    private volatile long maxGcMillis;
+    
+    public JvmMetrics() {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        for (GarbageCollectorMXBean collector : collectors) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener(this, null, null);
+            }
+        }
+    }
+    
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+        
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        long duration = info.getGcInfo().getDuration();
+        if (duration > maxGcMillis) {
+            maxGcMillis = duration;
+        }
+    }
+    
+    @Override
+    public long getAllocatedBytes() {
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    
+    @Override
+    public long getGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+    
+    @Override
+    public long getGcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+    
+    @Override
+    public long getGcMaxMillis() {
+        return maxGcMillis;
+    }
+    
+}
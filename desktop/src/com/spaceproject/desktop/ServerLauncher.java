@@ -0,0 +1,26 @@
+package com.spaceproject.desktop;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.spaceproject.network.ServerRunner;
+
+public class ServerLauncher {
+    
+    public static void main(String[] arg) {
+        if (arg.length < 2) {
+            System.out.println("usage: ServerLauncher <seed> <port> [loopback] [aiShips] [asteroids]");
+            return;
+        }
+        long seed = Long.parseLong(arg[0]);
+        int port = Integer.parseInt(arg[1]);
+        boolean loopback = arg.length > 2 && Boolean.parseBoolean(arg[2]);
+        int aiShips = arg.length > 3 ? Integer.parseInt(arg[3]) : 0;
+        int asteroids = arg.length > 4 ? Integer.parseInt(arg[4]) : 0;
+        
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = 60;//one tick per frame in real time, match EngineConfig.physicsStepPerFrame
+        
+        new HeadlessApplication(new ServerRunner(seed, port, loopback, aiShips, asteroids), config);
+    }
+    
+}
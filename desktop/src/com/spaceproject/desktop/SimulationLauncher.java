@@ -0,0 +1,25 @@
+package com.spaceproject.desktop;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.spaceproject.simulation.SimulationHarness;
+
+public class SimulationLauncher {
+    
+    public static void main(String[] arg) {
+        if (arg.length < 2) {
+            System.out.println("usage: SimulationLauncher <seed> <minutes> [aiShips] [asteroids]");
+            return;
+        }
+        long seed = Long.parseLong(arg[0]);
+        float minutes = Float.parseFloat(arg[1]);
+        int aiShips = arg.length > 2 ? Integer.parseInt(arg[2]) : 0;
+        int asteroids = arg.length > 3 ? Integer.parseInt(arg[3]) : 0;
+        
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = 0;//no frame limit, simulate as fast as possible
+        
+        new HeadlessApplication(new SimulationHarness(seed, minutes, aiShips, asteroids, new JvmMetrics()), config);
+    }
+    
+}